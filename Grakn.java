@@ -24,6 +24,7 @@ import grakn.core.concept.ConceptManager;
 import grakn.core.logic.LogicManager;
 import grakn.core.query.QueryManager;
 
+import java.nio.file.Path;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -58,6 +59,11 @@ public interface Grakn extends AutoCloseable {
         Database get(String name);
 
         Set<? extends Database> all();
+
+        /**
+         * Creates a database with the given name from a backup taken by {@link Database#backup(Path)}.
+         */
+        Database restore(String name, Path backup);
     }
 
     /**
@@ -75,6 +81,12 @@ public interface Grakn extends AutoCloseable {
 
         Stream<Session> sessions();
 
+        /**
+         * Takes a consistent snapshot of the database into the given directory, which must not exist,
+         * without blocking the transactions writing data to it.
+         */
+        void backup(Path directory);
+
         void delete();
     }
 
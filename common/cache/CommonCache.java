@@ -20,6 +20,8 @@ package grakn.core.common.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -50,6 +52,17 @@ public class CommonCache<KEY, VALUE> {
 
     public VALUE getIfPresent(KEY key) { return cache.getIfPresent(key); }
 
+    /**
+     * Returns a view of this cache as a concurrent map, whose entries are still bounded and evicted by the cache.
+     */
+    public ConcurrentMap<KEY, VALUE> asMap() {
+        return cache.asMap();
+    }
+
+    public void forEach(BiConsumer<KEY, VALUE> consumer) {
+        cache.asMap().forEach(consumer);
+    }
+
     public void clear() {
         cache.invalidateAll();
     }
@@ -68,6 +68,71 @@ public class Bytes {
         return true;
     }
 
+    /**
+     * Checks whether the remaining bytes of a buffer start with the given prefix,
+     * without copying the buffer or moving its position.
+     */
+    public static boolean bytesHavePrefix(ByteBuffer bytes, byte[] prefix) {
+        if (bytes.remaining() < prefix.length) return false;
+        final int position = bytes.position();
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes.get(position + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compare two byte arrays in the same (unsigned, lexicographical) order as
+     * the default bytewise comparator used by the storage.
+     *
+     * @param first  the first byte array to compare
+     * @param second the second byte array to compare
+     * @return a negative integer, zero, or a positive integer as the first
+     * byte array is less than, equal to, or greater than the second
+     */
+    public static int compareBytes(byte[] first, byte[] second) {
+        final int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            final int cmp = (first[i] & 0xff) - (second[i] & 0xff);
+            if (cmp != 0) return cmp;
+        }
+        return first.length - second.length;
+    }
+
+    /**
+     * Compare the remaining bytes of a buffer with a byte array, in the same order
+     * as {@link #compareBytes(byte[], byte[])}, without copying the buffer or moving
+     * its position.
+     */
+    public static int compareBytes(ByteBuffer first, byte[] second) {
+        final int position = first.position();
+        final int length = Math.min(first.remaining(), second.length);
+        for (int i = 0; i < length; i++) {
+            final int cmp = (first.get(position + i) & 0xff) - (second[i] & 0xff);
+            if (cmp != 0) return cmp;
+        }
+        return first.remaining() - second.length;
+    }
+
+    /**
+     * Returns the smallest byte array that is greater than every byte array
+     * that starts with the given prefix, or {@code null} if there is none
+     * (i.e. when every byte of the prefix is {@code 0xff}).
+     *
+     * @param prefix the prefix to compute the exclusive upper bound for
+     * @return the exclusive upper bound of the given prefix
+     */
+    public static byte[] prefixUpperBound(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xff) {
+                final byte[] upperBound = copyOfRange(prefix, 0, i + 1);
+                upperBound[i] = (byte) (upperBound[i] + 1);
+                return upperBound;
+            }
+        }
+        return null;
+    }
+
     public static byte[] unsignedShortToBytes(int num) {
         final byte[] bytes = new byte[SHORT_SIZE];
         bytes[1] = (byte) (num);
@@ -77,7 +142,11 @@ public class Bytes {
 
     public static int unsignedBytesToShort(byte[] bytes) {
         assert bytes.length == SHORT_SIZE;
-        return ((bytes[0] << 8) & 0xff00) | (bytes[1] & 0xff);
+        return unsignedBytesToShort(bytes, 0);
+    }
+
+    public static int unsignedBytesToShort(byte[] bytes, int from) {
+        return ((bytes[from] << 8) & 0xff00) | (bytes[from + 1] & 0xff);
     }
 
     public static byte[] shortToSortedBytes(int num) {
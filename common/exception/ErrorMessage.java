@@ -117,6 +117,16 @@ public abstract class ErrorMessage extends grakn.common.exception.ErrorMessage {
                 new Database(3, "Database with the name '%s' has been deleted.");
         public static final Database DATABASE_CLOSED =
                 new Database(4, "Attempted to open a new session from the database '%s' that has been closed.");
+        public static final Database BACKUP_DIRECTORY_EXISTS =
+                new Database(5, "The backup directory '%s' already exists.");
+        public static final Database BACKUP_NOT_FOUND =
+                new Database(6, "The directory '%s' does not contain a backup of a database.");
+        public static final Database BULK_LOAD_NOT_EXCLUSIVE =
+                new Database(7, "A bulk load session can only be opened on the database '%s' while it has no other open sessions.");
+        public static final Database BULK_LOAD_IN_PROGRESS =
+                new Database(8, "The database '%s' is being bulk loaded, so no other session can be opened until it completes.");
+        public static final Database BULK_LOAD_FAILED =
+                new Database(9, "The database '%s' failed to commit a bulk load, and may only contain part of it.");
 
         private static final String codePrefix = "DBS";
         private static final String messagePrefix = "Invalid Database Operations";
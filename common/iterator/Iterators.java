@@ -21,6 +21,7 @@ package grakn.core.common.iterator;
 import grakn.common.collection.Either;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -74,6 +75,11 @@ public class Iterators {
         return new LinkedIterators<>(converted);
     }
 
+    public static <T> MergedIterators<T> merge(List<? extends ResourceIterator<T>> iterators,
+                                               Comparator<? super T> comparator) {
+        return new MergedIterators<>(iterators, comparator);
+    }
+
     public static <T> LoopIterator<T> loop(T seed, Predicate<T> predicate, UnaryOperator<T> function) {
         return new LoopIterator<>(seed, predicate, function);
     }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.common.iterator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges iterators that are each in the order of a comparator into a single
+ * iterator in that order, by only ever holding the next element of each.
+ */
+public class MergedIterators<T> implements ResourceIterator<T> {
+
+    private final List<ResourceIterator<T>> iterators;
+    private final PriorityQueue<Head> heads;
+    private boolean isInitialised;
+
+    MergedIterators(List<? extends ResourceIterator<T>> iterators, Comparator<? super T> comparator) {
+        this.iterators = new ArrayList<>(iterators);
+        this.heads = new PriorityQueue<>(Math.max(1, iterators.size()), (h1, h2) -> comparator.compare(h1.next, h2.next));
+        this.isInitialised = false;
+    }
+
+    private class Head {
+
+        private final ResourceIterator<T> iterator;
+        private final T next;
+
+        private Head(ResourceIterator<T> iterator, T next) {
+            this.iterator = iterator;
+            this.next = next;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isInitialised) {
+            iterators.forEach(this::offer);
+            isInitialised = true;
+        }
+        return !heads.isEmpty();
+    }
+
+    private void offer(ResourceIterator<T> iterator) {
+        if (iterator.hasNext()) heads.add(new Head(iterator, iterator.next()));
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        final Head head = heads.poll();
+        assert head != null;
+        offer(head.iterator);
+        return head.next;
+    }
+
+    @Override
+    public void recycle() {
+        iterators.forEach(ResourceIterator::recycle);
+    }
+}
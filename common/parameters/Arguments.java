@@ -73,4 +73,17 @@ public class Arguments {
             public boolean isWrite() { return isWrite; }
         }
     }
+
+    public static class Storage {
+
+        public enum CompactionStyle {
+            LEVEL,
+            UNIVERSAL
+        }
+
+        public enum StringEncoding {
+            LENGTH_PREFIXED,
+            ORDER_PRESERVING
+        }
+    }
 }
@@ -20,6 +20,8 @@ package grakn.core.common.parameters;
 import grakn.core.common.exception.GraknException;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_ARGUMENT;
+import static grakn.core.common.parameters.Arguments.Storage.CompactionStyle.LEVEL;
+import static grakn.core.common.parameters.Arguments.Storage.StringEncoding.LENGTH_PREFIXED;
 
 public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options<?, ?>> {
 
@@ -28,6 +30,8 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     public static final int DEFAULT_BATCH_SIZE = 50;
     public static final int DEFAULT_SESSION_IDLE_TIMEOUT_MILLIS = 10_000;
     public static final int DEFAULT_SCHEMA_LOCK_ACQUIRE_TIMEOUT_MILLIS = 10_000;
+    public static final long DEFAULT_QUERY_MEMORY_BUDGET = 64L * 1024 * 1024;
+    public static final boolean DEFAULT_BULK_LOAD = false;
 
     private PARENT parent;
     private Boolean infer = null;
@@ -35,6 +39,8 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     private Integer batchSize = null;
     private Integer sessionIdlTimeoutMillis = null;
     private Integer schemaLockAcquireTimeoutMillis = null;
+    private Long queryMemoryBudget = null;
+    private Boolean bulkLoad = null;
 
     abstract SELF getThis();
 
@@ -99,8 +105,54 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    /**
+     * The estimated size of the answers that a query may hold in memory to sort or group them,
+     * beyond which they are spilled to temporary files on disk.
+     */
+    public long queryMemoryBudget() {
+        if (queryMemoryBudget != null) return queryMemoryBudget;
+        else if (parent != null) return parent.queryMemoryBudget();
+        else return DEFAULT_QUERY_MEMORY_BUDGET;
+    }
+
+    public SELF queryMemoryBudget(long bytes) {
+        this.queryMemoryBudget = bytes;
+        return getThis();
+    }
+
+    /**
+     * Whether data transactions write straight into sorted files that are ingested into storage on commit,
+     * rather than through conflict-checked writes. This is only safe for loading new data into a database
+     * that has no other writers at the same time, so a bulk load session can only be opened while the
+     * database has no other open sessions, and excludes any other session until it is closed.
+     */
+    public boolean bulkLoad() {
+        if (bulkLoad != null) return bulkLoad;
+        else if (parent != null) return parent.bulkLoad();
+        else return DEFAULT_BULK_LOAD;
+    }
+
+    public SELF bulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+        return getThis();
+    }
+
     public static class Database extends Options<Options<?, ?>, Database> {
 
+        public static final long DEFAULT_STORAGE_DATA_CACHE_SIZE = 500L * 1024 * 1024;
+        public static final long DEFAULT_STORAGE_SCHEMA_CACHE_SIZE = 50L * 1024 * 1024;
+        public static final int DEFAULT_STORAGE_BLOOM_FILTER_BITS_PER_KEY = 10;
+        public static final Arguments.Storage.CompactionStyle DEFAULT_STORAGE_DATA_COMPACTION_STYLE = LEVEL;
+        public static final int DEFAULT_STORAGE_MAX_BACKGROUND_JOBS = Runtime.getRuntime().availableProcessors();
+        public static final Arguments.Storage.StringEncoding DEFAULT_STORAGE_STRING_ENCODING = LENGTH_PREFIXED;
+
+        private long storageDataCacheSize = DEFAULT_STORAGE_DATA_CACHE_SIZE;
+        private long storageSchemaCacheSize = DEFAULT_STORAGE_SCHEMA_CACHE_SIZE;
+        private int storageBloomFilterBitsPerKey = DEFAULT_STORAGE_BLOOM_FILTER_BITS_PER_KEY;
+        private Arguments.Storage.CompactionStyle storageDataCompactionStyle = DEFAULT_STORAGE_DATA_COMPACTION_STYLE;
+        private int storageMaxBackgroundJobs = DEFAULT_STORAGE_MAX_BACKGROUND_JOBS;
+        private Arguments.Storage.StringEncoding storageStringEncoding = DEFAULT_STORAGE_STRING_ENCODING;
+
         @Override
         Database getThis() {
             return this;
@@ -109,6 +161,64 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         public Database parent(Options<?, ?> parent) {
             throw GraknException.of(ILLEGAL_ARGUMENT);
         }
+
+        public long storageDataCacheSize() {
+            return storageDataCacheSize;
+        }
+
+        public Database storageDataCacheSize(long bytes) {
+            this.storageDataCacheSize = bytes;
+            return this;
+        }
+
+        public long storageSchemaCacheSize() {
+            return storageSchemaCacheSize;
+        }
+
+        public Database storageSchemaCacheSize(long bytes) {
+            this.storageSchemaCacheSize = bytes;
+            return this;
+        }
+
+        public int storageBloomFilterBitsPerKey() {
+            return storageBloomFilterBitsPerKey;
+        }
+
+        public Database storageBloomFilterBitsPerKey(int bitsPerKey) {
+            this.storageBloomFilterBitsPerKey = bitsPerKey;
+            return this;
+        }
+
+        public Arguments.Storage.CompactionStyle storageDataCompactionStyle() {
+            return storageDataCompactionStyle;
+        }
+
+        public Database storageDataCompactionStyle(Arguments.Storage.CompactionStyle compactionStyle) {
+            this.storageDataCompactionStyle = compactionStyle;
+            return this;
+        }
+
+        public int storageMaxBackgroundJobs() {
+            return storageMaxBackgroundJobs;
+        }
+
+        public Database storageMaxBackgroundJobs(int maxBackgroundJobs) {
+            this.storageMaxBackgroundJobs = maxBackgroundJobs;
+            return this;
+        }
+
+        /**
+         * The encoding of string attributes in the databases that are created with these options.
+         * Existing databases keep the encoding with which they were created.
+         */
+        public Arguments.Storage.StringEncoding storageStringEncoding() {
+            return storageStringEncoding;
+        }
+
+        public Database storageStringEncoding(Arguments.Storage.StringEncoding stringEncoding) {
+            this.storageStringEncoding = stringEncoding;
+            return this;
+        }
     }
 
     public static class Session extends Options<Database, Session> {
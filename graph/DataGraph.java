@@ -19,11 +19,13 @@
 package grakn.core.graph;
 
 import grakn.common.collection.Pair;
+import grakn.core.common.cache.CommonCache;
 import grakn.core.common.exception.GraknCheckedException;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
 import grakn.core.graph.iid.EdgeIID;
+import grakn.core.graph.iid.IID;
 import grakn.core.graph.iid.PrefixIID;
 import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
@@ -37,62 +39,130 @@ import grakn.core.graph.vertex.Vertex;
 import grakn.core.graph.vertex.impl.AttributeVertexImpl;
 import grakn.core.graph.vertex.impl.ThingVertexImpl;
 
+import javax.annotation.Nullable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.pair;
+import static grakn.common.collection.Collections.set;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.compareBytes;
+import static grakn.core.common.collection.Bytes.LONG_SIZE;
+import static grakn.core.common.collection.Bytes.SHORT_SIZE;
 import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.prefixUpperBound;
+import static grakn.core.common.collection.Bytes.stringToBytes;
 import static grakn.core.common.collection.Bytes.stripPrefix;
+import static grakn.core.common.collection.Bytes.unsignedBytesToShort;
+import static grakn.core.common.collection.Bytes.unsignedShortToBytes;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
+import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.ILLEGAL_STRING_SIZE;
+import static grakn.core.common.iterator.Iterators.empty;
+import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
+import static grakn.core.common.iterator.Iterators.merge;
 import static grakn.core.common.iterator.Iterators.tree;
+import static grakn.core.graph.iid.VertexIID.Attribute.String.MAX_DISAMBIGUATOR;
 import static grakn.core.graph.iid.VertexIID.Thing.generate;
 import static grakn.core.graph.util.Encoding.Edge.Type.SUB;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_HAS_IN;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_HAS_OUT;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_PLAYING_OUT;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_RELATING_OUT;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ATTRIBUTE_TYPE;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY_TYPE;
 import static grakn.core.graph.util.Encoding.Prefix.VERTEX_RELATION_TYPE;
 import static grakn.core.graph.util.Encoding.Statistics.JobOperation.CREATED;
 import static grakn.core.graph.util.Encoding.Statistics.JobOperation.DELETED;
+import static grakn.core.graph.util.Encoding.ENCODING_VERSION_HASHED_STRINGS;
+import static grakn.core.graph.util.Encoding.ENCODING_VERSION_LEGACY;
+import static grakn.core.graph.util.Encoding.ENCODING_VERSION_SORTED_STRINGS;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_ENCODING;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_INLINE_MAX_SIZE;
 import static grakn.core.graph.util.Encoding.ValueType.STRING_MAX_SIZE;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_SIZE_ENCODING;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_SORTED_KEY;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.ATTRIBUTE;
 import static grakn.core.graph.util.StatisticsBytes.attributeCountJobKey;
+import static grakn.core.graph.util.StatisticsBytes.attributeCountJobPrefix;
 import static grakn.core.graph.util.StatisticsBytes.attributeCountedKey;
+import static grakn.core.graph.util.StatisticsBytes.degreeBucketCountKey;
+import static grakn.core.graph.util.StatisticsBytes.degreeBucketCountPrefix;
+import static grakn.core.graph.util.StatisticsBytes.degreeCountJobKey;
+import static grakn.core.graph.util.StatisticsBytes.degreeCountJobPrefix;
+import static grakn.core.graph.util.StatisticsBytes.degreeCountedKey;
 import static grakn.core.graph.util.StatisticsBytes.hasEdgeCountJobKey;
+import static grakn.core.graph.util.StatisticsBytes.hasEdgeCountJobPrefix;
 import static grakn.core.graph.util.StatisticsBytes.hasEdgeCountKey;
 import static grakn.core.graph.util.StatisticsBytes.hasEdgeTotalCountKey;
+import static grakn.core.graph.util.StatisticsBytes.playingEdgeCountKey;
+import static grakn.core.graph.util.StatisticsBytes.relatingEdgeCountKey;
 import static grakn.core.graph.util.StatisticsBytes.snapshotKey;
+import static grakn.core.graph.util.StatisticsBytes.valueHistogramKey;
 import static grakn.core.graph.util.StatisticsBytes.vertexCountKey;
 import static grakn.core.graph.util.StatisticsBytes.vertexTransitiveCountKey;
+import static java.util.Arrays.copyOfRange;
 import static java.util.stream.Stream.concat;
 
+/**
+ * The graph of the things of a transaction, which holds the vertices it has buffered, modified or
+ * read, so that a vertex is represented by the same object every time it is looked up.
+ *
+ * In a read transaction, the vertices that are read from storage are only held in a bounded cache,
+ * rather than for the life of the transaction, so that long reads do not grow without bound. Only the
+ * vertices that hold writes that are not in storage (i.e. inferred vertices and edges) are pinned.
+ * A persisted vertex may then be represented by a new object once it is evicted, which is safe as
+ * persisted vertices are equal by their IIDs, and only cache what is in storage.
+ */
 public class DataGraph implements Graph {
 
+    private static final int PERSISTED_VERTICES_CACHE_SIZE = 100_000;
+    private static final int PERSISTED_VERTICES_CACHE_TIMEOUT_MINUTES = 1_440;
+
     private final Storage.Data storage;
     private final SchemaGraph schemaGraph;
+    private final GraphManager graphMgr;
     private final KeyGenerator.Data.Buffered keyGenerator;
     private final ConcurrentMap<VertexIID.Thing, ThingVertex> thingsByIID;
+    private final ConcurrentMap<VertexIID.Thing, ThingVertex> persistedThingsByIID;
     private final ConcurrentMap<VertexIID.Type, Set<ThingVertex>> thingsByTypeIID;
     private final AttributesByIID attributesByIID;
+    private final AttributesByIID persistedAttributesByIID;
+    private final ExistenceCache existence;
     private final Statistics statistics;
     private boolean isModified;
 
-    public DataGraph(Storage.Data storage, SchemaGraph schemaGraph) {
+    public DataGraph(Storage.Data storage, SchemaGraph schemaGraph, boolean isReadOnly) {
         this.storage = storage;
         this.schemaGraph = schemaGraph;
+        graphMgr = new GraphManager(schemaGraph, this);
         keyGenerator = new KeyGenerator.Data.Buffered();
         thingsByIID = new ConcurrentHashMap<>();
         thingsByTypeIID = new ConcurrentHashMap<>();
         attributesByIID = new AttributesByIID();
+        if (isReadOnly) {
+            persistedThingsByIID = bounded();
+            persistedAttributesByIID = new AttributesByIID(true);
+        } else {
+            persistedThingsByIID = thingsByIID;
+            persistedAttributesByIID = attributesByIID;
+        }
+        existence = new ExistenceCache(storage);
         statistics = new Statistics(schemaGraph, storage);
     }
 
@@ -105,10 +175,21 @@ public class DataGraph implements Graph {
         return schemaGraph;
     }
 
+    /**
+     * Returns the graphs of this transaction, which are shared by all of its vertices.
+     */
+    public GraphManager graphs() {
+        return graphMgr;
+    }
+
     public DataGraph.Statistics stats() {
         return statistics;
     }
 
+    public DataGraph.ExistenceCache existence() {
+        return existence;
+    }
+
     public Stream<ThingVertex> vertices() {
         return concat(thingsByIID.values().stream(), attributesByIID.valueStream());
     }
@@ -116,12 +197,12 @@ public class DataGraph implements Graph {
     public ThingVertex get(VertexIID.Thing iid) {
         assert storage.isOpen();
         if (iid.encoding().equals(ATTRIBUTE)) return get(iid.asAttribute());
-        else if (!thingsByIID.containsKey(iid) && storage.get(iid.bytes()) == null) return null;
+        else if (!thingsByIID.containsKey(iid) && !existence.isStored(iid)) return null;
         return convert(iid);
     }
 
     public AttributeVertex<?> get(VertexIID.Attribute<?> iid) {
-        if (!attributesByIID.forValueType(iid.valueType()).containsKey(iid) && storage.get(iid.bytes()) == null) {
+        if (!attributesByIID.forValueType(iid.valueType()).containsKey(iid) && !existence.isStored(iid)) {
             return null;
         }
         return convert(iid);
@@ -132,37 +213,71 @@ public class DataGraph implements Graph {
         // assert storage.isOpen();
         // enable the the line above
         if (iid.encoding().equals(ATTRIBUTE)) return convert(iid.asAttribute());
-        else return thingsByIID.computeIfAbsent(iid, i -> ThingVertexImpl.of(this, i));
+        else return convert(thingsByIID, persistedThingsByIID, iid, i -> ThingVertexImpl.of(this, i));
     }
 
     public AttributeVertex<?> convert(VertexIID.Attribute<?> attIID) {
         switch (attIID.valueType()) {
             case BOOLEAN:
-                return attributesByIID.booleans.computeIfAbsent(
-                        attIID.asBoolean(), iid1 -> new AttributeVertexImpl.Boolean(this, iid1)
-                );
+                return convert(attributesByIID.booleans, persistedAttributesByIID.booleans,
+                               attIID.asBoolean(), iid1 -> new AttributeVertexImpl.Boolean(this, iid1));
             case LONG:
-                return attributesByIID.longs.computeIfAbsent(
-                        attIID.asLong(), iid1 -> new AttributeVertexImpl.Long(this, iid1)
-                );
+                return convert(attributesByIID.longs, persistedAttributesByIID.longs,
+                               attIID.asLong(), iid1 -> new AttributeVertexImpl.Long(this, iid1));
             case DOUBLE:
-                return attributesByIID.doubles.computeIfAbsent(
-                        attIID.asDouble(), iid1 -> new AttributeVertexImpl.Double(this, iid1)
-                );
+                return convert(attributesByIID.doubles, persistedAttributesByIID.doubles,
+                               attIID.asDouble(), iid1 -> new AttributeVertexImpl.Double(this, iid1));
             case STRING:
-                return attributesByIID.strings.computeIfAbsent(
-                        attIID.asString(), iid1 -> new AttributeVertexImpl.String(this, iid1)
-                );
+                return convert(attributesByIID.strings, persistedAttributesByIID.strings,
+                               attIID.asString(), iid1 -> new AttributeVertexImpl.String(this, iid1));
             case DATETIME:
-                return attributesByIID.dateTimes.computeIfAbsent(
-                        attIID.asDateTime(), iid1 -> new AttributeVertexImpl.DateTime(this, iid1)
-                );
+                return convert(attributesByIID.dateTimes, persistedAttributesByIID.dateTimes,
+                               attIID.asDateTime(), iid1 -> new AttributeVertexImpl.DateTime(this, iid1));
             default:
                 assert false;
                 return null;
         }
     }
 
+    private <IID_TYPE, VERTEX> VERTEX convert(Map<IID_TYPE, VERTEX> pinned, Map<IID_TYPE, VERTEX> persisted,
+                                              IID_TYPE iid, Function<IID_TYPE, VERTEX> vertexConstructor) {
+        final VERTEX vertex = pinned.get(iid);
+        if (vertex != null) return vertex;
+        // vertices are pinned under the lock of their key in the persisted vertices, so it is checked again here
+        final VERTEX read = persisted.computeIfAbsent(
+                iid, i -> pinned.containsKey(i) ? null : vertexConstructor.apply(i)
+        );
+        return read != null ? read : pinned.get(iid);
+    }
+
+    /**
+     * Keeps the given vertex in this graph until the end of the transaction, as it holds edges
+     * that are not in storage. Every vertex is already kept by the graph of a write transaction.
+     *
+     * If another object of the same vertex was pinned before, e.g. as the given one was evicted and
+     * read again, that object is kept instead, and returned so that the edges are put on it.
+     *
+     * @return the object that is kept for the given vertex
+     */
+    public ThingVertex pin(ThingVertex vertex) {
+        if (vertex.isAttribute()) {
+            return attributesByIID.pin(persistedAttributesByIID, vertex.asAttribute());
+        } else {
+            return AttributesByIID.pin(thingsByIID, persistedThingsByIID, vertex.iid(), vertex);
+        }
+    }
+
+    private void pinIfPresent(VertexIID.Attribute<?> attIID) {
+        final AttributeVertex<?> vertex = persistedAttributesByIID.forValueType(attIID.valueType()).get(attIID);
+        if (vertex != null) attributesByIID.pin(persistedAttributesByIID, vertex);
+    }
+
+    private static <KEY, VALUE> ConcurrentMap<KEY, VALUE> bounded() {
+        return new CommonCache<KEY, VALUE>(
+                PERSISTED_VERTICES_CACHE_SIZE, PERSISTED_VERTICES_CACHE_TIMEOUT_MINUTES
+        ).asMap();
+    }
+
     public ThingVertex create(TypeVertex typeVertex, boolean isInferred) {
         assert storage.isOpen();
         assert !typeVertex.isAttributeType();
@@ -175,10 +290,10 @@ public class DataGraph implements Graph {
     }
 
     private <VALUE, ATT_IID extends VertexIID.Attribute<VALUE>, ATT_VERTEX extends AttributeVertex<VALUE>>
-    ATT_VERTEX getOrReadFromStorage(Map<ATT_IID, ATT_VERTEX> map, ATT_IID attIID, Function<ATT_IID, ATT_VERTEX> vertexConstructor) {
-        return map.computeIfAbsent(attIID, iid -> {
-            final byte[] val = storage.get(iid.bytes());
-            if (val != null) return vertexConstructor.apply(iid);
+    ATT_VERTEX getOrReadFromStorage(Map<ATT_IID, ATT_VERTEX> pinned, Map<ATT_IID, ATT_VERTEX> persisted, ATT_IID attIID,
+                                    Function<ATT_IID, ATT_VERTEX> vertexConstructor) {
+        return convert(pinned, persisted, attIID, iid -> {
+            if (existence.isStored(iid)) return vertexConstructor.apply(iid);
             else return null;
         });
     }
@@ -192,13 +307,136 @@ public class DataGraph implements Graph {
         else return link(thingsByTypeIID.get(typeVertex.iid()).iterator(), storageIterator).distinct();
     }
 
+    /**
+     * Returns the {@code ThingVertex} instances of a given {@code TypeVertex}, split into
+     * (at most) the given number of iterators over consecutive ranges of storage, which
+     * can be consumed independently of each other. The instances buffered in this
+     * transaction are returned by the first iterator.
+     *
+     * @param typeVertex the type of the vertices to be returned
+     * @param partitions the maximum number of iterators to split the vertices into
+     * @return the iterators that together return every instance of the type
+     */
+    public List<ResourceIterator<ThingVertex>> get(TypeVertex typeVertex, int partitions) {
+        final byte[] prefix = join(typeVertex.iid().bytes(), Encoding.Edge.ISA.in().bytes());
+        final List<byte[]> bounds = storage.split(prefix, partitions);
+        final List<ResourceIterator<ThingVertex>> iterators = new ArrayList<>(bounds.size() - 1);
+        for (int i = 0; i < bounds.size() - 1; i++) {
+            iterators.add(storage.iterate(
+                    bounds.get(i), bounds.get(i + 1), key -> key.remaining(),
+                    (key, value) -> convert(EdgeIID.InwardsISA.of(key).end())
+            ));
+        }
+        if (thingsByTypeIID.containsKey(typeVertex.iid())) {
+            iterators.set(0, link(thingsByTypeIID.get(typeVertex.iid()).iterator(), iterators.get(0)).distinct());
+        }
+        return iterators;
+    }
+
+    /**
+     * Returns the {@code AttributeVertex} instances of a given {@code TypeVertex}
+     * whose values lie between the given bounds, by seeking to the lower bound
+     * in storage and scanning until the upper bound, rather than iterating over
+     * every instance of the type. The attribute type must have a value type that
+     * is sorted in this graph, and at least one of the bounds must be provided.
+     * The upper bound also includes the attributes whose IIDs extend it, so that
+     * the prefixes of IIDs may be used as bounds.
+     *
+     * @param type       the attribute type of the vertices to be returned
+     * @param lowerBound the inclusive lower bound of the values, or null if unbounded
+     * @param upperBound the inclusive upper bound of the values, or null if unbounded
+     * @return an iterator of the attribute vertices whose values are within the bounds
+     */
+    public ResourceIterator<AttributeVertex<?>> get(TypeVertex type, @Nullable VertexIID.Attribute<?> lowerBound,
+                                                   @Nullable VertexIID.Attribute<?> upperBound) {
+        assert lowerBound != null || upperBound != null;
+        return get(type, lowerBound, upperBound, false);
+    }
+
+    /**
+     * Returns the {@code AttributeVertex} instances of a given {@code TypeVertex}
+     * whose values lie between the given bounds, in the order of their values.
+     * Unlike the unordered scan, the instances buffered in this transaction are
+     * merged into the scan of storage, rather than returned ahead of it.
+     * The attribute type must have a value type that is sorted in this graph.
+     *
+     * @param type       the attribute type of the vertices to be returned
+     * @param lowerBound the inclusive lower bound of the values, or null if unbounded
+     * @param upperBound the inclusive upper bound of the values, or null if unbounded
+     * @return an iterator of the attribute vertices within the bounds, in the order of their values
+     */
+    public ResourceIterator<AttributeVertex<?>> getSorted(TypeVertex type, @Nullable VertexIID.Attribute<?> lowerBound,
+                                                         @Nullable VertexIID.Attribute<?> upperBound) {
+        return get(type, lowerBound, upperBound, true);
+    }
+
+    private ResourceIterator<AttributeVertex<?>> get(TypeVertex type, @Nullable VertexIID.Attribute<?> lowerBound,
+                                                    @Nullable VertexIID.Attribute<?> upperBound, boolean isSorted) {
+        assert storage.isOpen();
+        assert type.isAttributeType() && isSorted(type.valueType());
+
+        final byte[] prefix = sortedPrefix(type);
+        final byte[] lower = lowerBound != null ? lowerBound.bytes() : prefix;
+        final byte[] upper = prefixUpperBound(upperBound != null ? upperBound.bytes() : prefix);
+        assert upper != null;
+        if (compareBytes(lower, upper) >= 0) return empty();
+
+        final ResourceIterator<AttributeVertex<?>> storageIterator = storage.iterate(
+                lower, upper, VertexIID.Attribute::length, (key, value) -> convert(VertexIID.Attribute.of(key))
+        );
+        if (!thingsByTypeIID.containsKey(type.iid())) return storageIterator;
+
+        final ResourceIterator<AttributeVertex<?>> buffered = iterate(thingsByTypeIID.get(type.iid()))
+                .map(ThingVertex::asAttribute)
+                .filter(v -> compareBytes(lower, v.iid().bytes()) <= 0 && compareBytes(v.iid().bytes(), upper) < 0);
+        if (!isSorted) return link(buffered, storageIterator).distinct();
+
+        final Comparator<AttributeVertex<?>> iidOrder = (v1, v2) -> compareBytes(v1.iid().bytes(), v2.iid().bytes());
+        final List<AttributeVertex<?>> sortedBuffered = buffered.toList();
+        sortedBuffered.sort(iidOrder);
+        final List<ResourceIterator<AttributeVertex<?>>> iterators = list(iterate(sortedBuffered), storageIterator);
+        return merge(iterators, iidOrder).distinct();
+    }
+
+    /**
+     * Returns true if the attributes of the given value type are stored in the order of their values,
+     * which for strings depends on the encoding with which the database was created.
+     *
+     * @param valueType the value type of the attributes
+     * @return true if the attributes of the value type can be scanned in the order of their values
+     */
+    public boolean isSorted(Encoding.ValueType valueType) {
+        return isSorted(schemaGraph, valueType);
+    }
+
+    private static boolean isSorted(SchemaGraph schemaGraph, Encoding.ValueType valueType) {
+        if (valueType == Encoding.ValueType.STRING) {
+            return schemaGraph.encodingVersion() >= ENCODING_VERSION_SORTED_STRINGS;
+        } else {
+            return valueType.isSorted();
+        }
+    }
+
+    /**
+     * Returns the prefix of the IIDs of the attributes of the given type, up to and including the key of the value
+     * type with which they are stored in the order of their values. The value type must be sorted in this graph.
+     *
+     * @param type the attribute type of the attributes
+     * @return the prefix that every sorted IID of an attribute of the type starts with
+     */
+    public static byte[] sortedPrefix(TypeVertex type) {
+        final byte[] valueTypeKey = type.valueType() == Encoding.ValueType.STRING
+                ? new byte[]{STRING_SORTED_KEY} : type.valueType().bytes();
+        return join(ATTRIBUTE.prefix().bytes(), type.iid().bytes(), valueTypeKey);
+    }
+
     public AttributeVertex<Boolean> get(TypeVertex type, boolean value) {
         assert storage.isOpen();
         assert type.isAttributeType();
         assert type.valueType().valueClass().equals(Boolean.class);
 
         return getOrReadFromStorage(
-                attributesByIID.booleans,
+                attributesByIID.booleans, persistedAttributesByIID.booleans,
                 new VertexIID.Attribute.Boolean(type.iid(), value),
                 iid -> new AttributeVertexImpl.Boolean(this, iid)
         );
@@ -210,7 +448,7 @@ public class DataGraph implements Graph {
         assert type.valueType().valueClass().equals(Long.class);
 
         return getOrReadFromStorage(
-                attributesByIID.longs,
+                attributesByIID.longs, persistedAttributesByIID.longs,
                 new VertexIID.Attribute.Long(type.iid(), value),
                 iid -> new AttributeVertexImpl.Long(this, iid)
         );
@@ -222,7 +460,7 @@ public class DataGraph implements Graph {
         assert type.valueType().valueClass().equals(Double.class);
 
         return getOrReadFromStorage(
-                attributesByIID.doubles,
+                attributesByIID.doubles, persistedAttributesByIID.doubles,
                 new VertexIID.Attribute.Double(type.iid(), value),
                 iid -> new AttributeVertexImpl.Double(this, iid)
         );
@@ -235,25 +473,71 @@ public class DataGraph implements Graph {
 
         VertexIID.Attribute.String attIID;
         try {
-            attIID = new VertexIID.Attribute.String(type.iid(), value);
+            attIID = stringIID(type, value, false);
         } catch (GraknCheckedException e) {
             if (e.code().isPresent() && e.code().get().equals(ILLEGAL_STRING_SIZE.code())) return null;
             else throw storage().exception(GraknException.of(e));
         }
+        if (attIID == null) return null;
 
         return getOrReadFromStorage(
-                attributesByIID.strings, attIID,
-                iid -> new AttributeVertexImpl.String(this, iid)
+                attributesByIID.strings, persistedAttributesByIID.strings, attIID,
+                iid -> new AttributeVertexImpl.String(this, iid, value, false)
         );
     }
 
+    /**
+     * Returns the IID of the string attribute of the given type and value.
+     *
+     * The IID is encoded according to the encoding version of the database. When the database
+     * encodes long values out of line, and the value is longer than {@code STRING_INLINE_MAX_SIZE},
+     * the IID is identified by the hash of the value. The IIDs that share the hash are probed
+     * in order of their disambiguator, comparing the value stored under each, until the value
+     * is found or a vacant IID is reached.
+     *
+     * @param type     the attribute type of the attribute
+     * @param value    the value of the attribute
+     * @param isVacant whether the first vacant IID is to be returned if the value is not found
+     * @return the IID of the attribute, or null if it is not found and {@code isVacant} is false
+     */
+    @Nullable
+    private VertexIID.Attribute.String stringIID(TypeVertex type, String value,
+                                                 boolean isVacant) throws GraknCheckedException {
+        final byte[] encoded = stringToBytes(value, STRING_ENCODING);
+        final int encodingVersion = schemaGraph.encodingVersion();
+        final boolean isInline = encoded.length - STRING_SIZE_ENCODING <= STRING_INLINE_MAX_SIZE;
+        if (encodingVersion == ENCODING_VERSION_LEGACY ||
+                (encodingVersion == ENCODING_VERSION_HASHED_STRINGS && isInline)) {
+            return new VertexIID.Attribute.String(type.iid(), value);
+        }
+
+        final byte[] valueBytes = copyOfRange(encoded, STRING_SIZE_ENCODING, encoded.length);
+        if (isInline) return VertexIID.Attribute.String.sorted(type.iid(), valueBytes);
+
+        final byte[] hash = VertexIID.Attribute.String.hash(valueBytes);
+        for (int disambiguator = 0; disambiguator <= MAX_DISAMBIGUATOR; disambiguator++) {
+            final VertexIID.Attribute.String iid = encodingVersion == ENCODING_VERSION_HASHED_STRINGS
+                    ? VertexIID.Attribute.String.hashed(type.iid(), hash, disambiguator)
+                    : VertexIID.Attribute.String.sortedHashed(type.iid(), valueBytes, hash, disambiguator);
+            final AttributeVertex<String> buffered = attributesByIID.strings.get(iid);
+            if (buffered != null) {
+                if (buffered.value().equals(value)) return iid;
+                else continue;
+            }
+            final byte[] stored = storage.get(iid.bytes());
+            if (stored == null) return isVacant ? iid : null;
+            else if (Arrays.equals(stored, encoded)) return iid;
+        }
+        throw storage.exception(GraknException.of(ILLEGAL_STATE));
+    }
+
     public AttributeVertex<LocalDateTime> get(TypeVertex type, LocalDateTime value) {
         assert storage.isOpen();
         assert type.isAttributeType();
         assert type.valueType().valueClass().equals(LocalDateTime.class);
 
         return getOrReadFromStorage(
-                attributesByIID.dateTimes,
+                attributesByIID.dateTimes, persistedAttributesByIID.dateTimes,
                 new VertexIID.Attribute.DateTime(type.iid(), value),
                 iid -> new AttributeVertexImpl.DateTime(this, iid)
         );
@@ -264,8 +548,10 @@ public class DataGraph implements Graph {
         assert type.isAttributeType();
         assert type.valueType().valueClass().equals(Boolean.class);
 
+        final VertexIID.Attribute.Boolean attIID = new VertexIID.Attribute.Boolean(type.iid(), value);
+        pinIfPresent(attIID);
         final AttributeVertex<Boolean> vertex = attributesByIID.booleans.computeIfAbsent(
-                new VertexIID.Attribute.Boolean(type.iid(), value),
+                attIID,
                 iid -> {
                     final AttributeVertex<Boolean> v = new AttributeVertexImpl.Boolean(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
@@ -286,8 +572,10 @@ public class DataGraph implements Graph {
         assert type.isAttributeType();
         assert type.valueType().valueClass().equals(Long.class);
 
+        final VertexIID.Attribute.Long attIID = new VertexIID.Attribute.Long(type.iid(), value);
+        pinIfPresent(attIID);
         final AttributeVertex<Long> vertex = attributesByIID.longs.computeIfAbsent(
-                new VertexIID.Attribute.Long(type.iid(), value),
+                attIID,
                 iid -> {
                     final AttributeVertex<Long> v = new AttributeVertexImpl.Long(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
@@ -308,8 +596,10 @@ public class DataGraph implements Graph {
         assert type.isAttributeType();
         assert type.valueType().valueClass().equals(Double.class);
 
+        final VertexIID.Attribute.Double attIID = new VertexIID.Attribute.Double(type.iid(), value);
+        pinIfPresent(attIID);
         final AttributeVertex<Double> vertex = attributesByIID.doubles.computeIfAbsent(
-                new VertexIID.Attribute.Double(type.iid(), value),
+                attIID,
                 iid -> {
                     final AttributeVertex<Double> v = new AttributeVertexImpl.Double(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
@@ -333,7 +623,7 @@ public class DataGraph implements Graph {
 
         VertexIID.Attribute.String attIID;
         try {
-            attIID = new VertexIID.Attribute.String(type.iid(), value);
+            attIID = stringIID(type, value, true);
         } catch (GraknCheckedException e) {
             if (e.code().isPresent() && e.code().get().equals(ILLEGAL_STRING_SIZE.code())) {
                 throw storage().exception(GraknException.of(ILLEGAL_STRING_SIZE, STRING_MAX_SIZE));
@@ -342,9 +632,10 @@ public class DataGraph implements Graph {
             }
         }
 
+        pinIfPresent(attIID);
         final AttributeVertex<String> vertex = attributesByIID.strings.computeIfAbsent(
                 attIID, iid -> {
-                    final AttributeVertex<String> v = new AttributeVertexImpl.String(this, iid, isInferred);
+                    final AttributeVertex<String> v = new AttributeVertexImpl.String(this, iid, value, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
                     if (!isInferred) statistics.attributeVertexCreated(v.iid());
                     return v;
@@ -363,8 +654,10 @@ public class DataGraph implements Graph {
         assert type.isAttributeType();
         assert type.valueType().valueClass().equals(LocalDateTime.class);
 
+        final VertexIID.Attribute.DateTime attIID = new VertexIID.Attribute.DateTime(type.iid(), value);
+        pinIfPresent(attIID);
         final AttributeVertex<LocalDateTime> vertex = attributesByIID.dateTimes.computeIfAbsent(
-                new VertexIID.Attribute.DateTime(type.iid(), value),
+                attIID,
                 iid -> {
                     final AttributeVertex<LocalDateTime> v = new AttributeVertexImpl.DateTime(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new HashSet<>()).add(v);
@@ -383,6 +676,8 @@ public class DataGraph implements Graph {
     public void delete(AttributeVertex<?> vertex) {
         assert storage.isOpen();
         attributesByIID.remove(vertex.iid());
+        persistedAttributesByIID.remove(vertex.iid());
+        existence.invalidate(vertex.iid());
         if (thingsByTypeIID.containsKey(vertex.type().iid())) {
             thingsByTypeIID.get(vertex.type().iid()).remove(vertex);
         }
@@ -393,6 +688,8 @@ public class DataGraph implements Graph {
         assert storage.isOpen();
         if (!vertex.isAttribute()) {
             thingsByIID.remove(vertex.iid());
+            persistedThingsByIID.remove(vertex.iid());
+            existence.invalidate(vertex.iid());
             if (thingsByTypeIID.containsKey(vertex.type().iid())) {
                 thingsByTypeIID.get(vertex.type().iid()).remove(vertex);
             }
@@ -412,8 +709,11 @@ public class DataGraph implements Graph {
     @Override
     public void clear() {
         thingsByIID.clear();
+        persistedThingsByIID.clear();
         thingsByTypeIID.clear();
         attributesByIID.clear();
+        persistedAttributesByIID.clear();
+        existence.clear();
         statistics.clear();
     }
 
@@ -448,11 +748,23 @@ public class DataGraph implements Graph {
         private final ConcurrentMap<VertexIID.Attribute.DateTime, AttributeVertex<LocalDateTime>> dateTimes;
 
         AttributesByIID() {
-            booleans = new ConcurrentHashMap<>();
-            longs = new ConcurrentHashMap<>();
-            doubles = new ConcurrentHashMap<>();
-            strings = new ConcurrentHashMap<>();
-            dateTimes = new ConcurrentHashMap<>();
+            this(false);
+        }
+
+        AttributesByIID(boolean isBounded) {
+            if (isBounded) {
+                booleans = bounded();
+                longs = bounded();
+                doubles = bounded();
+                strings = bounded();
+                dateTimes = bounded();
+            } else {
+                booleans = new ConcurrentHashMap<>();
+                longs = new ConcurrentHashMap<>();
+                doubles = new ConcurrentHashMap<>();
+                strings = new ConcurrentHashMap<>();
+                dateTimes = new ConcurrentHashMap<>();
+            }
         }
 
         Stream<AttributeVertex<?>> valueStream() {
@@ -471,6 +783,37 @@ public class DataGraph implements Graph {
             dateTimes.clear();
         }
 
+        AttributeVertex<?> pin(AttributesByIID persisted, AttributeVertex<?> vertex) {
+            switch (vertex.iid().valueType()) {
+                case BOOLEAN:
+                    return pin(booleans, persisted.booleans, vertex.iid().asBoolean(), vertex.asBoolean());
+                case LONG:
+                    return pin(longs, persisted.longs, vertex.iid().asLong(), vertex.asLong());
+                case DOUBLE:
+                    return pin(doubles, persisted.doubles, vertex.iid().asDouble(), vertex.asDouble());
+                case STRING:
+                    return pin(strings, persisted.strings, vertex.iid().asString(), vertex.asString());
+                case DATETIME:
+                    return pin(dateTimes, persisted.dateTimes, vertex.iid().asDateTime(), vertex.asDateTime());
+                default:
+                    assert false;
+                    return null;
+            }
+        }
+
+        static <IID_TYPE, VERTEX> VERTEX pin(ConcurrentMap<IID_TYPE, VERTEX> pinned, ConcurrentMap<IID_TYPE, VERTEX> persisted,
+                                             IID_TYPE iid, VERTEX vertex) {
+            if (pinned == persisted) return vertex;
+            final VERTEX existing = pinned.get(iid);
+            if (existing != null) return existing;
+            // the vertex is moved under the lock of its key, so that it is not read into the persisted vertices again
+            persisted.compute(iid, (i, read) -> {
+                pinned.putIfAbsent(i, vertex);
+                return null;
+            });
+            return pinned.get(iid);
+        }
+
         void remove(VertexIID.Attribute<?> iid) {
             switch (iid.valueType()) {
                 case BOOLEAN:
@@ -510,15 +853,78 @@ public class DataGraph implements Graph {
         }
     }
 
+    /**
+     * A bounded cache of whether keys are in storage, as of the snapshot of the transaction, which remembers
+     * the keys that are absent as well as those that are present, so that repeated lookups of the same vertices
+     * and edges (e.g. when inserting ownerships of the same attributes) do not go to storage every time.
+     *
+     * Storage is read through the writes buffered by the transaction, and vertices and edges that are created by
+     * the transaction are looked up in its buffers first. A key that the transaction deletes would however still
+     * be cached as present, so the keys of deleted vertices and persisted edges must be invalidated when deleted.
+     */
+    public static class ExistenceCache {
+
+        private static final int CACHE_SIZE = 100_000;
+        private static final int CACHE_TIMEOUT_MINUTES = 1_440;
+
+        private final Storage storage;
+        private final CommonCache<IID, Boolean> cache;
+        private final AtomicLong hits;
+        private final AtomicLong misses;
+
+        ExistenceCache(Storage storage) {
+            this.storage = storage;
+            cache = new CommonCache<>(CACHE_SIZE, CACHE_TIMEOUT_MINUTES);
+            hits = new AtomicLong(0);
+            misses = new AtomicLong(0);
+        }
+
+        public boolean isStored(IID iid) {
+            final Boolean isStored = cache.getIfPresent(iid);
+            if (isStored != null) {
+                hits.incrementAndGet();
+                return isStored;
+            }
+            misses.incrementAndGet();
+            final boolean stored = storage.get(iid.bytes()) != null;
+            cache.put(iid, stored);
+            return stored;
+        }
+
+        public long hits() {
+            return hits.get();
+        }
+
+        public long misses() {
+            return misses.get();
+        }
+
+        public void invalidate(IID iid) {
+            cache.invalidate(iid);
+        }
+
+        void clear() {
+            cache.clear();
+        }
+    }
+
     public static class Statistics {
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexCount;
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexTransitiveCount;
         private final ConcurrentMap<VertexIID.Type, Long> deltaVertexCount;
         private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> persistedHasEdgeCount;
         private final ConcurrentMap<VertexIID.Type, Long> persistedHasEdgeTotalCount;
+        private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> persistedPlayingEdgeCount;
+        private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> deltaPlayingEdgeCount;
+        private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> persistedRelatingEdgeCount;
+        private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> deltaRelatingEdgeCount;
+        private final ConcurrentMap<Pair<VertexIID.Type, Encoding.Infix>, Degrees> persistedDegrees;
+        private final ConcurrentMap<Pair<ThingVertex, Encoding.Infix>, Long> deltaDegrees;
+        private final ConcurrentMap<VertexIID.Type, ValueHistogram> persistedValueHistograms;
         private final ConcurrentMap<VertexIID.Attribute<?>, Encoding.Statistics.JobOperation> attributeVertexCountJobs;
-        private final ConcurrentMap<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.JobOperation> hasEdgeCountJobs;
+        private final ConcurrentMap<Pair<ThingVertex, VertexIID.Attribute<?>>, Encoding.Statistics.JobOperation> hasEdgeCountJobs;
         private boolean needsBackgroundCounting;
+        private long committedCountJobs;
         private final SchemaGraph schemaGraph;
         private final Storage storage;
         private final long snapshot;
@@ -529,9 +935,17 @@ public class DataGraph implements Graph {
             deltaVertexCount = new ConcurrentHashMap<>();
             persistedHasEdgeCount = new ConcurrentHashMap<>();
             persistedHasEdgeTotalCount = new ConcurrentHashMap<>();
+            persistedPlayingEdgeCount = new ConcurrentHashMap<>();
+            deltaPlayingEdgeCount = new ConcurrentHashMap<>();
+            persistedRelatingEdgeCount = new ConcurrentHashMap<>();
+            deltaRelatingEdgeCount = new ConcurrentHashMap<>();
+            persistedDegrees = new ConcurrentHashMap<>();
+            deltaDegrees = new ConcurrentHashMap<>();
+            persistedValueHistograms = new ConcurrentHashMap<>();
             attributeVertexCountJobs = new ConcurrentHashMap<>();
             hasEdgeCountJobs = new ConcurrentHashMap<>();
             needsBackgroundCounting = false;
+            committedCountJobs = 0;
             snapshot = bytesToLongOrZero(storage.get(snapshotKey()));
             this.schemaGraph = schemaGraph;
             this.storage = storage;
@@ -557,6 +971,63 @@ public class DataGraph implements Graph {
             }
         }
 
+        /**
+         * Returns the number of roles of the given role types that are played by the instances of the given types.
+         */
+        public long playingEdgeSum(Set<TypeVertex> players, Set<TypeVertex> roles) {
+            long sum = 0;
+            for (TypeVertex player : players) {
+                for (TypeVertex role : roles) sum += playingEdgeCount(player.iid(), role.iid());
+            }
+            return sum;
+        }
+
+        /**
+         * Returns the number of roles of the given role types that relate the instances of the given types.
+         */
+        public long relatingEdgeSum(Set<TypeVertex> relations, Set<TypeVertex> roles) {
+            long sum = 0;
+            for (TypeVertex relation : relations) {
+                for (TypeVertex role : roles) sum += relatingEdgeCount(relation.iid(), role.iid());
+            }
+            return sum;
+        }
+
+        /**
+         * Returns the distribution of the number of edges, of the kind of the given adjacency infix, that
+         * the instances of the given type have. Only the outgoing HAS, PLAYING and RELATING edges, and the
+         * incoming HAS edges, are counted.
+         */
+        public Degrees degrees(TypeVertex type, Encoding.Infix edge) {
+            return persistedDegrees.computeIfAbsent(pair(type.iid(), edge), key -> {
+                ResourceIterator<Pair<Integer, Long>> buckets = storage.iterate(
+                        degreeBucketCountPrefix(type.iid(), edge),
+                        (k, v) -> pair((int) k[k.length - 1], bytesToLong(v))
+                );
+                return new Degrees(buckets);
+            });
+        }
+
+        /**
+         * Returns the most skewed degree distribution of the given types, as the ratio of the 99th
+         * percentile to the median of the degrees, or 1 if none of the types have been counted.
+         */
+        public double degreeSkew(Set<TypeVertex> types, Encoding.Infix edge) {
+            return types.stream().mapToDouble(type -> degrees(type, edge).skew()).max().orElse(1);
+        }
+
+        /**
+         * Returns the histogram of the values of the given attribute type, as it was last built by the
+         * background counter, or an empty histogram if it has not been built.
+         */
+        public ValueHistogram valueHistogram(TypeVertex attType) {
+            assert attType.isAttributeType();
+            return persistedValueHistograms.computeIfAbsent(attType.iid(), iid -> {
+                byte[] bytes = storage.get(valueHistogramKey(iid));
+                return bytes != null ? ValueHistogram.of(bytes) : ValueHistogram.EMPTY;
+            });
+        }
+
         public long thingVertexSum(Set<Label> labels) {
             return thingVertexSum(labels.stream().map(schemaGraph::getType));
         }
@@ -600,6 +1071,13 @@ public class DataGraph implements Graph {
             return needsBackgroundCounting;
         }
 
+        /**
+         * Returns the number of count jobs that this transaction has written on commit.
+         */
+        public long countJobSize() {
+            return committedCountJobs;
+        }
+
         public void vertexCreated(VertexIID.Type typeIID) {
             deltaVertexCount.compute(typeIID, (k, v) -> (v == null ? 0 : v) + 1);
         }
@@ -618,13 +1096,38 @@ public class DataGraph implements Graph {
             needsBackgroundCounting = true;
         }
 
-        public void hasEdgeCreated(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
-            hasEdgeCountJobs.put(pair(thingIID, attIID), CREATED);
+        public void hasEdgeCreated(ThingVertex thing, VertexIID.Attribute<?> attIID) {
+            hasEdgeCountJobs.put(pair(thing, attIID), CREATED);
             needsBackgroundCounting = true;
         }
 
-        public void hasEdgeDeleted(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
-            hasEdgeCountJobs.put(pair(thingIID, attIID), DELETED);
+        public void hasEdgeDeleted(ThingVertex thing, VertexIID.Attribute<?> attIID) {
+            hasEdgeCountJobs.put(pair(thing, attIID), DELETED);
+            needsBackgroundCounting = true;
+        }
+
+        public void playingEdgeCreated(ThingVertex player, VertexIID.Type roleTypeIID) {
+            deltaPlayingEdgeCount.merge(pair(player.type().iid(), roleTypeIID), 1L, Long::sum);
+            degreeChanged(player, EDGE_PLAYING_OUT, 1);
+        }
+
+        public void playingEdgeDeleted(ThingVertex player, VertexIID.Type roleTypeIID) {
+            deltaPlayingEdgeCount.merge(pair(player.type().iid(), roleTypeIID), -1L, Long::sum);
+            degreeChanged(player, EDGE_PLAYING_OUT, -1);
+        }
+
+        public void relatingEdgeCreated(ThingVertex relation, VertexIID.Type roleTypeIID) {
+            deltaRelatingEdgeCount.merge(pair(relation.type().iid(), roleTypeIID), 1L, Long::sum);
+            degreeChanged(relation, EDGE_RELATING_OUT, 1);
+        }
+
+        public void relatingEdgeDeleted(ThingVertex relation, VertexIID.Type roleTypeIID) {
+            deltaRelatingEdgeCount.merge(pair(relation.type().iid(), roleTypeIID), -1L, Long::sum);
+            degreeChanged(relation, EDGE_RELATING_OUT, -1);
+        }
+
+        private void degreeChanged(ThingVertex thing, Encoding.Infix edge, long delta) {
+            deltaDegrees.merge(pair(thing, edge), delta, Long::sum);
             needsBackgroundCounting = true;
         }
 
@@ -636,6 +1139,20 @@ public class DataGraph implements Graph {
             return deltaVertexCount.getOrDefault(typeIID, 0L);
         }
 
+        private long playingEdgeCount(VertexIID.Type playerTypeIID, VertexIID.Type roleTypeIID) {
+            final Pair<VertexIID.Type, VertexIID.Type> types = pair(playerTypeIID, roleTypeIID);
+            return persistedPlayingEdgeCount.computeIfAbsent(types, iid ->
+                    bytesToLongOrZero(storage.get(playingEdgeCountKey(playerTypeIID, roleTypeIID)))
+            ) + deltaPlayingEdgeCount.getOrDefault(types, 0L);
+        }
+
+        private long relatingEdgeCount(VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID) {
+            final Pair<VertexIID.Type, VertexIID.Type> types = pair(relationTypeIID, roleTypeIID);
+            return persistedRelatingEdgeCount.computeIfAbsent(types, iid ->
+                    bytesToLongOrZero(storage.get(relatingEdgeCountKey(relationTypeIID, roleTypeIID)))
+            ) + deltaRelatingEdgeCount.getOrDefault(types, 0L);
+        }
+
         private long hasEdgeCount(VertexIID.Type fromTypeIID, VertexIID.Type toTypeIID) {
             return persistedHasEdgeCount(fromTypeIID, toTypeIID);
         }
@@ -707,9 +1224,20 @@ public class DataGraph implements Graph {
                     attributeCountJobKey(attIID), countWorkValue.bytes()
             ));
             hasEdgeCountJobs.forEach((hasEdge, countWorkValue) -> storage.putUntracked(
-                    hasEdgeCountJobKey(hasEdge.first(), hasEdge.second()), countWorkValue.bytes()
+                    hasEdgeCountJobKey(hasEdge.first().iid(), hasEdge.second()), countWorkValue.bytes()
             ));
-            if (!deltaVertexCount.isEmpty()) {
+            deltaPlayingEdgeCount.forEach((types, delta) -> {
+                if (delta != 0) storage.mergeUntracked(playingEdgeCountKey(types.first(), types.second()), longToBytes(delta));
+            });
+            deltaRelatingEdgeCount.forEach((types, delta) -> {
+                if (delta != 0) storage.mergeUntracked(relatingEdgeCountKey(types.first(), types.second()), longToBytes(delta));
+            });
+            deltaDegrees.forEach((degree, delta) -> {
+                // the vertex IID is only read now, as buffered vertices are given their final IIDs on commit
+                if (delta != 0) storage.mergeUntracked(degreeCountJobKey(degree.first().iid(), degree.second()), longToBytes(delta));
+            });
+            committedCountJobs += attributeVertexCountJobs.size() + hasEdgeCountJobs.size() + deltaDegrees.size();
+            if (!deltaVertexCount.isEmpty() || !deltaPlayingEdgeCount.isEmpty() || !deltaRelatingEdgeCount.isEmpty()) {
                 storage.mergeUntracked(snapshotKey(), longToBytes(1));
             }
         }
@@ -719,31 +1247,70 @@ public class DataGraph implements Graph {
             persistedVertexTransitiveCount.clear();
             deltaVertexCount.clear();
             persistedHasEdgeCount.clear();
+            persistedPlayingEdgeCount.clear();
+            deltaPlayingEdgeCount.clear();
+            persistedRelatingEdgeCount.clear();
+            deltaRelatingEdgeCount.clear();
+            persistedDegrees.clear();
+            deltaDegrees.clear();
+            persistedValueHistograms.clear();
             attributeVertexCountJobs.clear();
             hasEdgeCountJobs.clear();
         }
 
-        public void processCountJobs() {
-            ResourceIterator<CountJob> countJobs = storage.iterate(StatisticsBytes.countJobKey(), CountJob::of);
-            while (countJobs.hasNext()) {
+        /**
+         * Returns the key prefixes that partition the count jobs by type: the jobs of the attributes of
+         * each attribute type, and the jobs of the HAS edges and of the degrees of the things of each
+         * type. The count jobs of different partitions never update the same keys, other than through
+         * untracked merges of counts, so they can be processed concurrently.
+         *
+         * The jobs of types that have since been removed from the schema are not covered by any of the
+         * partitions, and are left to be processed under the prefix of all count jobs.
+         */
+        public List<byte[]> countJobPartitions() {
+            List<byte[]> partitions = new ArrayList<>();
+            schemaGraph.attributeTypes().forEachRemaining(type -> partitions.add(attributeCountJobPrefix(type.iid())));
+            schemaGraph.thingTypes().filter(type -> type.encoding().instance() != null).forEachRemaining(type -> {
+                partitions.add(hasEdgeCountJobPrefix(type.iid()));
+                partitions.add(degreeCountJobPrefix(type.iid()));
+            });
+            return partitions;
+        }
+
+        /**
+         * Processes at most {@code limit} of the count jobs whose keys start with the given prefix,
+         * so that the transaction that processes them stays small, and can be committed and
+         * retried on its own.
+         *
+         * @return the number of count jobs that were processed
+         */
+        public int processCountJobs(byte[] prefix, int limit) {
+            ResourceIterator<CountJob> countJobs = storage.iterate(prefix, CountJob::of);
+            int processed = 0;
+            while (processed < limit && countJobs.hasNext()) {
                 CountJob countJob = countJobs.next();
                 if (countJob instanceof CountJob.Attribute) {
                     processAttributeCountJob(countJob);
                 } else if (countJob instanceof CountJob.HasEdge) {
                     processHasEdgeCountJob(countJob);
+                } else if (countJob instanceof CountJob.Degree) {
+                    processDegreeCountJob(countJob);
                 } else {
                     assert false;
                 }
                 storage.delete(countJob.key());
+                processed++;
             }
-            storage.mergeUntracked(snapshotKey(), longToBytes(1));
+            countJobs.recycle();
+            if (processed > 0) storage.mergeUntracked(snapshotKey(), longToBytes(1));
+            return processed;
         }
 
         private void processAttributeCountJob(CountJob countJob) {
             VertexIID.Attribute<?> attIID = countJob.asAttribute().attIID();
-            if (countJob.value() == CREATED) {
+            if (countJob.asAttribute().value() == CREATED) {
                 processAttributeCreatedCountJob(attIID);
-            } else if (countJob.value() == DELETED) {
+            } else if (countJob.asAttribute().value() == DELETED) {
                 processAttributeDeletedCountJob(attIID);
             } else {
                 assert false;
@@ -771,9 +1338,9 @@ public class DataGraph implements Graph {
         private void processHasEdgeCountJob(CountJob countJob) {
             VertexIID.Thing thingIID = countJob.asHasEdge().thingIID();
             VertexIID.Attribute<?> attIID = countJob.asHasEdge().attIID();
-            if (countJob.value() == CREATED) {
+            if (countJob.asHasEdge().value() == CREATED) {
                 processHasEdgeCreatedCountJob(thingIID, attIID);
-            } else if (countJob.value() == DELETED) {
+            } else if (countJob.asHasEdge().value() == DELETED) {
                 processHasEdgeDeletedCountJob(thingIID, attIID);
             } else {
                 assert false;
@@ -792,6 +1359,8 @@ public class DataGraph implements Graph {
                     storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(1));
                 }
                 storage.put(StatisticsBytes.hasEdgeCountedKey(thingIID, attIID));
+                mergeDegreeCountJob(thingIID, EDGE_HAS_OUT, 1);
+                mergeDegreeCountJob(attIID, EDGE_HAS_IN, 1);
             }
         }
 
@@ -807,34 +1376,275 @@ public class DataGraph implements Graph {
                     storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(-1));
                 }
                 storage.delete(StatisticsBytes.hasEdgeCountedKey(thingIID, attIID));
+                mergeDegreeCountJob(thingIID, EDGE_HAS_OUT, -1);
+                mergeDegreeCountJob(attIID, EDGE_HAS_IN, -1);
+            }
+        }
+
+        /**
+         * Writes the change to the degree of a vertex as a count job of its own, rather than updating
+         * the degree here: the job belongs to the partition of the type of the vertex, which may be
+         * different to the partition being processed, and the write does not conflict with it.
+         */
+        private void mergeDegreeCountJob(VertexIID.Thing thingIID, Encoding.Infix edge, long delta) {
+            storage.mergeUntracked(degreeCountJobKey(thingIID, edge), longToBytes(delta));
+            committedCountJobs++;
+            needsBackgroundCounting = true;
+        }
+
+        /**
+         * Applies the change in the degree of a vertex, by moving the vertex from the bucket of its
+         * previously counted degree into the bucket of its new degree, if they differ.
+         */
+        private void processDegreeCountJob(CountJob countJob) {
+            VertexIID.Thing thingIID = countJob.asDegree().thingIID();
+            Encoding.Infix edge = countJob.asDegree().edge();
+            byte[] countedKey = degreeCountedKey(thingIID, edge);
+            long counted = bytesToLongOrZero(storage.get(countedKey));
+            long degree = Math.max(0, counted + countJob.asDegree().delta());
+            boolean isMoved = counted == 0 || degree == 0 || Degrees.bucket(counted) != Degrees.bucket(degree);
+            if (isMoved && counted > 0) {
+                storage.mergeUntracked(degreeBucketCountKey(thingIID.type(), edge, Degrees.bucket(counted)), longToBytes(-1));
+            }
+            if (isMoved && degree > 0) {
+                storage.mergeUntracked(degreeBucketCountKey(thingIID.type(), edge, Degrees.bucket(degree)), longToBytes(1));
+            }
+            if (degree > 0) storage.put(countedKey, longToBytes(degree));
+            else if (counted > 0) storage.delete(countedKey);
+        }
+
+        /**
+         * Rebuilds the histograms of the values of the attribute types that are stored in the order of their
+         * values, for those whose number of attributes has drifted from the number they were built with.
+         *
+         * @return true if any of the histograms were rebuilt
+         */
+        public boolean refreshValueHistograms() {
+            boolean refreshed = false;
+            ResourceIterator<TypeVertex> attTypes = schemaGraph.attributeTypes().filter(
+                    type -> ValueHistogram.VALUE_TYPES.contains(type.valueType()) && isSorted(schemaGraph, type.valueType())
+            );
+            while (attTypes.hasNext()) {
+                if (refreshValueHistogram(attTypes.next())) refreshed = true;
+            }
+            if (refreshed) storage.mergeUntracked(snapshotKey(), longToBytes(1));
+            return refreshed;
+        }
+
+        /**
+         * Scans the attributes of the given type in the order of their values, and keeps the IID of every
+         * attribute at a multiple of the depth of a bucket, if the number of attributes has drifted far enough
+         * from the histogram that was built before. A histogram is only written by the background counter, so
+         * it is written untracked, like the counts that it is built from.
+         */
+        private boolean refreshValueHistogram(TypeVertex attType) {
+            long count = thingVertexCount(attType);
+            if (!valueHistogram(attType).isStale(count)) return false;
+
+            long depth = Math.max(1, count / ValueHistogram.BUCKETS);
+            byte[] prefix = sortedPrefix(attType);
+            ResourceIterator<byte[]> iids = storage.iterate(
+                    prefix, prefixUpperBound(prefix), VertexIID.Attribute::length, (key, value) -> key
+            );
+            List<byte[]> boundaries = new ArrayList<>();
+            long scanned = 0;
+            while (iids.hasNext()) {
+                byte[] iid = iids.next();
+                if (scanned % depth == 0) boundaries.add(iid);
+                scanned++;
             }
+            ValueHistogram histogram = new ValueHistogram(scanned, depth, boundaries);
+            storage.putUntracked(valueHistogramKey(attType.iid()), histogram.bytes());
+            persistedValueHistograms.put(attType.iid(), histogram);
+            return true;
         }
 
         private long bytesToLongOrZero(byte[] bytes) {
             return bytes != null ? bytesToLong(bytes) : 0;
         }
 
+        /**
+         * The distribution of the number of edges of one kind that the instances of a type have, counted
+         * in buckets of powers of two: bucket {@code b} holds the instances that have between {@code 2^b}
+         * and {@code 2^(b+1) - 1} of these edges. Instances without any of these edges are not counted.
+         */
+        public static class Degrees {
+
+            private static final int BUCKETS = Long.SIZE;
+            private final long[] buckets;
+            private final long vertices;
+
+            private Degrees(ResourceIterator<Pair<Integer, Long>> counts) {
+                buckets = new long[BUCKETS];
+                long vertices = 0;
+                while (counts.hasNext()) {
+                    Pair<Integer, Long> count = counts.next();
+                    if (count.first() >= 0 && count.first() < BUCKETS && count.second() > 0) {
+                        buckets[count.first()] = count.second();
+                        vertices += count.second();
+                    }
+                }
+                this.vertices = vertices;
+            }
+
+            static int bucket(long degree) {
+                assert degree > 0;
+                return BUCKETS - 1 - Long.numberOfLeadingZeros(degree);
+            }
+
+            /**
+             * Returns the number of instances that have at least one of these edges.
+             */
+            public long vertices() {
+                return vertices;
+            }
+
+            /**
+             * Returns the number of instances whose number of these edges is in the given bucket,
+             * i.e. in the range from {@code 2^bucket} to {@code 2^(bucket + 1) - 1}.
+             */
+            long vertices(int bucket) {
+                return buckets[bucket];
+            }
+
+            /**
+             * Returns an upper bound of the largest number of these edges that any instance has.
+             */
+            public long max() {
+                for (int b = BUCKETS - 2; b >= 0; b--) {
+                    if (buckets[b] > 0) return (1L << (b + 1)) - 1;
+                }
+                return 0;
+            }
+
+            /**
+             * Returns a lower bound of the number of these edges that the given fraction of the
+             * instances that have them do not exceed.
+             */
+            public long percentile(double fraction) {
+                assert fraction > 0 && fraction <= 1;
+                final double rank = Math.ceil(fraction * vertices);
+                long seen = 0;
+                for (int b = 0; b < BUCKETS - 1; b++) {
+                    seen += buckets[b];
+                    if (seen > 0 && seen >= rank) return 1L << b;
+                }
+                return 0;
+            }
+
+            /**
+             * Returns how much larger the 99th percentile of the degrees is than their median, which is
+             * how much more than the average instance a single, unknown instance may cost to traverse.
+             */
+            public double skew() {
+                if (vertices == 0) return 1;
+                return Math.max(1, (double) percentile(0.99) / percentile(0.5));
+            }
+        }
+
+        /**
+         * An equi-depth histogram of the values of an attribute type: the IIDs of the attributes at every
+         * multiple of {@code depth} in the order of their values, each of which starts a bucket of
+         * {@code depth} attributes. As attributes are unique by value, the number of attributes that the
+         * histogram was built from is also the number of distinct values of the type.
+         */
+        public static class ValueHistogram {
+
+            static final int BUCKETS = 32;
+            static final Set<Encoding.ValueType> VALUE_TYPES = set(
+                    Encoding.ValueType.LONG, Encoding.ValueType.DOUBLE,
+                    Encoding.ValueType.DATETIME, Encoding.ValueType.STRING
+            );
+            private static final double REFRESH_DRIFT = 0.1;
+            private static final long REFRESH_MIN_DRIFT = 100;
+            private static final ValueHistogram EMPTY = new ValueHistogram(0, 1, new ArrayList<>());
+            private final long distinctValues;
+            private final long depth;
+            private final List<byte[]> boundaries;
+
+            private ValueHistogram(long distinctValues, long depth, List<byte[]> boundaries) {
+                this.distinctValues = distinctValues;
+                this.depth = depth;
+                this.boundaries = boundaries;
+            }
+
+            private static ValueHistogram of(byte[] bytes) {
+                long distinctValues = bytesToLong(copyOfRange(bytes, 0, LONG_SIZE));
+                long depth = bytesToLong(copyOfRange(bytes, LONG_SIZE, 2 * LONG_SIZE));
+                List<byte[]> boundaries = new ArrayList<>();
+                int from = 2 * LONG_SIZE;
+                while (from < bytes.length) {
+                    int length = unsignedBytesToShort(bytes, from);
+                    from += SHORT_SIZE;
+                    boundaries.add(copyOfRange(bytes, from, from + length));
+                    from += length;
+                }
+                return new ValueHistogram(distinctValues, depth, boundaries);
+            }
+
+            private byte[] bytes() {
+                List<byte[]> bytes = new ArrayList<>();
+                bytes.add(longToBytes(distinctValues));
+                bytes.add(longToBytes(depth));
+                for (byte[] boundary : boundaries) {
+                    bytes.add(unsignedShortToBytes(boundary.length));
+                    bytes.add(boundary);
+                }
+                return join(bytes.toArray(new byte[0][]));
+            }
+
+            private boolean isStale(long count) {
+                if (boundaries.isEmpty()) return count > 0;
+                return Math.abs(count - distinctValues) > Math.max(REFRESH_MIN_DRIFT, distinctValues * REFRESH_DRIFT);
+            }
+
+            public boolean isEmpty() {
+                return distinctValues == 0;
+            }
+
+            public long distinctValues() {
+                return distinctValues;
+            }
+
+            /**
+             * Returns the estimated fraction of the values that are smaller than the value of the given
+             * attribute IID, assuming that the values within a bucket are spread evenly.
+             */
+            public double fractionBelow(byte[] attIID) {
+                assert !isEmpty();
+                int lower = 0, upper = boundaries.size();
+                while (lower < upper) {
+                    int mid = (lower + upper) >>> 1;
+                    if (compareBytes(boundaries.get(mid), attIID) < 0) lower = mid + 1;
+                    else upper = mid;
+                }
+                if (lower == 0) return 0;
+                return Math.min(distinctValues, (lower - 0.5) * depth) / distinctValues;
+            }
+        }
+
         public abstract static class CountJob {
-            private final Encoding.Statistics.JobOperation value;
             private final byte[] key;
 
-            private CountJob(byte[] key, Encoding.Statistics.JobOperation value) {
+            private CountJob(byte[] key) {
                 this.key = key;
-                this.value = value;
             }
 
             public static CountJob of(byte[] key, byte[] value) {
                 byte[] countJobKey = stripPrefix(key, PrefixIID.LENGTH);
                 Encoding.Statistics.JobType jobType = Encoding.Statistics.JobType.of(new byte[]{countJobKey[0]});
-                Encoding.Statistics.JobOperation jobOperation = Encoding.Statistics.JobOperation.of(value);
                 byte[] countJobIID = stripPrefix(countJobKey, PrefixIID.LENGTH);
                 if (jobType == Encoding.Statistics.JobType.ATTRIBUTE_VERTEX) {
                     VertexIID.Attribute<?> attIID = VertexIID.Attribute.of(countJobIID);
-                    return new Attribute(key, attIID, jobOperation);
+                    return new Attribute(key, attIID, Encoding.Statistics.JobOperation.of(value));
                 } else if (jobType == Encoding.Statistics.JobType.HAS_EDGE) {
                     VertexIID.Thing thingIID = VertexIID.Thing.extract(countJobIID, 0);
                     VertexIID.Attribute<?> attIID = VertexIID.Attribute.extract(countJobIID, thingIID.bytes().length);
-                    return new HasEdge(key, thingIID, attIID, jobOperation);
+                    return new HasEdge(key, thingIID, attIID, Encoding.Statistics.JobOperation.of(value));
+                } else if (jobType == Encoding.Statistics.JobType.DEGREE) {
+                    VertexIID.Thing thingIID = VertexIID.Thing.extract(countJobIID, 0);
+                    Encoding.Infix edge = Encoding.Infix.of(countJobIID[thingIID.bytes().length]);
+                    return new Degree(key, thingIID, edge, bytesToLong(value));
                 } else {
                     assert false;
                     return null;
@@ -845,10 +1655,6 @@ public class DataGraph implements Graph {
                 return key;
             }
 
-            public Encoding.Statistics.JobOperation value() {
-                return value;
-            }
-
             public Attribute asAttribute() {
                 throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Attribute.class));
             }
@@ -857,18 +1663,28 @@ public class DataGraph implements Graph {
                 throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(HasEdge.class));
             }
 
+            public Degree asDegree() {
+                throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Degree.class));
+            }
+
             public static class Attribute extends CountJob {
                 private final VertexIID.Attribute<?> attIID;
+                private final Encoding.Statistics.JobOperation value;
 
                 private Attribute(byte[] key, VertexIID.Attribute<?> attIID, Encoding.Statistics.JobOperation value) {
-                    super(key, value);
+                    super(key);
                     this.attIID = attIID;
+                    this.value = value;
                 }
 
                 public VertexIID.Attribute<?> attIID() {
                     return attIID;
                 }
 
+                public Encoding.Statistics.JobOperation value() {
+                    return value;
+                }
+
                 @Override
                 public Attribute asAttribute() {
                     return this;
@@ -878,12 +1694,18 @@ public class DataGraph implements Graph {
             public static class HasEdge extends CountJob {
                 private final VertexIID.Thing thingIID;
                 private final VertexIID.Attribute<?> attIID;
+                private final Encoding.Statistics.JobOperation value;
 
                 private HasEdge(byte[] key, VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID,
                                 Encoding.Statistics.JobOperation value) {
-                    super(key, value);
+                    super(key);
                     this.thingIID = thingIID;
                     this.attIID = attIID;
+                    this.value = value;
+                }
+
+                public Encoding.Statistics.JobOperation value() {
+                    return value;
                 }
 
                 public VertexIID.Thing thingIID() {
@@ -899,6 +1721,36 @@ public class DataGraph implements Graph {
                     return this;
                 }
             }
+
+            public static class Degree extends CountJob {
+                private final VertexIID.Thing thingIID;
+                private final Encoding.Infix edge;
+                private final long delta;
+
+                private Degree(byte[] key, VertexIID.Thing thingIID, Encoding.Infix edge, long delta) {
+                    super(key);
+                    this.thingIID = thingIID;
+                    this.edge = edge;
+                    this.delta = delta;
+                }
+
+                public VertexIID.Thing thingIID() {
+                    return thingIID;
+                }
+
+                public Encoding.Infix edge() {
+                    return edge;
+                }
+
+                public long delta() {
+                    return delta;
+                }
+
+                @Override
+                public Degree asDegree() {
+                    return this;
+                }
+            }
         }
     }
 }
@@ -38,6 +38,8 @@ import graql.lang.pattern.Pattern;
 import graql.lang.pattern.variable.ThingVariable;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -47,6 +49,8 @@ import java.util.stream.Stream;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.pair;
+import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.longToBytes;
 import static grakn.core.common.exception.ErrorMessage.SchemaGraph.INVALID_SCHEMA_WRITE;
 import static grakn.core.common.exception.ErrorMessage.TypeRead.TYPE_NOT_FOUND;
 import static grakn.core.common.iterator.Iterators.iterate;
@@ -57,6 +61,7 @@ import static grakn.core.graph.util.Encoding.Edge.Type.OWNS;
 import static grakn.core.graph.util.Encoding.Edge.Type.OWNS_KEY;
 import static grakn.core.graph.util.Encoding.Edge.Type.RELATES;
 import static grakn.core.graph.util.Encoding.Edge.Type.SUB;
+import static grakn.core.graph.util.Encoding.ENCODING_VERSION_LEGACY;
 import static grakn.core.graph.util.Encoding.ValueType.OBJECT;
 import static grakn.core.graph.util.Encoding.Vertex.Type.ATTRIBUTE_TYPE;
 import static grakn.core.graph.util.Encoding.Vertex.Type.ENTITY_TYPE;
@@ -86,7 +91,10 @@ public class SchemaGraph implements Graph {
     private final Statistics statistics;
     private final Cache cache;
     private final boolean isReadOnly;
+    private final Set<Label> modifiedTypes;
     private boolean isModified;
+    private boolean hasCreatedTypes;
+    private Integer encodingVersion;
 
     public SchemaGraph(Storage storage, boolean isReadOnly) {
         this.storage = storage;
@@ -100,7 +108,9 @@ public class SchemaGraph implements Graph {
         multiLabelLock = new ManagedReadWriteLock();
         statistics = new Statistics();
         cache = new Cache();
+        modifiedTypes = ConcurrentHashMap.newKeySet();
         isModified = false;
+        hasCreatedTypes = false;
     }
 
     static class Cache {
@@ -133,7 +143,13 @@ public class SchemaGraph implements Graph {
         return rootThingType() != null;
     }
 
-    public void initialise() throws GraknException {
+    /**
+     * Initialises the schema of a new database, and records the encoding with which its data is to be stored.
+     *
+     * @param encodingVersion one of the versions of {@code Encoding}, other than {@code ENCODING_VERSION_LEGACY}
+     */
+    public void initialise(int encodingVersion) throws GraknException {
+        assert encodingVersion != ENCODING_VERSION_LEGACY;
         final TypeVertex rootThingType = create(THING_TYPE, THING.label()).isAbstract(true);
         final TypeVertex rootEntityType = create(ENTITY_TYPE, ENTITY.label()).isAbstract(true);
         final TypeVertex rootAttributeType = create(ATTRIBUTE_TYPE, ATTRIBUTE.label()).isAbstract(true).valueType(OBJECT);
@@ -144,6 +160,22 @@ public class SchemaGraph implements Graph {
         rootAttributeType.outs().put(SUB, rootThingType);
         rootRelationType.outs().put(SUB, rootThingType);
         rootRelationType.outs().put(RELATES, rootRoleType);
+        storage.put(Encoding.Metadata.ENCODING_VERSION.bytes(), longToBytes(encodingVersion));
+        this.encodingVersion = encodingVersion;
+    }
+
+    /**
+     * Returns the version of the encoding with which the database was created,
+     * which determines how its data has to be encoded in order to be found again.
+     *
+     * @return the persisted encoding version, or {@code ENCODING_VERSION_LEGACY} if none was persisted
+     */
+    public int encodingVersion() {
+        if (encodingVersion == null) {
+            final byte[] version = storage.get(Encoding.Metadata.ENCODING_VERSION.bytes());
+            encodingVersion = version == null ? ENCODING_VERSION_LEGACY : toIntExact(bytesToLong(version));
+        }
+        return encodingVersion;
     }
 
     public TypeVertex rootThingType() {
@@ -370,6 +402,7 @@ public class SchemaGraph implements Graph {
             final TypeVertex type = getType(newLabel, newScope);
             multiLabelLock.lockWrite();
             if (type != null) throw GraknException.of(INVALID_SCHEMA_WRITE, newScopedLabel);
+            modifiedTypes.add(Label.of(oldLabel, oldScope));
             typesByLabel.remove(oldScopedLabel);
             typesByLabel.put(newScopedLabel, vertex);
             return vertex;
@@ -402,6 +435,7 @@ public class SchemaGraph implements Graph {
             multiLabelLock.lockRead();
             singleLabelLocks.computeIfAbsent(vertex.scopedLabel(), x -> new ManagedReadWriteLock()).lockWrite();
 
+            modifiedTypes.add(vertex.properLabel());
             typesByLabel.remove(vertex.scopedLabel());
             typesByIID.remove(vertex.iid());
         } catch (InterruptedException e) {
@@ -437,6 +471,26 @@ public class SchemaGraph implements Graph {
         return isModified;
     }
 
+    /**
+     * Returns the labels of the types that have been created, modified or deleted in this graph,
+     * including the former labels of the types that have been renamed, and the labels of all the
+     * subtypes and supertypes of the types that still exist, as they inherit or pass on the changes.
+     * This is only complete once the graph has been committed.
+     *
+     * @return the labels of the types whose definitions are changed by this graph
+     */
+    public Set<Label> modifiedTypes() {
+        return modifiedTypes;
+    }
+
+    /**
+     * Returns true if any type has been created in this graph. This is only complete once the graph
+     * has been committed.
+     */
+    public boolean hasCreatedTypes() {
+        return hasCreatedTypes;
+    }
+
     /**
      * Commits all the writes captured in this graph into storage.
      *
@@ -449,6 +503,17 @@ public class SchemaGraph implements Graph {
     @Override
     public void commit() {
         assert storage.isSchema();
+        final List<TypeVertex> modifiedVertices = new ArrayList<>();
+        typesByIID.values().forEach(typeVertex -> {
+            if (typeVertex.status().equals(Encoding.Status.BUFFERED)) hasCreatedTypes = true;
+            else if (!typeVertex.isModified()) return;
+            modifiedVertices.add(typeVertex);
+        });
+        for (TypeVertex typeVertex : modifiedVertices) {
+            loop(typeVertex, Objects::nonNull, t -> t.outs().edge(SUB).to().firstOrNull())
+                    .forEachRemaining(t -> modifiedTypes.add(t.properLabel()));
+            tree(typeVertex, t -> t.ins().edge(SUB).from()).forEachRemaining(t -> modifiedTypes.add(t.properLabel()));
+        }
         typesByIID.values().parallelStream().filter(v -> v.status().equals(Encoding.Status.BUFFERED)).forEach(
                 typeVertex -> typeVertex.iid(VertexIID.Type.generate(storage.asSchema().schemaKeyGenerator(), typeVertex.encoding()))
         ); // typeByIID no longer contains valid mapping from IID to TypeVertex
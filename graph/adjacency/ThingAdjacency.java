@@ -21,8 +21,12 @@ package grakn.core.graph.adjacency;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.iid.IID;
+import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
 import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.graph.vertex.TypeVertex;
+
+import javax.annotation.Nullable;
 
 public interface ThingAdjacency {
 
@@ -50,6 +54,26 @@ public interface ThingAdjacency {
      */
     ThingIteratorBuilder edge(Encoding.Edge.Thing encoding, IID... lookAhead);
 
+    /**
+     * Returns an {@code IteratorBuilder} to retrieve the attributes of a given type
+     * that are connected by edges that match the provided {@code encoding}, and
+     * whose values lie between the given bounds.
+     *
+     * The edges to attributes are stored in the order of the IIDs of the attributes,
+     * which for an attribute type that is stored in the order of its values is the
+     * order of the values. Only the edges between the bounds are therefore scanned,
+     * rather than every edge to the attributes of the type.
+     *
+     * @param encoding      type of the edge to filter by, which leads to attributes
+     * @param attributeType the attribute type, which is stored in the order of its values
+     * @param lowerBound    the inclusive lower bound of the attribute IIDs, or null if unbounded
+     * @param upperBound    the inclusive upper bound of the attribute IIDs, including the IIDs
+     *                      that extend it, or null if unbounded
+     * @return an {@code IteratorBuilder} to retrieve vertices of a set of edges.
+     */
+    ThingIteratorBuilder edge(Encoding.Edge.Thing encoding, TypeVertex attributeType,
+                              @Nullable VertexIID.Attribute<?> lowerBound, @Nullable VertexIID.Attribute<?> upperBound);
+
     /**
      * Returns an edge of type {@code encoding} that connects to an {@code adjacent}
      * vertex.
@@ -20,6 +20,7 @@ package grakn.core.graph.adjacency.impl;
 
 import grakn.core.common.iterator.Iterators;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.DataGraph;
 import grakn.core.graph.adjacency.ThingAdjacency;
 import grakn.core.graph.edge.Edge;
 import grakn.core.graph.edge.ThingEdge;
@@ -27,21 +28,25 @@ import grakn.core.graph.edge.impl.ThingEdgeImpl;
 import grakn.core.graph.iid.EdgeIID;
 import grakn.core.graph.iid.IID;
 import grakn.core.graph.iid.InfixIID;
+import grakn.core.graph.iid.PrefixIID;
 import grakn.core.graph.iid.SuffixIID;
+import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
 import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.graph.vertex.TypeVertex;
 
-import java.util.HashMap;
+import javax.annotation.Nullable;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.function.Predicate;
 
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.prefixUpperBound;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ATTRIBUTE;
 import static java.util.Arrays.copyOfRange;
 import static java.util.Collections.emptyIterator;
 import static java.util.concurrent.ConcurrentHashMap.newKeySet;
@@ -50,14 +55,19 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
 
     final ThingVertex owner;
     final Encoding.Direction.Adjacency direction;
-    final ConcurrentMap<InfixIID.Thing, Set<InfixIID.Thing>> infixes;
-    final ConcurrentMap<InfixIID.Thing, Map<EdgeIID.Thing, ThingEdge>> edges;
+    // Most vertices only ever have edges in one direction, if any, so the maps are only allocated by the first edge
+    volatile ConcurrentMap<InfixIID.Thing, Set<InfixIID.Thing>> infixes;
+    volatile ConcurrentMap<InfixIID.Thing, ThingEdgeTable> edges;
 
     ThingAdjacencyImpl(ThingVertex owner, Encoding.Direction.Adjacency direction) {
         this.owner = owner;
         this.direction = direction;
-        this.infixes = new ConcurrentHashMap<>();
-        this.edges = new ConcurrentHashMap<>();
+    }
+
+    private synchronized void initialiseEdges() {
+        if (edges != null) return;
+        infixes = new ConcurrentHashMap<>();
+        edges = new ConcurrentHashMap<>();
     }
 
     InfixIID.Thing infixIID(Encoding.Edge.Thing encoding, IID... lookAhead) {
@@ -79,10 +89,13 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
     }
 
     ResourceIterator<ThingEdge> bufferedEdgeIterator(Encoding.Edge.Thing encoding, IID[] lookAhead) {
-        Map<EdgeIID.Thing, ThingEdge> result;
+        final ConcurrentMap<InfixIID.Thing, ThingEdgeTable> edges = this.edges;
+        if (edges == null) return iterate(emptyIterator());
+
+        ThingEdgeTable result;
         InfixIID.Thing infixIID = infixIID(encoding, lookAhead);
         if (lookAhead.length == encoding.lookAhead()) {
-            return iterate((result = edges.get(infixIID)) != null ? result.values().iterator() : emptyIterator());
+            return (result = edges.get(infixIID)) != null ? result.iterator() : iterate(emptyIterator());
         }
 
         assert lookAhead.length < encoding.lookAhead();
@@ -97,43 +110,62 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             iids = newIIDs;
         }
 
-        return iterate(iids).flatMap(iid -> iterate(edges.get(iid).values()));
+        return iterate(iids).flatMap(iid -> edges.get(iid).iterator());
+    }
+
+    /**
+     * Returns the buffered edges to the attributes of the given type whose IIDs lie within the given bounds.
+     *
+     * @param lower the inclusive lower bound of the attribute IIDs
+     * @param upper the exclusive upper bound of the attribute IIDs
+     */
+    ResourceIterator<ThingEdge> bufferedEdgeIterator(Encoding.Edge.Thing encoding, TypeVertex attributeType,
+                                                     byte[] lower, byte[] upper) {
+        final IID[] lookAhead = new IID[]{PrefixIID.of(VERTEX_ATTRIBUTE), attributeType.iid()};
+        return bufferedEdgeIterator(encoding, lookAhead).filter(edge -> {
+            final byte[] adjacent = (direction.isOut() ? edge.to() : edge.from()).iid().bytes();
+            return compareBytes(lower, adjacent) <= 0 && compareBytes(adjacent, upper) < 0;
+        });
+    }
+
+    abstract ResourceIterator<ThingEdge> edgeIterator(Encoding.Edge.Thing encoding, TypeVertex attributeType,
+                                                      byte[] lower, byte[] upper);
+
+    @Override
+    public ThingIteratorBuilder edge(Encoding.Edge.Thing encoding, TypeVertex attributeType,
+                                     @Nullable VertexIID.Attribute<?> lowerBound,
+                                     @Nullable VertexIID.Attribute<?> upperBound) {
+        assert attributeType.isAttributeType() && owner.graph().isSorted(attributeType.valueType());
+        final byte[] prefix = DataGraph.sortedPrefix(attributeType);
+        final byte[] lower = lowerBound != null ? lowerBound.bytes() : prefix;
+        final byte[] upper = prefixUpperBound(upperBound != null ? upperBound.bytes() : prefix);
+        assert upper != null;
+        if (compareBytes(lower, upper) >= 0) return new ThingIteratorBuilderImpl(iterate(emptyIterator()));
+        else return new ThingIteratorBuilderImpl(edgeIterator(encoding, attributeType, lower, upper));
     }
 
     @Override
     public ThingEdge edge(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised) {
         assert encoding.isOptimisation();
-        Predicate<ThingEdge> predicate = direction.isOut()
-                ? e -> e.to().equals(adjacent) && e.outIID().suffix().equals(SuffixIID.of(optimised.iid().key()))
-                : e -> e.from().equals(adjacent) && e.inIID().suffix().equals(SuffixIID.of(optimised.iid().key()));
-        ResourceIterator<ThingEdge> iterator = bufferedEdgeIterator(
-                encoding, new IID[]{optimised.iid().type(), adjacent.iid().prefix(), adjacent.iid().type()}
-        );
-        ThingEdge edge = null;
-        while (iterator.hasNext()) {
-            if (predicate.test(edge = iterator.next())) break;
-            else edge = null;
-        }
-        iterator.recycle();
-        return edge;
+        return bufferedEdge(infixIID(encoding, optimised.iid().type(), adjacent.iid().prefix(), adjacent.iid().type()),
+                            adjacent.iid(), optimised.iid());
     }
 
     @Override
     public ThingEdge edge(Encoding.Edge.Thing encoding, ThingVertex adjacent) {
         assert !encoding.isOptimisation();
-        Predicate<ThingEdge> predicate = direction.isOut() ? e -> e.to().equals(adjacent) : e -> e.from().equals(adjacent);
-        ResourceIterator<ThingEdge> iterator = bufferedEdgeIterator(encoding, new IID[]{adjacent.iid().prefix(), adjacent.iid().type()});
-        ThingEdge edge = null;
-        while (iterator.hasNext()) {
-            if (predicate.test(edge = iterator.next())) break;
-            else edge = null;
-        }
-        iterator.recycle();
-        return edge;
+        return bufferedEdge(infixIID(encoding, adjacent.iid().prefix(), adjacent.iid().type()), adjacent.iid(), null);
+    }
+
+    private ThingEdge bufferedEdge(InfixIID.Thing infixIID, VertexIID.Thing adjacent, @Nullable VertexIID.Thing optimised) {
+        final ConcurrentMap<InfixIID.Thing, ThingEdgeTable> edges = this.edges;
+        final ThingEdgeTable table = edges != null ? edges.get(infixIID) : null;
+        return table != null ? table.get(adjacent, optimised) : null;
     }
 
     private ThingEdgeImpl put(Encoding.Edge.Thing encoding, ThingEdgeImpl edge, IID[] infixes, boolean isModified, boolean isReflexive) {
         assert encoding.lookAhead() == infixes.length;
+        if (edges == null) initialiseEdges();
         InfixIID.Thing infixIID = infixIID(encoding);
         for (int i = 0; i < encoding.lookAhead(); i++) {
             this.infixes.computeIfAbsent(infixIID, x -> newKeySet()).add(
@@ -141,15 +173,11 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             );
         }
 
-        Map<EdgeIID.Thing, ThingEdge> edgesByOutIID = edges.computeIfAbsent(infixIID, iid -> new HashMap<>());
-        if (edgesByOutIID.containsKey(edge.outIID())) {
-            ThingEdge thingEdge = edgesByOutIID.get(edge.outIID());
-            if (thingEdge.isInferred() && !edge.isInferred()) thingEdge.isInferred(false);
-        } else {
-            edgesByOutIID.put(edge.outIID(), edge);
-        }
+        ThingEdgeTable table = edges.computeIfAbsent(infixIID, iid -> new ThingEdgeTable(direction));
+        ThingEdge thingEdge = table.putIfAbsent(edge);
+        if (thingEdge != null && thingEdge.isInferred() && !edge.isInferred()) thingEdge.isInferred(false);
 
-        if (isModified) owner.isModified();
+        if (isModified) owner.graph().pin(owner);
         if (isReflexive) {
             if (direction.isOut()) ((ThingAdjacencyImpl) edge.to().ins()).putNonReflexive(edge);
             else ((ThingAdjacencyImpl) edge.from().outs()).putNonReflexive(edge);
@@ -160,12 +188,21 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
     @Override
     public ThingEdgeImpl put(Encoding.Edge.Thing encoding, ThingVertex adjacent, boolean isInferred) {
         assert !encoding.isOptimisation();
-        if (encoding == Encoding.Edge.Thing.HAS && direction.isOut()) {
-            owner.graph().stats().hasEdgeCreated(owner.iid(), adjacent.iid().asAttribute());
+        final ThingVertex pinned = owner.graph().pin(owner);
+        if (pinned != owner) return adjacencyOf(pinned).put(encoding, adjacent, isInferred);
+        final ThingVertex pinnedAdjacent = owner.graph().pin(adjacent);
+        if (direction.isOut() && !isInferred) {
+            if (encoding == Encoding.Edge.Thing.HAS) {
+                owner.graph().stats().hasEdgeCreated(owner, adjacent.iid().asAttribute());
+            } else if (encoding == Encoding.Edge.Thing.PLAYING) {
+                owner.graph().stats().playingEdgeCreated(owner, adjacent.iid().type());
+            } else if (encoding == Encoding.Edge.Thing.RELATING) {
+                owner.graph().stats().relatingEdgeCreated(owner, adjacent.iid().type());
+            }
         }
         ThingEdgeImpl edge = direction.isOut()
-                ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, isInferred)
-                : new ThingEdgeImpl.Buffered(encoding, adjacent, owner, isInferred);
+                ? new ThingEdgeImpl.Buffered(encoding, owner, pinnedAdjacent, isInferred)
+                : new ThingEdgeImpl.Buffered(encoding, pinnedAdjacent, owner, isInferred);
         IID[] infixes = new IID[]{adjacent.iid().prefix(), adjacent.iid().type()};
         return put(encoding, edge, infixes, true, true);
     }
@@ -173,13 +210,24 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
     @Override
     public ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised, boolean isInferred) {
         assert encoding.isOptimisation();
+        final ThingVertex pinned = owner.graph().pin(owner);
+        if (pinned != owner) return adjacencyOf(pinned).put(encoding, adjacent, optimised, isInferred);
+        final ThingVertex pinnedAdjacent = owner.graph().pin(adjacent);
         ThingEdgeImpl edge = direction.isOut()
-                ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, optimised, isInferred)
-                : new ThingEdgeImpl.Buffered(encoding, adjacent, owner, optimised, isInferred);
+                ? new ThingEdgeImpl.Buffered(encoding, owner, pinnedAdjacent, optimised, isInferred)
+                : new ThingEdgeImpl.Buffered(encoding, pinnedAdjacent, owner, optimised, isInferred);
         IID[] infixes = new IID[]{optimised.iid().type(), adjacent.iid().prefix(), adjacent.iid().type()};
         return put(encoding, edge, infixes, true, true);
     }
 
+    /**
+     * Returns the adjacency of the same direction of the object that is pinned for the owner of this
+     * adjacency, when the owner is an object of the vertex that was evicted and read again before.
+     */
+    private ThingAdjacencyImpl adjacencyOf(ThingVertex pinned) {
+        return (ThingAdjacencyImpl) (direction.isOut() ? pinned.outs() : pinned.ins());
+    }
+
     private void putNonReflexive(ThingEdgeImpl edge) {
         put(edge.encoding(), edge, infixTails(edge), true, false);
     }
@@ -192,8 +240,9 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
     @Override
     public void remove(ThingEdge edge) {
         InfixIID.Thing infixIID = infixIID(edge.encoding(), infixTails(edge));
-        if (edges.containsKey(infixIID)) {
-            edges.get(infixIID).remove(edge.outIID());
+        ThingEdgeTable table = edges != null ? edges.get(infixIID) : null;
+        if (table != null) {
+            table.remove((ThingEdgeImpl) edge);
             owner.setModified();
         }
     }
@@ -205,7 +254,8 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
 
     @Override
     public void commit() {
-        Iterators.iterate(edges.values()).flatMap(edgeMap -> Iterators.iterate(edgeMap.values())).filter(e -> !e.isInferred())
+        if (edges == null) return;
+        Iterators.iterate(edges.values()).flatMap(ThingEdgeTable::iterator).filter(e -> !e.isInferred())
                 .forEachRemaining(Edge::commit);
     }
 
@@ -249,6 +299,12 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             return new ThingIteratorBuilderImpl(bufferedEdgeIterator(encoding, lookAhead));
         }
 
+        @Override
+        ResourceIterator<ThingEdge> edgeIterator(Encoding.Edge.Thing encoding, TypeVertex attributeType,
+                                                 byte[] lower, byte[] upper) {
+            return bufferedEdgeIterator(encoding, attributeType, lower, upper);
+        }
+
         @Override
         public void delete(Encoding.Edge.Thing encoding) {
             bufferedEdgeIterator(encoding, new IID[0]).forEachRemaining(Edge::delete);
@@ -274,6 +330,22 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             return link(bufferedIterator, storageIterator).distinct();
         }
 
+        /**
+         * Seeks to the edges to the attributes of the given type from the lower bound, and scans them until
+         * the upper bound, as the edges are stored in the order of the IIDs of the attributes they lead to.
+         */
+        @Override
+        ResourceIterator<ThingEdge> edgeIterator(Encoding.Edge.Thing encoding, TypeVertex attributeType,
+                                                 byte[] lower, byte[] upper) {
+            byte[] prefix = join(owner.iid().bytes(), infixIID(encoding).bytes());
+            ResourceIterator<ThingEdge> storageIterator = owner.graph().storage().iterate(
+                    join(prefix, lower), join(prefix, upper), key -> key.remaining(),
+                    (key, value) -> cache(new ThingEdgeImpl.Persisted(owner.graph(), EdgeIID.Thing.of(key)))
+            );
+            ResourceIterator<ThingEdge> bufferedIterator = bufferedEdgeIterator(encoding, attributeType, lower, upper);
+            return link(bufferedIterator, storageIterator).distinct();
+        }
+
         @Override
         public ThingIteratorBuilderImpl edge(Encoding.Edge.Thing encoding) {
             return new ThingIteratorBuilderImpl(edgeIterator(encoding));
@@ -291,7 +363,7 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             if (edge != null) return edge;
 
             EdgeIID.Thing edgeIID = EdgeIID.Thing.of(owner.iid(), infixIID(encoding), adjacent.iid());
-            if (owner.graph().storage().get(edgeIID.bytes()) == null) return null;
+            if (!owner.graph().existence().isStored(edgeIID)) return null;
             else return cache(new ThingEdgeImpl.Persisted(owner.graph(), edgeIID));
         }
 
@@ -305,7 +377,7 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
                     owner.iid(), infixIID(encoding, optimised.iid().type()),
                     adjacent.iid(), SuffixIID.of(optimised.iid().key())
             );
-            if (owner.graph().storage().get(edgeIID.bytes()) == null) return null;
+            if (!owner.graph().existence().isStored(edgeIID)) return null;
             else return cache(new ThingEdgeImpl.Persisted(owner.graph(), edgeIID));
         }
 
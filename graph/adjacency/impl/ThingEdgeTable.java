@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.adjacency.impl;
+
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.edge.ThingEdge;
+import grakn.core.graph.edge.impl.ThingEdgeImpl;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Encoding;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+import static grakn.core.common.iterator.Iterators.iterate;
+
+/**
+ * The edges that an adjacency buffers under one infix, held in an open-addressing table of the edges
+ * themselves. As the owner and the infix of these edges are the same, an edge is identified by the IIDs
+ * of its adjacent vertex and the vertex it is optimising, which the edge already holds. So buffering an
+ * edge takes a slot in an array, rather than a map entry and an edge IID, which is only built at commit.
+ *
+ * A removed edge leaves a marker in its slot until the table is rebuilt, so that iterating the table
+ * while its edges are deleted neither skips nor repeats any of them.
+ */
+final class ThingEdgeTable {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final Object REMOVED = new Object();
+
+    private final boolean isOut;
+    private Object[] slots;
+    private int size;
+    private int used;
+
+    ThingEdgeTable(Encoding.Direction.Adjacency direction) {
+        this.isOut = direction.isOut();
+        this.slots = new Object[INITIAL_CAPACITY];
+        this.size = 0;
+        this.used = 0;
+    }
+
+    synchronized ThingEdgeImpl get(VertexIID.Thing adjacent, @Nullable VertexIID.Thing optimised) {
+        final int index = indexOf(adjacent, optimised);
+        return index >= 0 ? (ThingEdgeImpl) slots[index] : null;
+    }
+
+    /**
+     * Adds the given edge to this table, unless it holds an edge between the same vertices already.
+     *
+     * @return the edge that this table held already, or null if the given edge was added
+     */
+    synchronized ThingEdgeImpl putIfAbsent(ThingEdgeImpl edge) {
+        final VertexIID.Thing adjacent = adjacent(edge);
+        final VertexIID.Thing optimised = edge.optimisedIID();
+        final int mask = slots.length - 1;
+        int free = -1;
+        for (int i = hash(adjacent, optimised) & mask; ; i = (i + 1) & mask) {
+            final Object slot = slots[i];
+            if (slot == null) {
+                if (free < 0) free = i;
+                break;
+            } else if (slot == REMOVED) {
+                if (free < 0) free = i;
+            } else if (matches((ThingEdgeImpl) slot, adjacent, optimised)) {
+                return (ThingEdgeImpl) slot;
+            }
+        }
+        if (slots[free] == null) used++;
+        slots[free] = edge;
+        size++;
+        if (used * 4 >= slots.length * 3) rebuild();
+        return null;
+    }
+
+    /**
+     * Removes the edge between the same vertices as the given edge from this table.
+     *
+     * @return true if this table held such an edge
+     */
+    synchronized boolean remove(ThingEdgeImpl edge) {
+        final int index = indexOf(adjacent(edge), edge.optimisedIID());
+        if (index < 0) return false;
+        slots[index] = REMOVED;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the edges of this table, from the array of slots at the time of the call. A table is
+     * rebuilt into a new array, so the iterator is not affected by the edges that are put after it.
+     */
+    ResourceIterator<ThingEdge> iterator() {
+        final Object[] slots;
+        synchronized (this) {
+            slots = this.slots;
+        }
+        return iterate(Arrays.asList(slots)).filter(slot -> slot != null && slot != REMOVED).map(slot -> (ThingEdge) slot);
+    }
+
+    private int indexOf(VertexIID.Thing adjacent, @Nullable VertexIID.Thing optimised) {
+        final int mask = slots.length - 1;
+        for (int i = hash(adjacent, optimised) & mask; ; i = (i + 1) & mask) {
+            final Object slot = slots[i];
+            if (slot == null) return -1;
+            else if (slot != REMOVED && matches((ThingEdgeImpl) slot, adjacent, optimised)) return i;
+        }
+    }
+
+    /**
+     * Copies the edges into a new array, without the markers of removed edges, that is at least twice as
+     * large as the number of edges, so that there are always empty slots to end a probe.
+     */
+    private void rebuild() {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity <= size * 2) capacity <<= 1;
+        final Object[] previous = slots;
+        slots = new Object[capacity];
+        used = size;
+        final int mask = capacity - 1;
+        for (Object slot : previous) {
+            if (slot == null || slot == REMOVED) continue;
+            final ThingEdgeImpl edge = (ThingEdgeImpl) slot;
+            int i = hash(adjacent(edge), edge.optimisedIID()) & mask;
+            while (slots[i] != null) i = (i + 1) & mask;
+            slots[i] = edge;
+        }
+    }
+
+    private VertexIID.Thing adjacent(ThingEdgeImpl edge) {
+        return isOut ? edge.toIID() : edge.fromIID();
+    }
+
+    private boolean matches(ThingEdgeImpl edge, VertexIID.Thing adjacent, @Nullable VertexIID.Thing optimised) {
+        final VertexIID.Thing edgeOptimised = edge.optimisedIID();
+        return Arrays.equals(adjacent(edge).bytes(), adjacent.bytes()) && (optimised == null
+                ? edgeOptimised == null
+                : edgeOptimised != null && Arrays.equals(edgeOptimised.bytes(), optimised.bytes()));
+    }
+
+    private static int hash(VertexIID.Thing adjacent, @Nullable VertexIID.Thing optimised) {
+        // IIDs of the same type share their first bytes, so the bits of the hash are spread before they are masked
+        final int hash = 31 * adjacent.hashCode() + (optimised != null ? optimised.hashCode() : 0);
+        return hash ^ (hash >>> 16);
+    }
+}
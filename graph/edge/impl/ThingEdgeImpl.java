@@ -58,6 +58,22 @@ public abstract class ThingEdgeImpl implements ThingEdge {
         return isInferred;
     }
 
+    /**
+     * Returns the IID of the tail vertex of this edge, without reading the vertex from storage.
+     */
+    public abstract VertexIID.Thing fromIID();
+
+    /**
+     * Returns the IID of the head vertex of this edge, without reading the vertex from storage.
+     */
+    public abstract VertexIID.Thing toIID();
+
+    /**
+     * Returns the IID of the vertex that this optimised edge is compressing, or null if it is not optimised.
+     */
+    @Nullable
+    public abstract VertexIID.Thing optimisedIID();
+
     public static class Buffered extends ThingEdgeImpl implements ThingEdge {
 
         private final AtomicBoolean committed;
@@ -132,6 +148,22 @@ public abstract class ThingEdgeImpl implements ThingEdge {
             return to;
         }
 
+        @Override
+        public VertexIID.Thing fromIID() {
+            return from.iid();
+        }
+
+        @Override
+        public VertexIID.Thing toIID() {
+            return to.iid();
+        }
+
+        @Nullable
+        @Override
+        public VertexIID.Thing optimisedIID() {
+            return optimised != null ? optimised.iid() : null;
+        }
+
         @Override
         public Optional<ThingVertex> optimised() {
             return Optional.ofNullable(optimised);
@@ -157,8 +189,14 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                     graph.storage().delete(outIID().bytes());
                     graph.storage().delete(inIID().bytes());
                 }
-                if (encoding == Encoding.Edge.Thing.HAS) {
-                    graph.stats().hasEdgeDeleted(from.iid(), to.iid().asAttribute());
+                if (!isInferred()) {
+                    if (encoding == Encoding.Edge.Thing.HAS) {
+                        graph.stats().hasEdgeDeleted(from, to.iid().asAttribute());
+                    } else if (encoding == Encoding.Edge.Thing.PLAYING) {
+                        graph.stats().playingEdgeDeleted(from, to.iid().type());
+                    } else if (encoding == Encoding.Edge.Thing.RELATING) {
+                        graph.stats().relatingEdgeDeleted(from, to.iid().type());
+                    }
                 }
             }
         }
@@ -293,6 +331,22 @@ public abstract class ThingEdgeImpl implements ThingEdge {
             return to;
         }
 
+        @Override
+        public VertexIID.Thing fromIID() {
+            return fromIID;
+        }
+
+        @Override
+        public VertexIID.Thing toIID() {
+            return toIID;
+        }
+
+        @Nullable
+        @Override
+        public VertexIID.Thing optimisedIID() {
+            return optimisedIID;
+        }
+
         @Override
         public Optional<ThingVertex> optimised() {
             if (optimised != null) return Optional.of(optimised);
@@ -312,7 +366,8 @@ public abstract class ThingEdgeImpl implements ThingEdge {
          * {@code isDelete} atomic boolean. The delete operation involves
          * removing this edge from the {@code from.outs()} and {@code to.ins()}
          * edge collections in case it is cached. Then, delete both directions
-         * of this edge from the graph storage.
+         * of this edge from the graph storage, and from the cache of the keys
+         * that are known to exist in storage.
          */
         @Override
         public void delete() {
@@ -321,8 +376,14 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                 to().ins().remove(this);
                 graph.storage().delete(this.outIID.bytes());
                 graph.storage().delete(this.inIID.bytes());
+                graph.existence().invalidate(this.outIID);
+                graph.existence().invalidate(this.inIID);
                 if (encoding == Encoding.Edge.Thing.HAS) {
-                    graph.stats().hasEdgeDeleted(fromIID, toIID.asAttribute());
+                    graph.stats().hasEdgeDeleted(from(), toIID.asAttribute());
+                } else if (encoding == Encoding.Edge.Thing.PLAYING) {
+                    graph.stats().playingEdgeDeleted(from(), toIID.type());
+                } else if (encoding == Encoding.Edge.Thing.RELATING) {
+                    graph.stats().relatingEdgeDeleted(from(), toIID.type());
                 }
             }
         }
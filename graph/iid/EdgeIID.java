@@ -33,7 +33,7 @@ public abstract class EdgeIID<
     VERTEX_IID_START start;
     VERTEX_IID_END end;
     SuffixIID suffix;
-    private int endIndex, infixIndex, suffixIndex;
+    int endIndex, infixIndex, suffixIndex;
 
     EdgeIID(byte[] bytes) {
         super(bytes);
@@ -131,6 +131,25 @@ public abstract class EdgeIID<
             return new Thing(join(start.bytes(), infix.bytes(), end.bytes(), suffix.bytes()));
         }
 
+        @Override
+        int infixIndex() {
+            // the length of the start vertex is read in place, so that it is not copied unless it is needed
+            if (infixIndex == 0) infixIndex = start != null ? start.bytes.length : VertexIID.Thing.length(bytes, 0);
+            return infixIndex;
+        }
+
+        @Override
+        int endIndex() {
+            if (endIndex == 0) endIndex = infixIndex() + InfixIID.Thing.length(bytes, infixIndex());
+            return endIndex;
+        }
+
+        @Override
+        int suffixIndex() {
+            if (suffixIndex == 0) suffixIndex = endIndex() + VertexIID.Thing.length(bytes, endIndex());
+            return suffixIndex;
+        }
+
         @Override
         public InfixIID.Thing infix() {
             if (infix == null) infix = InfixIID.Thing.extract(bytes, infixIndex());
@@ -186,7 +205,8 @@ public abstract class EdgeIID<
 
         @Override
         public InfixIID.Thing infix() {
-            return InfixIID.Thing.of(Encoding.Edge.ISA.in());
+            if (infix == null) infix = InfixIID.Thing.of(Encoding.Edge.ISA.in());
+            return infix;
         }
 
         @Override
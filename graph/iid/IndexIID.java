@@ -23,6 +23,7 @@ import grakn.core.graph.util.Encoding;
 
 import javax.annotation.Nullable;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 import static grakn.core.common.collection.Bytes.DOUBLE_SIZE;
 import static grakn.core.common.collection.Bytes.LONG_SIZE;
@@ -38,7 +39,10 @@ import static grakn.core.common.collection.Bytes.sortedBytesToDouble;
 import static grakn.core.common.collection.Bytes.sortedBytesToLong;
 import static grakn.core.common.collection.Bytes.stringToBytes;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static grakn.core.graph.iid.VertexIID.Attribute.String.DISAMBIGUATOR_LENGTH;
+import static grakn.core.graph.iid.VertexIID.Attribute.String.HASH_LENGTH;
 import static grakn.core.graph.util.Encoding.ValueType.STRING_ENCODING;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_HASHED_KEY;
 import static grakn.core.graph.util.Encoding.ValueType.TIME_ZONE_ID;
 import static java.util.Arrays.copyOfRange;
 
@@ -138,6 +142,20 @@ public abstract class IndexIID extends IID {
             return newAttributeIndex(Encoding.ValueType.STRING.bytes(), stringBytes, typeIID.bytes);
         }
 
+        /**
+         * Generate the index of a string attribute whose value is not embedded in its IID, in whole,
+         * which is then indexed by the hash and disambiguator of the value instead.
+         */
+        public static Attribute of(VertexIID.Attribute.String hashedIID) {
+            assert hashedIID.isHashed();
+            return newAttributeIndex(
+                    new byte[]{STRING_HASHED_KEY},
+                    copyOfRange(hashedIID.bytes, hashedIID.bytes.length - HASH_LENGTH - DISAMBIGUATOR_LENGTH,
+                                hashedIID.bytes.length),
+                    hashedIID.type().bytes
+            );
+        }
+
         public static Attribute of(LocalDateTime value, VertexIID.Type typeIID) {
             return newAttributeIndex(Encoding.ValueType.DATETIME.bytes(), dateTimeToBytes(value, TIME_ZONE_ID), typeIID.bytes);
         }
@@ -158,7 +176,11 @@ public abstract class IndexIID extends IID {
                         value = sortedBytesToDouble(copyOfRange(bytes, VALUE_INDEX, VALUE_INDEX + DOUBLE_SIZE)) + "";
                         break;
                     case STRING:
-                        value = bytesToString(copyOfRange(bytes, VALUE_INDEX, bytes.length - VertexIID.Type.LENGTH), STRING_ENCODING);
+                        if (bytes[PrefixIID.LENGTH] == STRING_HASHED_KEY) {
+                            value = Arrays.toString(copyOfRange(bytes, VALUE_INDEX, bytes.length - VertexIID.Type.LENGTH));
+                        } else {
+                            value = bytesToString(copyOfRange(bytes, VALUE_INDEX, bytes.length - VertexIID.Type.LENGTH), STRING_ENCODING);
+                        }
                         break;
                     case DATETIME:
                         value = bytesToDateTime(copyOfRange(bytes, VALUE_INDEX, bytes.length - VertexIID.Type.LENGTH), TIME_ZONE_ID).toString();
@@ -91,6 +91,18 @@ public abstract class InfixIID<EDGE_ENCODING extends Encoding.Edge> extends IID
             }
         }
 
+        /**
+         * Returns the length of the {@code InfixIID.Thing} that begins at the given index,
+         * without copying it out of the given bytes.
+         */
+        static int length(byte[] bytes, int from) {
+            if (Encoding.Edge.Thing.of(bytes[from]).equals(Encoding.Edge.Thing.ROLEPLAYER)) {
+                return LENGTH + VertexIID.Type.LENGTH;
+            } else {
+                return LENGTH;
+            }
+        }
+
         public static InfixIID.Thing of(Encoding.Infix infix) {
             if (Encoding.Edge.Thing.of(infix).equals(Encoding.Edge.Thing.ROLEPLAYER)) {
                 return new InfixIID.RolePlayer(infix.bytes());
@@ -151,7 +163,7 @@ public abstract class InfixIID<EDGE_ENCODING extends Encoding.Edge> extends IID
         }
 
         static RolePlayer extract(byte[] bytes, int from) {
-            return new RolePlayer(join(new byte[]{bytes[from]}, VertexIID.Type.extract(bytes, from + LENGTH).bytes()));
+            return new RolePlayer(copyOfRange(bytes, from, from + LENGTH + VertexIID.Type.LENGTH));
         }
 
         public VertexIID.Type tail() {
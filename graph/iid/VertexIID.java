@@ -24,6 +24,11 @@ import grakn.core.common.parameters.Label;
 import grakn.core.graph.util.Encoding;
 import grakn.core.graph.util.KeyGenerator;
 
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.collection.Bytes.DATETIME_SIZE;
 import static grakn.core.common.collection.Bytes.DOUBLE_SIZE;
@@ -40,15 +45,18 @@ import static grakn.core.common.collection.Bytes.sortedBytesToDouble;
 import static grakn.core.common.collection.Bytes.sortedBytesToLong;
 import static grakn.core.common.collection.Bytes.sortedBytesToShort;
 import static grakn.core.common.collection.Bytes.stringToBytes;
-import static grakn.core.common.collection.Bytes.unsignedBytesToShort;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
 import static grakn.core.common.exception.ErrorMessage.ThingRead.INVALID_THING_IID_CASTING;
 import static grakn.core.graph.util.Encoding.ValueType.STRING_ENCODING;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_HASHED_KEY;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_INLINE_MAX_SIZE;
 import static grakn.core.graph.util.Encoding.ValueType.STRING_MAX_SIZE;
 import static grakn.core.graph.util.Encoding.ValueType.STRING_SIZE_ENCODING;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_SORTED_KEY;
 import static grakn.core.graph.util.Encoding.ValueType.TIME_ZONE_ID;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.ATTRIBUTE;
 import static grakn.core.graph.util.Encoding.Vertex.Type.ATTRIBUTE_TYPE;
+import static java.util.Arrays.copyOf;
 import static java.util.Arrays.copyOfRange;
 
 public abstract class VertexIID extends IID {
@@ -149,7 +157,7 @@ public abstract class VertexIID extends IID {
         }
 
         public static VertexIID.Thing of(byte[] bytes) {
-            if (Encoding.Vertex.Type.of(bytes[PrefixIID.LENGTH]).equals(ATTRIBUTE_TYPE)) {
+            if (bytes[PrefixIID.LENGTH] == ATTRIBUTE_TYPE.prefix().key()) {
                 return VertexIID.Attribute.of(bytes);
             } else {
                 return new VertexIID.Thing(bytes);
@@ -157,13 +165,22 @@ public abstract class VertexIID extends IID {
         }
 
         public static VertexIID.Thing extract(byte[] bytes, int from) {
-            if (Encoding.Vertex.Thing.of(bytes[from]).equals(ATTRIBUTE)) {
+            if (bytes[from] == ATTRIBUTE.prefix().key()) {
                 return VertexIID.Attribute.extract(bytes, from);
             } else {
                 return new VertexIID.Thing(copyOfRange(bytes, from, from + DEFAULT_LENGTH));
             }
         }
 
+        /**
+         * Returns the length of the {@code VertexIID.Thing} that begins at the given index,
+         * without copying it out of the given bytes.
+         */
+        static int length(byte[] bytes, int from) {
+            if (bytes[from] == ATTRIBUTE.prefix().key()) return VertexIID.Attribute.length(bytes, from);
+            else return DEFAULT_LENGTH;
+        }
+
         public Type type() {
             return Type.of(copyOfRange(bytes, PrefixIID.LENGTH, PREFIX_W_TYPE_LENGTH));
         }
@@ -236,6 +253,58 @@ public abstract class VertexIID extends IID {
             }
         }
 
+        static int length(byte[] bytes, int from) {
+            return length(ByteBuffer.wrap(bytes, from, bytes.length - from));
+        }
+
+        /**
+         * Returns the length of the attribute IID that a key starts with, such as
+         * the key of an edge stored under the attribute, reading it in place.
+         *
+         * @param key the key, from its position to its limit
+         * @return the length of the attribute IID at the start of the key
+         */
+        public static int length(ByteBuffer key) {
+            final int from = key.position();
+            final byte valueTypeKey = key.get(from + VALUE_TYPE_INDEX);
+            switch (Encoding.ValueType.of(valueTypeKey)) {
+                case BOOLEAN:
+                    return VALUE_INDEX + 1;
+                case LONG:
+                    return VALUE_INDEX + LONG_SIZE;
+                case DOUBLE:
+                    return VALUE_INDEX + DOUBLE_SIZE;
+                case STRING:
+                    if (valueTypeKey == STRING_HASHED_KEY) return String.HASHED_LENGTH;
+                    else if (valueTypeKey == STRING_SORTED_KEY) return String.sortedLength(key, from);
+                    else return VALUE_INDEX + STRING_SIZE_ENCODING + (key.getShort(from + VALUE_INDEX) & 0xffff);
+                case DATETIME:
+                    return VALUE_INDEX + DATETIME_SIZE;
+                default:
+                    assert false;
+                    throw GraknException.of(UNRECOGNISED_VALUE);
+            }
+        }
+
+        /**
+         * Compares the encoded values of two attribute IIDs, regardless of their types,
+         * which for attributes of the same sorted value type is the order of their values.
+         *
+         * @param first  the first attribute IID
+         * @param second the second attribute IID
+         * @return a negative integer, zero, or a positive integer as the value of the first
+         * is encoded before, the same as, or after the value of the second
+         */
+        public static int compareValues(VertexIID.Attribute<?> first, VertexIID.Attribute<?> second) {
+            assert first.valueType() == second.valueType();
+            final int length = Math.min(first.bytes.length, second.bytes.length);
+            for (int i = VALUE_INDEX; i < length; i++) {
+                final int cmp = (first.bytes[i] & 0xff) - (second.bytes[i] & 0xff);
+                if (cmp != 0) return cmp;
+            }
+            return first.bytes.length - second.bytes.length;
+        }
+
         public static VertexIID.Attribute<?> extract(byte[] bytes, int from) {
             switch (Encoding.ValueType.of(bytes[from + VALUE_TYPE_INDEX])) {
                 case BOOLEAN:
@@ -377,6 +446,19 @@ public abstract class VertexIID extends IID {
 
         public static class String extends Attribute<java.lang.String> {
 
+            static final int HASH_LENGTH = LONG_SIZE;
+            static final int DISAMBIGUATOR_LENGTH = 1;
+            static final int HASHED_LENGTH = VALUE_INDEX + HASH_LENGTH + DISAMBIGUATOR_LENGTH;
+            public static final int MAX_DISAMBIGUATOR = 255;
+
+            // In the order-preserving form, every 0x00 byte of the value is escaped as 0x00 0xFF, and the value
+            // is terminated by 0x00 0x00, or by 0x00 0x01 followed by the hash and disambiguator if it is cut
+            // at STRING_INLINE_MAX_SIZE bytes. The terminators sort before any continuation of the value.
+            private static final byte ESCAPE = 0x00;
+            private static final byte ESCAPED_ZERO = (byte) 0xff;
+            private static final byte END = 0x00;
+            private static final byte END_TRUNCATED = 0x01;
+
             public String(byte[] bytes) {
                 super(bytes);
             }
@@ -386,18 +468,170 @@ public abstract class VertexIID extends IID {
                 assert bytes.length <= STRING_MAX_SIZE + STRING_SIZE_ENCODING;
             }
 
+            /**
+             * Hashes the value of a string attribute that is too long to be embedded in its IID.
+             *
+             * @param value the value of the attribute, encoded with {@code STRING_ENCODING}
+             * @return the first {@code HASH_LENGTH} bytes of the SHA-256 digest of the value
+             */
+            public static byte[] hash(byte[] value) {
+                try {
+                    return copyOf(MessageDigest.getInstance("SHA-256").digest(value), HASH_LENGTH);
+                } catch (NoSuchAlgorithmException e) {
+                    throw GraknException.of(e);
+                }
+            }
+
+            /**
+             * Generate the IID of a string attribute whose value is too long to be embedded in the IID.
+             * The IID is identified by the hash of the value instead, followed by a disambiguator to tell
+             * apart the values of the same attribute type that share the same hash. The value itself
+             * is to be stored once, under the IID.
+             *
+             * @param typeIID       {@code IID} of the attribute type of the attribute
+             * @param hash          the hash of the value of the attribute, as computed by {@link #hash(byte[])}
+             * @param disambiguator between 0 and {@code MAX_DISAMBIGUATOR}, in order of insertion of the values
+             * @return the IID of a string attribute that does not embed its value
+             */
+            public static VertexIID.Attribute.String hashed(VertexIID.Type typeIID, byte[] hash, int disambiguator) {
+                assert hash.length == HASH_LENGTH && disambiguator >= 0 && disambiguator <= MAX_DISAMBIGUATOR;
+                return new VertexIID.Attribute.String(join(
+                        ATTRIBUTE.prefix().bytes(), typeIID.bytes(), new byte[]{STRING_HASHED_KEY},
+                        hash, new byte[]{(byte) disambiguator}
+                ));
+            }
+
+            /**
+             * Generate the IID of a string attribute whose value is embedded in an order-preserving form,
+             * such that the attributes of the same type are stored in the byte order of their values.
+             *
+             * @param typeIID {@code IID} of the attribute type of the attribute
+             * @param value   the value of the attribute, encoded with {@code STRING_ENCODING}
+             * @return the IID of a string attribute that sorts in the order of its value
+             */
+            public static VertexIID.Attribute.String sorted(VertexIID.Type typeIID, byte[] value) {
+                assert value.length <= STRING_INLINE_MAX_SIZE;
+                return new VertexIID.Attribute.String(join(
+                        ATTRIBUTE.prefix().bytes(), typeIID.bytes(), new byte[]{STRING_SORTED_KEY},
+                        escape(value, value.length), new byte[]{ESCAPE, END}
+                ));
+            }
+
+            /**
+             * Generate the IID of a string attribute whose value is too long to be embedded in the IID,
+             * in an order-preserving form. The IID embeds the first {@code STRING_INLINE_MAX_SIZE} bytes
+             * of the value, followed by the hash of the value and a disambiguator, as in
+             * {@link #hashed(VertexIID.Type, byte[], int)}. Such attributes are stored in the order of
+             * the first bytes of their values, and after the attribute whose value is those bytes alone.
+             *
+             * @param typeIID       {@code IID} of the attribute type of the attribute
+             * @param value         the value of the attribute, encoded with {@code STRING_ENCODING}
+             * @param hash          the hash of the value of the attribute, as computed by {@link #hash(byte[])}
+             * @param disambiguator between 0 and {@code MAX_DISAMBIGUATOR}, in order of insertion of the values
+             * @return the IID of a string attribute that sorts in the order of the first bytes of its value
+             */
+            public static VertexIID.Attribute.String sortedHashed(VertexIID.Type typeIID, byte[] value,
+                                                                  byte[] hash, int disambiguator) {
+                assert value.length > STRING_INLINE_MAX_SIZE;
+                assert hash.length == HASH_LENGTH && disambiguator >= 0 && disambiguator <= MAX_DISAMBIGUATOR;
+                return new VertexIID.Attribute.String(join(
+                        ATTRIBUTE.prefix().bytes(), typeIID.bytes(), new byte[]{STRING_SORTED_KEY},
+                        escape(value, STRING_INLINE_MAX_SIZE), new byte[]{ESCAPE, END_TRUNCATED},
+                        hash, new byte[]{(byte) disambiguator}
+                ));
+            }
+
+            /**
+             * Generate a prefix of the sorted IIDs of string attributes, which bounds them by the given value:
+             * the attributes whose values are greater than or equal to it are stored from the prefix onwards,
+             * and the attributes whose values are less than or equal to it are stored before the end of the
+             * keys that start with the prefix. The attributes whose values start with it are stored within
+             * the keys that start with the prefix.
+             *
+             * The value is cut before its first surrogate or higher character, from which on its UTF-8 bytes
+             * may not sort in the same order as {@link java.lang.String#compareTo(java.lang.String)}.
+             *
+             * @param typeIID {@code IID} of the attribute type of the attributes
+             * @param value   the value to bound the attributes by
+             * @return the IID prefix bounding the attributes by the given value
+             */
+            public static VertexIID.Attribute.String sortedBound(VertexIID.Type typeIID, java.lang.String value) {
+                int end = 0;
+                while (end < value.length() && value.charAt(end) < Character.MIN_SURROGATE) end++;
+                final byte[] bytes = value.substring(0, end).getBytes(STRING_ENCODING);
+                return new VertexIID.Attribute.String(join(
+                        ATTRIBUTE.prefix().bytes(), typeIID.bytes(), new byte[]{STRING_SORTED_KEY},
+                        escape(bytes, Math.min(bytes.length, STRING_INLINE_MAX_SIZE))
+                ));
+            }
+
+            private static byte[] escape(byte[] value, int length) {
+                int zeros = 0;
+                for (int i = 0; i < length; i++) {
+                    if (value[i] == ESCAPE) zeros++;
+                }
+                final byte[] escaped = new byte[length + zeros];
+                for (int i = 0, j = 0; i < length; i++) {
+                    escaped[j++] = value[i];
+                    if (value[i] == ESCAPE) escaped[j++] = ESCAPED_ZERO;
+                }
+                return escaped;
+            }
+
+            static int sortedLength(ByteBuffer buffer, int from) {
+                int i = from + VALUE_INDEX;
+                while (true) {
+                    if (buffer.get(i) != ESCAPE) i++;
+                    else if (buffer.get(i + 1) == ESCAPED_ZERO) i += 2;
+                    else if (buffer.get(i + 1) == END) return i + 2 - from;
+                    else return i + 2 + HASH_LENGTH + DISAMBIGUATOR_LENGTH - from;
+                }
+            }
+
             public static VertexIID.Attribute.String extract(byte[] bytes, int from) {
-                int attValIndex = from + VALUE_INDEX;
-                int strValLen = unsignedBytesToShort(copyOfRange(bytes, attValIndex, attValIndex + STRING_SIZE_ENCODING));
-                int stringEnd = from + PREFIX_W_TYPE_LENGTH + VALUE_TYPE_LENGTH + STRING_SIZE_ENCODING + strValLen;
-                return new VertexIID.Attribute.String(copyOfRange(bytes, from, stringEnd));
+                return new VertexIID.Attribute.String(copyOfRange(bytes, from, from + length(bytes, from)));
+            }
+
+            /**
+             * Returns true if the value of this attribute is not embedded in its IID, in whole,
+             * in which case it is stored under the IID and {@link #value()} cannot be used.
+             */
+            public boolean isHashed() {
+                if (bytes[VALUE_TYPE_INDEX] == STRING_HASHED_KEY) return true;
+                else if (bytes[VALUE_TYPE_INDEX] != STRING_SORTED_KEY) return false;
+                // an escaped value never contains 0x00 0x01, so this can only be the truncated terminator
+                final int end = bytes.length - HASH_LENGTH - DISAMBIGUATOR_LENGTH - 2;
+                return end >= VALUE_INDEX && bytes[end] == ESCAPE && bytes[end + 1] == END_TRUNCATED;
             }
 
             @Override
             public java.lang.String value() {
+                assert !isHashed();
+                if (bytes[VALUE_TYPE_INDEX] == STRING_SORTED_KEY) {
+                    final int end = bytes.length - 2;
+                    final byte[] value = new byte[end - VALUE_INDEX];
+                    int length = 0;
+                    for (int i = VALUE_INDEX; i < end; i++) {
+                        value[length++] = bytes[i];
+                        if (bytes[i] == ESCAPE) i++;
+                    }
+                    return new java.lang.String(value, 0, length, STRING_ENCODING);
+                }
                 return bytesToString(copyOfRange(bytes, VALUE_INDEX, bytes.length), STRING_ENCODING);
             }
 
+            @Override
+            public java.lang.String toString() {
+                if (readableString == null && isHashed()) {
+                    readableString = "[" + PrefixIID.LENGTH + ": " + ATTRIBUTE.toString() + "]" +
+                            "[" + VertexIID.Type.LENGTH + ": " + type().toString() + "]" +
+                            "[" + VALUE_TYPE_LENGTH + ": " + valueType().toString() + " (hashed)]" +
+                            "[" + (bytes.length - VALUE_INDEX) + ": " +
+                            Arrays.toString(copyOfRange(bytes, VALUE_INDEX, bytes.length)) + "]";
+                }
+                return super.toString();
+            }
+
             @Override
             public String asString() {
                 return this;
@@ -44,6 +44,22 @@ public class Encoding {
     public static final String ROCKS_DATA = "data";
     public static final String ROCKS_SCHEMA = "schema";
 
+    /**
+     * The versions of the encoding with which a database may be created, which
+     * is persisted under {@code Metadata.ENCODING_VERSION} in the schema storage.
+     * Databases created before the version was persisted are of version 0.
+     *
+     * 0: every string attribute value is embedded in the IID of its vertex
+     * 1: string attribute values longer than {@code ValueType.STRING_INLINE_MAX_SIZE}
+     *    are stored once under their vertex, which is identified by a hash of the value
+     * 2: as in 1, but string attribute values are embedded in an order-preserving form,
+     *    so that the attributes of a string type are stored in the order of their values
+     */
+    public static final int ENCODING_VERSION_LEGACY = 0;
+    public static final int ENCODING_VERSION_HASHED_STRINGS = 1;
+    public static final int ENCODING_VERSION_SORTED_STRINGS = 2;
+    private static final int KEY_RANGE = 256; // every encoded key is a single byte
+
     public enum Key {
         PERSISTED(0, true),
         BUFFERED(-1, false);
@@ -128,7 +144,8 @@ public class Encoding {
         STATISTICS(1),
         TYPE(2),
         THING(3),
-        RULE(4);
+        RULE(4),
+        METADATA(5);
 
         private final int key;
 
@@ -153,6 +170,7 @@ public class Encoding {
         STATISTICS_COUNT_JOB(51, PrefixType.STATISTICS),
         STATISTICS_COUNTED(52, PrefixType.STATISTICS),
         STATISTICS_SNAPSHOT(53, PrefixType.STATISTICS),
+        STATISTICS_VALUES(54, PrefixType.STATISTICS),
         VERTEX_THING_TYPE(100, PrefixType.TYPE),
         VERTEX_ENTITY_TYPE(110, PrefixType.TYPE),
         VERTEX_ATTRIBUTE_TYPE(120, PrefixType.TYPE),
@@ -162,21 +180,26 @@ public class Encoding {
         VERTEX_ATTRIBUTE(160, PrefixType.THING),
         VERTEX_RELATION(170, PrefixType.THING),
         VERTEX_ROLE(180, PrefixType.THING),
-        STRUCTURE_RULE(190, PrefixType.RULE);
+        STRUCTURE_RULE(190, PrefixType.RULE),
+        METADATA(240, PrefixType.METADATA);
 
+        private static final Prefix[] BY_KEY = new Prefix[KEY_RANGE];
         private final byte key;
         private final PrefixType type;
 
+        static {
+            for (Prefix prefix : Prefix.values()) BY_KEY[prefix.key & 0xff] = prefix;
+        }
+
         Prefix(int key, PrefixType type) {
             this.key = (byte) (key & 0xff);
             this.type = type;
         }
 
         public static Prefix of(byte key) {
-            for (Prefix i : Prefix.values()) {
-                if (i.key == key) return i;
-            }
-            throw GraknException.of(UNRECOGNISED_VALUE);
+            final Prefix prefix = BY_KEY[key & 0xff];
+            if (prefix == null) throw GraknException.of(UNRECOGNISED_VALUE);
+            return prefix;
         }
 
         public byte key() {
@@ -209,6 +232,28 @@ public class Encoding {
             return type.equals(PrefixType.RULE);
         }
 
+        public boolean isMetadata() {
+            return type.equals(PrefixType.METADATA);
+        }
+
+    }
+
+    /**
+     * The keys under which the properties of a database itself, rather than
+     * of its schema or data, are stored.
+     */
+    public enum Metadata {
+        ENCODING_VERSION(0);
+
+        private final byte key;
+
+        Metadata(int key) {
+            this.key = (byte) key;
+        }
+
+        public byte[] bytes() {
+            return new byte[]{Prefix.METADATA.key, key};
+        }
     }
 
     /**
@@ -246,9 +291,14 @@ public class Encoding {
         EDGE_RELATING_IN(-72),
         EDGE_ROLEPLAYER_OUT(73, true),
         EDGE_ROLEPLAYER_IN(-73, true);
+        private static final Infix[] BY_KEY = new Infix[KEY_RANGE];
         private final byte key;
         private final boolean isOptimisation;
 
+        static {
+            for (Infix infix : Infix.values()) BY_KEY[infix.key & 0xff] = infix;
+        }
+
         Infix(int key) {
             this(key, false);
         }
@@ -259,10 +309,9 @@ public class Encoding {
         }
 
         public static Infix of(byte key) {
-            for (Infix i : Infix.values()) {
-                if (i.key == key) return i;
-            }
-            throw GraknException.of(UNRECOGNISED_VALUE);
+            final Infix infix = BY_KEY[key & 0xff];
+            if (infix == null) throw GraknException.of(UNRECOGNISED_VALUE);
+            return infix;
         }
 
         public byte key() {
@@ -303,16 +352,28 @@ public class Encoding {
     }
 
     public enum ValueType {
-        OBJECT(0, Object.class, false, false, null),
-        BOOLEAN(10, Boolean.class, true, false, GraqlArg.ValueType.BOOLEAN),
-        LONG(20, Long.class, true, true, GraqlArg.ValueType.LONG),
-        DOUBLE(30, Double.class, true, false, GraqlArg.ValueType.DOUBLE),
-        STRING(40, String.class, true, true, GraqlArg.ValueType.STRING),
-        DATETIME(50, LocalDateTime.class, true, true, GraqlArg.ValueType.DATETIME);
+        OBJECT(0, Object.class, false, false, false, null),
+        BOOLEAN(10, Boolean.class, true, false, true, GraqlArg.ValueType.BOOLEAN),
+        LONG(20, Long.class, true, true, true, GraqlArg.ValueType.LONG),
+        DOUBLE(30, Double.class, true, false, true, GraqlArg.ValueType.DOUBLE),
+        STRING(40, String.class, true, true, false, GraqlArg.ValueType.STRING),
+        DATETIME(50, LocalDateTime.class, true, true, true, GraqlArg.ValueType.DATETIME);
         public static final ZoneId TIME_ZONE_ID = ZoneId.of("Z");
         public static final Charset STRING_ENCODING = UTF_8;
         public static final int STRING_SIZE_ENCODING = Bytes.SHORT_SIZE;
         public static final int STRING_MAX_SIZE = Bytes.SHORT_UNSIGNED_MAX_VALUE;
+        public static final int STRING_INLINE_MAX_SIZE = 128;
+        /**
+         * The key with which the IID of a string attribute is encoded, instead of the key of {@code STRING},
+         * when its value is too long to be embedded in the IID and is instead stored once under the IID.
+         * It is decoded as {@code STRING}.
+         */
+        public static final byte STRING_HASHED_KEY = 41;
+        /**
+         * The key with which the IID of a string attribute is encoded, instead of the key of {@code STRING},
+         * when its value is embedded in an order-preserving form. It is decoded as {@code STRING}.
+         */
+        public static final byte STRING_SORTED_KEY = 42;
         public static final double DOUBLE_PRECISION = 0.0000000000000001;
 
         private static final Map<ValueType, Set<ValueType>> ASSIGNABLES = map(
@@ -332,27 +393,35 @@ public class Encoding {
                 pair(STRING, set(STRING)),
                 pair(DATETIME, set(DATETIME))
         );
+        private static final ValueType[] BY_KEY = new ValueType[KEY_RANGE];
         private final byte key;
         private final Class<?> valueClass;
         private final boolean isKeyable;
         private final boolean isWritable;
+        private final boolean isSorted;
 
         private final GraqlArg.ValueType graqlValueType;
 
-        ValueType(int key, Class<?> valueClass, boolean isWritable, boolean isKeyable,
+        ValueType(int key, Class<?> valueClass, boolean isWritable, boolean isKeyable, boolean isSorted,
                   @Nullable GraqlArg.ValueType graqlValueType) {
             this.key = (byte) key;
             this.valueClass = valueClass;
             this.isWritable = isWritable;
             this.isKeyable = isKeyable;
+            this.isSorted = isSorted;
             this.graqlValueType = graqlValueType;
         }
 
+        static {
+            for (ValueType valueType : ValueType.values()) BY_KEY[valueType.key & 0xff] = valueType;
+            BY_KEY[STRING_HASHED_KEY & 0xff] = STRING;
+            BY_KEY[STRING_SORTED_KEY & 0xff] = STRING;
+        }
+
         public static ValueType of(byte value) {
-            for (ValueType vt : ValueType.values()) {
-                if (vt.key == value) return vt;
-            }
-            throw GraknException.of(UNRECOGNISED_VALUE);
+            final ValueType valueType = BY_KEY[value & 0xff];
+            if (valueType == null) throw GraknException.of(UNRECOGNISED_VALUE);
+            return valueType;
         }
 
         public static ValueType of(Class<?> valueClass) {
@@ -385,6 +454,17 @@ public class Encoding {
             return isKeyable;
         }
 
+        /**
+         * Returns true if the values of this type are encoded in a fixed number of
+         * bytes that sort in the same order as the values themselves, such that
+         * the attributes of a given type are stored in the order of their values.
+         *
+         * @return true if attributes of this value type are stored in value order
+         */
+        public boolean isSorted() {
+            return isSorted;
+        }
+
         public Set<ValueType> assignables() {
             return ASSIGNABLES.get(this);
         }
@@ -436,10 +516,15 @@ public class Encoding {
             RELATION_TYPE(Prefix.VERTEX_RELATION_TYPE, Root.RELATION, Thing.RELATION),
             ROLE_TYPE(Prefix.VERTEX_ROLE_TYPE, Root.ROLE, Thing.ROLE);
 
+            private static final Type[] BY_PREFIX = new Type[KEY_RANGE];
             private final Prefix prefix;
             private final Root root;
             private final Thing instance;
 
+            static {
+                for (Type type : Type.values()) BY_PREFIX[type.prefix.key & 0xff] = type;
+            }
+
             Type(Prefix prefix, Root root, Thing instance) {
                 this.prefix = prefix;
                 this.root = root;
@@ -447,10 +532,9 @@ public class Encoding {
             }
 
             public static Type of(byte prefix) {
-                for (Type t : Type.values()) {
-                    if (t.prefix.key == prefix) return t;
-                }
-                throw GraknException.of(UNRECOGNISED_VALUE);
+                final Type type = BY_PREFIX[prefix & 0xff];
+                if (type == null) throw GraknException.of(UNRECOGNISED_VALUE);
+                return type;
             }
 
             public static Type of(Thing thing) {
@@ -524,17 +608,21 @@ public class Encoding {
             RELATION(Prefix.VERTEX_RELATION),
             ROLE(Prefix.VERTEX_ROLE);
 
+            private static final Thing[] BY_PREFIX = new Thing[KEY_RANGE];
             private final Prefix prefix;
 
+            static {
+                for (Thing thing : Thing.values()) BY_PREFIX[thing.prefix.key & 0xff] = thing;
+            }
+
             Thing(Prefix prefix) {
                 this.prefix = prefix;
             }
 
             public static Thing of(byte prefix) {
-                for (Thing t : Thing.values()) {
-                    if (t.prefix.key == prefix) return t;
-                }
-                throw GraknException.of(UNRECOGNISED_VALUE);
+                final Thing thing = BY_PREFIX[prefix & 0xff];
+                if (thing == null) throw GraknException.of(UNRECOGNISED_VALUE);
+                return thing;
             }
 
             @Override
@@ -607,21 +695,26 @@ public class Encoding {
             PLAYS(Infix.EDGE_PLAYS_OUT, Infix.EDGE_PLAYS_IN),
             RELATES(Infix.EDGE_RELATES_OUT, Infix.EDGE_RELATES_IN);
 
+            private static final Type[] BY_INFIX = new Type[KEY_RANGE];
             private final Infix out;
             private final Infix in;
 
+            static {
+                for (Type type : Type.values()) {
+                    BY_INFIX[type.out.key & 0xff] = type;
+                    BY_INFIX[type.in.key & 0xff] = type;
+                }
+            }
+
             Type(Infix out, Infix in) {
                 this.out = out;
                 this.in = in;
             }
 
             public static Type of(byte infix) {
-                for (Type t : Type.values()) {
-                    if (t.out.key == infix || t.in.key == infix) {
-                        return t;
-                    }
-                }
-                throw GraknException.of(UNRECOGNISED_VALUE);
+                final Type type = BY_INFIX[infix & 0xff];
+                if (type == null) throw GraknException.of(UNRECOGNISED_VALUE);
+                return type;
             }
 
             @Override
@@ -651,11 +744,19 @@ public class Encoding {
             RELATING(Infix.EDGE_RELATING_OUT, Infix.EDGE_RELATING_IN),
             ROLEPLAYER(Infix.EDGE_ROLEPLAYER_OUT, Infix.EDGE_ROLEPLAYER_IN, true, 1);
 
+            private static final Thing[] BY_INFIX = new Thing[KEY_RANGE];
             private final Infix out;
             private final Infix in;
             private final boolean isOptimisation;
             private final int tailSize;
 
+            static {
+                for (Thing thing : Thing.values()) {
+                    if (thing.out != null) BY_INFIX[thing.out.key & 0xff] = thing;
+                    if (thing.in != null) BY_INFIX[thing.in.key & 0xff] = thing;
+                }
+            }
+
             Thing(Infix out, Infix in) {
                 this(out, in, false, 0);
             }
@@ -674,12 +775,9 @@ public class Encoding {
             }
 
             public static Thing of(byte infix) {
-                for (Thing t : Thing.values()) {
-                    if ((t.out != null && t.out.key == infix) || (t.in != null && t.in.key == infix)) {
-                        return t;
-                    }
-                }
-                throw GraknException.of(UNRECOGNISED_VALUE);
+                final Thing thing = BY_INFIX[infix & 0xff];
+                if (thing == null) throw GraknException.of(UNRECOGNISED_VALUE);
+                return thing;
             }
 
             @Override
@@ -739,7 +837,8 @@ public class Encoding {
 
         enum JobType {
             ATTRIBUTE_VERTEX(0),
-            HAS_EDGE(1);
+            HAS_EDGE(1),
+            DEGREE(2);
 
             private final byte key;
 
@@ -797,7 +896,11 @@ public class Encoding {
             VERTEX_COUNT(0),
             VERTEX_TRANSITIVE_COUNT(1),
             HAS_EDGE_COUNT(2),
-            HAS_EDGE_TOTAL_COUNT(3);
+            HAS_EDGE_TOTAL_COUNT(3),
+            PLAYING_EDGE_COUNT(4),
+            RELATING_EDGE_COUNT(5),
+            DEGREE_BUCKET_COUNT(6),
+            DEGREE(7);
 
             private final byte key;
 
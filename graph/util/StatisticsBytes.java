@@ -52,6 +52,36 @@ public class StatisticsBytes {
                 Encoding.Statistics.Infix.HAS_EDGE_TOTAL_COUNT.bytes());
     }
 
+    public static byte[] playingEdgeCountKey(VertexIID.Type playerTypeIID, VertexIID.Type roleTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                playerTypeIID.bytes(),
+                Encoding.Statistics.Infix.PLAYING_EDGE_COUNT.bytes(),
+                roleTypeIID.bytes());
+    }
+
+    public static byte[] relatingEdgeCountKey(VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                relationTypeIID.bytes(),
+                Encoding.Statistics.Infix.RELATING_EDGE_COUNT.bytes(),
+                roleTypeIID.bytes());
+    }
+
+    public static byte[] degreeBucketCountKey(VertexIID.Type thingTypeIID, Encoding.Infix edgeInfix, int bucket) {
+        return join(
+                degreeBucketCountPrefix(thingTypeIID, edgeInfix),
+                new byte[]{(byte) bucket});
+    }
+
+    public static byte[] degreeBucketCountPrefix(VertexIID.Type thingTypeIID, Encoding.Infix edgeInfix) {
+        return join(
+                Encoding.Prefix.STATISTICS_THINGS.bytes(),
+                thingTypeIID.bytes(),
+                Encoding.Statistics.Infix.DEGREE_BUCKET_COUNT.bytes(),
+                edgeInfix.bytes());
+    }
+
     public static byte[] countJobKey() {
         return join(
                 Encoding.Prefix.STATISTICS_COUNT_JOB.bytes());
@@ -64,6 +94,14 @@ public class StatisticsBytes {
                 attIID.bytes());
     }
 
+    public static byte[] attributeCountJobPrefix(VertexIID.Type attTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
+                Encoding.Statistics.JobType.ATTRIBUTE_VERTEX.bytes(),
+                Encoding.Vertex.Thing.ATTRIBUTE.prefix().bytes(),
+                attTypeIID.bytes());
+    }
+
     public static byte[] attributeCountedKey(VertexIID.Attribute<?> attIID) {
         return join(
                 Encoding.Prefix.STATISTICS_COUNTED.bytes(),
@@ -79,6 +117,14 @@ public class StatisticsBytes {
         );
     }
 
+    public static byte[] hasEdgeCountJobPrefix(VertexIID.Type thingTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
+                Encoding.Statistics.JobType.HAS_EDGE.bytes(),
+                thingTypeIID.encoding().instance().prefix().bytes(),
+                thingTypeIID.bytes());
+    }
+
     public static byte[] hasEdgeCountedKey(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
         return join(
                 Encoding.Prefix.STATISTICS_COUNTED.bytes(),
@@ -88,6 +134,38 @@ public class StatisticsBytes {
         );
     }
 
+    public static byte[] degreeCountJobKey(VertexIID.Thing thingIID, Encoding.Infix edgeInfix) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
+                Encoding.Statistics.JobType.DEGREE.bytes(),
+                thingIID.bytes(),
+                edgeInfix.bytes()
+        );
+    }
+
+    public static byte[] degreeCountJobPrefix(VertexIID.Type thingTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
+                Encoding.Statistics.JobType.DEGREE.bytes(),
+                thingTypeIID.encoding().instance().prefix().bytes(),
+                thingTypeIID.bytes());
+    }
+
+    public static byte[] degreeCountedKey(VertexIID.Thing thingIID, Encoding.Infix edgeInfix) {
+        return join(
+                Encoding.Prefix.STATISTICS_COUNTED.bytes(),
+                thingIID.bytes(),
+                Encoding.Statistics.Infix.DEGREE.bytes(),
+                edgeInfix.bytes()
+        );
+    }
+
+    public static byte[] valueHistogramKey(VertexIID.Type attTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_VALUES.bytes(),
+                attTypeIID.bytes());
+    }
+
     public static byte[] snapshotKey() {
         return Encoding.Prefix.STATISTICS_SNAPSHOT.bytes();
     }
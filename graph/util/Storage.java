@@ -22,7 +22,10 @@ import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
@@ -49,6 +52,33 @@ public interface Storage {
 
     <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor);
 
+    /**
+     * Iterates over the keys in the range of {@code lowerBound} (inclusive) to {@code upperBound} (exclusive)
+     * whose length is given by {@code keyLength}. Longer keys that extend a key in range (i.e. the edges stored
+     * under a vertex) are skipped by seeking past them, rather than by reading through them.
+     *
+     * @param lowerBound  the inclusive lower bound of the range
+     * @param upperBound  the exclusive upper bound of the range
+     * @param keyLength   the length of the key to be returned that a key in range starts with
+     * @param constructor to construct the returned elements from the key and value
+     * @param <G>         the type of elements returned by the iterator
+     * @return an iterator over the keys in range, in sorted order
+     */
+    <G> ResourceIterator<G> iterate(byte[] lowerBound, byte[] upperBound, ToIntFunction<ByteBuffer> keyLength,
+                                    BiFunction<byte[], byte[], G> constructor);
+
+    /**
+     * Splits the keys that start with the given prefix into consecutive ranges of roughly the same number of keys,
+     * so that every range can be iterated independently (e.g. by a different thread) on the same snapshot.
+     *
+     * @param prefix     the prefix of the keys to split
+     * @param partitions the maximum number of ranges to split the keys into
+     * @return the bounds of the ranges in ascending order, starting with the prefix (inclusive) and ending
+     * with its upper bound (exclusive), where every bound is the exclusive upper bound of the previous range
+     * and the inclusive lower bound of the next
+     */
+    List<byte[]> split(byte[] prefix, int partitions);
+
     GraknException exception(ErrorMessage error);
 
     GraknException exception(Exception exception);
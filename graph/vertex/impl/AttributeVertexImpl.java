@@ -18,6 +18,7 @@
 
 package grakn.core.graph.vertex.impl;
 
+import grakn.core.common.exception.GraknCheckedException;
 import grakn.core.common.exception.GraknException;
 import grakn.core.graph.DataGraph;
 import grakn.core.graph.adjacency.ThingAdjacency;
@@ -28,11 +29,15 @@ import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
 import grakn.core.graph.vertex.AttributeVertex;
 
+import javax.annotation.Nullable;
 import java.time.LocalDateTime;
 
 import static grakn.common.util.Objects.className;
+import static grakn.core.common.collection.Bytes.bytesToString;
+import static grakn.core.common.collection.Bytes.stringToBytes;
 import static grakn.core.common.exception.ErrorMessage.ThingRead.INVALID_THING_VERTEX_CASTING;
 import static grakn.core.common.exception.ErrorMessage.Transaction.ILLEGAL_OPERATION;
+import static grakn.core.graph.util.Encoding.ValueType.STRING_ENCODING;
 
 public abstract class AttributeVertexImpl<VALUE> extends ThingVertexImpl implements AttributeVertex<VALUE> {
 
@@ -125,8 +130,12 @@ public abstract class AttributeVertexImpl<VALUE> extends ThingVertexImpl impleme
         commitEdges();
     }
 
-    private void commitVertex() {
+    void commitIID() {
         graph.storage().putUntracked(attributeIID.bytes());
+    }
+
+    private void commitVertex() {
+        commitIID();
         graph.storage().putUntracked(EdgeIID.InwardsISA.of(type().iid(), iid).bytes());
         graph.storage().putUntracked(index().bytes(), attributeIID.bytes());
         // TODO: we should make use of attribute indexes to look up attributes by value (without type) quickly
@@ -246,17 +255,52 @@ public abstract class AttributeVertexImpl<VALUE> extends ThingVertexImpl impleme
 
     public static class String extends AttributeVertexImpl<java.lang.String> {
 
+        private final VertexIID.Attribute.String stringIID;
+        private java.lang.String value;
+
         public String(DataGraph graph, VertexIID.Attribute.String iid) {
             this(graph, iid, false);
         }
 
-        public String(DataGraph graph, VertexIID.Attribute<java.lang.String> iid, boolean isInferred) {
+        public String(DataGraph graph, VertexIID.Attribute.String iid, boolean isInferred) {
+            this(graph, iid, null, isInferred);
+        }
+
+        /**
+         * @param value the value of the attribute, if known, which would otherwise be read
+         *              from storage when the value is not embedded in the IID
+         */
+        public String(DataGraph graph, VertexIID.Attribute.String iid,
+                      @Nullable java.lang.String value, boolean isInferred) {
             super(graph, iid, isInferred);
+            this.stringIID = iid;
+            this.value = value;
+        }
+
+        @Override
+        public java.lang.String value() {
+            if (!stringIID.isHashed()) return super.value();
+            if (value == null) value = bytesToString(graph.storage().get(stringIID.bytes()), STRING_ENCODING);
+            return value;
+        }
+
+        @Override
+        void commitIID() {
+            if (!stringIID.isHashed()) {
+                super.commitIID();
+                return;
+            }
+            try {
+                graph.storage().putUntracked(stringIID.bytes(), stringToBytes(value(), STRING_ENCODING));
+            } catch (GraknCheckedException e) {
+                throw GraknException.of(e);
+            }
         }
 
         @Override
         protected IndexIID.Attribute index() {
-            return IndexIID.Attribute.of(value(), type().iid());
+            if (stringIID.isHashed()) return IndexIID.Attribute.of(stringIID);
+            else return IndexIID.Attribute.of(value(), type().iid());
         }
 
         @Override
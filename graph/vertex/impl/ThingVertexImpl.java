@@ -40,7 +40,6 @@ import static grakn.core.graph.util.Encoding.Vertex.Thing.ATTRIBUTE;
 public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implements ThingVertex {
 
     protected final DataGraph graph;
-    protected final GraphManager graphMgr;
     protected final ThingAdjacency outs;
     protected final ThingAdjacency ins;
     protected final AtomicBoolean isDeleted;
@@ -49,7 +48,6 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
     ThingVertexImpl(DataGraph graph, VertexIID.Thing iid, boolean isInferred) {
         super(iid);
         this.graph = graph;
-        this.graphMgr = new GraphManager(graph.schema(), graph);
         this.outs = newAdjacency(Encoding.Direction.Adjacency.OUT);
         this.ins = newAdjacency(Encoding.Direction.Adjacency.IN);
         this.isInferred = isInferred;
@@ -80,7 +78,7 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
 
     @Override
     public GraphManager graphs() {
-        return graphMgr;
+        return graph.graphs();
     }
 
     @Override
@@ -23,6 +23,7 @@ import grakn.core.common.parameters.Label;
 import grakn.core.traversal.Traversal;
 import graql.lang.pattern.variable.Reference;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -41,6 +42,21 @@ public class LogicCache {
         this.typeResolverCache = new CommonCache<>(size, timeOutMinutes);
     }
 
+    /**
+     * Copies into this cache the type resolutions of the previous cache that are not affected by
+     * the types changed by a schema commit. Rules are not carried over, as they are bound to the
+     * concepts of the schema they were created from, and are rebuilt from the carried resolutions.
+     */
+    public void carryOver(LogicCache previous, Set<Label> modifiedTypes, boolean hasCreatedTypes) {
+        previous.typeResolverCache.forEach((traversal, resolution) -> {
+            if (traversal.dependsOn(modifiedTypes, hasCreatedTypes)) return;
+            for (Set<Label> labels : resolution.values()) {
+                if (!Collections.disjoint(labels, modifiedTypes)) return;
+            }
+            typeResolverCache.put(traversal, resolution);
+        });
+    }
+
     public CommonCache<Traversal, Map<Reference, Set<Label>>> resolver() { return typeResolverCache; }
 
     CommonCache<String, Rule> rule() { return ruleCache; }
@@ -20,13 +20,17 @@ package grakn.core.query;
 
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
-import grakn.core.common.parameters.Options;
+import grakn.core.common.parameters.Context;
+import grakn.core.concept.ConceptManager;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.ConceptMapGroup;
 import grakn.core.concept.answer.Numeric;
 import grakn.core.concept.answer.NumericGroup;
 import grakn.core.concept.thing.Attribute;
 import grakn.core.pattern.Disjunction;
+import grakn.core.query.spill.ExternalGrouper;
+import grakn.core.query.spill.ExternalSorter;
+import grakn.core.query.spill.SpillFiles;
 import grakn.core.reasoner.Reasoner;
 import grakn.core.traversal.common.Identifier;
 import graql.lang.common.GraqlArg;
@@ -60,61 +64,114 @@ import static grakn.core.common.exception.ErrorMessage.ThingRead.SORT_VARIABLE_N
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.query.Matcher.Aggregator.aggregator;
 import static java.lang.Math.sqrt;
-import static java.util.stream.Collectors.groupingBy;
 
 public class Matcher {
 
     private final Reasoner reasoner;
+    private final ConceptManager conceptMgr;
     private final GraqlMatch query;
     private final Disjunction disjunction;
     private final List<Identifier.Variable.Name> filter;
-    private final Options.Query options;
+    private final Context.Query context;
+    private final SpillFiles spillFiles;
 
-    public Matcher(Reasoner reasoner, GraqlMatch query, Options.Query options) {
+    public Matcher(Reasoner reasoner, ConceptManager conceptMgr, SpillFiles spillFiles, GraqlMatch query,
+                   Context.Query context) {
         this.reasoner = reasoner;
+        this.conceptMgr = conceptMgr;
+        this.spillFiles = spillFiles;
         this.query = query;
         this.disjunction = Disjunction.create(query.conjunction().normalise());
         this.filter = iterate(query.filter()).map(v -> Identifier.Variable.of(v.reference().asName())).toList();
-        this.options = options;
+        this.context = context;
     }
 
-    public static Matcher create(Reasoner reasoner, GraqlMatch query, Options.Query options) {
-        return new Matcher(reasoner, query, options);
+    public static Matcher create(Reasoner reasoner, ConceptManager conceptMgr, SpillFiles spillFiles,
+                                 GraqlMatch query, Context.Query context) {
+        return new Matcher(reasoner, conceptMgr, spillFiles, query, context);
     }
 
-    public static Matcher.Aggregator create(Reasoner reasoner, GraqlMatch.Aggregate query, Options.Query options) {
-        Matcher matcher = new Matcher(reasoner, query.match(), options);
+    public static Matcher.Aggregator create(Reasoner reasoner, ConceptManager conceptMgr, SpillFiles spillFiles,
+                                            GraqlMatch.Aggregate query, Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, conceptMgr, spillFiles, query.match(), context);
         return new Aggregator(matcher, query);
     }
 
-    public static Matcher.Group create(Reasoner reasoner, GraqlMatch.Group query, Options.Query options) {
-        Matcher matcher = new Matcher(reasoner, query.match(), options);
+    public static Matcher.Group create(Reasoner reasoner, ConceptManager conceptMgr, SpillFiles spillFiles,
+                                       GraqlMatch.Group query, Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, conceptMgr, spillFiles, query.match(), context);
         return new Group(matcher, query);
     }
 
-    public static Matcher.Group.Aggregator create(Reasoner reasoner, GraqlMatch.Group.Aggregate query, Options.Query options) {
-        Matcher matcher = new Matcher(reasoner, query.group().match(), options);
+    public static Matcher.Group.Aggregator create(Reasoner reasoner, ConceptManager conceptMgr, SpillFiles spillFiles,
+                                                  GraqlMatch.Group.Aggregate query, Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, conceptMgr, spillFiles, query.group().match(), context);
         Group group = new Group(matcher, query.group());
         return new Group.Aggregator(group, query);
     }
 
     public ResourceIterator<ConceptMap> execute(boolean isParallel) {
-        return filter(reasoner.execute(disjunction, filter, isParallel));
+        if (!isParallel && !context.options().infer() && isSortedWithLimit()) {
+            Sortable.Sorting sorting = query.sort().get();
+            ResourceIterator<ConceptMap> answers = reasoner.executeSorted(
+                    disjunction, filter, Identifier.Variable.of(sorting.var().reference().asName())
+            );
+            if (answers != null) return filter(answers, true);
+        }
+        return filter(reasoner.execute(disjunction, filter, isParallel), false);
+    }
+
+    private boolean isSortedWithLimit() {
+        return query.sort().isPresent() && query.sort().get().order() == GraqlArg.Order.ASC && query.limit().isPresent();
     }
 
-    private ResourceIterator<ConceptMap> filter(ResourceIterator<ConceptMap> answers) {
+    private ResourceIterator<ConceptMap> filter(ResourceIterator<ConceptMap> answers, boolean isSorted) {
         if (!query.filter().isEmpty()) {
             Set<Reference.Name> vars = iterate(query.filter()).map(f -> f.reference().asName()).toSet();
             answers = answers.map(a -> a.filter(vars)).distinct();
         }
-        if (query.sort().isPresent()) answers = sort(answers, query.sort().get());
+        if (query.sort().isPresent() && query.limit().isPresent()) {
+            long size = query.limit().get() + (query.offset().isPresent() ? query.offset().get() : 0);
+            answers = top(answers, comparator(query.sort().get()), size, isSorted);
+        } else if (query.sort().isPresent()) {
+            ExternalSorter sorter = new ExternalSorter(
+                    conceptMgr, comparator(query.sort().get()), context.options().queryMemoryBudget(), spillFiles
+            );
+            answers = sorter.sort(answers);
+        }
         if (query.offset().isPresent()) answers = answers.offset(query.offset().get());
         if (query.limit().isPresent()) answers = answers.limit(query.limit().get());
         return answers;
     }
 
-    private ResourceIterator<ConceptMap> sort(ResourceIterator<ConceptMap> answers, Sortable.Sorting sorting) {
-        // TODO: Replace this temporary implementation of Graql Match Sort query with a native sorting traversal
+    /**
+     * Returns the first answers in the order of the comparator, up to the given size, by only
+     * holding that many answers in a bounded heap rather than sorting every answer. If the
+     * answers are already mostly sorted, then they stop being consumed as soon as one is found
+     * to come after every answer held, when the heap is full.
+     */
+    private static ResourceIterator<ConceptMap> top(ResourceIterator<ConceptMap> answers,
+                                                    Comparator<ConceptMap> comparator, long size, boolean isSorted) {
+        if (size <= 0) return iterate(Collections.emptyIterator());
+        PriorityQueue<ConceptMap> heap = new PriorityQueue<>(comparator.reversed());
+        while (answers.hasNext()) {
+            ConceptMap answer = answers.next();
+            if (heap.size() < size) {
+                heap.add(answer);
+            } else if (comparator.compare(answer, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(answer);
+            } else if (isSorted) {
+                answers.recycle();
+                break;
+            }
+        }
+        List<ConceptMap> top = new ArrayList<>(heap);
+        top.sort(comparator);
+        return iterate(top);
+    }
+
+    private static Comparator<ConceptMap> comparator(Sortable.Sorting sorting) {
         Reference.Name var = sorting.var().reference().asName();
         Comparator<ConceptMap> comparator = (answer1, answer2) -> {
             Attribute att1, att2;
@@ -148,8 +205,7 @@ public class Matcher {
                 throw GraknException.of(ILLEGAL_STATE);
             }
         };
-        comparator = (sorting.order() == GraqlArg.Order.DESC) ? comparator.reversed() : comparator;
-        return iterate(answers.stream().sorted(comparator).iterator());
+        return (sorting.order() == GraqlArg.Order.DESC) ? comparator.reversed() : comparator;
     }
 
     public static class Aggregator {
@@ -578,10 +634,10 @@ public class Matcher {
 
         public ResourceIterator<ConceptMapGroup> execute(boolean isParallel) {
             // TODO: Replace this temporary implementation of Graql Match Group query with a native grouping traversal
-            List<ConceptMapGroup> answerGroups = new ArrayList<>();
-            matcher.execute(isParallel).stream().collect(groupingBy(a -> a.get(query.var())))
-                    .forEach((o, cm) -> answerGroups.add(new ConceptMapGroup(o, cm)));
-            return iterate(answerGroups);
+            ExternalGrouper grouper = new ExternalGrouper(
+                    matcher.conceptMgr, query.var(), matcher.context.options().queryMemoryBudget(), matcher.spillFiles
+            );
+            return grouper.group(matcher.execute(isParallel));
         }
 
         public static class Aggregator {
@@ -596,11 +652,9 @@ public class Matcher {
 
             public ResourceIterator<NumericGroup> execute(boolean isParallel) {
                 // TODO: Replace this temporary implementation of Graql Match Group query with a native grouping traversal
-                List<NumericGroup> numericGroups = new ArrayList<>();
-                group.matcher.execute(isParallel).stream()
-                        .collect(groupingBy(a -> a.get(query.group().var()), aggregator(query.method(), query.var())))
-                        .forEach((o, n) -> numericGroups.add(new NumericGroup(o, n)));
-                return iterate(numericGroups);
+                return group.execute(isParallel).map(g -> new NumericGroup(
+                        g.owner(), iterate(g.conceptMaps()).stream().collect(aggregator(query.method(), query.var()))
+                ));
             }
         }
     }
@@ -28,6 +28,7 @@ import grakn.core.concept.answer.ConceptMapGroup;
 import grakn.core.concept.answer.Numeric;
 import grakn.core.concept.answer.NumericGroup;
 import grakn.core.logic.LogicManager;
+import grakn.core.query.spill.SpillFiles;
 import grakn.core.reasoner.Reasoner;
 import graql.lang.query.GraqlDefine;
 import graql.lang.query.GraqlDelete;
@@ -54,12 +55,15 @@ public class QueryManager {
     private final Reasoner reasoner;
     private final ConceptManager conceptMgr;
     private final Context.Transaction transactionCtx;
+    private final SpillFiles spillFiles;
 
-    public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner, Context.Transaction transactionCtx) {
+    public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner, Context.Transaction transactionCtx,
+                        SpillFiles spillFiles) {
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
         this.reasoner = reasoner;
         this.transactionCtx = transactionCtx;
+        this.spillFiles = spillFiles;
     }
 
     public ResourceIterator<ConceptMap> match(GraqlMatch query) {
@@ -77,7 +81,7 @@ public class QueryManager {
     public ResourceIterator<ConceptMap> match(GraqlMatch query, boolean isParallel, Options.Query options) {
         // TODO: Note that Query Options are not yet utilised during match query
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match")) {
-            return Matcher.create(reasoner, query, options).execute(isParallel).onError(conceptMgr::exception);
+            return Matcher.create(reasoner, conceptMgr, spillFiles, query, new Context.Query(transactionCtx, options)).execute(isParallel).onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -97,7 +101,7 @@ public class QueryManager {
 
     public Numeric match(GraqlMatch.Aggregate query, boolean isParallel, Options.Query options) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match-aggregate")) {
-            return Matcher.create(reasoner, query, options).execute(isParallel);
+            return Matcher.create(reasoner, conceptMgr, spillFiles, query, new Context.Query(transactionCtx, options)).execute(isParallel);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -117,7 +121,7 @@ public class QueryManager {
 
     public ResourceIterator<ConceptMapGroup> match(GraqlMatch.Group query, boolean isParallel, Options.Query options) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match-group")) {
-            return Matcher.create(reasoner, query, options).execute(isParallel).onError(conceptMgr::exception);
+            return Matcher.create(reasoner, conceptMgr, spillFiles, query, new Context.Query(transactionCtx, options)).execute(isParallel).onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -137,7 +141,7 @@ public class QueryManager {
 
     public ResourceIterator<NumericGroup> match(GraqlMatch.Group.Aggregate query, boolean isParallel, Options.Query options) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match-group-aggregate")) {
-            return Matcher.create(reasoner, query, options).execute(isParallel).onError(conceptMgr::exception);
+            return Matcher.create(reasoner, conceptMgr, spillFiles, query, new Context.Query(transactionCtx, options)).execute(isParallel).onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
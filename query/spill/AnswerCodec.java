@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.query.spill;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Label;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.type.RelationType;
+import grakn.core.concept.type.Type;
+import graql.lang.pattern.variable.Reference;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes answers into bytes that can be spilled to disk, by the IIDs of their things
+ * and the labels of their types, and decodes them back into concepts of a transaction.
+ */
+class AnswerCodec {
+
+    private static final byte THING = 0;
+    private static final byte TYPE = 1;
+    // a rough estimate of the heap used by the objects of a concept in an answer, besides its IID or label
+    private static final int CONCEPT_OVERHEAD = 96;
+    private static final int ANSWER_OVERHEAD = 64;
+
+    private final ConceptManager conceptMgr;
+
+    AnswerCodec(ConceptManager conceptMgr) {
+        this.conceptMgr = conceptMgr;
+    }
+
+    static long estimateSize(ConceptMap answer) {
+        long size = ANSWER_OVERHEAD;
+        for (Map.Entry<Reference.Name, ? extends Concept> entry : answer.concepts().entrySet()) {
+            size += CONCEPT_OVERHEAD + entry.getKey().name().length();
+            if (entry.getValue().isThing()) size += entry.getValue().asThing().getIID().length;
+            else size += entry.getValue().asType().getLabel().scopedName().length();
+        }
+        return size;
+    }
+
+    /**
+     * Returns bytes that identify a concept, such that two concepts are equal if and only if their
+     * keys are equal, so that answers can be grouped by comparing the keys of their concepts.
+     */
+    static byte[] key(Concept concept) {
+        final byte[] bytes;
+        final byte kind;
+        if (concept.isThing()) {
+            bytes = concept.asThing().getIID();
+            kind = THING;
+        } else {
+            bytes = concept.asType().getLabel().scopedName().getBytes(UTF_8);
+            kind = TYPE;
+        }
+        final byte[] key = new byte[bytes.length + 1];
+        key[0] = kind;
+        System.arraycopy(bytes, 0, key, 1, bytes.length);
+        return key;
+    }
+
+    byte[] encode(ConceptMap answer) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(answer.concepts().size());
+        for (Map.Entry<Reference.Name, ? extends Concept> entry : answer.concepts().entrySet()) {
+            out.writeUTF(entry.getKey().name());
+            final Concept concept = entry.getValue();
+            if (concept.isThing()) {
+                final byte[] iid = concept.asThing().getIID();
+                out.writeByte(THING);
+                out.writeShort(iid.length);
+                out.write(iid);
+            } else {
+                final Label label = concept.asType().getLabel();
+                out.writeByte(TYPE);
+                out.writeUTF(label.name());
+                out.writeBoolean(label.scope().isPresent());
+                if (label.scope().isPresent()) out.writeUTF(label.scope().get());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    ConceptMap decode(byte[] encoded) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+        final int size = in.readInt();
+        final Map<Reference.Name, Concept> concepts = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            final Reference.Name name = Reference.named(in.readUTF());
+            final Concept concept;
+            if (in.readByte() == THING) {
+                final byte[] iid = new byte[in.readShort() & 0xffff];
+                in.readFully(iid);
+                concept = conceptMgr.getThing(iid);
+            } else {
+                final String labelName = in.readUTF();
+                concept = in.readBoolean() ? roleType(in.readUTF(), labelName) : conceptMgr.getThingType(labelName);
+            }
+            if (concept == null) throw GraknException.of(ILLEGAL_STATE);
+            concepts.put(name, concept);
+        }
+        return new ConceptMap(concepts);
+    }
+
+    private Type roleType(String scope, String name) {
+        final RelationType relationType = conceptMgr.getRelationType(scope);
+        return relationType != null ? relationType.getRelates(name) : null;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.query.spill;
+
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.ConceptMapGroup;
+import graql.lang.pattern.variable.UnboundVariable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static grakn.core.common.collection.Bytes.compareBytes;
+
+/**
+ * Groups answers by the concept of a variable within a memory budget, by sorting them
+ * externally by that concept and collecting each run of answers with the same concept
+ * into a group, so that only one group at a time needs to be held in memory.
+ */
+public class ExternalGrouper {
+
+    private final ExternalSorter sorter;
+    private final UnboundVariable var;
+
+    public ExternalGrouper(ConceptManager conceptMgr, UnboundVariable var, long memoryBudget, SpillFiles spillFiles) {
+        this.var = var;
+        Comparator<ConceptMap> comparator = (a1, a2) -> compareBytes(key(a1), key(a2));
+        this.sorter = new ExternalSorter(conceptMgr, comparator, memoryBudget, spillFiles);
+    }
+
+    public ResourceIterator<ConceptMapGroup> group(ResourceIterator<ConceptMap> answers) {
+        return new GroupIterator(sorter.sort(answers));
+    }
+
+    private byte[] key(ConceptMap answer) {
+        return AnswerCodec.key(answer.get(var));
+    }
+
+    private class GroupIterator implements ResourceIterator<ConceptMapGroup> {
+
+        private final ResourceIterator<ConceptMap> answers;
+        private ConceptMap pending;
+
+        private GroupIterator(ResourceIterator<ConceptMap> answers) {
+            this.answers = answers;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null || answers.hasNext();
+        }
+
+        @Override
+        public ConceptMapGroup next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            final ConceptMap first = pending != null ? pending : answers.next();
+            final Concept owner = first.get(var);
+            final byte[] ownerKey = key(first);
+            final List<ConceptMap> group = new ArrayList<>();
+            group.add(first);
+            pending = null;
+            while (answers.hasNext()) {
+                final ConceptMap answer = answers.next();
+                if (Arrays.equals(ownerKey, key(answer))) {
+                    group.add(answer);
+                } else {
+                    pending = answer;
+                    break;
+                }
+            }
+            return new ConceptMapGroup(owner, group);
+        }
+
+        @Override
+        public void recycle() {
+            answers.recycle();
+        }
+    }
+}
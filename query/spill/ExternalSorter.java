@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.query.spill;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static grakn.core.common.iterator.Iterators.iterate;
+import static grakn.core.common.iterator.Iterators.merge;
+
+/**
+ * Sorts answers within a memory budget. Answers are buffered and sorted in memory until
+ * their estimated size exceeds the budget, at which point the buffer is written to a
+ * file of the transaction's {@link SpillFiles} as a sorted run. The runs are then merged back as a stream, so that the
+ * number of answers that can be sorted is bounded by disk rather than heap.
+ */
+public class ExternalSorter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExternalSorter.class);
+    static final int MAX_MERGE_WIDTH = 64;
+
+    private final AnswerCodec codec;
+    private final Comparator<ConceptMap> comparator;
+    private final long memoryBudget;
+    private final SpillFiles spillFiles;
+
+    public ExternalSorter(ConceptManager conceptMgr, Comparator<ConceptMap> comparator, long memoryBudget,
+                          SpillFiles spillFiles) {
+        this.codec = new AnswerCodec(conceptMgr);
+        this.comparator = comparator;
+        this.memoryBudget = memoryBudget;
+        this.spillFiles = spillFiles;
+    }
+
+    public ResourceIterator<ConceptMap> sort(ResourceIterator<ConceptMap> answers) {
+        final List<ConceptMap> buffer = new ArrayList<>();
+        final LinkedList<Run> runs = new LinkedList<>();
+        long bufferSize = 0;
+        try {
+            while (answers.hasNext()) {
+                final ConceptMap answer = answers.next();
+                buffer.add(answer);
+                bufferSize += AnswerCodec.estimateSize(answer);
+                if (bufferSize > memoryBudget) {
+                    buffer.sort(comparator);
+                    runs.addLast(write(iterate(buffer)));
+                    buffer.clear();
+                    bufferSize = 0;
+                }
+            }
+            buffer.sort(comparator);
+            if (runs.isEmpty()) return iterate(buffer);
+            // the final merge also reads from the buffer, so it must leave room for it
+            while (runs.size() >= MAX_MERGE_WIDTH) {
+                final List<ResourceIterator<ConceptMap>> merged = new ArrayList<>();
+                for (int i = 0; i < MAX_MERGE_WIDTH; i++) merged.add(runs.removeFirst().iterator());
+                runs.addLast(write(merge(merged, comparator)));
+            }
+        } catch (IOException e) {
+            discard(answers, runs);
+            throw GraknException.of(e);
+        } catch (RuntimeException e) {
+            discard(answers, runs);
+            throw e;
+        }
+
+        final List<ResourceIterator<ConceptMap>> iterators = iterate(runs).map(Run::iterator).toList();
+        iterators.add(iterate(buffer));
+        return merge(iterators, comparator);
+    }
+
+    private void discard(ResourceIterator<ConceptMap> answers, List<Run> runs) {
+        answers.recycle();
+        runs.forEach(Run::delete);
+    }
+
+    private Run write(ResourceIterator<ConceptMap> answers) throws IOException {
+        final Path file = spillFiles.create();
+        long bytes = 0, count = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            while (answers.hasNext()) {
+                final byte[] encoded = codec.encode(answers.next());
+                out.writeInt(encoded.length);
+                out.write(encoded);
+                bytes += Integer.BYTES + encoded.length;
+                count++;
+            }
+        } catch (IOException | RuntimeException e) {
+            answers.recycle();
+            spillFiles.delete(file);
+            throw e;
+        }
+        spillFiles.metrics().spilled(bytes, count);
+        LOG.debug("Spilled a sorted run of {} answers ({} bytes) to {}", count, bytes, file);
+        return new Run(file, count);
+    }
+
+    private class Run {
+
+        private final Path file;
+        private final long count;
+
+        private Run(Path file, long count) {
+            this.file = file;
+            this.count = count;
+        }
+
+        private ResourceIterator<ConceptMap> iterator() {
+            return new RunIterator(this);
+        }
+
+        private void delete() {
+            spillFiles.delete(file);
+        }
+    }
+
+    /**
+     * Reads the answers of a run in order, and deletes the run once they have all been read,
+     * or once the iterator is recycled.
+     */
+    private class RunIterator implements ResourceIterator<ConceptMap> {
+
+        private final Run run;
+        private DataInputStream in;
+        private ConceptMap next;
+        private long remaining;
+
+        private RunIterator(Run run) {
+            this.run = run;
+            this.remaining = run.count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            else if (remaining == 0) {
+                recycle();
+                return false;
+            }
+
+            try {
+                if (in == null) in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file)));
+                final byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                next = codec.decode(encoded);
+                remaining--;
+                return true;
+            } catch (IOException e) {
+                recycle();
+                throw GraknException.of(e);
+            }
+        }
+
+        @Override
+        public ConceptMap next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            final ConceptMap answer = next;
+            next = null;
+            return answer;
+        }
+
+        @Override
+        public void recycle() {
+            remaining = 0;
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    LOG.warn("Failed to close the spilled run {}", run.file, e);
+                }
+                in = null;
+            }
+            run.delete();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.query.spill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The files that the queries of a transaction have spilled answers to, within the spill directory of the
+ * database. A file is deleted once its answers have been read, and any file that is left, because a query
+ * was abandoned before its answers were read, is deleted when the transaction closes.
+ */
+public class SpillFiles {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpillFiles.class);
+    private static final String FILE_PREFIX = "grakn-spill-";
+    private static final String FILE_SUFFIX = ".run";
+
+    private final Path directory;
+    private final SpillMetrics metrics;
+    private final Set<Path> files;
+
+    public SpillFiles(Path directory, SpillMetrics metrics) {
+        this.directory = directory;
+        this.metrics = metrics;
+        files = ConcurrentHashMap.newKeySet();
+    }
+
+    SpillMetrics metrics() {
+        return metrics;
+    }
+
+    Path create() throws IOException {
+        Files.createDirectories(directory);
+        final Path file = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+        files.add(file);
+        return file;
+    }
+
+    void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete the spilled file {}", file, e);
+        }
+        files.remove(file);
+    }
+
+    public void close() {
+        files.forEach(this::delete);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.query.spill;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the answers of queries that have been spilled to disk, across all transactions of a database,
+ * for monitoring how often queries outgrow their memory budget.
+ */
+public class SpillMetrics {
+
+    private final AtomicLong bytesSpilled;
+    private final AtomicLong answersSpilled;
+    private final AtomicLong runsSpilled;
+
+    public SpillMetrics() {
+        bytesSpilled = new AtomicLong();
+        answersSpilled = new AtomicLong();
+        runsSpilled = new AtomicLong();
+    }
+
+    void spilled(long bytes, long answers) {
+        bytesSpilled.addAndGet(bytes);
+        answersSpilled.addAndGet(answers);
+        runsSpilled.incrementAndGet();
+    }
+
+    /**
+     * @return the total number of bytes written to disk by spilled runs of answers
+     */
+    public long bytesSpilled() {
+        return bytesSpilled.get();
+    }
+
+    /**
+     * @return the total number of answers written to disk, counting those written again by merges
+     */
+    public long answersSpilled() {
+        return answersSpilled.get();
+    }
+
+    /**
+     * @return the total number of sorted runs of answers written to disk
+     */
+    public long runsSpilled() {
+        return runsSpilled.get();
+    }
+}
@@ -25,24 +25,32 @@ import grakn.core.common.iterator.BaseIterator;
 import grakn.core.common.iterator.Iterators;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.Label;
 import grakn.core.common.producer.Producer;
 import grakn.core.common.producer.Producers;
 import grakn.core.concept.Concept;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graph.GraphManager;
+import grakn.core.graph.util.Encoding;
+import grakn.core.graph.vertex.TypeVertex;
 import grakn.core.logic.LogicManager;
 import grakn.core.pattern.Conjunction;
 import grakn.core.pattern.Disjunction;
 import grakn.core.pattern.variable.Variable;
 import grakn.core.reasoner.resolution.ResolutionRecorder;
 import grakn.core.reasoner.resolution.ResolverRegistry;
+import grakn.core.traversal.Traversal;
 import grakn.core.traversal.TraversalEngine;
 import grakn.core.traversal.common.Identifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.core.common.concurrent.ExecutorService.PARALLELISATION_FACTOR;
@@ -81,6 +89,49 @@ public class Reasoner {
         else return iterable(conjunctions.flatMap(conj -> producers(conj, filter)).toList()).iterator();
     }
 
+    /**
+     * Returns the answers of a disjunction in the ascending order of the values of a variable,
+     * by starting its traversal from the instances of that variable in order, so that only as
+     * many answers as needed are computed. Returns null if the answers cannot be produced in
+     * order: the disjunction must be a single conjunction that forms one connected traversal,
+     * and the variable must be a thing whose types are attribute types of a single value type
+     * that is stored in the order of its values. Inferred answers would not be in order, so this
+     * also returns null when reasoning is enabled.
+     */
+    @Nullable
+    public ResourceIterator<ConceptMap> executeSorted(Disjunction disjunction, List<Identifier.Variable.Name> filter,
+                                                      Identifier.Variable.Name sortVar) {
+        if (context.options().infer() || disjunction.conjunctions().size() != 1) return null;
+        final Conjunction conjunction = disjunction.conjunctions().iterator().next();
+        final Conjunction conj = logicMgr.typeResolver().resolve(conjunction);
+        if (!conj.isSatisfiable() || !isSortable(conj, sortVar)) return null;
+        final Traversal traversal = conjunction.traversal(filter);
+        if (!traversal.isSortable(sortVar)) return null;
+
+        final ResourceIterator<ConceptMap> answers = traversalEng.sortedIterator(traversal, sortVar)
+                .map(conceptMgr::conceptMap);
+        if (conjunction.negations().isEmpty()) return answers;
+        else return answers.filter(answer -> !iterate(conjunction.negations()).flatMap(
+                negation -> iterator(negation.disjunction(), answer)
+        ).hasNext());
+    }
+
+    private boolean isSortable(Conjunction conjunction, Identifier.Variable.Name sortVar) {
+        final Variable variable = conjunction.variable(sortVar);
+        if (variable == null || !variable.isThing() || variable.resolvedTypes().isEmpty()) return false;
+        final GraphManager graphMgr = traversalEng.graph();
+        final Set<Encoding.ValueType> valueTypes = new HashSet<>();
+        for (Label label : variable.resolvedTypes()) {
+            final TypeVertex type = graphMgr.schema().getType(label);
+            if (type == null || !type.isAttributeType()) return false;
+            valueTypes.add(type.valueType());
+        }
+        if (valueTypes.size() != 1) return false;
+        // strings are sorted without regard to case, which is not the order in which they are stored
+        final Encoding.ValueType valueType = valueTypes.iterator().next();
+        return valueType != Encoding.ValueType.STRING && graphMgr.data().isSorted(valueType);
+    }
+
     private ResourceIterator<Producer<ConceptMap>> producers(Conjunction conjunction) {
         return producers(conjunction, list());
     }
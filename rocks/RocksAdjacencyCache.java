@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.common.collection.Pair;
+import grakn.core.common.cache.CommonCache;
+import grakn.core.graph.iid.VertexIID;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the persisted adjacency of thing vertices, shared by every transaction of a database, so that the
+ * edges of hot vertices (such as those of reference data) are not read from RocksDB again in every transaction.
+ *
+ * The cache holds the keys and values of the edges as they are stored, rather than edges, as every edge belongs
+ * to the graph of one transaction. The edges are cached per vertex, by the prefix that they were iterated with,
+ * i.e. the IID of the vertex followed by the infix of the edges. Only small adjacency lists are cached: for the
+ * larger ones, the cache only records that they are too large, so that they are read straight from RocksDB.
+ *
+ * Every vertex is stamped with the sequence number of the RocksDB as of when it was last modified, and every
+ * adjacency list with the sequence number of the snapshot that it was read from. A transaction may read a cached
+ * adjacency list if its own snapshot, and the snapshot that the list was read from, both come after the vertex
+ * was last modified, as the adjacency has not changed in between. While a transaction that writes to a vertex is
+ * committing, the vertex is marked as modified in the future, so that no transaction reads or caches its edges.
+ */
+public class RocksAdjacencyCache {
+
+    static final int MAX_EDGES = 32;
+    private static final int CACHE_SIZE = 10_000;
+    private static final int CACHE_TIMEOUT_MINUTES = 1_440;
+    private static final long IN_FLIGHT = Long.MAX_VALUE;
+
+    private final RocksPartitionedDB rocksDB;
+    private final CommonCache<VertexIID.Thing, Vertex> vertices;
+    private final ConcurrentMap<VertexIID.Thing, Integer> inFlight;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    RocksAdjacencyCache(RocksPartitionedDB rocksDB) {
+        this.rocksDB = rocksDB;
+        vertices = new CommonCache<>(CACHE_SIZE, CACHE_TIMEOUT_MINUTES);
+        inFlight = new ConcurrentHashMap<>();
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    /**
+     * Returns the cached adjacency of the given vertex with the given prefix, as of the given snapshot.
+     *
+     * @param vertex   the IID of the vertex that the edges are stored under
+     * @param prefix   the prefix of the edges, from the IID of the vertex to the infix
+     * @param snapshot the sequence number of the snapshot of the reading transaction
+     * @return the cached adjacency, or null if it is not cached, or not valid as of the snapshot
+     */
+    @Nullable
+    Adjacency get(VertexIID.Thing vertex, byte[] prefix, long snapshot) {
+        final Vertex cached = vertices.getIfPresent(vertex);
+        final Adjacency adjacency = cached == null ? null : cached.get(ByteBuffer.wrap(prefix), snapshot);
+        if (adjacency == null) misses.increment();
+        else hits.increment();
+        return adjacency;
+    }
+
+    /**
+     * Caches the adjacency of the given vertex with the given prefix, as read from the given snapshot,
+     * unless the vertex has been modified since the snapshot, or is being modified.
+     *
+     * @param edges the keys and values of the edges, or null if there were more than {@code MAX_EDGES}
+     */
+    void put(VertexIID.Thing vertex, byte[] prefix, long snapshot, @Nullable List<Pair<byte[], byte[]>> edges) {
+        final Vertex cached = vertices.asMap().computeIfAbsent(
+                vertex, v -> inFlight.containsKey(v) ? null : new Vertex(rocksDB.rocksDB().getLatestSequenceNumber())
+        );
+        if (cached != null) cached.put(ByteBuffer.wrap(prefix), new Adjacency(snapshot, edges));
+    }
+
+    /**
+     * Marks the given vertices as being modified by a transaction that is about to commit,
+     * which invalidates their cached adjacency until {@link #committed(Collection)} is called.
+     *
+     * A vertex that is not cached is cached as modified in the future, rather than left out of the cache, so
+     * that a concurrent reader that has not yet seen the vertex counted as in flight cannot cache its edges.
+     */
+    void committing(Collection<VertexIID.Thing> modified) {
+        for (VertexIID.Thing vertex : modified) {
+            inFlight.compute(vertex, (v, count) -> {
+                vertices.asMap().compute(
+                        v, (iid, cached) -> cached == null ? new Vertex(IN_FLIGHT) : cached.modify(IN_FLIGHT)
+                );
+                return count == null ? 1 : count + 1;
+            });
+        }
+    }
+
+    /**
+     * Stamps the given vertices with the sequence number of the RocksDB once the transaction that modified
+     * them has committed, or failed to, and no other transaction is committing modifications to them.
+     */
+    void committed(Collection<VertexIID.Thing> modified) {
+        for (VertexIID.Thing vertex : modified) {
+            // The vertex is stamped while its count is locked, so that it is not stamped while being modified again
+            inFlight.compute(vertex, (v, count) -> {
+                if (count != null && count > 1) return count - 1;
+                final long sequence = rocksDB.rocksDB().getLatestSequenceNumber();
+                vertices.asMap().computeIfPresent(v, (iid, cached) -> cached.modify(sequence));
+                return null;
+            });
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of the adjacency lookups that were served by the cache, or 0 if there were none.
+     */
+    public double hitRate() {
+        final long hits = hits();
+        final long misses = misses();
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    private static class Vertex {
+
+        private final ConcurrentMap<ByteBuffer, Adjacency> adjacency;
+        private long modifiedAt;
+
+        private Vertex(long modifiedAt) {
+            this.modifiedAt = modifiedAt;
+            adjacency = new ConcurrentHashMap<>();
+        }
+
+        private synchronized Adjacency get(ByteBuffer prefix, long snapshot) {
+            final Adjacency cached = adjacency.get(prefix);
+            if (cached == null || modifiedAt > snapshot || modifiedAt > cached.readAt) return null;
+            else return cached;
+        }
+
+        private synchronized void put(ByteBuffer prefix, Adjacency cached) {
+            if (modifiedAt <= cached.readAt) adjacency.put(prefix, cached);
+        }
+
+        private synchronized Vertex modify(long sequence) {
+            modifiedAt = sequence;
+            adjacency.clear();
+            return this;
+        }
+    }
+
+    static class Adjacency {
+
+        private final long readAt;
+        private final List<Pair<byte[], byte[]>> edges;
+
+        private Adjacency(long readAt, @Nullable List<Pair<byte[], byte[]>> edges) {
+            this.readAt = readAt;
+            this.edges = edges;
+        }
+
+        /**
+         * Returns whether the adjacency had more than {@code MAX_EDGES} edges, which are therefore not cached.
+         */
+        boolean isOverflowed() {
+            return edges == null;
+        }
+
+        List<Pair<byte[], byte[]>> edges() {
+            assert edges != null;
+            return edges;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
+import grakn.core.graph.iid.PrefixIID;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Encoding;
+import org.rocksdb.AbstractImmutableNativeReference;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.DBOptions;
+import org.rocksdb.DataBlockIndexType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Statistics;
+import org.rocksdb.UInt64AddOperator;
+
+import javax.annotation.Nullable;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The storage configuration of the RocksDB instances of every {@code RocksDatabase}.
+ *
+ * The block caches are shared across all databases: one for the schema RocksDB
+ * instances and one for the data RocksDB instances, so that the memory used for
+ * caching is bounded regardless of the number of databases.
+ *
+ * Every key in storage begins with a {@code PrefixIID}, followed in most cases by
+ * the {@code VertexIID.Type} of the vertex it belongs to (or is an instance of).
+ * We therefore configure a prefix extractor of that length, so that bloom filters
+ * can be used to skip blocks when seeking prefixes that are at least as long.
+ *
+ * Keys are stored in a separate column family per {@code Encoding.PrefixType}, each
+ * tuned to the way its keys are accessed:
+ * - statistics are the only keys that are ever merged, so only their column family
+ *   is configured with the merge operator;
+ * - in the data storage, type-prefixed keys are the edges from a type to all of its
+ *   instances, which are only ever scanned, so their blocks are larger and their bloom
+ *   filters only cover prefixes;
+ * - thing vertices are looked up by key all the time (e.g. to check for existence),
+ *   so their data blocks are also indexed by a hash of the key.
+ */
+public class RocksConfig {
+
+    static final int PREFIX_EXTRACTOR_LENGTH = PrefixIID.LENGTH + VertexIID.Type.LENGTH;
+    private static final double MEMTABLE_PREFIX_BLOOM_SIZE_RATIO = 0.1;
+    private static final long BLOCK_SIZE = 4 * 1024;
+    private static final long SCANNED_BLOCK_SIZE = 64 * 1024;
+
+    private final Cache schemaCache;
+    private final Cache dataCache;
+    private final BloomFilter bloomFilter;
+    private final UInt64AddOperator mergeOperator;
+    private final ColumnFamilies schemaColumnFamilies;
+    private final ColumnFamilies dataColumnFamilies;
+
+    RocksConfig(Options.Database options) {
+        schemaCache = new LRUCache(options.storageSchemaCacheSize());
+        dataCache = new LRUCache(options.storageDataCacheSize());
+        bloomFilter = new BloomFilter(options.storageBloomFilterBitsPerKey(), false);
+        mergeOperator = new UInt64AddOperator();
+        schemaColumnFamilies = new ColumnFamilies(schemaCache, CompactionStyle.LEVEL, options.storageMaxBackgroundJobs());
+        dataColumnFamilies = new ColumnFamilies(dataCache, compactionStyle(options.storageDataCompactionStyle()),
+                                                options.storageMaxBackgroundJobs());
+    }
+
+    private static CompactionStyle compactionStyle(Arguments.Storage.CompactionStyle compactionStyle) {
+        switch (compactionStyle) {
+            case UNIVERSAL:
+                return CompactionStyle.UNIVERSAL;
+            case LEVEL:
+            default:
+                return CompactionStyle.LEVEL;
+        }
+    }
+
+    ColumnFamilies schema() {
+        return schemaColumnFamilies;
+    }
+
+    ColumnFamilies data() {
+        return dataColumnFamilies;
+    }
+
+    void close() {
+        schemaColumnFamilies.close();
+        dataColumnFamilies.close();
+        mergeOperator.close();
+        bloomFilter.close();
+        dataCache.close();
+        schemaCache.close();
+    }
+
+    class ColumnFamilies {
+
+        private final int maxBackgroundJobs;
+        private final ColumnFamilyOptions defaultOptions;
+        private final Map<Encoding.PrefixType, ColumnFamilyOptions> prefixTypeOptions;
+
+        private ColumnFamilies(Cache blockCache, CompactionStyle compactionStyle, int maxBackgroundJobs) {
+            this.maxBackgroundJobs = maxBackgroundJobs;
+            // The default column family holds every key of databases created before keys were partitioned
+            defaultOptions = columnFamilyOptions(blockCache, compactionStyle, null);
+            prefixTypeOptions = new EnumMap<>(Encoding.PrefixType.class);
+            for (Encoding.PrefixType type : Encoding.PrefixType.values()) {
+                prefixTypeOptions.put(type, columnFamilyOptions(blockCache, compactionStyle, type));
+            }
+        }
+
+        private ColumnFamilyOptions columnFamilyOptions(Cache blockCache, CompactionStyle compactionStyle,
+                                                        @Nullable Encoding.PrefixType type) {
+            final boolean isScanned = type == Encoding.PrefixType.TYPE;
+            final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+                    .setBlockCache(blockCache)
+                    .setBlockSize(isScanned ? SCANNED_BLOCK_SIZE : BLOCK_SIZE)
+                    .setFilterPolicy(bloomFilter)
+                    .setWholeKeyFiltering(!isScanned)
+                    .setCacheIndexAndFilterBlocks(true)
+                    .setPinL0FilterAndIndexBlocksInCache(true);
+            if (type == Encoding.PrefixType.THING) {
+                tableConfig.setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash);
+            }
+            final ColumnFamilyOptions options = new ColumnFamilyOptions()
+                    .useCappedPrefixExtractor(PREFIX_EXTRACTOR_LENGTH)
+                    .setMemtablePrefixBloomSizeRatio(MEMTABLE_PREFIX_BLOOM_SIZE_RATIO)
+                    .setTableFormatConfig(tableConfig)
+                    .setCompactionStyle(compactionStyle);
+            if (type == null || type == Encoding.PrefixType.STATISTICS) options.setMergeOperator(mergeOperator);
+            return options;
+        }
+
+        /**
+         * Returns new options for a RocksDB instance, which are not shared with other instances
+         * so that each of them collects its own statistics. The caller is responsible for closing them.
+         */
+        DBOptions dbOptions(Statistics statistics) {
+            return new DBOptions()
+                    .setCreateIfMissing(true)
+                    .setCreateMissingColumnFamilies(true)
+                    .setMaxBackgroundJobs(maxBackgroundJobs)
+                    .setStatistics(statistics);
+        }
+
+        ColumnFamilyOptions defaultOptions() {
+            return defaultOptions;
+        }
+
+        ColumnFamilyOptions options(Encoding.PrefixType type) {
+            return prefixTypeOptions.get(type);
+        }
+
+        private void close() {
+            prefixTypeOptions.values().forEach(AbstractImmutableNativeReference::close);
+            defaultOptions.close();
+        }
+    }
+}
@@ -23,13 +23,14 @@ import grakn.common.concurrent.NamedThreadFactory;
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Label;
 import grakn.core.common.parameters.Options;
 import grakn.core.graph.SchemaGraph;
 import grakn.core.graph.util.Encoding;
 import grakn.core.graph.util.KeyGenerator;
 import grakn.core.logic.LogicCache;
+import grakn.core.query.spill.SpillMetrics;
 import grakn.core.traversal.TraversalCache;
-import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Status;
 
@@ -37,36 +38,59 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.StampedLock;
 import java.util.stream.Stream;
 
+import static grakn.core.common.exception.ErrorMessage.Database.BACKUP_DIRECTORY_EXISTS;
+import static grakn.core.common.exception.ErrorMessage.Database.BULK_LOAD_IN_PROGRESS;
+import static grakn.core.common.exception.ErrorMessage.Database.BULK_LOAD_NOT_EXCLUSIVE;
 import static grakn.core.common.exception.ErrorMessage.Database.DATABASE_CLOSED;
 import static grakn.core.common.exception.ErrorMessage.Internal.DIRTY_INITIALISATION;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_INTERRUPTION;
+import static grakn.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
 import static grakn.core.common.parameters.Arguments.Session.Type.SCHEMA;
 import static grakn.core.common.parameters.Arguments.Transaction.Type.READ;
 import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static grakn.core.graph.util.Encoding.ENCODING_VERSION_HASHED_STRINGS;
+import static grakn.core.graph.util.Encoding.ENCODING_VERSION_SORTED_STRINGS;
+import static grakn.core.graph.util.StatisticsBytes.countJobKey;
 import static java.util.Comparator.reverseOrder;
 
 public class RocksDatabase implements Grakn.Database {
 
-    protected final OptimisticTransactionDB rocksSchema;
-    protected final OptimisticTransactionDB rocksData;
+    private static final String SPILL_DIRECTORY = "spill";
+
+    protected final RocksPartitionedDB rocksSchema;
+    protected final RocksPartitionedDB rocksData;
     protected final ConcurrentMap<UUID, Pair<RocksSession, Long>> sessions;
     protected final String name;
     protected StatisticsBackgroundCounter statisticsBackgroundCounter;
     protected RocksSession.Data statisticsBackgroundCounterSession;
+    private RocksSession bulkLoadSession;
     private final KeyGenerator.Schema.Persisted schemaKeyGenerator;
     private final KeyGenerator.Data.Persisted dataKeyGenerator;
     private final StampedLock dataWriteSchemaLock;
     private final RocksGrakn grakn;
     private Cache cache;
+    private final RocksAdjacencyCache adjacencyCache;
+    private final SpillMetrics spillMetrics;
+    private final LongAdder existenceCacheHits;
+    private final LongAdder existenceCacheMisses;
 
     private final Factory.Session sessionFactory;
     protected final AtomicBoolean isOpen;
@@ -80,12 +104,13 @@ public class RocksDatabase implements Grakn.Database {
         sessions = new ConcurrentHashMap<>();
         dataWriteSchemaLock = new StampedLock();
 
-        try {
-            rocksSchema = OptimisticTransactionDB.open(this.grakn.rocksOptions(), directory().resolve(Encoding.ROCKS_SCHEMA).toString());
-            rocksData = OptimisticTransactionDB.open(this.grakn.rocksOptions(), directory().resolve(Encoding.ROCKS_DATA).toString());
-        } catch (RocksDBException e) {
-            throw GraknException.of(e);
-        }
+        rocksSchema = RocksPartitionedDB.open(directory().resolve(Encoding.ROCKS_SCHEMA), this.grakn.rocksSchemaConfig());
+        rocksData = RocksPartitionedDB.open(directory().resolve(Encoding.ROCKS_DATA), this.grakn.rocksDataConfig());
+        adjacencyCache = new RocksAdjacencyCache(rocksData);
+        spillMetrics = new SpillMetrics();
+        existenceCacheHits = new LongAdder();
+        existenceCacheMisses = new LongAdder();
+        deleteSpilled();
         isOpen = new AtomicBoolean(true);
     }
 
@@ -113,12 +138,23 @@ public class RocksDatabase implements Grakn.Database {
         try (RocksSession session = createAndOpenSession(SCHEMA, new Options.Session())) {
             try (RocksTransaction.Schema txn = session.transaction(WRITE).asSchema()) {
                 if (txn.graph().isInitialised()) throw GraknException.of(DIRTY_INITIALISATION);
-                txn.graph().initialise();
+                txn.graph().initialise(encodingVersion());
                 initialiseCommit(txn);
             }
         }
     }
 
+    private int encodingVersion() {
+        switch (options().storageStringEncoding()) {
+            case LENGTH_PREFIXED:
+                return ENCODING_VERSION_HASHED_STRINGS;
+            case ORDER_PRESERVING:
+                return ENCODING_VERSION_SORTED_STRINGS;
+            default:
+                throw GraknException.of(UNRECOGNISED_VALUE);
+        }
+    }
+
     /**
      * Responsible for committing the initial schema of a database.
      * A different implementation of this class may override it.
@@ -138,29 +174,41 @@ public class RocksDatabase implements Grakn.Database {
         }
     }
 
+    /**
+     * Opens a session on this database. A data session that bulk loads writes without checking for conflicts,
+     * so it is only opened while no other session is open, and no other session is opened until it closes.
+     */
     RocksSession createAndOpenSession(Arguments.Session.Type type, Options.Session options) {
         if (!isOpen.get()) throw GraknException.of(DATABASE_CLOSED, name);
 
+        final boolean isBulkLoad = type.isData() && (options.bulkLoad() || options().bulkLoad());
         long lock = 0;
         RocksSession session;
 
-        if (type.isSchema()) {
-            lock = dataWriteSchemaLock().writeLock();
-            session = sessionFactory.sessionSchema(this, options);
-        } else if (type.isData()) {
-            session = sessionFactory.sessionData(this, options);
-        } else {
-            throw GraknException.of(ILLEGAL_STATE);
-        }
+        if (type.isSchema()) lock = dataWriteSchemaLock().writeLock();
+        try {
+            synchronized (sessions) {
+                if (bulkLoadSession != null) throw GraknException.of(BULK_LOAD_IN_PROGRESS, name);
+                else if (isBulkLoad && !sessions.isEmpty()) throw GraknException.of(BULK_LOAD_NOT_EXCLUSIVE, name);
 
-        sessions.put(session.uuid(), new Pair<>(session, lock));
+                if (type.isSchema()) session = sessionFactory.sessionSchema(this, options);
+                else if (type.isData()) session = sessionFactory.sessionData(this, options);
+                else throw GraknException.of(ILLEGAL_STATE);
+
+                if (isBulkLoad) bulkLoadSession = session;
+                sessions.put(session.uuid(), new Pair<>(session, lock));
+            }
+        } catch (RuntimeException e) {
+            if (type.isSchema()) dataWriteSchemaLock().unlockWrite(lock);
+            throw e;
+        }
         return session;
     }
 
     synchronized Cache cacheBorrow() {
         if (!isOpen.get()) throw GraknException.of(DATABASE_CLOSED, name);
 
-        if (cache == null) cache = new Cache(this);
+        if (cache == null) cache = new Cache(this, new TraversalCache(), new LogicCache());
         cache.borrow();
         return cache;
     }
@@ -169,12 +217,25 @@ public class RocksDatabase implements Grakn.Database {
         cache.unborrow();
     }
 
-    public synchronized void cacheInvalidate() {
+    /**
+     * Replaces the cache after a schema commit. The schema graph is always reloaded, while the traversal
+     * planners and type resolutions that do not depend on the given types are carried over into the new
+     * cache, so that a schema change does not cost every query its plan. They are copied rather than
+     * shared, so transactions still borrowing the previous cache cannot put stale entries into the new one.
+     *
+     * @param modifiedTypes   the labels of the types that the schema commit created, modified or deleted
+     * @param hasCreatedTypes true if the schema commit created any type
+     */
+    public synchronized void cacheInvalidate(Set<Label> modifiedTypes, boolean hasCreatedTypes) {
         if (!isOpen.get()) throw GraknException.of(DATABASE_CLOSED, name);
 
         if (cache != null) {
+            final TraversalCache traversalCache = new TraversalCache();
+            final LogicCache logicCache = new LogicCache();
+            traversalCache.carryOver(cache.traversal(), modifiedTypes, hasCreatedTypes);
+            logicCache.carryOver(cache.logic(), modifiedTypes, hasCreatedTypes);
             cache.invalidate();
-            cache = null;
+            cache = new Cache(this, traversalCache, logicCache);
         }
     }
 
@@ -204,18 +265,83 @@ public class RocksDatabase implements Grakn.Database {
         return grakn.directory().resolve(name);
     }
 
+    Path spillDirectory() {
+        return directory().resolve(SPILL_DIRECTORY);
+    }
+
+    /**
+     * Deletes the answers that queries spilled to disk and never read, if the server stopped while they ran.
+     */
+    private void deleteSpilled() {
+        if (!Files.exists(spillDirectory())) return;
+        try {
+            Files.walk(spillDirectory()).sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+    }
+
     public Options.Database options() {
         return grakn.options();
     }
 
-    OptimisticTransactionDB rocksData() {
+    RocksPartitionedDB rocksData() {
         return rocksData;
     }
 
-    OptimisticTransactionDB rocksSchema() {
+    RocksPartitionedDB rocksSchema() {
         return rocksSchema;
     }
 
+    public RocksMetrics schemaMetrics() {
+        return rocksSchema.metrics();
+    }
+
+    public RocksMetrics dataMetrics() {
+        return rocksData.metrics();
+    }
+
+    public SpillMetrics spillMetrics() {
+        return spillMetrics;
+    }
+
+    /**
+     * Adds the lookups of the existence cache of a transaction that is closing to the totals of the database.
+     */
+    void recordExistenceLookups(long hits, long misses) {
+        existenceCacheHits.add(hits);
+        existenceCacheMisses.add(misses);
+    }
+
+    /**
+     * @return the number of point lookups served by the existence caches of the closed transactions
+     */
+    public long existenceCacheHits() {
+        return existenceCacheHits.sum();
+    }
+
+    /**
+     * @return the number of point lookups that the existence caches of the closed transactions read from storage
+     */
+    public long existenceCacheMisses() {
+        return existenceCacheMisses.sum();
+    }
+
+    /**
+     * Returns the cache of the persisted adjacency of thing vertices, which is shared by every transaction.
+     */
+    public RocksAdjacencyCache adjacencyCache() {
+        return adjacencyCache;
+    }
+
+    public long statisticsBacklog() {
+        return statisticsBackgroundCounter.backlog();
+    }
+
+    public long statisticsLagMillis() {
+        return statisticsBackgroundCounter.lagMillis();
+    }
+
     KeyGenerator.Schema schemaKeyGenerator() {
         return schemaKeyGenerator;
     }
@@ -260,7 +386,11 @@ public class RocksDatabase implements Grakn.Database {
 
     void remove(RocksSession session) {
         if (statisticsBackgroundCounterSession != session) {
-            final long lock = sessions.remove(session.uuid()).second();
+            final long lock;
+            synchronized (sessions) {
+                lock = sessions.remove(session.uuid()).second();
+                if (bulkLoadSession == session) bulkLoadSession = null;
+            }
             if (session.type().isSchema()) dataWriteSchemaLock().unlockWrite(lock);
         }
     }
@@ -283,6 +413,33 @@ public class RocksDatabase implements Grakn.Database {
         rocksSchema.close();
     }
 
+    /**
+     * Takes a checkpoint of the schema and the data storage into the given directory.
+     *
+     * The checkpoints are taken under the read lock of {@link #dataWriteSchemaLock()}, like a data
+     * write transaction, so that the schema cannot change in between the two of them. Data writes
+     * carry on while they are taken: the data checkpoint contains every transaction that committed
+     * before it.
+     *
+     * @param directory the directory of the backup, which must not exist
+     */
+    @Override
+    public void backup(Path directory) {
+        if (!isOpen.get()) throw GraknException.of(DATABASE_CLOSED, name);
+        if (Files.exists(directory)) throw GraknException.of(BACKUP_DIRECTORY_EXISTS, directory);
+
+        final long lock = dataWriteSchemaLock().readLock();
+        try {
+            Files.createDirectories(directory);
+            rocksSchema.checkpoint(directory.resolve(Encoding.ROCKS_SCHEMA));
+            rocksData.checkpoint(directory.resolve(Encoding.ROCKS_DATA));
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        } finally {
+            dataWriteSchemaLock().unlockRead(lock);
+        }
+    }
+
     @Override
     public void delete() {
         close();
@@ -303,11 +460,11 @@ public class RocksDatabase implements Grakn.Database {
         private long borrowerCount;
         private boolean invalidated;
 
-        private Cache(RocksDatabase database) {
+        private Cache(RocksDatabase database, TraversalCache traversalCache, LogicCache logicCache) {
             this.schemaStorage = new RocksStorage(database.rocksSchema(), true);
             schemaGraph = new SchemaGraph(schemaStorage, true);
-            traversalCache = new TraversalCache();
-            logicCache = new LogicCache();
+            this.traversalCache = traversalCache;
+            this.logicCache = logicCache;
             borrowerCount = 0L;
             invalidated = false;
         }
@@ -349,45 +506,175 @@ public class RocksDatabase implements Grakn.Database {
         }
     }
 
+    /**
+     * Processes the statistics count jobs that data transactions leave behind on commit.
+     *
+     * The count jobs are partitioned by type, as given by {@code DataGraph.Statistics.countJobPartitions()},
+     * and the partitions are drained concurrently by a pool of workers. Each worker processes its partition
+     * in chunks of at most {@link #CHUNK_SIZE} jobs, each committed in its own transaction, so that a chunk
+     * that conflicts with another transaction is retried on its own rather than the entire backlog. A chunk
+     * that keeps conflicting is left for the next round, so that a worker never spins on hot count jobs.
+     *
+     * The number of count jobs that are yet to be processed, and how long they have been waiting, are kept
+     * so that the staleness of the statistics can be monitored.
+     */
     public static class StatisticsBackgroundCounter {
+
+        private static final int CHUNK_SIZE = 10_000;
+        private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        private static final int MAX_CONFLICTS = 8;
+        private static final long MAX_BACKOFF_MILLIS = 100;
+
         private final RocksSession.Data session;
         private final Thread thread;
+        private final ExecutorService workers;
         private final Semaphore countJobNotifications;
-        private boolean isStopped;
+        private final AtomicLong backlog;
+        private final AtomicLong pendingSince;
+        private volatile boolean isStopped;
 
         StatisticsBackgroundCounter(RocksSession.Data session) {
             this.session = session;
             countJobNotifications = new Semaphore(0);
-            thread = NamedThreadFactory.create(session.database().name + "::statistics-background-counter")
-                    .newThread(this::countFn);
+            backlog = new AtomicLong(0);
+            pendingSince = new AtomicLong(0);
+            final String name = session.database().name + "::statistics-background-counter";
+            workers = Executors.newFixedThreadPool(PARALLELISM, NamedThreadFactory.create(name + "-worker"));
+            thread = NamedThreadFactory.create(name).newThread(this::countFn);
             thread.start();
         }
 
-        public void needsBackgroundCounting() {
+        public void needsBackgroundCounting(long countJobs) {
+            backlog.addAndGet(countJobs);
+            pendingSince.compareAndSet(0, System.nanoTime());
             countJobNotifications.release();
         }
 
+        /**
+         * Returns the approximate number of count jobs that are waiting to be processed.
+         */
+        public long backlog() {
+            return Math.max(0, backlog.get());
+        }
+
+        /**
+         * Returns the time for which the oldest count jobs have been waiting to be processed, in milliseconds.
+         */
+        public long lagMillis() {
+            final long since = pendingSince.get();
+            return since == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+        }
+
         private void countFn() {
+            try {
+                initialiseBacklog();
+                do {
+                    countRound();
+                    refreshValueHistograms();
+                    waitForCountJob();
+                } while (!isStopped);
+            } catch (GraknException e) {
+                if (!isDatabaseClosed(e)) throw e;
+            }
+        }
+
+        private void initialiseBacklog() {
+            final long pending = pendingCountJobs();
+            if (pending > 0) needsBackgroundCounting(pending);
+        }
+
+        private long pendingCountJobs() {
+            try (RocksTransaction.Data tx = session.transaction(READ)) {
+                return tx.graphMgr.data().storage().iterate(countJobKey(), (key, value) -> key).count();
+            }
+        }
+
+        private void countRound() {
+            final long roundStart = System.nanoTime();
+            final List<byte[]> partitions;
+            try (RocksTransaction.Data tx = session.transaction(READ)) {
+                partitions = tx.graphMgr.data().stats().countJobPartitions();
+            }
+            final CompletableFuture<?>[] drains = new CompletableFuture<?>[partitions.size()];
+            for (int i = 0; i < partitions.size(); i++) {
+                final byte[] partition = partitions.get(i);
+                drains[i] = CompletableFuture.runAsync(() -> drain(partition), workers);
+            }
+            try {
+                CompletableFuture.allOf(drains).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof GraknException) throw (GraknException) e.getCause();
+                else throw e;
+            }
+            // The count jobs of types that no longer exist do not belong to any of the partitions
+            drain(countJobKey());
+            // Commits count the jobs that they buffer, but jobs with the same key are stored only once, so the
+            // backlog is read back from storage after every round, rather than left to drift upwards for good
+            backlog.set(pendingCountJobs());
+            if (countJobNotifications.availablePermits() == 0) pendingSince.set(0);
+            else pendingSince.set(roundStart);
+        }
+
+        private void drain(byte[] partition) {
+            int processed;
             do {
+                processed = countChunk(partition);
+            } while (processed == CHUNK_SIZE && !isStopped);
+        }
+
+        /**
+         * Processes one chunk of the count jobs of a partition, retrying with a bounded backoff when it conflicts
+         * with another transaction. After {@link #MAX_CONFLICTS} conflicts, the chunk is left for the next round.
+         */
+        private int countChunk(byte[] partition) {
+            for (int conflicts = 0; !isStopped; conflicts++) {
                 try (RocksTransaction.Data tx = session.transaction(WRITE)) {
-                    tx.graphMgr.data().stats().processCountJobs();
-                    tx.commit();
-                } catch (GraknException e) {
-                    if (e.code().isPresent() && e.code().get().equals(DATABASE_CLOSED.code())) {
-                        break;
-                    } else {
-                        // TODO: Add specific code indicating rocksdb conflict to GraknException status code
-                        boolean txConflicted = e.getCause() instanceof RocksDBException &&
-                                ((RocksDBException) e.getCause()).getStatus().getCode() == Status.Code.Busy;
-                        if (txConflicted) {
-                            countJobNotifications.release();
-                        } else {
-                            throw e;
-                        }
+                    final int processed = tx.graphMgr.data().stats().processCountJobs(partition, CHUNK_SIZE);
+                    if (processed > 0) {
+                        tx.commit();
+                        backlog.addAndGet(-processed);
                     }
+                    return processed;
+                } catch (GraknException e) {
+                    if (!isConflict(e)) throw e;
+                }
+                if (conflicts == MAX_CONFLICTS) {
+                    countJobNotifications.release();
+                    return 0;
                 }
-                waitForCountJob();
-            } while (!isStopped);
+                if (!backoff(conflicts)) return 0;
+            }
+            return 0;
+        }
+
+        private static boolean backoff(int conflicts) {
+            try {
+                Thread.sleep(Math.min(MAX_BACKOFF_MILLIS, 1L << conflicts));
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Rebuilds the value histograms whose attribute counts have drifted in the last round. The
+         * histograms are only ever written by this thread, so the transaction cannot conflict.
+         */
+        private void refreshValueHistograms() {
+            try (RocksTransaction.Data tx = session.transaction(WRITE)) {
+                if (tx.graphMgr.data().stats().refreshValueHistograms()) tx.commit();
+            }
+        }
+
+        private static boolean isDatabaseClosed(GraknException e) {
+            return e.code().isPresent() && e.code().get().equals(DATABASE_CLOSED.code());
+        }
+
+        private static boolean isConflict(GraknException e) {
+            // TODO: Add specific code indicating rocksdb conflict to GraknException status code
+            return e.getCause() instanceof RocksDBException &&
+                    ((RocksDBException) e.getCause()).getStatus().getCode() == Status.Code.Busy;
         }
 
         private void waitForCountJob() {
@@ -404,6 +691,7 @@ public class RocksDatabase implements Grakn.Database {
                 isStopped = true;
                 countJobNotifications.release();
                 thread.join();
+                workers.shutdown();
             } catch (InterruptedException e) {
                 throw GraknException.of(UNEXPECTED_INTERRUPTION);
             }
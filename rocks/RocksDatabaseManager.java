@@ -20,26 +20,39 @@ package grakn.core.rocks;
 
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
+import grakn.core.graph.util.Encoding;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
 
+import static grakn.core.common.exception.ErrorMessage.Database.BACKUP_NOT_FOUND;
 import static grakn.core.common.exception.ErrorMessage.Database.DATABASE_EXISTS;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Comparator.reverseOrder;
 
 public class RocksDatabaseManager implements Grakn.DatabaseManager {
 
+    private static final String SST_EXTENSION = ".sst";
+    private static final String RESTORE_PREFIX = ".restore-";
+
     private final RocksGrakn grakn;
     private final ConcurrentMap<String, RocksDatabase> databases;
+    private final Set<String> reservations;
     private final Factory.Database databaseFactory;
 
     protected RocksDatabaseManager(RocksGrakn grakn, Factory.Database databaseFactory) {
         this.grakn = grakn;
         this.databaseFactory = databaseFactory;
         databases = new ConcurrentHashMap<>();
+        reservations = new HashSet<>();
     }
 
     void loadAll() {
@@ -47,6 +60,11 @@ public class RocksDatabaseManager implements Grakn.DatabaseManager {
         if (databaseDirectories != null && databaseDirectories.length > 0) {
             Arrays.stream(databaseDirectories).parallel().forEach(directory -> {
                 final String name = directory.getName();
+                if (name.startsWith(RESTORE_PREFIX)) {
+                    // a restore that did not complete before the server stopped
+                    deleteDirectory(directory.toPath());
+                    return;
+                }
                 final RocksDatabase database = databaseFactory.databaseLoadAndOpen(grakn, name);
                 databases.put(name, database);
             });
@@ -60,11 +78,87 @@ public class RocksDatabaseManager implements Grakn.DatabaseManager {
 
     @Override
     public RocksDatabase create(String name) {
-        if (databases.containsKey(name)) throw GraknException.of(DATABASE_EXISTS, name);
+        reserve(name);
+        try {
+            final RocksDatabase database = databaseFactory.databaseCreateAndOpen(grakn, name);
+            databases.put(name, database);
+            return database;
+        } finally {
+            release(name);
+        }
+    }
+
+    /**
+     * Restores a database from a backup taken by {@link RocksDatabase#backup(Path)}, by linking the
+     * SST files of its checkpoints into the directory of the new database, which is then loaded.
+     * The backup remains usable, as RocksDB never modifies an SST file once it is written.
+     *
+     * The checkpoints are restored into a temporary directory, which is only moved into place once
+     * complete, so that a restore that fails never leaves behind a database that would be loaded.
+     */
+    @Override
+    public RocksDatabase restore(String name, Path backup) {
+        if (!Files.isDirectory(backup.resolve(Encoding.ROCKS_SCHEMA)) || !Files.isDirectory(backup.resolve(Encoding.ROCKS_DATA))) {
+            throw GraknException.of(BACKUP_NOT_FOUND, backup);
+        }
+
+        reserve(name);
+        final Path restoring = grakn.directory().resolve(RESTORE_PREFIX + name);
+        final Path directory = grakn.directory().resolve(name);
+        boolean isMoved = false;
+        try {
+            Files.createDirectory(restoring);
+            restoreCheckpoint(backup.resolve(Encoding.ROCKS_SCHEMA), restoring.resolve(Encoding.ROCKS_SCHEMA));
+            restoreCheckpoint(backup.resolve(Encoding.ROCKS_DATA), restoring.resolve(Encoding.ROCKS_DATA));
+            Files.move(restoring, directory, ATOMIC_MOVE);
+            isMoved = true;
+            final RocksDatabase database = databaseFactory.databaseLoadAndOpen(grakn, name);
+            databases.put(name, database);
+            return database;
+        } catch (IOException e) {
+            deleteDirectory(restoring);
+            throw GraknException.of(e);
+        } catch (RuntimeException e) {
+            deleteDirectory(isMoved ? directory : restoring);
+            throw e;
+        } finally {
+            release(name);
+        }
+    }
 
-        final RocksDatabase database = databaseFactory.databaseCreateAndOpen(grakn, name);
-        databases.put(name, database);
-        return database;
+    private synchronized void reserve(String name) {
+        if (databases.containsKey(name) || !reservations.add(name)) throw GraknException.of(DATABASE_EXISTS, name);
+    }
+
+    private synchronized void release(String name) {
+        reservations.remove(name);
+    }
+
+    private static void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) return;
+        try {
+            Files.walk(directory).sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+    }
+
+    private static void restoreCheckpoint(Path checkpoint, Path directory) throws IOException {
+        Files.createDirectory(directory);
+        try (Stream<Path> files = Files.list(checkpoint)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                final Path target = directory.resolve(file.getFileName());
+                if (file.getFileName().toString().endsWith(SST_EXTENSION)) {
+                    try {
+                        Files.createLink(target, file);
+                        continue;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // the backup is on another file system, so the file is copied instead
+                    }
+                }
+                Files.copy(file, target);
+            }
+        }
     }
 
     @Override
@@ -104,7 +104,11 @@ public final class RocksFactory implements Factory {
 
                 @Override
                 public RocksStorage.Data storageData(RocksDatabase database, RocksTransaction transaction) {
-                    return new RocksStorage.Data(database, transaction);
+                    if (transaction.isData() && transaction.session.context().options().bulkLoad()) {
+                        return new RocksStorage.BulkLoad(database, transaction);
+                    } else {
+                        return new RocksStorage.Data(database, transaction);
+                    }
                 }
             };
         }
@@ -26,7 +26,6 @@ import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
 import grakn.core.common.parameters.Options;
 import org.rocksdb.RocksDB;
-import org.rocksdb.UInt64AddOperator;
 
 import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,17 +45,15 @@ public class RocksGrakn implements Grakn {
 
     private final Path directory;
     private final Options.Database options;
-    private final org.rocksdb.Options rocksConfig;
+    private final RocksConfig rocksConfig;
     private final RocksDatabaseManager databaseMgr;
     private final AtomicBoolean isOpen;
 
     protected RocksGrakn(Path directory, Options.Database options, Factory.DatabaseManager databaseMgrFactory) {
         this.directory = directory;
         this.options = options;
+        this.rocksConfig = new RocksConfig(options);
         this.databaseMgr = databaseMgrFactory.databaseManager(this);
-        this.rocksConfig = new org.rocksdb.Options()
-                .setCreateIfMissing(true)
-                .setMergeOperator(new UInt64AddOperator());
 
         ExecutorService.init(MAX_THREADS);
         databaseMgr.loadAll();
@@ -79,8 +76,12 @@ public class RocksGrakn implements Grakn {
         return directory;
     }
 
-    org.rocksdb.Options rocksOptions() {
-        return rocksConfig;
+    RocksConfig.ColumnFamilies rocksSchemaConfig() {
+        return rocksConfig.schema();
+    }
+
+    RocksConfig.ColumnFamilies rocksDataConfig() {
+        return rocksConfig.data();
     }
 
     public Options.Database options() {
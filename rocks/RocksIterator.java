@@ -19,53 +19,161 @@
 package grakn.core.rocks;
 
 import grakn.core.common.iterator.ResourceIterator;
+import org.rocksdb.ColumnFamilyHandle;
 
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 
 import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.compareBytes;
+import static grakn.core.common.collection.Bytes.prefixUpperBound;
+import static grakn.core.rocks.RocksConfig.PREFIX_EXTRACTOR_LENGTH;
 
-public final class RocksIterator<T> implements ResourceIterator<T>, AutoCloseable {
+public abstract class RocksIterator<T> implements ResourceIterator<T>, AutoCloseable {
 
-    private final byte[] prefix;
     private final RocksStorage storage;
+    private final byte[] firstKey;
+    private final ColumnFamilyHandle columnFamily;
     private final AtomicBoolean isOpen;
     private final BiFunction<byte[], byte[], T> constructor;
-    private org.rocksdb.RocksIterator internalRocksIterator;
+    private RocksStorage.InternalIterator internalIterator;
+    org.rocksdb.RocksIterator internalRocksIterator;
+    private Iterator<Map.Entry<byte[], RocksStorage.Write>> writesIterator;
+    private Map.Entry<byte[], RocksStorage.Write> write;
     private State state;
     private T next;
+    private long scanned;
 
     private enum State {INIT, EMPTY, FETCHED, COMPLETED}
 
-    RocksIterator(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor) {
+    RocksIterator(RocksStorage storage, byte[] firstKey, BiFunction<byte[], byte[], T> constructor) {
         this.storage = storage;
-        this.prefix = prefix;
+        this.firstKey = firstKey;
+        this.columnFamily = storage.columnFamily(firstKey);
         this.constructor = constructor;
 
         isOpen = new AtomicBoolean(true);
         state = State.INIT;
     }
 
+    abstract void seekFirst();
+
+    /**
+     * Returns the inclusive lower bound of the keys of this iterator.
+     */
+    abstract byte[] lowerBound();
+
+    /**
+     * Returns true if every key within the bounds of this iterator shares its
+     * first {@code PREFIX_EXTRACTOR_LENGTH} bytes with the key that it seeks.
+     */
+    abstract boolean isPrefixed();
+
+    /**
+     * Returns the exclusive upper bound of the keys of this iterator, beyond which
+     * RocksDB does not need to read any further, or null if there is none.
+     */
+    @Nullable
+    abstract byte[] upperBound();
+
+    /**
+     * Determines whether the internal iterator, currently positioned at the given key,
+     * is still within the bounds of this iterator. The key is a view over a reused
+     * buffer, and must not be retained.
+     */
+    abstract boolean isWithinBounds(ByteBuffer key);
+
+    /**
+     * Determines whether the given key is to be returned by this iterator. If not, this
+     * method is responsible for moving the internal iterator away from the given key.
+     * The key is a view over a reused buffer, and must not be retained.
+     */
+    abstract boolean accept(ByteBuffer key);
+
+    /**
+     * Determines whether the given key, which has been written but not committed, is to be returned by this iterator,
+     * in the same way as {@link #accept(ByteBuffer)} does for the keys in storage.
+     */
+    abstract boolean accept(byte[] key);
+
     private void initalise() {
-        this.internalRocksIterator = storage.getInternalRocksIterator();
-        this.internalRocksIterator.seek(prefix);
+        this.internalIterator = storage.getInternalIterator(columnFamily, isPrefixed(), upperBound());
+        this.internalRocksIterator = internalIterator.rocksIterator();
+        final NavigableMap<byte[], RocksStorage.Write> writes = storage.writes(lowerBound(), upperBound());
+        if (writes != null) {
+            writesIterator = writes.entrySet().iterator();
+            write = nextWrite();
+        }
+        storage.metrics().recordSeek(firstKey);
+        seekFirst();
     }
 
+    /**
+     * Fetches the next key from storage, overlaid with the writes that have not been committed yet.
+     * The writes are merged into the keys from storage in order: a write to a key that is also in storage
+     * replaces (or in the case of a merge, adds to) the value in storage, or hides it if it is a delete.
+     */
     private boolean fetchAndCheck() {
-        final byte[] key;
-        if (!internalRocksIterator.isValid() || !bytesHavePrefix(key = internalRocksIterator.key(), prefix)) {
-            state = State.COMPLETED;
-            recycle();
-            return false;
+        ByteBuffer key;
+        while (internalRocksIterator.isValid() && isWithinBounds(key = internalIterator.keyView())) {
+            final int comparison = write == null ? -1 : compareBytes(key, write.getKey());
+            if (comparison > 0) {
+                if (fetchWrite()) return true;
+                continue;
+            }
+            scanned++;
+            if (accept(key)) {
+                if (comparison < 0) {
+                    // Only the keys that are returned are copied onto the heap
+                    next = constructor.apply(internalIterator.key(), internalIterator.value());
+                } else {
+                    final RocksStorage.Write overlay = write.getValue();
+                    write = nextWrite();
+                    if (overlay.type == RocksStorage.Write.Type.DELETE) {
+                        internalRocksIterator.next();
+                        continue;
+                    }
+                    final byte[] value = overlay.type == RocksStorage.Write.Type.PUT
+                            ? overlay.value : RocksStorage.Write.add(internalIterator.value(), overlay.value);
+                    next = constructor.apply(internalIterator.key(), value);
+                }
+                internalRocksIterator.next();
+                state = State.FETCHED;
+                return true;
+            }
         }
+        while (write != null) {
+            if (fetchWrite()) return true;
+        }
+        state = State.COMPLETED;
+        recycle();
+        return false;
+    }
 
-        next = constructor.apply(key, internalRocksIterator.value());
-        internalRocksIterator.next();
+    /**
+     * Consumes the next write, which is to a key that is not in storage, and fetches it unless it is a delete.
+     */
+    private boolean fetchWrite() {
+        final Map.Entry<byte[], RocksStorage.Write> entry = write;
+        write = nextWrite();
+        if (entry.getValue().type == RocksStorage.Write.Type.DELETE || !accept(entry.getKey())) return false;
+        next = constructor.apply(entry.getKey(), entry.getValue().value);
         state = State.FETCHED;
         return true;
     }
 
+    @Nullable
+    private Map.Entry<byte[], RocksStorage.Write> nextWrite() {
+        return writesIterator.hasNext() ? writesIterator.next() : null;
+    }
+
     public final T peek() {
         if (!hasNext()) throw new NoSuchElementException();
         return next;
@@ -79,7 +187,10 @@ public final class RocksIterator<T> implements ResourceIterator<T>, AutoCloseabl
     @Override
     public void close() {
         if (isOpen.compareAndSet(true, false)) {
-            if (state != State.INIT) storage.recycle(internalRocksIterator);
+            if (state != State.INIT) {
+                storage.metrics().recordScanned(firstKey, scanned);
+                storage.recycle(internalIterator);
+            }
             state = State.COMPLETED;
             storage.remove(this);
         }
@@ -108,4 +219,118 @@ public final class RocksIterator<T> implements ResourceIterator<T>, AutoCloseabl
         state = State.EMPTY;
         return next;
     }
-}
\ No newline at end of file
+
+    static class Prefixed<T> extends RocksIterator<T> {
+
+        private final byte[] prefix;
+
+        Prefixed(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor) {
+            super(storage, prefix, constructor);
+            this.prefix = prefix;
+        }
+
+        @Override
+        void seekFirst() {
+            internalRocksIterator.seek(prefix);
+        }
+
+        @Override
+        byte[] lowerBound() {
+            return prefix;
+        }
+
+        @Override
+        boolean isPrefixed() {
+            return prefix.length >= PREFIX_EXTRACTOR_LENGTH;
+        }
+
+        @Override
+        byte[] upperBound() {
+            return prefixUpperBound(prefix);
+        }
+
+        @Override
+        boolean isWithinBounds(ByteBuffer key) {
+            return bytesHavePrefix(key, prefix);
+        }
+
+        @Override
+        boolean accept(ByteBuffer key) {
+            return true;
+        }
+
+        @Override
+        boolean accept(byte[] key) {
+            return true;
+        }
+    }
+
+    static class Ranged<T> extends RocksIterator<T> {
+
+        private final byte[] lowerBound;
+        private final byte[] upperBound;
+        private final ToIntFunction<ByteBuffer> keyLength;
+
+        Ranged(RocksStorage storage, byte[] lowerBound, byte[] upperBound, ToIntFunction<ByteBuffer> keyLength,
+               BiFunction<byte[], byte[], T> constructor) {
+            super(storage, lowerBound, constructor);
+            assert compareBytes(lowerBound, upperBound) <= 0;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+            this.keyLength = keyLength;
+        }
+
+        @Override
+        void seekFirst() {
+            internalRocksIterator.seek(lowerBound);
+        }
+
+        @Override
+        byte[] lowerBound() {
+            return lowerBound;
+        }
+
+        @Override
+        boolean isPrefixed() {
+            if (lowerBound.length < PREFIX_EXTRACTOR_LENGTH || upperBound.length < PREFIX_EXTRACTOR_LENGTH) return false;
+            for (int i = 0; i < PREFIX_EXTRACTOR_LENGTH; i++) {
+                if (lowerBound[i] != upperBound[i]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        byte[] upperBound() {
+            return upperBound;
+        }
+
+        @Override
+        boolean isWithinBounds(ByteBuffer key) {
+            return compareBytes(key, upperBound) < 0;
+        }
+
+        @Override
+        boolean accept(ByteBuffer key) {
+            final int length = keyLength.applyAsInt(key);
+            if (key.remaining() == length) return true;
+            else if (key.remaining() < length) internalRocksIterator.next();
+            else {
+                final byte[] head = new byte[length];
+                key.duplicate().get(head);
+                final byte[] skipTo = prefixUpperBound(head);
+                if (skipTo != null) {
+                    internalRocksIterator.seek(skipTo);
+                } else { // there cannot be any key beyond the extensions of an all-0xff key
+                    internalRocksIterator.seekToLast();
+                    internalRocksIterator.next();
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean accept(byte[] key) {
+            return keyLength.applyAsInt(ByteBuffer.wrap(key)) == key.length;
+        }
+    }
+}
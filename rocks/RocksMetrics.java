@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.graph.util.Encoding;
+import org.rocksdb.HistogramData;
+import org.rocksdb.HistogramType;
+import org.rocksdb.Statistics;
+import org.rocksdb.StatsLevel;
+import org.rocksdb.TickerType;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a {@code RocksPartitionedDB}: the statistics that RocksDB collects about the
+ * instance, and the number of gets, seeks and keys scanned through {@code RocksStorage}, counted
+ * per {@code Encoding.Prefix} of the keys.
+ *
+ * Together they tell whether the storage is read from memory or from disk, and which kinds of
+ * keys are being read, e.g. whether a slow query spends its time scanning edges or in RocksDB.
+ */
+public class RocksMetrics {
+
+    private static final int PREFIX_RANGE = 256;
+    private static final TickerType[] TICKERS = new TickerType[]{
+            TickerType.BLOCK_CACHE_HIT,
+            TickerType.BLOCK_CACHE_MISS,
+            TickerType.BLOOM_FILTER_USEFUL,
+            TickerType.MEMTABLE_HIT,
+            TickerType.MEMTABLE_MISS,
+            TickerType.BYTES_READ,
+            TickerType.BYTES_WRITTEN,
+            TickerType.NUMBER_KEYS_READ,
+            TickerType.NUMBER_DB_SEEK,
+            TickerType.COMPACT_READ_BYTES,
+            TickerType.COMPACT_WRITE_BYTES,
+            TickerType.STALL_MICROS
+    };
+    private static final HistogramType[] HISTOGRAMS = new HistogramType[]{
+            HistogramType.DB_GET,
+            HistogramType.DB_SEEK,
+            HistogramType.COMPACTION_TIME
+    };
+
+    private final Statistics statistics;
+    private final LongAdder[] gets;
+    private final LongAdder[] seeks;
+    private final LongAdder[] scanned;
+
+    RocksMetrics() {
+        statistics = new Statistics();
+        statistics.setStatsLevel(StatsLevel.EXCEPT_DETAILED_TIMERS);
+        gets = new LongAdder[PREFIX_RANGE];
+        seeks = new LongAdder[PREFIX_RANGE];
+        scanned = new LongAdder[PREFIX_RANGE];
+        for (int i = 0; i < PREFIX_RANGE; i++) {
+            gets[i] = new LongAdder();
+            seeks[i] = new LongAdder();
+            scanned[i] = new LongAdder();
+        }
+    }
+
+    Statistics statistics() {
+        return statistics;
+    }
+
+    void recordGet(byte[] key) {
+        gets[key[0] & 0xff].increment();
+    }
+
+    void recordSeek(byte[] key) {
+        seeks[key[0] & 0xff].increment();
+    }
+
+    void recordScanned(byte[] key, long count) {
+        if (count > 0) scanned[key[0] & 0xff].add(count);
+    }
+
+    /**
+     * Returns the counts of the RocksDB tickers that we collect, by the name of the ticker.
+     */
+    public Map<String, Long> tickers() {
+        final Map<String, Long> tickers = new LinkedHashMap<>();
+        for (TickerType ticker : TICKERS) tickers.put(ticker.name(), statistics.getTickerCount(ticker));
+        return tickers;
+    }
+
+    /**
+     * Returns the RocksDB histograms that we collect, by the name of the histogram, in microseconds.
+     */
+    public Map<String, Histogram> histograms() {
+        final Map<String, Histogram> histograms = new LinkedHashMap<>();
+        for (HistogramType type : HISTOGRAMS) {
+            final HistogramData data = statistics.getHistogramData(type);
+            histograms.put(type.name(), new Histogram(data.getMedian(), data.getPercentile95(),
+                                                      data.getPercentile99(), data.getAverage()));
+        }
+        return histograms;
+    }
+
+    /**
+     * Returns the fraction of the block reads that were served by the block cache, or 0 if there were none.
+     */
+    public double blockCacheHitRate() {
+        final long hits = statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+        final long misses = statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Returns the storage operations of every {@code Encoding.Prefix} whose keys have been read.
+     */
+    public Map<Encoding.Prefix, Operations> operations() {
+        final Map<Encoding.Prefix, Operations> operations = new EnumMap<>(Encoding.Prefix.class);
+        for (Encoding.Prefix prefix : Encoding.Prefix.values()) {
+            final int i = prefix.key() & 0xff;
+            final Operations ops = new Operations(gets[i].sum(), seeks[i].sum(), scanned[i].sum());
+            if (!ops.isEmpty()) operations.put(prefix, ops);
+        }
+        return operations;
+    }
+
+    void close() {
+        statistics.close();
+    }
+
+    public static class Histogram {
+
+        private final double median;
+        private final double percentile95;
+        private final double percentile99;
+        private final double average;
+
+        Histogram(double median, double percentile95, double percentile99, double average) {
+            this.median = median;
+            this.percentile95 = percentile95;
+            this.percentile99 = percentile99;
+            this.average = average;
+        }
+
+        public double median() {
+            return median;
+        }
+
+        public double percentile95() {
+            return percentile95;
+        }
+
+        public double percentile99() {
+            return percentile99;
+        }
+
+        public double average() {
+            return average;
+        }
+    }
+
+    public static class Operations {
+
+        private final long gets;
+        private final long seeks;
+        private final long scanned;
+
+        Operations(long gets, long seeks, long scanned) {
+            this.gets = gets;
+            this.seeks = seeks;
+            this.scanned = scanned;
+        }
+
+        public long gets() {
+            return gets;
+        }
+
+        public long seeks() {
+            return seeks;
+        }
+
+        public long scanned() {
+            return scanned;
+        }
+
+        boolean isEmpty() {
+            return gets == 0 && seeks == 0 && scanned == 0;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.graph.util.Encoding;
+import org.rocksdb.AbstractImmutableNativeReference;
+import org.rocksdb.Checkpoint;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A RocksDB instance whose keys are partitioned into column families by the
+ * {@code Encoding.PrefixType} of their first byte, which is always a {@code PrefixIID}.
+ *
+ * An iterator therefore only ever visits keys of the same prefix type as the key it
+ * seeks first, which holds for every iteration performed by the graph.
+ *
+ * Databases that were created before keys were partitioned only have the default
+ * column family, in which case every key continues to be routed to it.
+ */
+public class RocksPartitionedDB {
+
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final int PREFIX_RANGE = 256;
+
+    private final OptimisticTransactionDB rocksDB;
+    private final DBOptions dbOptions;
+    private final RocksMetrics metrics;
+    private final List<ColumnFamilyHandle> handles;
+    private final ColumnFamilyHandle[] handlesByPrefix;
+    private final Map<ColumnFamilyHandle, ColumnFamilyOptions> optionsByHandle;
+
+    private RocksPartitionedDB(OptimisticTransactionDB rocksDB, DBOptions dbOptions, RocksMetrics metrics,
+                               List<ColumnFamilyDescriptor> descriptors, List<ColumnFamilyHandle> handles,
+                               Map<Encoding.PrefixType, ColumnFamilyHandle> handlesByPrefixType) {
+        this.rocksDB = rocksDB;
+        this.dbOptions = dbOptions;
+        this.metrics = metrics;
+        this.handles = handles;
+        this.optionsByHandle = new IdentityHashMap<>();
+        for (int i = 0; i < handles.size(); i++) optionsByHandle.put(handles.get(i), descriptors.get(i).getOptions());
+        this.handlesByPrefix = new ColumnFamilyHandle[PREFIX_RANGE];
+        for (int i = 0; i < PREFIX_RANGE; i++) handlesByPrefix[i] = handles.get(0);
+        for (Encoding.Prefix prefix : Encoding.Prefix.values()) {
+            final ColumnFamilyHandle handle = handlesByPrefixType.get(prefix.type());
+            if (handle != null) handlesByPrefix[prefix.key() & 0xff] = handle;
+        }
+    }
+
+    static RocksPartitionedDB open(Path directory, RocksConfig.ColumnFamilies config) {
+        final List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+        descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, config.defaultOptions()));
+        final boolean isPartitioned = isPartitioned(directory);
+        if (isPartitioned) {
+            for (Encoding.PrefixType type : Encoding.PrefixType.values()) {
+                descriptors.add(new ColumnFamilyDescriptor(name(type), config.options(type)));
+            }
+        }
+
+        final List<ColumnFamilyHandle> handles = new ArrayList<>();
+        final RocksMetrics metrics = new RocksMetrics();
+        final DBOptions dbOptions = config.dbOptions(metrics.statistics());
+        try {
+            final OptimisticTransactionDB rocksDB = OptimisticTransactionDB.open(
+                    dbOptions, directory.toString(), descriptors, handles
+            );
+            final Map<Encoding.PrefixType, ColumnFamilyHandle> handlesByPrefixType = new EnumMap<>(Encoding.PrefixType.class);
+            if (isPartitioned) {
+                final Encoding.PrefixType[] types = Encoding.PrefixType.values();
+                for (int i = 0; i < types.length; i++) handlesByPrefixType.put(types[i], handles.get(i + 1));
+            }
+            return new RocksPartitionedDB(rocksDB, dbOptions, metrics, descriptors, handles, handlesByPrefixType);
+        } catch (RocksDBException e) {
+            dbOptions.close();
+            metrics.close();
+            throw GraknException.of(e);
+        }
+    }
+
+    private static boolean isPartitioned(Path directory) {
+        if (!Files.exists(directory.resolve(CURRENT_FILE))) return true;
+        try (org.rocksdb.Options options = new org.rocksdb.Options()) {
+            return RocksDB.listColumnFamilies(options, directory.toString()).size() > 1;
+        } catch (RocksDBException e) {
+            throw GraknException.of(e);
+        }
+    }
+
+    private static byte[] name(Encoding.PrefixType type) {
+        return type.name().toLowerCase().getBytes(StandardCharsets.UTF_8);
+    }
+
+    OptimisticTransactionDB rocksDB() {
+        return rocksDB;
+    }
+
+    ColumnFamilyHandle columnFamily(byte[] key) {
+        assert key.length > 0;
+        return handlesByPrefix[key[0] & 0xff];
+    }
+
+    DBOptions dbOptions() {
+        return dbOptions;
+    }
+
+    ColumnFamilyOptions options(ColumnFamilyHandle columnFamily) {
+        return optionsByHandle.get(columnFamily);
+    }
+
+    RocksMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Creates a checkpoint of this RocksDB instance in the given directory, which must not exist.
+     * The SST files of the checkpoint are hard links to the live ones when the directory is on the
+     * same file system, and copies otherwise, so a checkpoint takes time proportional to the metadata
+     * of the instance rather than to its data. Writers are not blocked while a checkpoint is taken.
+     */
+    void checkpoint(Path directory) {
+        try (Checkpoint checkpoint = Checkpoint.create(rocksDB)) {
+            checkpoint.createCheckpoint(directory.toString());
+        } catch (RocksDBException e) {
+            throw GraknException.of(e);
+        }
+    }
+
+    void close() {
+        handles.forEach(AbstractImmutableNativeReference::close);
+        rocksDB.close();
+        dbOptions.close();
+        metrics.close();
+    }
+}
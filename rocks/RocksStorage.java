@@ -18,54 +18,102 @@
 
 package grakn.core.rocks;
 
-import grakn.core.common.concurrent.ManagedReadWriteLock;
+import grakn.common.collection.Pair;
+import grakn.core.common.collection.Bytes;
 import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.Iterators;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Encoding;
 import grakn.core.graph.util.KeyGenerator;
 import grakn.core.graph.util.Storage;
-import org.rocksdb.AbstractImmutableNativeReference;
-import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.DirectSlice;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
 import org.rocksdb.OptimisticTransactionOptions;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Snapshot;
+import org.rocksdb.SstFileWriter;
 import org.rocksdb.Transaction;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 
 import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.compareBytes;
+import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.prefixUpperBound;
+import static grakn.core.common.exception.ErrorMessage.Database.BULK_LOAD_FAILED;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_CLOSED;
+import static java.util.Collections.singletonList;
 
 public class RocksStorage implements Storage {
 
     private static final byte[] EMPTY_ARRAY = new byte[]{};
+    private static final int SPLIT_INTERPOLATION_LENGTH = 8;
 
     protected final Transaction storageTransaction;
+    final ConcurrentNavigableMap<byte[], Write> writes;
+    private final RocksPartitionedDB rocksDB;
     private final boolean isReadOnly;
     private final Set<RocksIterator<?>> iterators;
-    private final ConcurrentLinkedQueue<org.rocksdb.RocksIterator> recycled;
+    private final ConcurrentMap<ColumnFamilyHandle, ConcurrentLinkedQueue<InternalIterator>> recycled;
+    private final ConcurrentMap<ColumnFamilyHandle, ConcurrentLinkedQueue<InternalIterator>> recycledPrefixed;
     private final OptimisticTransactionOptions transactionOptions;
     private final WriteOptions writeOptions;
     private final ReadOptions readOptions;
     private final Snapshot snapshot;
-    private final ManagedReadWriteLock readWriteLock;
     private final AtomicBoolean isOpen;
 
-    public RocksStorage(OptimisticTransactionDB rocksDB, boolean isReadOnly) {
+    /**
+     * Creates a storage over a snapshot of the given RocksDB, whose writes are buffered until they are committed.
+     *
+     * RocksDB transactions are not thread-safe: reading the writes of a transaction while another thread writes
+     * into it may crash, so every read and write used to be guarded by a read-write lock, which serialised the
+     * parallel workers of a transaction. Instead, writes are buffered in a concurrent, sorted map, and reads are
+     * served from the snapshot of the RocksDB (which can be read concurrently) overlaid with the buffered writes.
+     * The RocksDB transaction is therefore only ever written to, by a single thread, when it is committed.
+     *
+     * @param rocksDB    the RocksDB to read from and write into
+     * @param isReadOnly whether the storage is only ever read from, in which case its iterators are recycled
+     */
+    public RocksStorage(RocksPartitionedDB rocksDB, boolean isReadOnly) {
+        this.rocksDB = rocksDB;
         this.isReadOnly = isReadOnly;
+        writes = new ConcurrentSkipListMap<>(Bytes::compareBytes);
         iterators = ConcurrentHashMap.newKeySet();
-        recycled = new ConcurrentLinkedQueue<>();
-        readWriteLock = new ManagedReadWriteLock();
+        recycled = new ConcurrentHashMap<>();
+        recycledPrefixed = new ConcurrentHashMap<>();
         writeOptions = new WriteOptions();
         transactionOptions = new OptimisticTransactionOptions().setSetSnapshot(true);
-        storageTransaction = rocksDB.beginTransaction(writeOptions, transactionOptions);
+        storageTransaction = rocksDB.rocksDB().beginTransaction(writeOptions, transactionOptions);
         snapshot = storageTransaction.getSnapshot();
         readOptions = new ReadOptions().setSnapshot(snapshot);
 
@@ -80,17 +128,22 @@ public class RocksStorage implements Storage {
     @Override
     public byte[] get(byte[] key) {
         validateTransactionIsOpen();
+        final Write write = writes.isEmpty() ? null : writes.get(key);
+        if (write != null && write.type != Write.Type.MERGE) return write.type == Write.Type.PUT ? write.value : null;
         try {
-            // We don't need to check isOpen.get() as tx.commit() does not involve this method
-            if (!isReadOnly) readWriteLock.lockRead();
-            return storageTransaction.get(readOptions, key);
-        } catch (RocksDBException | InterruptedException e) {
+            rocksDB.metrics().recordGet(key);
+            final byte[] stored = rocksDB.rocksDB().get(rocksDB.columnFamily(key), readOptions, key);
+            if (write == null) return stored;
+            else return stored == null ? write.value : Write.add(stored, write.value);
+        } catch (RocksDBException e) {
             throw exception(e);
-        } finally {
-            if (!isReadOnly) readWriteLock.unlockRead();
         }
     }
 
+    /**
+     * Returns the last key in storage that starts with the given prefix,
+     * without regard for the writes that have not been committed yet.
+     */
     @Override
     public byte[] getLastKey(byte[] prefix) {
         validateTransactionIsOpen();
@@ -98,24 +151,21 @@ public class RocksStorage implements Storage {
         upperBound[upperBound.length - 1] = (byte) (upperBound[upperBound.length - 1] + 1);
         assert upperBound[upperBound.length - 1] != Byte.MIN_VALUE;
 
-        try (org.rocksdb.RocksIterator iterator = getInternalRocksIterator()) {
+        final InternalIterator internalIterator = getInternalIterator(rocksDB.columnFamily(prefix), false, upperBound);
+        try {
+            final org.rocksdb.RocksIterator iterator = internalIterator.rocksIterator();
             iterator.seekForPrev(upperBound);
-            if (bytesHavePrefix(iterator.key(), prefix)) return iterator.key();
+            if (iterator.isValid() && bytesHavePrefix(iterator.key(), prefix)) return iterator.key();
             else return null;
+        } finally {
+            recycle(internalIterator);
         }
     }
 
     @Override
     public void delete(byte[] key) {
         validateTransactionIsOpen();
-        try {
-            if (isOpen.get()) readWriteLock.lockWrite();
-            storageTransaction.delete(key);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen.get()) readWriteLock.unlockWrite();
-        }
+        writes.merge(key, Write.DELETE, Write::then);
     }
 
     @Override
@@ -126,14 +176,7 @@ public class RocksStorage implements Storage {
     @Override
     public void put(byte[] key, byte[] value) {
         validateTransactionIsOpen();
-        try {
-            if (isOpen.get()) readWriteLock.lockWrite();
-            storageTransaction.put(key, value);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen.get()) readWriteLock.unlockWrite();
-        }
+        writes.merge(key, new Write(Write.Type.PUT, value, true), Write::then);
     }
 
     @Override
@@ -144,37 +187,100 @@ public class RocksStorage implements Storage {
     @Override
     public void putUntracked(byte[] key, byte[] value) {
         validateTransactionIsOpen();
-        try {
-            readWriteLock.lockWrite();
-            storageTransaction.putUntracked(key, value);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen()) readWriteLock.unlockWrite();
-        }
+        writes.merge(key, new Write(Write.Type.PUT, value, false), Write::then);
     }
 
     @Override
     public void mergeUntracked(byte[] key, byte[] value) {
         validateTransactionIsOpen();
-        try {
-            readWriteLock.lockWrite();
-            storageTransaction.mergeUntracked(key, value);
-        } catch (RocksDBException | InterruptedException e) {
-            throw exception(e);
-        } finally {
-            if (isOpen()) readWriteLock.unlockWrite();
-        }
+        writes.merge(key, new Write(Write.Type.MERGE, value, false), Write::then);
+    }
+
+    /**
+     * Returns the buffered writes to the keys within the given bounds, or null if there are none at all.
+     */
+    @Nullable
+    NavigableMap<byte[], Write> writes(byte[] lowerBound, @Nullable byte[] upperBound) {
+        if (writes.isEmpty()) return null;
+        else if (upperBound == null) return writes.tailMap(lowerBound, true);
+        else return writes.subMap(lowerBound, true, upperBound, false);
     }
 
     @Override
     public <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
         validateTransactionIsOpen();
-        final RocksIterator<G> iterator = new RocksIterator<>(this, key, constructor);
+        final RocksIterator<G> iterator = new RocksIterator.Prefixed<>(this, key, constructor);
         iterators.add(iterator);
         return iterator;
     }
 
+    @Override
+    public <G> ResourceIterator<G> iterate(byte[] lowerBound, byte[] upperBound, ToIntFunction<ByteBuffer> keyLength,
+                                           BiFunction<byte[], byte[], G> constructor) {
+        validateTransactionIsOpen();
+        final RocksIterator<G> iterator = new RocksIterator.Ranged<>(this, lowerBound, upperBound, keyLength, constructor);
+        iterators.add(iterator);
+        return iterator;
+    }
+
+    /**
+     * Splits the keys that start with the given prefix by interpolating between the first and the last key.
+     *
+     * The keys beyond the prefix are mostly the IIDs of things, whose keys are generated in sequence, so the keys
+     * in between are spread out evenly enough for the interpolated bounds to split them into ranges of roughly the
+     * same size, at the cost of only two seeks. The bounds are interpolated over the first bytes at which the first
+     * and the last key differ.
+     */
+    @Override
+    public List<byte[]> split(byte[] prefix, int partitions) {
+        validateTransactionIsOpen();
+        final byte[] upperBound = prefixUpperBound(prefix);
+        assert upperBound != null;
+        final List<byte[]> bounds = new ArrayList<>();
+        bounds.add(prefix);
+        final byte[] firstKey = partitions > 1 ? getFirstKey(prefix, upperBound) : null;
+        final byte[] lastKey = firstKey != null ? getLastKey(prefix) : null;
+        if (lastKey != null) {
+            int common = 0;
+            while (common < firstKey.length && common < lastKey.length && firstKey[common] == lastKey[common]) {
+                common++;
+            }
+            final BigInteger first = interpolationValue(firstKey, common);
+            final BigInteger range = interpolationValue(lastKey, common).subtract(first);
+            for (int i = 1; i < partitions; i++) {
+                final BigInteger value = first.add(range.multiply(BigInteger.valueOf(i))
+                                                           .divide(BigInteger.valueOf(partitions)));
+                final byte[] bound = new byte[common + SPLIT_INTERPOLATION_LENGTH];
+                System.arraycopy(firstKey, 0, bound, 0, common);
+                final byte[] valueBytes = value.toByteArray();
+                final int length = Math.min(valueBytes.length, SPLIT_INTERPOLATION_LENGTH);
+                System.arraycopy(valueBytes, valueBytes.length - length, bound, bound.length - length, length);
+                if (compareBytes(bound, bounds.get(bounds.size() - 1)) > 0) bounds.add(bound);
+            }
+        }
+        bounds.add(upperBound);
+        return bounds;
+    }
+
+    private static BigInteger interpolationValue(byte[] key, int from) {
+        final byte[] bytes = new byte[SPLIT_INTERPOLATION_LENGTH];
+        System.arraycopy(key, from, bytes, 0, Math.max(0, Math.min(SPLIT_INTERPOLATION_LENGTH, key.length - from)));
+        return new BigInteger(1, bytes);
+    }
+
+    @Nullable
+    private byte[] getFirstKey(byte[] prefix, byte[] upperBound) {
+        final InternalIterator internalIterator = getInternalIterator(rocksDB.columnFamily(prefix), false, upperBound);
+        try {
+            final org.rocksdb.RocksIterator iterator = internalIterator.rocksIterator();
+            iterator.seek(prefix);
+            if (iterator.isValid() && bytesHavePrefix(iterator.key(), prefix)) return iterator.key();
+            else return null;
+        } finally {
+            recycle(internalIterator);
+        }
+    }
+
     @Override
     public GraknException exception(ErrorMessage error) {
         return GraknException.of(error);
@@ -190,7 +296,8 @@ public class RocksStorage implements Storage {
     public void close() {
         if (isOpen.compareAndSet(true, false)) {
             iterators.parallelStream().forEach(RocksIterator::close);
-            recycled.forEach(AbstractImmutableNativeReference::close);
+            recycled.values().forEach(queue -> queue.forEach(InternalIterator::close));
+            recycledPrefixed.values().forEach(queue -> queue.forEach(InternalIterator::close));
             snapshot.close();
             storageTransaction.close();
             transactionOptions.close();
@@ -203,27 +310,155 @@ public class RocksStorage implements Storage {
         if (!isOpen()) throw GraknException.of(TRANSACTION_CLOSED);
     }
 
-    org.rocksdb.RocksIterator getInternalRocksIterator() {
+    ColumnFamilyHandle columnFamily(byte[] key) {
+        return rocksDB.columnFamily(key);
+    }
+
+    RocksMetrics metrics() {
+        return rocksDB.metrics();
+    }
+
+    long snapshotSequenceNumber() {
+        return snapshot.getSequenceNumber();
+    }
+
+    /**
+     * Returns an internal RocksDB iterator, from the pool of recycled iterators if possible.
+     *
+     * @param columnFamily the column family to be iterated, which is determined by the prefix of the keys
+     * @param isPrefixed   true if every key to be iterated shares the first {@code PREFIX_EXTRACTOR_LENGTH}
+     *                     bytes with the seek key, in which case the iterator can make use of prefix bloom filters
+     * @param upperBound   the exclusive upper bound of the keys to be iterated, or null if there is none
+     * @return an internal RocksDB iterator that will not read beyond the given upper bound
+     */
+    InternalIterator getInternalIterator(ColumnFamilyHandle columnFamily, boolean isPrefixed,
+                                         @Nullable byte[] upperBound) {
+        InternalIterator iterator = null;
         if (isReadOnly) {
-            final org.rocksdb.RocksIterator iterator = recycled.poll();
-            if (iterator != null) return iterator;
+            final ConcurrentLinkedQueue<InternalIterator> queue =
+                    (isPrefixed ? recycledPrefixed : recycled).get(columnFamily);
+            if (queue != null) iterator = queue.poll();
         }
-        return storageTransaction.getIterator(readOptions);
+        if (iterator == null) iterator = new InternalIterator(rocksDB.rocksDB(), snapshot, columnFamily, isPrefixed);
+        iterator.setUpperBound(upperBound);
+        return iterator;
     }
 
-    public void recycle(org.rocksdb.RocksIterator rocksIterator) {
-        recycled.add(rocksIterator);
+    void recycle(InternalIterator iterator) {
+        (iterator.isPrefixed ? recycledPrefixed : recycled)
+                .computeIfAbsent(iterator.columnFamily, cf -> new ConcurrentLinkedQueue<>()).add(iterator);
     }
 
     void remove(RocksIterator<?> iterator) {
         iterators.remove(iterator);
     }
 
+    /**
+     * An internal RocksDB iterator with its own {@code ReadOptions}, whose {@code iterate_upper_bound} is a view
+     * over a direct buffer, so that the bound can be reset every time the iterator is reused from the pool.
+     *
+     * The bound given to RocksDB always has the same length: shorter bounds are padded with 0x00, and longer
+     * bounds are truncated and incremented. Either way, it is never lower than the bound that was requested,
+     * so RocksDB stops reading at (or very shortly after) the end of the iteration. The consumers of this
+     * iterator must still check their own bounds, as RocksDB may read slightly beyond them.
+     *
+     * Keys and values are read through direct buffers that live as long as the iterator, so that the keys that
+     * are only inspected (e.g. to check bounds) are never copied onto the heap, and empty values never allocate.
+     */
+    static class InternalIterator {
+
+        private static final int UPPER_BOUND_LENGTH = 64;
+        private static final int INITIAL_BUFFER_CAPACITY = 64;
+
+        private final ColumnFamilyHandle columnFamily;
+        private final boolean isPrefixed;
+        private final ByteBuffer upperBoundBuffer;
+        private final DirectSlice upperBound;
+        private final ReadOptions readOptions;
+        private final org.rocksdb.RocksIterator rocksIterator;
+        private ByteBuffer keyBuffer;
+        private ByteBuffer valueBuffer;
+
+        private InternalIterator(org.rocksdb.RocksDB rocksDB, Snapshot snapshot,
+                                 ColumnFamilyHandle columnFamily, boolean isPrefixed) {
+            this.columnFamily = columnFamily;
+            this.isPrefixed = isPrefixed;
+            upperBoundBuffer = ByteBuffer.allocateDirect(UPPER_BOUND_LENGTH);
+            upperBound = new DirectSlice(upperBoundBuffer, UPPER_BOUND_LENGTH);
+            readOptions = new ReadOptions().setSnapshot(snapshot).setIterateUpperBound(upperBound);
+            // Seeks that are shorter than the prefix extractor cannot make use of the prefix bloom filters
+            if (isPrefixed) readOptions.setPrefixSameAsSeek(true);
+            else readOptions.setTotalOrderSeek(true);
+            rocksIterator = rocksDB.newIterator(columnFamily, readOptions);
+            keyBuffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_CAPACITY);
+            valueBuffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_CAPACITY);
+        }
+
+        private void setUpperBound(@Nullable byte[] bound) {
+            if (bound != null && bound.length > UPPER_BOUND_LENGTH) {
+                bound = prefixUpperBound(Arrays.copyOf(bound, UPPER_BOUND_LENGTH));
+            }
+            upperBoundBuffer.clear();
+            if (bound == null) {
+                // No key begins with 0xff, as it is not a valid prefix, so this bound is as good as none
+                while (upperBoundBuffer.hasRemaining()) upperBoundBuffer.put((byte) 0xff);
+            } else {
+                upperBoundBuffer.put(bound);
+                while (upperBoundBuffer.hasRemaining()) upperBoundBuffer.put((byte) 0);
+            }
+        }
+
+        org.rocksdb.RocksIterator rocksIterator() {
+            return rocksIterator;
+        }
+
+        /**
+         * Returns a view over the key at the current position, which is only valid until the iterator moves.
+         */
+        ByteBuffer keyView() {
+            keyBuffer.clear();
+            final int length = rocksIterator.key(keyBuffer);
+            if (length > keyBuffer.capacity()) {
+                keyBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(length) << 1);
+                rocksIterator.key(keyBuffer);
+            }
+            return keyBuffer;
+        }
+
+        /**
+         * Copies the key that was last read by {@link #keyView()} onto the heap.
+         */
+        byte[] key() {
+            final byte[] key = new byte[keyBuffer.remaining()];
+            keyBuffer.duplicate().get(key);
+            return key;
+        }
+
+        byte[] value() {
+            valueBuffer.clear();
+            final int length = rocksIterator.value(valueBuffer);
+            if (length == 0) return EMPTY_ARRAY;
+            else if (length > valueBuffer.capacity()) {
+                valueBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(length) << 1);
+                rocksIterator.value(valueBuffer);
+            }
+            final byte[] value = new byte[length];
+            valueBuffer.get(value);
+            return value;
+        }
+
+        void close() {
+            rocksIterator.close();
+            readOptions.close();
+            upperBound.close();
+        }
+    }
+
     static abstract class TransactionBounded extends RocksStorage {
 
         private final RocksTransaction transaction;
 
-        TransactionBounded(OptimisticTransactionDB rocksDB, RocksTransaction transaction) {
+        TransactionBounded(RocksPartitionedDB rocksDB, RocksTransaction transaction) {
             super(rocksDB, transaction.type().isRead());
             this.transaction = transaction;
         }
@@ -240,14 +475,37 @@ public class RocksStorage implements Storage {
             return super.exception(exception);
         }
 
+        /**
+         * Writes the buffered writes into the RocksDB transaction, from a single thread, and commits it.
+         * The keys that were written through {@code put} or {@code delete} are tracked by the transaction
+         * as of its snapshot, so conflicting writes are detected as if they had been written immediately.
+         */
         public void commit() throws RocksDBException {
-            // We disable RocksDB indexing of uncommitted writes, as we're only about to write and never again reading
-            // TODO: We should benchmark this
+            // We disable RocksDB indexing of the writes, as they are never read back from the RocksDB transaction
             storageTransaction.disableIndexing();
+            for (Map.Entry<byte[], Write> entry : writes.entrySet()) {
+                final byte[] key = entry.getKey();
+                final Write write = entry.getValue();
+                final ColumnFamilyHandle columnFamily = columnFamily(key);
+                switch (write.type) {
+                    case PUT:
+                        if (write.isTracked) storageTransaction.put(columnFamily, key, write.value);
+                        else storageTransaction.putUntracked(columnFamily, key, write.value);
+                        break;
+                    case MERGE:
+                        storageTransaction.mergeUntracked(columnFamily, key, write.value);
+                        break;
+                    case DELETE:
+                        storageTransaction.delete(columnFamily, key);
+                        break;
+                }
+            }
+            writes.clear();
             storageTransaction.commit();
         }
 
         public void rollback() throws RocksDBException {
+            writes.clear();
             storageTransaction.rollback();
         }
     }
@@ -270,15 +528,284 @@ public class RocksStorage implements Storage {
     public static class Data extends TransactionBounded implements Storage.Data {
 
         private final KeyGenerator.Data dataKeyGenerator;
+        private final RocksAdjacencyCache adjacencyCache;
 
         public Data(RocksDatabase database, RocksTransaction transaction) {
             super(database.rocksData, transaction);
             this.dataKeyGenerator = database.dataKeyGenerator();
+            this.adjacencyCache = database.adjacencyCache();
         }
 
         @Override
         public KeyGenerator.Data dataKeyGenerator() {
             return dataKeyGenerator;
         }
+
+        /**
+         * Iterates the keys that start with the given prefix, which for the edges of a thing vertex are read from
+         * the {@code RocksAdjacencyCache} of the database if possible, and otherwise read from RocksDB and cached.
+         * The cache is bypassed whenever this transaction has written edges with the prefix.
+         */
+        @Override
+        public <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+            final VertexIID.Thing vertex = adjacencyOwner(key);
+            final NavigableMap<byte[], Write> buffered = vertex == null ? null : writes(key, prefixUpperBound(key));
+            if (vertex == null || (buffered != null && !buffered.isEmpty())) return super.iterate(key, constructor);
+
+            final long snapshot = snapshotSequenceNumber();
+            final RocksAdjacencyCache.Adjacency cached = adjacencyCache.get(vertex, key, snapshot);
+            if (cached != null && cached.isOverflowed()) {
+                return super.iterate(key, constructor);
+            } else if (cached != null) {
+                validateTransactionIsOpen();
+                return Iterators.iterate(cached.edges()).map(edge -> constructor.apply(edge.first(), edge.second()));
+            }
+
+            // Only the first edges are read eagerly, to find out whether the adjacency is small enough to be cached
+            final ResourceIterator<Pair<byte[], byte[]>> stored = super.iterate(key, Pair::new);
+            final List<Pair<byte[], byte[]>> edges = new ArrayList<>();
+            while (edges.size() <= RocksAdjacencyCache.MAX_EDGES && stored.hasNext()) edges.add(stored.next());
+            final boolean isOverflowed = edges.size() > RocksAdjacencyCache.MAX_EDGES;
+            adjacencyCache.put(vertex, key, snapshot, isOverflowed ? null : edges);
+            final ResourceIterator<Pair<byte[], byte[]>> read = isOverflowed
+                    ? Iterators.link(Iterators.iterate(edges), stored) : Iterators.iterate(edges);
+            return read.map(edge -> constructor.apply(edge.first(), edge.second()));
+        }
+
+        /**
+         * Returns the vertex whose edges start with the given prefix, or null if it is not the prefix of edges.
+         */
+        @Nullable
+        private static VertexIID.Thing adjacencyOwner(byte[] key) {
+            if (key.length <= VertexIID.Thing.DEFAULT_LENGTH || !Encoding.Prefix.of(key[0]).isThing()) return null;
+            final VertexIID.Thing vertex = VertexIID.Thing.extract(key, 0);
+            return vertex.bytes().length < key.length ? vertex : null;
+        }
+
+        /**
+         * Commits the buffered writes, while the cached adjacency of every thing vertex that they modify is
+         * invalidated, so that no transaction reads the adjacency as it was before the commit from the cache.
+         */
+        @Override
+        public void commit() throws RocksDBException {
+            final List<VertexIID.Thing> modified = modifiedVertices();
+            adjacencyCache.committing(modified);
+            try {
+                commitWrites();
+            } finally {
+                adjacencyCache.committed(modified);
+            }
+        }
+
+        void commitWrites() throws RocksDBException {
+            super.commit();
+        }
+
+        private List<VertexIID.Thing> modifiedVertices() {
+            final List<VertexIID.Thing> modified = new ArrayList<>();
+            VertexIID.Thing last = null;
+            // The writes are sorted, so the keys of a vertex and of its edges are written one after the other
+            for (byte[] key : writes.keySet()) {
+                if (!Encoding.Prefix.of(key[0]).isThing() || (last != null && bytesHavePrefix(key, last.bytes()))) {
+                    continue;
+                }
+                last = VertexIID.Thing.extract(key, 0);
+                modified.add(last);
+            }
+            return modified;
+        }
+    }
+
+    /**
+     * A data storage that loads data which is known to be new, in bulk, while there are no concurrent writers.
+     *
+     * Writes are neither tracked for conflicts nor inserted into the memtables: they are buffered in key order,
+     * and on commit, the writes of every column family are written into a sorted SST file, which is then ingested
+     * into the data RocksDB. Statistics are merged into the buffer as they are written, so that every statistics
+     * key is written once per commit, in the same pass as the vertices and edges that it counts.
+     *
+     * The writes become visible once the transaction commits, like those of any other transaction, so a loader
+     * can read back what it has loaded so far. RocksDB places every ingested file in the lowest level that it
+     * does not overlap, which for the vertices of newly generated IIDs (and their edges) is the bottommost level.
+     */
+    public static class BulkLoad extends Data {
+
+        private static final String BULK_LOAD_DIRECTORY = "bulk-load";
+        private static final String SST_FILE_EXTENSION = ".sst";
+
+        private final RocksPartitionedDB rocksData;
+        private final Path directory;
+        private final String databaseName;
+
+        public BulkLoad(RocksDatabase database, RocksTransaction transaction) {
+            super(database, transaction);
+            rocksData = database.rocksData;
+            directory = database.directory().resolve(BULK_LOAD_DIRECTORY);
+            databaseName = database.name();
+        }
+
+        /**
+         * Writes the buffered writes of every column family into its own sorted file, and ingests the files.
+         *
+         * The RocksDB Java API can only ingest the files of one column family at a time, so a commit that
+         * fails to ingest a file after others have been ingested would be left half-committed. In that case,
+         * the writes of the column families that were not ingested are written through a single write batch
+         * instead, and if that fails as well, the commit fails with an error stating that the database may
+         * only contain part of it.
+         */
+        @Override
+        void commitWrites() throws RocksDBException {
+            validateTransactionIsOpen();
+            if (writes.isEmpty()) return;
+            final Map<ColumnFamilyHandle, SSTFile> files = new IdentityHashMap<>();
+            try (EnvOptions envOptions = new EnvOptions()) {
+                try {
+                    // The writes are iterated in key order, so they are written into the file of every column family in order
+                    for (Map.Entry<byte[], Write> entry : writes.entrySet()) {
+                        final ColumnFamilyHandle columnFamily = columnFamily(entry.getKey());
+                        SSTFile file = files.get(columnFamily);
+                        if (file == null) {
+                            file = new SSTFile(envOptions, columnFamily);
+                            files.put(columnFamily, file);
+                        }
+                        file.write(entry.getKey(), entry.getValue());
+                    }
+                    for (SSTFile file : files.values()) file.finish();
+                    final List<SSTFile> ingesting = new ArrayList<>(files.values());
+                    int ingested = 0;
+                    try (IngestExternalFileOptions options = new IngestExternalFileOptions().setMoveFiles(true)) {
+                        for (; ingested < ingesting.size(); ingested++) {
+                            final SSTFile file = ingesting.get(ingested);
+                            rocksData.rocksDB().ingestExternalFile(
+                                    file.columnFamily, singletonList(file.path.toString()), options
+                            );
+                        }
+                    } catch (RocksDBException e) {
+                        if (ingested == 0) throw e;
+                        writeNotIngested(ingesting.subList(ingested, ingesting.size()));
+                    }
+                } finally {
+                    files.values().forEach(SSTFile::close);
+                    writes.clear();
+                }
+            }
+        }
+
+        private void writeNotIngested(List<SSTFile> notIngested) {
+            final Set<ColumnFamilyHandle> columnFamilies = Collections.newSetFromMap(new IdentityHashMap<>());
+            notIngested.forEach(file -> columnFamilies.add(file.columnFamily));
+            try (WriteBatch batch = new WriteBatch(); WriteOptions options = new WriteOptions()) {
+                for (Map.Entry<byte[], Write> entry : writes.entrySet()) {
+                    final ColumnFamilyHandle columnFamily = columnFamily(entry.getKey());
+                    if (!columnFamilies.contains(columnFamily)) continue;
+                    final Write write = entry.getValue();
+                    switch (write.type) {
+                        case PUT:
+                            batch.put(columnFamily, entry.getKey(), write.value);
+                            break;
+                        case MERGE:
+                            batch.merge(columnFamily, entry.getKey(), write.value);
+                            break;
+                        case DELETE:
+                            batch.delete(columnFamily, entry.getKey());
+                            break;
+                    }
+                }
+                rocksData.rocksDB().write(options, batch);
+            } catch (RocksDBException e) {
+                throw GraknException.of(BULK_LOAD_FAILED, databaseName);
+            }
+        }
+
+        private class SSTFile {
+
+            private final ColumnFamilyHandle columnFamily;
+            private final org.rocksdb.Options options;
+            private final SstFileWriter writer;
+            private final Path path;
+
+            private SSTFile(EnvOptions envOptions, ColumnFamilyHandle columnFamily) throws RocksDBException {
+                this.columnFamily = columnFamily;
+                try {
+                    Files.createDirectories(directory);
+                } catch (IOException e) {
+                    throw GraknException.of(e);
+                }
+                path = directory.resolve(UUID.randomUUID().toString() + SST_FILE_EXTENSION);
+                options = new org.rocksdb.Options(rocksData.dbOptions(), rocksData.options(columnFamily));
+                writer = new SstFileWriter(envOptions, options);
+                writer.open(path.toString());
+            }
+
+            private void write(byte[] key, Write write) throws RocksDBException {
+                switch (write.type) {
+                    case PUT:
+                        writer.put(key, write.value);
+                        break;
+                    case MERGE:
+                        writer.merge(key, write.value);
+                        break;
+                    case DELETE:
+                        writer.delete(key);
+                        break;
+                }
+            }
+
+            private void finish() throws RocksDBException {
+                writer.finish();
+            }
+
+            /**
+             * Closes the writer and deletes the file, unless it has already been moved into the RocksDB.
+             */
+            private void close() {
+                writer.close();
+                options.close();
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw GraknException.of(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A buffered write. The merges of statistics (i.e. additions of longs) are folded into any earlier write
+     * to the same key, and a key stays tracked for conflicts once it has been written through a tracked write.
+     */
+    static class Write {
+
+        enum Type {PUT, MERGE, DELETE}
+
+        private static final Write DELETE = new Write(Type.DELETE, EMPTY_ARRAY, true);
+
+        final Type type;
+        final byte[] value;
+        final boolean isTracked;
+
+        private Write(Type type, byte[] value, boolean isTracked) {
+            this.type = type;
+            this.value = value;
+            this.isTracked = isTracked;
+        }
+
+        private static Write then(Write earlier, Write later) {
+            final boolean isTracked = earlier.isTracked || later.isTracked;
+            if (later.type != Type.MERGE) return new Write(later.type, later.value, isTracked);
+            switch (earlier.type) {
+                case PUT:
+                    return new Write(Type.PUT, add(earlier.value, later.value), isTracked);
+                case MERGE:
+                    return new Write(Type.MERGE, add(earlier.value, later.value), isTracked);
+                case DELETE:
+                default:
+                    return new Write(Type.PUT, later.value, isTracked);
+            }
+        }
+
+        static byte[] add(byte[] first, byte[] second) {
+            return longToBytes(bytesToLong(first) + bytesToLong(second));
+        }
     }
 }
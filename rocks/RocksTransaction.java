@@ -30,6 +30,7 @@ import grakn.core.graph.SchemaGraph;
 import grakn.core.logic.LogicCache;
 import grakn.core.logic.LogicManager;
 import grakn.core.query.QueryManager;
+import grakn.core.query.spill.SpillFiles;
 import grakn.core.reasoner.Reasoner;
 import grakn.core.traversal.TraversalCache;
 import grakn.core.traversal.TraversalEngine;
@@ -55,6 +56,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
     LogicManager logicMgr;
     Reasoner reasoner;
     QueryManager queryMgr;
+    SpillFiles spillFiles;
 
     private RocksTransaction(RocksSession session, Arguments.Transaction.Type type, Options.Transaction options) {
         this.session = session;
@@ -66,7 +68,8 @@ public abstract class RocksTransaction implements Grakn.Transaction {
         conceptMgr = new ConceptManager(graphMgr);
         logicMgr = new LogicManager(graphMgr, conceptMgr, traversalEng, logicCache);
         reasoner = new Reasoner(traversalEng, conceptMgr, logicMgr, context);
-        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context);
+        spillFiles = new SpillFiles(session.database().spillDirectory(), session.database().spillMetrics());
+        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context, spillFiles);
         isOpen = new AtomicBoolean(true);
     }
 
@@ -123,6 +126,9 @@ public abstract class RocksTransaction implements Grakn.Transaction {
     }
 
     protected void closeResources() {
+        final DataGraph.ExistenceCache existence = graphMgr.data().existence();
+        session.database().recordExistenceLookups(existence.hits(), existence.misses());
+        spillFiles.close();
         closeStorage();
         session.remove(this);
     }
@@ -158,7 +164,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             SchemaGraph schemaGraph = new SchemaGraph(schemaStorage, type().isRead());
 
             dataStorage = storageFactory.storageData(session.database(), this);
-            DataGraph dataGraph = new DataGraph(dataStorage, schemaGraph);
+            DataGraph dataGraph = new DataGraph(dataStorage, schemaGraph, type().isRead());
 
             graphMgr = new GraphManager(schemaGraph, dataGraph);
             initialise(graphMgr, new TraversalCache(), new LogicCache());
@@ -216,7 +222,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
                     logicMgr.validateRules();
                     graphMgr.schema().commit();
                     schemaStorage.commit();
-                    session.database().cacheInvalidate();
+                    session.database().cacheInvalidate(graphMgr.schema().modifiedTypes(), graphMgr.schema().hasCreatedTypes());
                 } catch (RocksDBException e) {
                     rollback();
                     throw GraknException.of(e);
@@ -255,7 +261,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
 
             cache = session.database().cacheBorrow();
             dataStorage = storageFactory.storageData(session.database(), this);
-            DataGraph dataGraph = new DataGraph(dataStorage, cache.schemaGraph());
+            DataGraph dataGraph = new DataGraph(dataStorage, cache.schemaGraph(), type().isRead());
             graphMgr = new GraphManager(cache.schemaGraph(), dataGraph);
 
             initialise(graphMgr, cache.traversal(), cache.logic());
@@ -333,7 +339,9 @@ public abstract class RocksTransaction implements Grakn.Transaction {
          */
         protected void triggerStatisticBgCounter() {
             if (graphMgr.data().stats().needsBackgroundCounting()) {
-                session.database().statisticsBackgroundCounter.needsBackgroundCounting();
+                session.database().statisticsBackgroundCounter.needsBackgroundCounting(
+                        graphMgr.data().stats().countJobSize()
+                );
             }
         }
     }
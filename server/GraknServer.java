@@ -21,9 +21,9 @@ package grakn.core.server;
 import grabl.tracing.client.GrablTracing;
 import grabl.tracing.client.GrablTracingThreadStatic;
 import grakn.common.concurrent.NamedThreadFactory;
-import grakn.core.Grakn;
 import grakn.core.common.concurrent.ExecutorService;
 import grakn.core.common.exception.GraknException;
+import grakn.core.rocks.RocksFactory;
 import grakn.core.rocks.RocksGrakn;
 import grakn.core.server.migrator.MigratorClient;
 import grakn.core.server.rpc.GraknRPCService;
@@ -74,7 +74,7 @@ public class GraknServer implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(GraknServer.class);
     private static final int MAX_THREADS = Runtime.getRuntime().availableProcessors();
 
-    private final Grakn grakn;
+    private final RocksGrakn grakn;
     private final Server server;
     private final ServerCommand.Start command;
     private final GraknRPCService graknRPCService;
@@ -89,7 +89,7 @@ public class GraknServer implements AutoCloseable {
             LOG.info("Running Grakn Core Server in debug mode.");
         }
 
-        grakn = RocksGrakn.open(command.dataDir());
+        grakn = RocksGrakn.open(command.dataDir(), command.databaseOptions(), new RocksFactory());
         graknRPCService = new GraknRPCService(grakn);
         migratorRPCService = new MigratorRPCService(grakn);
 
@@ -172,10 +172,16 @@ public class GraknServer implements AutoCloseable {
         final ServerCommand.ImportData importDataCommand = new ServerCommand.ImportData(startCommand);
         final ServerCommand.ExportData exportDataCommand = new ServerCommand.ExportData(startCommand);
         final ServerCommand.PrintSchema printSchemaCommand = new ServerCommand.PrintSchema(startCommand);
+        final ServerCommand.BackupDatabase backupDatabaseCommand = new ServerCommand.BackupDatabase(startCommand);
+        final ServerCommand.RestoreDatabase restoreDatabaseCommand = new ServerCommand.RestoreDatabase(startCommand);
+        final ServerCommand.PrintMetrics printMetricsCommand = new ServerCommand.PrintMetrics(startCommand);
         final CommandLine commandLine = new CommandLine(startCommand)
                 .addSubcommand(importDataCommand)
                 .addSubcommand(exportDataCommand)
-                .addSubcommand(printSchemaCommand);
+                .addSubcommand(printSchemaCommand)
+                .addSubcommand(backupDatabaseCommand)
+                .addSubcommand(restoreDatabaseCommand)
+                .addSubcommand(printMetricsCommand);
         commandLine.setDefaultValueProvider(new PropertiesDefaultProvider(properties));
 
         try {
@@ -219,6 +225,12 @@ public class GraknServer implements AutoCloseable {
             } else if (command.isPrintSchema()) {
                 ServerCommand.PrintSchema printSchemaCommand = command.asPrintSchema();
                 printSchema(printSchemaCommand);
+            } else if (command.isBackupDatabase()) {
+                backupDatabase(command.asBackupDatabase());
+            } else if (command.isRestoreDatabase()) {
+                restoreDatabase(command.asRestoreDatabase());
+            } else if (command.isPrintMetrics()) {
+                printMetrics(command.asPrintMetrics());
             }
         } catch (Exception e) {
             LOG.error(e.getMessage());
@@ -234,6 +246,21 @@ public class GraknServer implements AutoCloseable {
         migrator.printSchema(printSchemaCommand.database());
     }
 
+    private static void printMetrics(ServerCommand.PrintMetrics printMetricsCommand) {
+        MigratorClient migrator = new MigratorClient(printMetricsCommand.port());
+        migrator.printMetrics(printMetricsCommand.database());
+    }
+
+    private static void backupDatabase(ServerCommand.BackupDatabase backupDatabaseCommand) {
+        MigratorClient migrator = new MigratorClient(backupDatabaseCommand.port());
+        migrator.backupDatabase(backupDatabaseCommand.database(), backupDatabaseCommand.directory());
+    }
+
+    private static void restoreDatabase(ServerCommand.RestoreDatabase restoreDatabaseCommand) {
+        MigratorClient migrator = new MigratorClient(restoreDatabaseCommand.port());
+        migrator.restoreDatabase(restoreDatabaseCommand.database(), restoreDatabaseCommand.directory());
+    }
+
     private static void exportData(ServerCommand.ExportData exportDataCommand) {
         MigratorClient migrator = new MigratorClient(exportDataCommand.port());
         boolean success = migrator.exportData(exportDataCommand.database(), exportDataCommand.filename());
@@ -242,7 +269,8 @@ public class GraknServer implements AutoCloseable {
 
     private static void importData(ServerCommand.ImportData importDataCommand) {
         MigratorClient migrator = new MigratorClient(importDataCommand.port());
-        boolean success = migrator.importData(importDataCommand.database(), importDataCommand.filename(), importDataCommand.remapLabels());
+        boolean success = migrator.importData(importDataCommand.database(), importDataCommand.filename(),
+                                              importDataCommand.remapLabels(), importDataCommand.bulkLoad());
         System.exit(success ? 0 : 1);
     }
 
@@ -23,6 +23,7 @@ import grakn.common.collection.Pair;
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
 import grakn.core.concept.thing.Attribute;
 import grakn.core.concept.thing.Entity;
 import grakn.core.concept.thing.Relation;
@@ -77,8 +78,11 @@ public class Importer implements Migrator {
     private int txWriteCount = 0;
     private Grakn.Transaction tx;
 
-    public Importer(final Grakn grakn, final String database, final Path filename, final Map<String, String> remapLabels) {
-        this.session = grakn.session(database, Arguments.Session.Type.DATA);
+    public Importer(final Grakn grakn, final String database, final Path filename, final Map<String, String> remapLabels,
+                    final boolean bulkLoad) {
+        // A bulk load bypasses conflict-checked writes and ingests sorted files instead, so the database
+        // refuses to open its session unless it has no other sessions, and excludes them until the import ends
+        this.session = grakn.session(database, Arguments.Session.Type.DATA, new Options.Session().bulkLoad(bulkLoad));
         this.filename = filename;
         this.remapLabels = remapLabels;
     }
@@ -94,55 +98,58 @@ public class Importer implements Migrator {
 
     @Override
     public void run() {
-        // We scan the file to find the checksum. This is probably not a good idea for files larger than several
-        // gigabytes but that case is rare and the actual import would take so long that even if this took a few
-        // seconds it would still be cheap.
-        try (final InputStream inputStream = new BufferedInputStream(Files.newInputStream(filename))) {
-            DataProto.Item item;
-            while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
-                if (item.getItemCase() == DataProto.Item.ItemCase.ENTITY ||
-                        item.getItemCase() == DataProto.Item.ItemCase.RELATION ||
-                        item.getItemCase() == DataProto.Item.ItemCase.ATTRIBUTE) {
-                    totalThingCount++;
+        try {
+            // We scan the file to find the checksum. This is probably not a good idea for files larger than several
+            // gigabytes but that case is rare and the actual import would take so long that even if this took a few
+            // seconds it would still be cheap.
+            try (final InputStream inputStream = new BufferedInputStream(Files.newInputStream(filename))) {
+                DataProto.Item item;
+                while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
+                    if (item.getItemCase() == DataProto.Item.ItemCase.ENTITY ||
+                            item.getItemCase() == DataProto.Item.ItemCase.RELATION ||
+                            item.getItemCase() == DataProto.Item.ItemCase.ATTRIBUTE) {
+                        totalThingCount++;
+                    }
                 }
+            } catch (final IOException e) {
+                throw GraknException.of(FILE_NOT_READABLE, filename.toString());
             }
-        } catch (final IOException e) {
-            throw GraknException.of(FILE_NOT_READABLE, filename.toString());
-        }
 
-        tx = session.transaction(Arguments.Transaction.Type.WRITE);
-        try (final InputStream inputStream = new BufferedInputStream(Files.newInputStream(filename))) {
-            DataProto.Item item;
-            while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
-                switch (item.getItemCase()) {
-                    case HEADER:
-                        final DataProto.Item.Header header = item.getHeader();
-                        LOG.info("Importing {} from Grakn {} to {} in Grakn {}",
-                                 header.getOriginalDatabase(),
-                                 header.getGraknVersion(),
-                                 session.database().name(),
-                                 Version.VERSION);
-                        break;
-                    case ENTITY:
-                        insertEntity(item.getEntity());
-                        break;
-                    case RELATION:
-                        insertRelation(item.getRelation());
-                        break;
-                    case ATTRIBUTE:
-                        insertAttribute(item.getAttribute());
-                        break;
+            tx = session.transaction(Arguments.Transaction.Type.WRITE);
+            try (final InputStream inputStream = new BufferedInputStream(Files.newInputStream(filename))) {
+                DataProto.Item item;
+                while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
+                    switch (item.getItemCase()) {
+                        case HEADER:
+                            final DataProto.Item.Header header = item.getHeader();
+                            LOG.info("Importing {} from Grakn {} to {} in Grakn {}",
+                                     header.getOriginalDatabase(),
+                                     header.getGraknVersion(),
+                                     session.database().name(),
+                                     Version.VERSION);
+                            break;
+                        case ENTITY:
+                            insertEntity(item.getEntity());
+                            break;
+                        case RELATION:
+                            insertRelation(item.getRelation());
+                            break;
+                        case ATTRIBUTE:
+                            insertAttribute(item.getAttribute());
+                            break;
+                    }
                 }
+            } catch (final IOException e) {
+                throw GraknException.of(FILE_NOT_READABLE, filename.toString());
             }
-        } catch (final IOException e) {
-            throw GraknException.of(FILE_NOT_READABLE, filename.toString());
-        }
 
-        insertMissingOwnerships();
-        insertMissingRolePlayers();
-        commit();
-        tx.close();
-        session.close();
+            insertMissingOwnerships();
+            insertMissingRolePlayers();
+            commit();
+            tx.close();
+        } finally {
+            session.close();
+        }
 
         LOG.info("Imported {} entities, {} attributes, {} relations ({} players), {} ownerships",
                  entityCount,
@@ -43,11 +43,13 @@ public class MigratorClient {
         blockingStub = MigratorGrpc.newBlockingStub(channel);
     }
 
-    public boolean importData(final String database, final String filename, final Map<String, String> remapLabels) {
+    public boolean importData(final String database, final String filename, final Map<String, String> remapLabels,
+                              final boolean bulkLoad) {
         final MigratorProto.ImportData.Req req = MigratorProto.ImportData.Req.newBuilder()
                 .setDatabase(database)
                 .setFilename(filename)
                 .putAllRemapLabels(remapLabels)
+                .setBulkLoad(bulkLoad)
                 .build();
         final ResponseObserver streamObserver = new ResponseObserver(new ProgressPrinter("import"));
         streamingStub.importData(req, streamObserver);
@@ -74,6 +76,60 @@ public class MigratorClient {
         System.out.println(res.getSchema());
     }
 
+    public void backupDatabase(final String database, final String directory) {
+        final MigratorProto.BackupDatabase.Req req = MigratorProto.BackupDatabase.Req.newBuilder()
+                .setDatabase(database)
+                .setDirectory(directory)
+                .build();
+        blockingStub.backupDatabase(req);
+        System.out.println(String.format("Database '%s' was backed up to '%s'", database, directory));
+    }
+
+    public void restoreDatabase(final String database, final String directory) {
+        final MigratorProto.RestoreDatabase.Req req = MigratorProto.RestoreDatabase.Req.newBuilder()
+                .setDatabase(database)
+                .setDirectory(directory)
+                .build();
+        blockingStub.restoreDatabase(req);
+        System.out.println(String.format("Database '%s' was restored from '%s'", database, directory));
+    }
+
+    public void printMetrics(final String database) {
+        final MigratorProto.GetMetrics.Req req = MigratorProto.GetMetrics.Req.newBuilder()
+                .setDatabase(database)
+                .build();
+        final MigratorProto.GetMetrics.Res res = blockingStub.getMetrics(req);
+        printStorageMetrics("schema", res.getSchema());
+        printStorageMetrics("data", res.getData());
+        System.out.println(String.format("statistics: %,d count jobs pending for %,d ms",
+                                         res.getStatisticsBacklog(), res.getStatisticsLagMillis()));
+        System.out.println(String.format("spill: %,d answers in %,d runs (%,d bytes) spilled to disk",
+                                         res.getSpill().getAnswers(), res.getSpill().getRuns(), res.getSpill().getBytes()));
+        printCacheMetrics("existence cache", res.getExistenceCache());
+        printCacheMetrics("adjacency cache", res.getAdjacencyCache());
+    }
+
+    private static void printCacheMetrics(final String cache, final MigratorProto.GetMetrics.Cache metrics) {
+        final long lookups = metrics.getHits() + metrics.getMisses();
+        final double hitRate = lookups == 0 ? 0 : (double) metrics.getHits() / lookups;
+        System.out.println(String.format("%s: %,d hits, %,d misses (%.1f%% hit rate)",
+                                         cache, metrics.getHits(), metrics.getMisses(), hitRate * 100.0));
+    }
+
+    private static void printStorageMetrics(final String storage, final MigratorProto.GetMetrics.Storage metrics) {
+        System.out.println(String.format("%s storage:", storage));
+        System.out.println(String.format("    block cache hit rate: %.1f%%", metrics.getBlockCacheHitRate() * 100.0));
+        metrics.getTickersMap().forEach((name, count) -> System.out.println(String.format("    %s: %,d", name, count)));
+        metrics.getHistogramsMap().forEach((name, histogram) -> System.out.println(String.format(
+                "    %s: median %.1f, p95 %.1f, p99 %.1f, average %.1f (us)", name, histogram.getMedian(),
+                histogram.getPercentile95(), histogram.getPercentile99(), histogram.getAverage()
+        )));
+        metrics.getOperationsMap().forEach((prefix, operations) -> System.out.println(String.format(
+                "    %s: %,d gets, %,d seeks, %,d keys scanned", prefix, operations.getGets(),
+                operations.getSeeks(), operations.getScanned()
+        )));
+    }
+
     static class ResponseObserver implements StreamObserver<MigratorProto.Job.Res> {
 
         private final ProgressPrinter progressPrinter;
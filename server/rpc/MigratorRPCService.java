@@ -19,6 +19,9 @@ package grakn.core.server.rpc;
 
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
+import grakn.core.rocks.RocksDatabase;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksMetrics;
 import grakn.core.server.migrator.Exporter;
 import grakn.core.server.migrator.Importer;
 import grakn.core.server.migrator.Migrator;
@@ -33,15 +36,16 @@ import java.nio.file.Paths;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
+import static grakn.core.common.exception.ErrorMessage.Database.DATABASE_NOT_FOUND;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_INTERRUPTION;
 import static grakn.core.server.rpc.util.ResponseBuilder.exception;
 
 public class MigratorRPCService extends MigratorGrpc.MigratorImplBase {
 
     private static final Logger LOG = LoggerFactory.getLogger(MigratorRPCService.class);
-    private final Grakn grakn;
+    private final RocksGrakn grakn;
 
-    public MigratorRPCService(Grakn grakn) {
+    public MigratorRPCService(RocksGrakn grakn) {
         this.grakn = grakn;
     }
 
@@ -53,7 +57,8 @@ public class MigratorRPCService extends MigratorGrpc.MigratorImplBase {
 
     @Override
     public void importData(MigratorProto.ImportData.Req request, StreamObserver<MigratorProto.Job.Res> responseObserver) {
-        Importer importer = new Importer(grakn, request.getDatabase(), Paths.get(request.getFilename()), request.getRemapLabelsMap());
+        Importer importer = new Importer(grakn, request.getDatabase(), Paths.get(request.getFilename()),
+                                         request.getRemapLabelsMap(), request.getBulkLoad());
         runMigrator(importer, responseObserver);
     }
 
@@ -70,6 +75,83 @@ public class MigratorRPCService extends MigratorGrpc.MigratorImplBase {
         }
     }
 
+    @Override
+    public void backupDatabase(MigratorProto.BackupDatabase.Req request, StreamObserver<MigratorProto.BackupDatabase.Res> responseObserver) {
+        try {
+            Grakn.Database database = grakn.databases().get(request.getDatabase());
+            if (database == null) throw GraknException.of(DATABASE_NOT_FOUND, request.getDatabase());
+            database.backup(Paths.get(request.getDirectory()));
+            responseObserver.onNext(MigratorProto.BackupDatabase.Res.getDefaultInstance());
+            responseObserver.onCompleted();
+        } catch (GraknException e) {
+            LOG.error(e.getMessage(), e);
+            responseObserver.onError(exception(e));
+        }
+    }
+
+    @Override
+    public void restoreDatabase(MigratorProto.RestoreDatabase.Req request, StreamObserver<MigratorProto.RestoreDatabase.Res> responseObserver) {
+        try {
+            grakn.databases().restore(request.getDatabase(), Paths.get(request.getDirectory()));
+            responseObserver.onNext(MigratorProto.RestoreDatabase.Res.getDefaultInstance());
+            responseObserver.onCompleted();
+        } catch (GraknException e) {
+            LOG.error(e.getMessage(), e);
+            responseObserver.onError(exception(e));
+        }
+    }
+
+    @Override
+    public void getMetrics(MigratorProto.GetMetrics.Req request, StreamObserver<MigratorProto.GetMetrics.Res> responseObserver) {
+        try {
+            RocksDatabase database = grakn.databases().get(request.getDatabase());
+            if (database == null) throw GraknException.of(DATABASE_NOT_FOUND, request.getDatabase());
+            MigratorProto.GetMetrics.Res res = MigratorProto.GetMetrics.Res.newBuilder()
+                    .setSchema(metrics(database.schemaMetrics()))
+                    .setData(metrics(database.dataMetrics()))
+                    .setStatisticsBacklog(database.statisticsBacklog())
+                    .setStatisticsLagMillis(database.statisticsLagMillis())
+                    .setSpill(MigratorProto.GetMetrics.Spill.newBuilder()
+                                      .setBytes(database.spillMetrics().bytesSpilled())
+                                      .setAnswers(database.spillMetrics().answersSpilled())
+                                      .setRuns(database.spillMetrics().runsSpilled()))
+                    .setExistenceCache(MigratorProto.GetMetrics.Cache.newBuilder()
+                                               .setHits(database.existenceCacheHits())
+                                               .setMisses(database.existenceCacheMisses()))
+                    .setAdjacencyCache(MigratorProto.GetMetrics.Cache.newBuilder()
+                                               .setHits(database.adjacencyCache().hits())
+                                               .setMisses(database.adjacencyCache().misses()))
+                    .build();
+            responseObserver.onNext(res);
+            responseObserver.onCompleted();
+        } catch (GraknException e) {
+            LOG.error(e.getMessage(), e);
+            responseObserver.onError(exception(e));
+        }
+    }
+
+    private static MigratorProto.GetMetrics.Storage metrics(RocksMetrics metrics) {
+        MigratorProto.GetMetrics.Storage.Builder storage = MigratorProto.GetMetrics.Storage.newBuilder()
+                .putAllTickers(metrics.tickers())
+                .setBlockCacheHitRate(metrics.blockCacheHitRate());
+        metrics.histograms().forEach((name, histogram) -> storage.putHistograms(
+                name, MigratorProto.GetMetrics.Histogram.newBuilder()
+                        .setMedian(histogram.median())
+                        .setPercentile95(histogram.percentile95())
+                        .setPercentile99(histogram.percentile99())
+                        .setAverage(histogram.average())
+                        .build()
+        ));
+        metrics.operations().forEach((prefix, operations) -> storage.putOperations(
+                prefix.name(), MigratorProto.GetMetrics.Operations.newBuilder()
+                        .setGets(operations.gets())
+                        .setSeeks(operations.seeks())
+                        .setScanned(operations.scanned())
+                        .build()
+        ));
+        return storage.build();
+    }
+
     private void runMigrator(Migrator migrator, StreamObserver<MigratorProto.Job.Res> responseObserver) {
         try {
             CompletableFuture<Void> migratorJob = CompletableFuture.runAsync(migrator::run);
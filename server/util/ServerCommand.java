@@ -19,6 +19,8 @@
 package grakn.core.server.util;
 
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
 import grakn.core.server.Version;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -65,6 +67,30 @@ public interface ServerCommand {
         throw GraknException.of(ILLEGAL_CAST, ServerCommand.class, PrintSchema.class);
     }
 
+    default boolean isBackupDatabase() {
+        return false;
+    }
+
+    default BackupDatabase asBackupDatabase() {
+        throw GraknException.of(ILLEGAL_CAST, ServerCommand.class, BackupDatabase.class);
+    }
+
+    default boolean isRestoreDatabase() {
+        return false;
+    }
+
+    default RestoreDatabase asRestoreDatabase() {
+        throw GraknException.of(ILLEGAL_CAST, ServerCommand.class, RestoreDatabase.class);
+    }
+
+    default boolean isPrintMetrics() {
+        return false;
+    }
+
+    default PrintMetrics asPrintMetrics() {
+        throw GraknException.of(ILLEGAL_CAST, ServerCommand.class, PrintMetrics.class);
+    }
+
     @Command(name = "grakn server", mixinStandardHelpOptions = true, version = {Version.VERSION})
     class Start implements ServerCommand {
 
@@ -101,6 +127,48 @@ public interface ServerCommand {
                 description = "Grabl account access token")
         private String grablToken;
 
+        @Option(descriptionKey = "storage.data.cache-size-mb",
+                names = {"--storage-data-cache-size-mb"},
+                defaultValue = Options.Database.DEFAULT_STORAGE_DATA_CACHE_SIZE / ServerDefaults.MB + "",
+                description = "Size of the block cache shared by the data storage of all databases, in megabytes")
+        private long storageDataCacheSizeMB;
+
+        @Option(descriptionKey = "storage.schema.cache-size-mb",
+                names = {"--storage-schema-cache-size-mb"},
+                defaultValue = Options.Database.DEFAULT_STORAGE_SCHEMA_CACHE_SIZE / ServerDefaults.MB + "",
+                description = "Size of the block cache shared by the schema storage of all databases, in megabytes")
+        private long storageSchemaCacheSizeMB;
+
+        @Option(descriptionKey = "storage.bloom-filter-bits-per-key",
+                names = {"--storage-bloom-filter-bits-per-key"},
+                defaultValue = Options.Database.DEFAULT_STORAGE_BLOOM_FILTER_BITS_PER_KEY + "",
+                description = "Number of bits per key of the storage bloom filters")
+        private int storageBloomFilterBitsPerKey;
+
+        @Option(descriptionKey = "storage.data.compaction-style",
+                names = {"--storage-data-compaction-style"},
+                defaultValue = "LEVEL",
+                description = "Compaction style of the data storage: ${COMPLETION-CANDIDATES}")
+        private Arguments.Storage.CompactionStyle storageDataCompactionStyle;
+
+        @Option(descriptionKey = "storage.max-background-jobs",
+                names = {"--storage-max-background-jobs"},
+                description = "Maximum number of concurrent background flush and compaction jobs of the storage")
+        private Integer storageMaxBackgroundJobs;
+
+        @Option(descriptionKey = "storage.string-encoding",
+                names = {"--storage-string-encoding"},
+                defaultValue = "LENGTH_PREFIXED",
+                description = "Encoding of string attributes in new databases: ${COMPLETION-CANDIDATES}")
+        private Arguments.Storage.StringEncoding storageStringEncoding;
+
+        @Option(descriptionKey = "query.memory-budget-mb",
+                names = {"--query-memory-budget-mb"},
+                defaultValue = Options.DEFAULT_QUERY_MEMORY_BUDGET / ServerDefaults.MB + "",
+                description = "Size of the answers a query may hold in memory to sort or group them, " +
+                        "beyond which they are spilled to disk, in megabytes")
+        private long queryMemoryBudgetMB;
+
         @Option(descriptionKey = "debug",
                 names = {"--debug"},
                 description = "Debug mode")
@@ -121,6 +189,18 @@ public interface ServerCommand {
             return debug;
         }
 
+        public Options.Database databaseOptions() {
+            final Options.Database options = new Options.Database()
+                    .storageDataCacheSize(storageDataCacheSizeMB * ServerDefaults.MB)
+                    .storageSchemaCacheSize(storageSchemaCacheSizeMB * ServerDefaults.MB)
+                    .storageBloomFilterBitsPerKey(storageBloomFilterBitsPerKey)
+                    .storageDataCompactionStyle(storageDataCompactionStyle)
+                    .storageStringEncoding(storageStringEncoding)
+                    .queryMemoryBudget(queryMemoryBudgetMB * ServerDefaults.MB);
+            if (storageMaxBackgroundJobs != null) options.storageMaxBackgroundJobs(storageMaxBackgroundJobs);
+            return options;
+        }
+
         public boolean grablTrace() {
             return grablTrace;
         }
@@ -162,6 +242,10 @@ public interface ServerCommand {
         @Parameters(index = "2..*", arity = "0..*", description = "Schema concept remap labels")
         private Map<String, String> remapLabels = new LinkedHashMap<>();
 
+        @Option(names = {"--bulk-load"},
+                description = "Ingest the data as sorted files, which requires the database to have no other open sessions")
+        private boolean bulkLoad;
+
         public ImportData(Start startCommand) {
             this.startCommand = startCommand;
         }
@@ -178,6 +262,10 @@ public interface ServerCommand {
             return remapLabels;
         }
 
+        public boolean bulkLoad() {
+            return bulkLoad;
+        }
+
         public int port() {
             return startCommand.port();
         }
@@ -261,5 +349,111 @@ public interface ServerCommand {
             return this;
         }
     }
-}
 
+    @Command(name = "backup")
+    class BackupDatabase implements ServerCommand {
+
+        private final Start startCommand;
+
+        @Parameters(index = "0", description = "Database to back up")
+        private String database;
+
+        @Parameters(index = "1", description = "Directory for the backup, which must not exist")
+        private String directory;
+
+        public BackupDatabase(Start startCommand) {
+            this.startCommand = startCommand;
+        }
+
+        public String database() {
+            return database;
+        }
+
+        public String directory() {
+            return directory;
+        }
+
+        public int port() {
+            return startCommand.port();
+        }
+
+        @Override
+        public boolean isBackupDatabase() {
+            return true;
+        }
+
+        @Override
+        public BackupDatabase asBackupDatabase() {
+            return this;
+        }
+    }
+
+    @Command(name = "restore")
+    class RestoreDatabase implements ServerCommand {
+
+        private final Start startCommand;
+
+        @Parameters(index = "0", description = "Database to create from the backup")
+        private String database;
+
+        @Parameters(index = "1", description = "Directory containing the backup to restore")
+        private String directory;
+
+        public RestoreDatabase(Start startCommand) {
+            this.startCommand = startCommand;
+        }
+
+        public String database() {
+            return database;
+        }
+
+        public String directory() {
+            return directory;
+        }
+
+        public int port() {
+            return startCommand.port();
+        }
+
+        @Override
+        public boolean isRestoreDatabase() {
+            return true;
+        }
+
+        @Override
+        public RestoreDatabase asRestoreDatabase() {
+            return this;
+        }
+    }
+
+    @Command(name = "metrics")
+    class PrintMetrics implements ServerCommand {
+
+        private final Start startCommand;
+
+        @Parameters(index = "0", description = "Database to get storage metrics")
+        private String database;
+
+        public PrintMetrics(Start startCommand) {
+            this.startCommand = startCommand;
+        }
+
+        public String database() {
+            return database;
+        }
+
+        public int port() {
+            return startCommand.port();
+        }
+
+        @Override
+        public boolean isPrintMetrics() {
+            return true;
+        }
+
+        @Override
+        public PrintMetrics asPrintMetrics() {
+            return this;
+        }
+    }
+}
@@ -29,6 +29,7 @@ public class ServerDefaults {
     public static final File PROPERTIES_FILE = GRAKN_DIR.resolve("server/conf/grakn.properties").toFile();
     public static final File ASCII_LOGO_FILE = GRAKN_DIR.resolve("server/resources/grakn-core-ascii.txt").toFile();
     public static final int DEFAULT_DATABASE_PORT = 1729;
+    public static final long MB = 1024 * 1024;
 
     private static Path getGraknDir() {
         String homeDir;
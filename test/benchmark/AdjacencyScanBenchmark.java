@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.test.benchmark;
+
+import grakn.core.graph.util.Encoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rocksdb.DirectSlice;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.prefixUpperBound;
+import static grakn.core.common.collection.Bytes.shortToSortedBytes;
+import static java.util.Comparator.reverseOrder;
+
+/**
+ * Measures the scan of the HAS adjacency of a high-degree vertex, with and without an
+ * {@code iterate_upper_bound} on the RocksDB iterator, as {@code RocksStorage} iterates
+ * storage before and after it began bounding its iterators.
+ *
+ * Every vertex also has PLAYING edges, which are stored right after its HAS edges, so
+ * that an unbounded iterator has to read past the end of the scanned prefix to find it.
+ *
+ * Run with: bazel run //test/benchmark:benchmark-adjacency-scan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AdjacencyScanBenchmark {
+
+    private static final int VERTEX_COUNT = 64;
+    private static final int UPPER_BOUND_LENGTH = 64;
+
+    @Param({"100", "10000", "100000"})
+    public int degree;
+
+    @Param({"true", "false"})
+    public boolean isBounded;
+
+    private Path directory;
+    private Options options;
+    private RocksDB rocksDB;
+    private ByteBuffer upperBoundBuffer;
+    private DirectSlice upperBound;
+    private ReadOptions readOptions;
+    private RocksIterator iterator;
+    private byte[][] prefixes;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, RocksDBException {
+        RocksDB.loadLibrary();
+        directory = Files.createTempDirectory("adjacency-scan-benchmark");
+        options = new Options().setCreateIfMissing(true).useCappedPrefixExtractor(4);
+        rocksDB = RocksDB.open(options, directory.toString());
+
+        prefixes = new byte[VERTEX_COUNT][];
+        try (WriteOptions writeOptions = new WriteOptions().setDisableWAL(true)) {
+            for (int v = 0; v < VERTEX_COUNT; v++) {
+                final byte[] vertex = thingIID(Encoding.Prefix.VERTEX_ENTITY, 1, v);
+                prefixes[v] = join(vertex, Encoding.Infix.EDGE_HAS_OUT.bytes());
+                try (WriteBatch batch = new WriteBatch()) {
+                    for (int e = 0; e < degree; e++) {
+                        batch.put(join(prefixes[v], thingIID(Encoding.Prefix.VERTEX_ATTRIBUTE, 2, e)), new byte[0]);
+                        batch.put(join(vertex, Encoding.Infix.EDGE_PLAYING_OUT.bytes(),
+                                       thingIID(Encoding.Prefix.VERTEX_ROLE, 3, e)), new byte[0]);
+                    }
+                    rocksDB.write(writeOptions, batch);
+                }
+            }
+        }
+        try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+            rocksDB.flush(flushOptions);
+        }
+
+        upperBoundBuffer = ByteBuffer.allocateDirect(UPPER_BOUND_LENGTH);
+        upperBound = new DirectSlice(upperBoundBuffer, UPPER_BOUND_LENGTH);
+        readOptions = new ReadOptions().setPrefixSameAsSeek(true);
+        if (isBounded) readOptions.setIterateUpperBound(upperBound);
+        iterator = rocksDB.newIterator(readOptions);
+        random = new Random(0);
+    }
+
+    private static byte[] thingIID(Encoding.Prefix prefix, int type, long key) {
+        return join(prefix.bytes(), shortToSortedBytes(type), longToBytes(key));
+    }
+
+    @Benchmark
+    public void scan_has_adjacency(Blackhole blackhole) {
+        final byte[] prefix = prefixes[random.nextInt(VERTEX_COUNT)];
+        if (isBounded) {
+            upperBoundBuffer.clear();
+            upperBoundBuffer.put(prefixUpperBound(prefix));
+            while (upperBoundBuffer.hasRemaining()) upperBoundBuffer.put((byte) 0);
+        }
+        iterator.seek(prefix);
+        while (iterator.isValid()) {
+            final byte[] key = iterator.key();
+            if (!bytesHavePrefix(key, prefix)) break;
+            blackhole.consume(key);
+            iterator.next();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        iterator.close();
+        readOptions.close();
+        upperBound.close();
+        rocksDB.close();
+        options.close();
+        Files.walk(directory).sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.test.benchmark;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concept.type.AttributeType;
+import grakn.core.graph.DataGraph;
+import grakn.core.graph.vertex.AttributeVertex;
+import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
+import static java.util.Comparator.reverseOrder;
+
+/**
+ * Measures the latency of committing a write transaction that buffered {@code count} thing
+ * vertices, each owning a new attribute, so that the cost of writing the buffered vertices
+ * and their edges into storage dominates the commit.
+ *
+ * Run with: bazel run //test/benchmark:benchmark-data-graph-commit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataGraphCommitBenchmark {
+
+    private static final String DATABASE = "benchmark";
+    private static final String ATTRIBUTE_TYPE = "value";
+    private static final String OWNER_TYPE = "owner";
+
+    @Param({"10000", "100000"})
+    private int count;
+
+    private long nextValue = 0;
+    private Path directory;
+    private RocksGrakn grakn;
+    private RocksSession session;
+    private RocksTransaction transaction;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("data-graph-commit-benchmark");
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(DATABASE);
+        try (RocksSession schema = grakn.session(DATABASE, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction tx = schema.transaction(Arguments.Transaction.Type.WRITE)) {
+                final AttributeType attributeType = tx.concepts().putAttributeType(ATTRIBUTE_TYPE, AttributeType.ValueType.LONG);
+                tx.concepts().putEntityType(OWNER_TYPE).setOwns(attributeType);
+                tx.commit();
+            }
+        }
+        session = grakn.session(DATABASE, Arguments.Session.Type.DATA);
+    }
+
+    @Setup(Level.Iteration)
+    public void bufferWrites() {
+        transaction = session.transaction(Arguments.Transaction.Type.WRITE);
+        final DataGraph graph = transaction.traversal().graph().data();
+        final TypeVertex ownerType = graph.schema().getType(OWNER_TYPE);
+        final TypeVertex attributeType = graph.schema().getType(ATTRIBUTE_TYPE);
+        for (int i = 0; i < count; i++) {
+            final ThingVertex owner = graph.create(ownerType, false);
+            final AttributeVertex<Long> attribute = graph.put(attributeType, nextValue++, false);
+            owner.outs().put(HAS, attribute, false);
+        }
+    }
+
+    @Benchmark
+    public void commit() {
+        transaction.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeTransaction() {
+        transaction.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        session.close();
+        grakn.close();
+        Files.walk(directory).sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+}
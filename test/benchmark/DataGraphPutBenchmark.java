@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.test.benchmark;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concept.type.AttributeType;
+import grakn.core.graph.DataGraph;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.vertex.AttributeVertex;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
+import static java.util.Comparator.reverseOrder;
+
+/**
+ * Measures the throughput of {@code DataGraph.put} from many threads sharing one write
+ * transaction, with and without a storage lookup of a persisted attribute before each put,
+ * as {@code RocksStorage} reads and writes before and after it stopped taking a
+ * read-write lock on every operation.
+ *
+ * It also reports the heap retained by each owner buffered in a write transaction, with and
+ * without a HAS edge, as the {@code bytesPerOwner} secondary result. The difference of the two
+ * is the heap retained by a buffered edge. The heap is sampled after a full GC outside of the
+ * timed region, so the figures are approximate and should be compared between runs on the same
+ * JVM settings.
+ *
+ * Run with: bazel run //test/benchmark:benchmark-data-graph-put
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(8)
+public class DataGraphPutBenchmark {
+
+    private static final String DATABASE = "benchmark";
+    private static final String ATTRIBUTE_TYPE = "value";
+    private static final String OWNER_TYPE = "owner";
+    private static final int PERSISTED_COUNT = 100_000;
+
+    private final AtomicLong counter = new AtomicLong(PERSISTED_COUNT);
+    private Path directory;
+    private RocksGrakn grakn;
+    private RocksSession session;
+    private RocksTransaction transaction;
+    private DataGraph graph;
+    private TypeVertex type;
+    private TypeVertex ownerType;
+    private AttributeVertex<Long> attribute;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("data-graph-put-benchmark");
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(DATABASE);
+        try (RocksSession schema = grakn.session(DATABASE, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction tx = schema.transaction(Arguments.Transaction.Type.WRITE)) {
+                final AttributeType attributeType = tx.concepts().putAttributeType(ATTRIBUTE_TYPE, AttributeType.ValueType.LONG);
+                tx.concepts().putEntityType(OWNER_TYPE).setOwns(attributeType);
+                tx.commit();
+            }
+        }
+        session = grakn.session(DATABASE, Arguments.Session.Type.DATA);
+        try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            final DataGraph data = tx.traversal().graph().data();
+            final TypeVertex attributeType = data.schema().getType(ATTRIBUTE_TYPE);
+            for (long value = 0; value < PERSISTED_COUNT; value++) data.put(attributeType, value, false);
+            tx.commit();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openTransaction() {
+        transaction = session.transaction(Arguments.Transaction.Type.WRITE);
+        graph = transaction.traversal().graph().data();
+        type = graph.schema().getType(ATTRIBUTE_TYPE);
+        ownerType = graph.schema().getType(OWNER_TYPE);
+        attribute = graph.get(type, 0L);
+    }
+
+    @Benchmark
+    public void put_attribute(Blackhole blackhole) {
+        blackhole.consume(graph.put(type, counter.getAndIncrement(), false));
+    }
+
+    @Benchmark
+    public void put_attribute_after_storage_lookup(Blackhole blackhole) {
+        final long persisted = ThreadLocalRandom.current().nextLong(PERSISTED_COUNT);
+        blackhole.consume(graph.storage().get(new VertexIID.Attribute.Long(type.iid(), persisted).bytes()));
+        blackhole.consume(graph.put(type, counter.getAndIncrement(), false));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Threads(1)
+    public void buffer_owner(BufferedHeap heap) {
+        graph.create(ownerType, false);
+        heap.owners++;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Threads(1)
+    public void buffer_owner_with_attribute(BufferedHeap heap) {
+        graph.create(ownerType, false).outs().put(HAS, attribute, false);
+        heap.owners++;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeTransaction() {
+        transaction.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        session.close();
+        grakn.close();
+        Files.walk(directory).sorted(reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    /**
+     * Samples the used heap before and after each iteration. Its helper methods take the benchmark
+     * state, so that the heap is sampled after the write transaction is opened, and before it is closed.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class BufferedHeap {
+
+        private long usedBefore;
+        private long owners;
+        public long bytesPerOwner;
+
+        @Setup(Level.Iteration)
+        public void sampleBefore(DataGraphPutBenchmark benchmark) {
+            owners = 0;
+            bytesPerOwner = 0;
+            usedBefore = usedHeap();
+        }
+
+        @TearDown(Level.Iteration)
+        public void sampleAfter(DataGraphPutBenchmark benchmark) {
+            if (owners > 0) bytesPerOwner = (usedHeap() - usedBefore) / owners;
+        }
+    }
+}
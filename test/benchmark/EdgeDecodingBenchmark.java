@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.test.benchmark;
+
+import grakn.core.common.exception.GraknCheckedException;
+import grakn.core.graph.iid.EdgeIID;
+import grakn.core.graph.iid.InfixIID;
+import grakn.core.graph.iid.SuffixIID;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Encoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.shortToSortedBytes;
+
+/**
+ * Measures the decoding of thing edges, as they are read from storage when iterating
+ * the adjacency of a vertex: the edge is constructed from its key, and its infix
+ * encoding and its end vertex are extracted.
+ *
+ * Run with the GC profiler to also measure the bytes allocated per decoded edge:
+ * bazel run //test/benchmark:benchmark-edge-decoding -- -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EdgeDecodingBenchmark {
+
+    private static final int EDGE_COUNT = 1024;
+
+    @Param({"HAS_LONG", "HAS_STRING", "ROLEPLAYER"})
+    public String edge;
+
+    private byte[][] keys;
+
+    @Setup(Level.Trial)
+    public void setup() throws GraknCheckedException {
+        final VertexIID.Type entityType = VertexIID.Type.of(typeIID(Encoding.Prefix.VERTEX_ENTITY_TYPE, 1));
+        final VertexIID.Type relationType = VertexIID.Type.of(typeIID(Encoding.Prefix.VERTEX_RELATION_TYPE, 2));
+        final VertexIID.Type roleType = VertexIID.Type.of(typeIID(Encoding.Prefix.VERTEX_ROLE_TYPE, 3));
+        final VertexIID.Type attributeType = VertexIID.Type.of(typeIID(Encoding.Prefix.VERTEX_ATTRIBUTE_TYPE, 4));
+
+        keys = new byte[EDGE_COUNT][];
+        for (int i = 0; i < EDGE_COUNT; i++) {
+            final VertexIID.Thing entity = thingIID(Encoding.Prefix.VERTEX_ENTITY, entityType, i);
+            switch (edge) {
+                case "HAS_LONG":
+                    keys[i] = EdgeIID.Thing.of(entity, InfixIID.Thing.of(Encoding.Infix.EDGE_HAS_OUT),
+                                               new VertexIID.Attribute.Long(attributeType, i)).bytes();
+                    break;
+                case "HAS_STRING":
+                    keys[i] = EdgeIID.Thing.of(new VertexIID.Attribute.String(attributeType, "attribute-value-" + i),
+                                               InfixIID.Thing.of(Encoding.Infix.EDGE_HAS_IN), entity).bytes();
+                    break;
+                case "ROLEPLAYER":
+                    keys[i] = EdgeIID.Thing.of(thingIID(Encoding.Prefix.VERTEX_RELATION, relationType, i),
+                                               InfixIID.RolePlayer.of(Encoding.Infix.EDGE_ROLEPLAYER_OUT, roleType),
+                                               entity, SuffixIID.of(longToBytes(i))).bytes();
+                    break;
+                default:
+                    throw new IllegalArgumentException(edge);
+            }
+        }
+    }
+
+    private static byte[] typeIID(Encoding.Prefix prefix, int key) {
+        return join(prefix.bytes(), shortToSortedBytes(key));
+    }
+
+    private static VertexIID.Thing thingIID(Encoding.Prefix prefix, VertexIID.Type type, long key) {
+        return VertexIID.Thing.of(join(prefix.bytes(), type.bytes(), longToBytes(key)));
+    }
+
+    @Benchmark
+    public void decode_end(Blackhole blackhole) {
+        for (byte[] key : keys) {
+            final EdgeIID.Thing edge = EdgeIID.Thing.of(key);
+            blackhole.consume(edge.encoding());
+            blackhole.consume(edge.end());
+        }
+    }
+}
@@ -22,6 +22,8 @@ import grakn.core.Grakn;
 import grakn.core.common.parameters.Arguments;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.thing.Attribute;
+import grakn.core.concept.thing.Entity;
+import grakn.core.concept.thing.Thing;
 import grakn.core.concept.type.AttributeType;
 import grakn.core.concept.type.EntityType;
 import grakn.core.concept.type.RelationType;
@@ -43,6 +45,7 @@ import java.time.LocalDateTime;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static grakn.common.collection.Collections.set;
 import static grakn.core.concept.type.AttributeType.ValueType.BOOLEAN;
 import static grakn.core.concept.type.AttributeType.ValueType.DATETIME;
 import static grakn.core.concept.type.AttributeType.ValueType.DOUBLE;
@@ -54,6 +57,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static java.util.stream.Collectors.toSet;
 
 public class BasicTest {
 
@@ -485,6 +489,178 @@ public class BasicTest {
         }
     }
 
+    @Test
+    public void backup_and_restore_database() throws IOException {
+        final Path backupDirectory = Paths.get(System.getProperty("user.dir")).resolve("basic-test-backup");
+        final String restoredDatabase = "basic-test-restored";
+        reset_directory_and_create_attribute_types();
+        Util.resetDirectory(backupDirectory);
+
+        try {
+            try (Grakn grakn = RocksGrakn.open(directory)) {
+                try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                    try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        age(txn).put(18);
+                        name(txn).put("alice");
+                        txn.commit();
+                    }
+
+                    grakn.databases().get(database).backup(backupDirectory.resolve(database));
+
+                    try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        name(txn).put("bob");
+                        txn.commit();
+                    }
+                }
+
+                grakn.databases().restore(restoredDatabase, backupDirectory.resolve(database));
+                try (Grakn.Session session = grakn.session(restoredDatabase, Arguments.Session.Type.DATA)) {
+                    try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                        assertEquals(18, age(txn).get(18).getValue().longValue());
+                        assertEquals(1, name(txn).getInstances().count());
+                        assertNotNull(name(txn).get("alice"));
+                        assertNull(name(txn).get("bob"));
+                    }
+                }
+            }
+
+            try (Grakn grakn = RocksGrakn.open(directory)) {
+                try (Grakn.Session session = grakn.session(restoredDatabase, Arguments.Session.Type.DATA)) {
+                    try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        name(txn).put("carol");
+                        txn.commit();
+                    }
+                    try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                        assertEquals(2, name(txn).getInstances().count());
+                    }
+                }
+            }
+        } finally {
+            Util.deleteDirectory(backupDirectory);
+        }
+    }
+
+    @Test
+    public void read_inferred_ownership_of_evicted_vertex_successfully() throws IOException {
+        // more than the persisted vertices that the graph of a read transaction holds before evicting them
+        final int people = 150_000;
+        final int batchSize = 10_000;
+        reset_directory_and_create_attribute_types();
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    txn.concepts().putEntityType("person").setOwns(name(txn));
+                    txn.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                for (int i = 0; i < people; i += batchSize) {
+                    try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        final EntityType person = txn.concepts().getEntityType("person");
+                        for (int j = 0; j < batchSize; j++) person.create();
+                        if (i == 0) name(txn).put("alice");
+                        txn.commit();
+                    }
+                }
+
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final EntityType person = txn.concepts().getEntityType("person");
+                    final Entity inferredOwner = person.getInstances().findFirst().get();
+                    inferredOwner.setHas(name(txn).get("alice"), true);
+
+                    assertEquals(people, person.getInstances().count());
+                    final Thing owner = txn.concepts().getThing(inferredOwner.getIID());
+                    assertEquals(1, owner.getHas(name(txn)).count());
+                    assertEquals("alice", owner.getHas(name(txn)).findFirst().get().getValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void read_inferred_ownership_put_through_evicted_vertex_successfully() throws IOException {
+        // more than the persisted vertices that the graph of a read transaction holds before evicting them
+        final int people = 150_000;
+        final int batchSize = 10_000;
+        reset_directory_and_create_attribute_types();
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    txn.concepts().putEntityType("person").setOwns(name(txn));
+                    txn.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                for (int i = 0; i < people; i += batchSize) {
+                    try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        final EntityType person = txn.concepts().getEntityType("person");
+                        for (int j = 0; j < batchSize; j++) person.create();
+                        if (i == 0) {
+                            name(txn).put("alice");
+                            name(txn).put("bob");
+                        }
+                        txn.commit();
+                    }
+                }
+
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final EntityType person = txn.concepts().getEntityType("person");
+                    final Entity evicted = person.getInstances().findFirst().get();
+                    assertEquals(people, person.getInstances().count());
+
+                    // the owner is read again as another object, which is pinned by its inferred ownership
+                    final Thing owner = txn.concepts().getThing(evicted.getIID());
+                    owner.setHas(name(txn).get("alice"), true);
+                    evicted.setHas(name(txn).get("bob"), true);
+
+                    final Thing pinned = txn.concepts().getThing(evicted.getIID());
+                    assertEquals(2, pinned.getHas(name(txn)).count());
+                    assertEquals(set("alice", "bob"), pinned.getHas(name(txn)).map(Attribute.String::getValue).collect(toSet()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void write_long_string_attributes_successfully() throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) builder.append("alice-").append(i);
+        final String longName = builder.toString();
+        reset_directory_and_create_attribute_types();
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    name(txn).put(longName);
+                    name(txn).put(longName + "!");
+                    name(txn).put(longName);
+                    assertEquals(2, name(txn).getInstances().count());
+                    txn.commit();
+                }
+
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    name(txn).put(longName);
+                    assertEquals(2, name(txn).getInstances().count());
+                    txn.commit();
+                }
+
+                try (Grakn.Transaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final Attribute.String name = name(txn).get(longName);
+                    assertNotNull(name);
+                    assertEquals(longName, name.getValue());
+                    assertNull(name(txn).get(longName + "?"));
+
+                    assertEquals(2, name(txn).getInstances().count());
+                    assertTrue(name(txn).getInstances().anyMatch(att -> att.getValue().equals(longName + "!")));
+                }
+            }
+        }
+    }
+
 
     @Test
     public void write_different_attributes_in_parallel_successfully_repeatedly() throws IOException {
@@ -20,17 +20,20 @@ package grakn.core.test.integration;
 
 import grakn.core.Grakn;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
 import grakn.core.concept.thing.Attribute;
 import grakn.core.concept.thing.Entity;
 import grakn.core.concept.type.AttributeType;
 import grakn.core.concept.type.EntityType;
 import grakn.core.concept.type.RelationType;
 import grakn.core.concept.type.RoleType;
+import grakn.core.rocks.RocksFactory;
 import grakn.core.rocks.RocksGrakn;
 import grakn.core.test.integration.util.Util;
 import graql.lang.Graql;
 import graql.lang.query.GraqlDefine;
 import graql.lang.query.GraqlInsert;
+import graql.lang.query.GraqlMatch;
 import graql.lang.query.GraqlUndefine;
 import org.junit.Test;
 
@@ -38,7 +41,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import static grakn.common.collection.Collections.list;
+import static grakn.core.common.parameters.Arguments.Storage.StringEncoding.ORDER_PRESERVING;
 import static grakn.core.test.integration.util.Util.assertNotNulls;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
@@ -252,4 +260,349 @@ public class QueryTest {
             }
         }
     }
+
+    @Test
+    public void test_query_match_after_inherited_owns_is_defined() throws IOException {
+        Util.resetDirectory(directory);
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(Graql.parseQuery(
+                            "define name sub attribute, value string; age sub attribute, value long;" +
+                                    "animal sub entity; dog sub animal, owns name;"
+                    ).asDefine());
+                    transaction.commit();
+                }
+            }
+
+            final GraqlMatch ownerships = Graql.parseQuery("match $d isa dog; $d has $a;").asMatch();
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(Graql.parseQuery("insert $d isa dog, has name 'rex';").asInsert());
+                    transaction.commit();
+                }
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(1, transaction.query().match(ownerships).count());
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(Graql.parseQuery("define animal owns age;").asDefine());
+                    transaction.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(Graql.parseQuery("match $d isa dog; insert $d has age 3;").asInsert());
+                    transaction.commit();
+                }
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    // The type resolution and the plan cached before the schema commit must not hide the new attribute
+                    assertEquals(2, transaction.query().match(ownerships).count());
+                    assertEquals(1, transaction.query().match(ownerships)
+                            .filter(a -> a.get("a").asAttribute().getType().getLabel().name().equals("age")).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_match_after_persisted_ownership_is_deleted() throws IOException {
+        Util.resetDirectory(directory);
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(Graql.parseQuery(
+                            "define name sub attribute, value string; dog sub entity, owns name;"
+                    ).asDefine());
+                    transaction.commit();
+                }
+            }
+
+            final GraqlMatch ownerships = Graql.parseQuery("match $d isa dog, has name 'rex';").asMatch();
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(Graql.parseQuery("insert $d isa dog, has name 'rex';").asInsert());
+                    transaction.commit();
+                }
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    assertEquals(1, transaction.query().match(ownerships).count());
+                    transaction.query().delete(Graql.parseQuery(
+                            "match $d isa dog, has name $n; delete $d has $n;"
+                    ).asDelete());
+                    // The ownership that was looked up before the delete must not be found in the cache of stored keys
+                    assertEquals(0, transaction.query().match(ownerships).count());
+                    transaction.commit();
+                }
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(0, transaction.query().match(ownerships).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_match_range_predicates() throws IOException {
+        Util.resetDirectory(directory);
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final GraqlDefine query = Graql.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = -5; i <= 10; i++) {
+                        final GraqlInsert query = Graql.parseQuery(
+                                "insert $r isa branch-rule, has symbol 'rule-" + i + "', has priority " + i + ";"
+                        );
+                        transaction.query().insert(query);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(4, transaction.query().match(Graql.parseQuery("match $p isa priority; $p > 6;").asMatch()).count());
+                    assertEquals(5, transaction.query().match(Graql.parseQuery("match $p isa priority; $p >= 6;").asMatch()).count());
+                    assertEquals(2, transaction.query().match(Graql.parseQuery("match $p isa priority; $p >= 3; $p < 5;").asMatch()).count());
+                    assertEquals(6, transaction.query().match(Graql.parseQuery("match $p isa priority; $p <= 0;").asMatch()).count());
+                    assertEquals(4, transaction.query().match(Graql.parseQuery("match $p isa priority; $p > 6.5;").asMatch()).count());
+                    assertEquals(0, transaction.query().match(Graql.parseQuery("match $p isa priority; $p > 6; $p < 5;").asMatch()).count());
+                    assertEquals(4, transaction.query().match(Graql.parseQuery("match $r isa branch-rule, has priority $p; $p > 6;").asMatch()).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_match_string_range_predicates() throws IOException {
+        Util.resetDirectory(directory);
+        final Options.Database options = new Options.Database().storageStringEncoding(ORDER_PRESERVING);
+        final StringBuilder longSymbol = new StringBuilder("rule-");
+        for (int i = 0; i < 200; i++) longSymbol.append("x");
+
+        try (Grakn grakn = RocksGrakn.open(directory, options, new RocksFactory())) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final GraqlDefine query = Graql.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (String symbol : new String[]{"other", "rule-a", "rule-b", "rule-ba", "rule-c", longSymbol.toString()}) {
+                        final GraqlInsert query = Graql.parseQuery("insert $r isa branch-rule, has symbol '" + symbol + "';");
+                        transaction.query().insert(query);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(3, transaction.query().match(Graql.parseQuery("match $s isa symbol; $s > 'rule-b';").asMatch()).count());
+                    assertEquals(2, transaction.query().match(Graql.parseQuery("match $s isa symbol; $s >= 'rule-b'; $s < 'rule-c';").asMatch()).count());
+                    assertEquals(2, transaction.query().match(Graql.parseQuery("match $s isa symbol; $s < 'rule-b';").asMatch()).count());
+                    assertEquals(2, transaction.query().match(Graql.parseQuery("match $s isa symbol; $s like 'rule-b.*';").asMatch()).count());
+                    assertEquals(1, transaction.query().match(Graql.parseQuery("match $s isa symbol; $s like 'rule-x+';").asMatch()).count());
+                    assertEquals(1, transaction.query().match(Graql.parseQuery("match $s isa symbol; $s like '(?i)RULE-A';").asMatch()).count());
+                    assertEquals(1, transaction.query().match(Graql.parseQuery("match $s '" + longSymbol + "' isa symbol;").asMatch()).count());
+                    assertEquals(1, transaction.query().match(Graql.parseQuery("match $r isa branch-rule, has symbol $s; $s > 'rule-c';").asMatch()).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_match_range_predicates_on_high_degree_owner() throws IOException {
+        Util.resetDirectory(directory);
+        final Options.Database options = new Options.Database().storageStringEncoding(ORDER_PRESERVING);
+
+        try (Grakn grakn = RocksGrakn.open(directory, options, new RocksFactory())) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(Graql.parseQuery(
+                            "define name sub attribute, value string; age sub attribute, value long; " +
+                                    "nickname sub attribute, value string; " +
+                                    "person sub entity, owns name @key, owns age, owns nickname;"
+                    ).asDefine());
+                    transaction.commit();
+                }
+            }
+
+            final String hub = "match $p isa person, has name 'hub'; ";
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(Graql.parseQuery("insert $p isa person, has name 'hub';").asInsert());
+                    transaction.query().insert(Graql.parseQuery(
+                            "insert $p isa person, has name 'other', has age 30, has age 31, has age 32, has nickname 'nick-b';"
+                    ).asInsert());
+                    for (int age = 0; age < 200; age += 2) {
+                        transaction.query().insert(Graql.parseQuery(hub + "insert $p has age " + age + ";").asInsert());
+                    }
+                    for (String nickname : new String[]{"nick-a", "nick-c", "nick-e"}) {
+                        transaction.query().insert(Graql.parseQuery(hub + "insert $p has nickname '" + nickname + "';").asInsert());
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(84, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a > 30;").asMatch()).count());
+                    assertEquals(16, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a <= 30;").asMatch()).count());
+                    assertEquals(1, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a >= 30; $a <= 30;").asMatch()).count());
+                    assertEquals(0, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a > 30; $a < 32;").asMatch()).count());
+                    assertEquals(1, transaction.query().match(Graql.parseQuery(hub + "$p has nickname $n; $n > 'nick-a'; $n <= 'nick-c';").asMatch()).count());
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // Odd ages and the extra nicknames stay buffered, interleaved with the persisted ownerships
+                    for (int age = 1; age < 200; age += 2) {
+                        transaction.query().insert(Graql.parseQuery(hub + "insert $p has age " + age + ";").asInsert());
+                    }
+                    for (String nickname : new String[]{"nick-b", "nick-bb", "nick-d"}) {
+                        transaction.query().insert(Graql.parseQuery(hub + "insert $p has nickname '" + nickname + "';").asInsert());
+                    }
+                    assertRangesOnHub(transaction, hub);
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertRangesOnHub(transaction, hub);
+                }
+            }
+        }
+    }
+
+    private static void assertRangesOnHub(final Grakn.Transaction transaction, final String hub) {
+        assertEquals(169, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a > 30;").asMatch()).count());
+        assertEquals(31, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a <= 30;").asMatch()).count());
+        assertEquals(32, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a <= 31;").asMatch()).count());
+        assertEquals(1, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a >= 30; $a <= 30;").asMatch()).count());
+        assertEquals(1, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a >= 31; $a <= 31;").asMatch()).count());
+        assertEquals(1, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a > 30; $a < 32;").asMatch()).count());
+        assertEquals(1, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a >= 199;").asMatch()).count());
+        assertEquals(0, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a > 199;").asMatch()).count());
+        assertEquals(0, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a > 40; $a < 35;").asMatch()).count());
+        assertEquals(0, transaction.query().match(Graql.parseQuery(hub + "$p has age $a; $a > 30; $a < 31;").asMatch()).count());
+
+        assertEquals(4, transaction.query().match(Graql.parseQuery(hub + "$p has nickname $n; $n > 'nick-b';").asMatch()).count());
+        assertEquals(2, transaction.query().match(Graql.parseQuery(hub + "$p has nickname $n; $n <= 'nick-b';").asMatch()).count());
+        assertEquals(3, transaction.query().match(Graql.parseQuery(hub + "$p has nickname $n; $n >= 'nick-b'; $n <= 'nick-c';").asMatch()).count());
+        assertEquals(0, transaction.query().match(Graql.parseQuery(hub + "$p has nickname $n; $n > 'nick-d'; $n < 'nick-c';").asMatch()).count());
+    }
+
+    @Test
+    public void test_query_match_sort_with_limit() throws IOException {
+        Util.resetDirectory(directory);
+
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final GraqlDefine query = Graql.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final long[] priorities = {5, -3, 12, 0, 7};
+                    for (int i = 0; i < priorities.length; i++) {
+                        final GraqlInsert query = Graql.parseQuery("insert $r isa branch-rule, has symbol 'rule-" + i + "', has priority " + priorities[i] + ";");
+                        transaction.query().insert(query);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(Graql.parseQuery("insert $r isa branch-rule, has symbol 'rule-x', has priority 1;").asInsert());
+                    transaction.query().insert(Graql.parseQuery("insert $r isa branch-rule, has symbol 'rule-y', has priority -10;").asInsert());
+
+                    for (boolean isParallel : new boolean[]{true, false}) {
+                        final GraqlMatch ascending = Graql.parseQuery("match $r isa branch-rule, has priority $p; sort $p; offset 1; limit 3;").asMatch();
+                        assertEquals(list(-3L, 0L, 1L), transaction.query().match(ascending, isParallel)
+                                .map(a -> a.get("p").asAttribute().asLong().getValue()).toList());
+
+                        final GraqlMatch descending = Graql.parseQuery("match $r isa branch-rule, has priority $p; sort $p desc; limit 2;").asMatch();
+                        assertEquals(list(12L, 7L), transaction.query().match(descending, isParallel)
+                                .map(a -> a.get("p").asAttribute().asLong().getValue()).toList());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_match_sort_and_group_spilled_to_disk() throws IOException {
+        Util.resetDirectory(directory);
+        final Options.Database options = new Options.Database().queryMemoryBudget(1);
+
+        try (RocksGrakn grakn = RocksGrakn.open(directory, options, new RocksFactory())) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final GraqlDefine query = Graql.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final long[] priorities = {5, -3, 12, 0, 7, 5, -3, 5};
+                    for (int i = 0; i < priorities.length; i++) {
+                        final GraqlInsert query = Graql.parseQuery("insert $r isa branch-rule, has symbol 'rule-" + i + "', has priority " + priorities[i] + ";");
+                        transaction.query().insert(query);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final GraqlMatch sorted = Graql.parseQuery("match $r isa branch-rule, has priority $p; sort $p desc;").asMatch();
+                    assertEquals(list(12L, 7L, 5L, 5L, 5L, 0L, -3L, -3L), transaction.query().match(sorted)
+                            .map(a -> a.get("p").asAttribute().asLong().getValue()).toList());
+
+                    final GraqlMatch.Group grouped = Graql.parseQuery("match $r isa branch-rule, has priority $p; group $p;").asMatchGroup();
+                    final Map<Long, Integer> groupSizes = new HashMap<>();
+                    transaction.query().match(grouped).forEachRemaining(g -> groupSizes.put(
+                            g.owner().asAttribute().asLong().getValue(), g.conceptMaps().size()
+                    ));
+                    assertEquals(5, groupSizes.size());
+                    assertEquals(3, (int) groupSizes.get(5L));
+                    assertEquals(2, (int) groupSizes.get(-3L));
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final GraqlMatch sorted = Graql.parseQuery("match $r isa branch-rule, has priority $p; sort $p;").asMatch();
+                    // the answers are abandoned after the first, so their spilled runs are only deleted by the transaction
+                    assertEquals(-3L, (long) transaction.query().match(sorted).next().get("p").asAttribute().asLong().getValue());
+                }
+            }
+            assertTrue(grakn.databases().get(database).spillMetrics().bytesSpilled() > 0);
+        }
+        try (Stream<Path> spilled = Files.list(directory.resolve(database).resolve("spill"))) {
+            assertEquals(0, spilled.count());
+        }
+    }
 }
@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.graph.edge.ThingEdge;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.util.Encoding;
+import grakn.core.graph.vertex.AttributeVertex;
+import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksMetrics;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static grakn.common.collection.Collections.set;
+import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_HAS_OUT;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_PLAYING_OUT;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_RELATING_OUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DataGraphTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("data-graph-test");
+    private static final String database = "data-graph-test";
+    private static final long STATISTICS_TIMEOUT_MILLIS = 10_000;
+
+    private static void define(RocksGrakn grakn, String schema) {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                transaction.query().define(Graql.parseQuery(schema).asDefine());
+                transaction.commit();
+            }
+        }
+    }
+
+    private static void awaitStatistics(RocksGrakn grakn) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + STATISTICS_TIMEOUT_MILLIS;
+        while (grakn.databases().get(database).statisticsBacklog() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, grakn.databases().get(database).statisticsBacklog());
+    }
+
+    /**
+     * Defines persons who own ages and are friends, and inserts a hub person who owns 20 ages and is friends with
+     * 5 of the 10 other persons, each of whom owns one age.
+     */
+    private static void insertSkewedFriendships(RocksGrakn grakn) {
+        define(grakn, "define age sub attribute, value long; friendship sub relation, relates friend; " +
+                "person sub entity, owns age, plays friendship:friend;");
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+             RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            final StringBuilder hub = new StringBuilder("insert $h isa person");
+            for (int age = 100; age < 120; age++) hub.append(", has age ").append(age);
+            transaction.query().insert(Graql.parseQuery(hub.append(";").toString()).asInsert());
+            for (int age = 0; age < 10; age++) {
+                transaction.query().insert(Graql.parseQuery("insert $p isa person, has age " + age + ";").asInsert());
+            }
+            for (int age = 0; age < 5; age++) {
+                transaction.query().insert(Graql.parseQuery(
+                        "match $h isa person, has age 100; $p isa person, has age " + age + "; " +
+                                "insert (friend: $h, friend: $p) isa friendship;"
+                ).asInsert());
+            }
+            transaction.commit();
+        }
+    }
+
+    private static void insertAges(RocksGrakn grakn, int from, int to) {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+             RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            for (int age = from; age < to; age++) {
+                transaction.query().insert(Graql.parseQuery("insert $a " + age + " isa age;").asInsert());
+            }
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Waits for the background counter to rebuild the histogram of the given attribute type from the given
+     * number of attributes, which it does after the round that counted them.
+     */
+    private static void awaitValueHistogram(RocksGrakn grakn, String type, long distinctValues) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + STATISTICS_TIMEOUT_MILLIS;
+        long built;
+        do {
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                final DataGraph graph = transaction.traversal().graph().data();
+                built = graph.stats().valueHistogram(graph.schema().getType(type)).distinctValues();
+            }
+            if (built != distinctValues) Thread.sleep(10);
+        } while (built != distinctValues && System.currentTimeMillis() < deadline);
+        assertEquals(distinctValues, built);
+    }
+
+    private static long gets(RocksGrakn grakn, Encoding.Prefix prefix) {
+        final RocksMetrics.Operations operations = grakn.databases().get(database).dataMetrics().operations().get(prefix);
+        return operations == null ? 0 : operations.gets();
+    }
+
+    @Test
+    public void repeated_lookups_of_absent_keys_hit_the_existence_cache() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            define(grakn, "define age sub attribute, value long; person sub entity, owns age;");
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(Graql.parseQuery("insert $p isa person, has age 1; $q isa person;").asInsert());
+                    transaction.commit();
+                }
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final DataGraph graph = transaction.traversal().graph().data();
+                    final TypeVertex age = graph.schema().getType("age");
+
+                    final long attributeGets = gets(grakn, Encoding.Prefix.VERTEX_ATTRIBUTE);
+                    final long attributeMisses = graph.existence().misses();
+                    assertNull(graph.get(age, 2L));
+                    assertNull(graph.get(age, 2L));
+                    assertEquals(attributeMisses + 1, graph.existence().misses());
+                    assertEquals(attributeGets + 1, gets(grakn, Encoding.Prefix.VERTEX_ATTRIBUTE));
+
+                    final AttributeVertex<Long> one = graph.get(age, 1L);
+                    assertNotNull(one);
+                    ThingVertex unowned = null;
+                    for (ThingVertex person : graph.get(graph.schema().getType("person")).toList()) {
+                        if (person.outs().edge(HAS, one) == null) unowned = person;
+                    }
+                    assertNotNull(unowned);
+                    final long edgeGets = gets(grakn, Encoding.Prefix.VERTEX_ENTITY);
+                    final long edgeHits = graph.existence().hits();
+                    assertNull(unowned.outs().edge(HAS, one));
+                    assertEquals(edgeHits + 1, graph.existence().hits());
+                    assertEquals(edgeGets, gets(grakn, Encoding.Prefix.VERTEX_ENTITY));
+                }
+            }
+
+            // the lookups of closed transactions are added up per database, as reported by the metrics
+            assertTrue(grakn.databases().get(database).existenceCacheHits() >= 2);
+            assertTrue(grakn.databases().get(database).existenceCacheMisses() >= 2);
+        }
+    }
+
+    @Test
+    public void partitions_of_instances_return_every_persisted_and_buffered_instance_once() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            define(grakn, "define person sub entity;");
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < 100; i++) {
+                        transaction.query().insert(Graql.parseQuery("insert $p isa person;").asInsert());
+                    }
+                    transaction.commit();
+                }
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < 10; i++) {
+                        transaction.query().insert(Graql.parseQuery("insert $p isa person;").asInsert());
+                    }
+                    final DataGraph graph = transaction.traversal().graph().data();
+                    final TypeVertex person = graph.schema().getType("person");
+                    final Set<ThingVertex> instances = new HashSet<>(graph.get(person).toList());
+                    assertEquals(110, instances.size());
+
+                    for (int partitions : new int[]{1, 3, 16, 1_000}) {
+                        final List<ThingVertex> partitioned = new ArrayList<>();
+                        graph.get(person, partitions).forEach(iterator -> iterator.forEachRemaining(partitioned::add));
+                        assertEquals(instances.size(), partitioned.size());
+                        assertEquals(instances, new HashSet<>(partitioned));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void statistics_backlog_drains_when_commits_buffer_the_same_count_job() throws IOException, InterruptedException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            define(grakn, "define age sub attribute, value long;");
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction first = session.transaction(Arguments.Transaction.Type.WRITE);
+                     RocksTransaction second = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // both transactions create the same attribute, whose count jobs share one key in storage
+                    first.query().insert(Graql.parseQuery("insert $a 1 isa age;").asInsert());
+                    second.query().insert(Graql.parseQuery("insert $a 1 isa age;").asInsert());
+                    first.commit();
+                    second.commit();
+                }
+                awaitStatistics(grakn);
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final DataGraph graph = transaction.traversal().graph().data();
+                    assertEquals(1, graph.stats().thingVertexCount(graph.schema().getType("age")));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void role_edge_counts_and_degree_buckets_follow_inserts_and_deletes() throws IOException, InterruptedException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            insertSkewedFriendships(grakn);
+            awaitStatistics(grakn);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final DataGraph graph = transaction.traversal().graph().data();
+                    final TypeVertex person = graph.schema().getType("person");
+                    final TypeVertex friendship = graph.schema().getType("friendship");
+                    final TypeVertex friend = graph.schema().getType("friend", "friendship");
+                    assertEquals(10, graph.stats().playingEdgeSum(set(person), set(friend)));
+                    assertEquals(10, graph.stats().relatingEdgeSum(set(friendship), set(friend)));
+
+                    // 10 persons own 1 age, and the hub owns 20, in the bucket of 16 to 31
+                    final DataGraph.Statistics.Degrees has = graph.stats().degrees(person, EDGE_HAS_OUT);
+                    assertEquals(11, has.vertices());
+                    assertEquals(10, has.vertices(0));
+                    assertEquals(1, has.vertices(4));
+                    assertEquals(31, has.max());
+                    assertEquals(16, graph.stats().degreeSkew(set(person), EDGE_HAS_OUT), 0);
+
+                    final DataGraph.Statistics.Degrees playing = graph.stats().degrees(person, EDGE_PLAYING_OUT);
+                    assertEquals(6, playing.vertices());
+                    assertEquals(5, playing.vertices(0));
+                    assertEquals(1, playing.vertices(2));
+
+                    final DataGraph.Statistics.Degrees relating = graph.stats().degrees(friendship, EDGE_RELATING_OUT);
+                    assertEquals(5, relating.vertices());
+                    assertEquals(5, relating.vertices(1));
+                }
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().delete(Graql.parseQuery(
+                            "match $h isa person, has age $a; $a >= 108; delete $h has $a;"
+                    ).asDelete());
+                    transaction.query().delete(Graql.parseQuery(
+                            "match $p isa person, has age $a; $a = 9; delete $p has $a;"
+                    ).asDelete());
+                    transaction.query().delete(Graql.parseQuery(
+                            "match $h isa person, has age 100; $p isa person, has age 0; " +
+                                    "$r (friend: $h, friend: $p) isa friendship; delete $r isa friendship;"
+                    ).asDelete());
+                    transaction.commit();
+                }
+                awaitStatistics(grakn);
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final DataGraph graph = transaction.traversal().graph().data();
+                    final TypeVertex person = graph.schema().getType("person");
+                    final TypeVertex friendship = graph.schema().getType("friendship");
+                    final TypeVertex friend = graph.schema().getType("friend", "friendship");
+                    assertEquals(8, graph.stats().playingEdgeSum(set(person), set(friend)));
+                    assertEquals(8, graph.stats().relatingEdgeSum(set(friendship), set(friend)));
+
+                    // the hub now owns 8 ages, and the person who owned age 9 no longer owns any
+                    final DataGraph.Statistics.Degrees has = graph.stats().degrees(person, EDGE_HAS_OUT);
+                    assertEquals(10, has.vertices());
+                    assertEquals(9, has.vertices(0));
+                    assertEquals(1, has.vertices(3));
+                    assertEquals(0, has.vertices(4));
+                    assertEquals(15, has.max());
+
+                    final DataGraph.Statistics.Degrees playing = graph.stats().degrees(person, EDGE_PLAYING_OUT);
+                    assertEquals(5, playing.vertices());
+                    assertEquals(4, playing.vertices(0));
+                    assertEquals(1, playing.vertices(2));
+
+                    final DataGraph.Statistics.Degrees relating = graph.stats().degrees(friendship, EDGE_RELATING_OUT);
+                    assertEquals(4, relating.vertices());
+                    assertEquals(4, relating.vertices(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void value_histogram_estimates_fractions_below_and_beyond_its_extremes() throws IOException, InterruptedException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            define(grakn, "define age sub attribute, value long; weight sub attribute, value long;");
+            insertAges(grakn, 0, 1024);
+            awaitStatistics(grakn);
+            awaitValueHistogram(grakn, "age", 1024);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                final DataGraph graph = transaction.traversal().graph().data();
+                assertTrue(graph.stats().valueHistogram(graph.schema().getType("weight")).isEmpty());
+                assertEquals(0, graph.stats().valueHistogram(graph.schema().getType("weight")).distinctValues());
+
+                // 1024 ages in 32 buckets of 32, whose values are assumed to be spread evenly within each bucket
+                final TypeVertex age = graph.schema().getType("age");
+                final DataGraph.Statistics.ValueHistogram histogram = graph.stats().valueHistogram(age);
+                assertEquals(0, histogram.fractionBelow(new VertexIID.Attribute.Long(age.iid(), -1).bytes()), 0);
+                assertEquals(0, histogram.fractionBelow(new VertexIID.Attribute.Long(age.iid(), 0).bytes()), 0);
+                assertEquals(0.5 / 32, histogram.fractionBelow(new VertexIID.Attribute.Long(age.iid(), 1).bytes()), 1e-9);
+                assertEquals(15.5 / 32, histogram.fractionBelow(new VertexIID.Attribute.Long(age.iid(), 512).bytes()), 1e-9);
+                assertEquals(31.5 / 32, histogram.fractionBelow(new VertexIID.Attribute.Long(age.iid(), 1023).bytes()), 1e-9);
+                assertEquals(31.5 / 32, histogram.fractionBelow(new VertexIID.Attribute.Long(age.iid(), 2000).bytes()), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void value_histogram_is_rebuilt_once_the_count_drifts_beyond_the_threshold() throws IOException, InterruptedException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            define(grakn, "define age sub attribute, value long;");
+            insertAges(grakn, 0, 1024);
+            awaitStatistics(grakn);
+            awaitValueHistogram(grakn, "age", 1024);
+
+            // 102 more ages is within a drift of 10% of 1024, so the histogram is kept
+            insertAges(grakn, 1024, 1126);
+            awaitStatistics(grakn);
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                final DataGraph graph = transaction.traversal().graph().data();
+                assertEquals(1126, graph.stats().thingVertexCount(graph.schema().getType("age")));
+                assertFalse(graph.stats().refreshValueHistograms());
+                assertEquals(1024, graph.stats().valueHistogram(graph.schema().getType("age")).distinctValues());
+            }
+
+            // one more drifts beyond it, and the background counter rebuilds the histogram
+            insertAges(grakn, 1126, 1127);
+            awaitStatistics(grakn);
+            awaitValueHistogram(grakn, "age", 1127);
+        }
+    }
+
+    @Test
+    public void buffered_edges_are_put_once_and_can_be_deleted_while_they_are_iterated() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            define(grakn, "define age sub attribute, value long; person sub entity, owns age;");
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                final DataGraph graph = transaction.traversal().graph().data();
+                final TypeVertex age = graph.schema().getType("age");
+                final ThingVertex person = graph.create(graph.schema().getType("person"), false);
+                final List<AttributeVertex<Long>> ages = new ArrayList<>();
+                for (long value = 0; value < 100; value++) ages.add(graph.put(age, value, false));
+
+                // the edges outgrow their initial table, and putting an edge again keeps the one that was put first
+                for (AttributeVertex<Long> attribute : ages) person.outs().put(HAS, attribute, true);
+                for (AttributeVertex<Long> attribute : ages) person.outs().put(HAS, attribute, false);
+                assertEquals(100, person.outs().edge(HAS).get().count());
+                for (AttributeVertex<Long> attribute : ages) {
+                    final ThingEdge edge = person.outs().edge(HAS, attribute);
+                    assertNotNull(edge);
+                    assertFalse(edge.isInferred());
+                    assertEquals(edge, attribute.ins().edge(HAS, person));
+                }
+                assertEquals(new HashSet<>(ages), person.outs().edge(HAS).to().toSet());
+
+                person.outs().delete(HAS);
+                assertEquals(0, person.outs().edge(HAS).get().count());
+                for (AttributeVertex<Long> attribute : ages) {
+                    assertNull(person.outs().edge(HAS, attribute));
+                    assertEquals(0, attribute.ins().edge(HAS).get().count());
+                }
+            }
+        }
+    }
+}
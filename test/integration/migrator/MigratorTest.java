@@ -20,6 +20,7 @@ package grakn.core.server.migrator;
 
 import com.google.protobuf.Parser;
 import grakn.core.Grakn;
+import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
 import grakn.core.rocks.RocksGrakn;
 import grakn.core.server.migrator.proto.DataProto;
@@ -36,6 +37,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 
+import static grakn.core.common.exception.ErrorMessage.Database.BULK_LOAD_NOT_EXCLUSIVE;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -67,7 +69,30 @@ public class MigratorTest {
             grakn.databases().create(database);
             String schema = new String(Files.readAllBytes(schemaPath), UTF_8);
             runSchema(grakn, schema);
-            Importer importer = new Importer(grakn, database, dataPath, new HashMap<>());
+            Importer importer = new Importer(grakn, database, dataPath, new HashMap<>(), false);
+            importer.run();
+            Exporter exporter = new Exporter(grakn, database, exportDataPath);
+            exporter.run();
+            assertEquals(getChecksums(dataPath), getChecksums(exportDataPath));
+        }
+    }
+
+    @Test
+    public void test_bulk_load_import_export_data() throws IOException {
+        Util.resetDirectory(directory);
+        try (Grakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            String schema = new String(Files.readAllBytes(schemaPath), UTF_8);
+            runSchema(grakn, schema);
+            try (Grakn.Session ignored = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try {
+                    new Importer(grakn, database, dataPath, new HashMap<>(), true);
+                    fail();
+                } catch (GraknException e) {
+                    assertEquals(BULK_LOAD_NOT_EXCLUSIVE.code(), e.code().get());
+                }
+            }
+            Importer importer = new Importer(grakn, database, dataPath, new HashMap<>(), true);
             importer.run();
             Exporter exporter = new Exporter(grakn, database, exportDataPath);
             exporter.run();
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.common.collection.Pair;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.test.integration.util.Util;
+import org.junit.Test;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Snapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static grakn.common.collection.Collections.list;
+import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RocksAdjacencyCacheTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("adjacency-cache-test");
+    private static final String database = "adjacency-cache-test";
+    private static final int COMMITS = 10_000;
+    private static final int READERS = 4;
+    private static final long OLD = 0;
+    private static final long NEW = 1;
+
+    private static VertexIID.Thing vertex(long key) {
+        final byte[] type = join(VERTEX_ENTITY_TYPE.bytes(), new byte[]{0, 1});
+        return VertexIID.Thing.of(join(VERTEX_ENTITY.bytes(), type, longToBytes(key)));
+    }
+
+    private static byte[] prefix(VertexIID.Thing vertex) {
+        return join(vertex.bytes(), new byte[]{1});
+    }
+
+    private static byte[] edge(VertexIID.Thing vertex) {
+        return join(prefix(vertex), new byte[]{2});
+    }
+
+    @Test
+    public void adjacency_read_while_committing_is_not_cached() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksDatabase rocksDatabase = grakn.databases().create(database);
+            final OptimisticTransactionDB rocksDB = rocksDatabase.rocksData.rocksDB();
+            final RocksAdjacencyCache cache = rocksDatabase.adjacencyCache();
+            final VertexIID.Thing vertex = vertex(0);
+            rocksDB.put(edge(vertex), longToBytes(OLD));
+
+            final long before = rocksDB.getLatestSequenceNumber();
+            cache.committing(list(vertex));
+            // a reader that read the edges before the commit only caches them once the commit is in flight
+            cache.put(vertex, prefix(vertex), before, list(new Pair<>(edge(vertex), longToBytes(OLD))));
+            rocksDB.put(edge(vertex), longToBytes(NEW));
+            assertNull(cache.get(vertex, prefix(vertex), rocksDB.getLatestSequenceNumber()));
+            cache.committed(list(vertex));
+            assertNull(cache.get(vertex, prefix(vertex), rocksDB.getLatestSequenceNumber()));
+        }
+    }
+
+    @Test
+    public void readers_interleaved_with_committing_writer_never_read_stale_adjacency() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksDatabase rocksDatabase = grakn.databases().create(database);
+            final OptimisticTransactionDB rocksDB = rocksDatabase.rocksData.rocksDB();
+            final RocksAdjacencyCache cache = rocksDatabase.adjacencyCache();
+            final AtomicLong current = new AtomicLong(-1);
+            final AtomicBoolean isDone = new AtomicBoolean(false);
+            final AtomicInteger staleReads = new AtomicInteger(0);
+
+            // Every commit modifies a vertex that is not cached yet, which readers race to cache as it commits
+            final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                try {
+                    for (long i = 0; i < COMMITS; i++) {
+                        final VertexIID.Thing vertex = vertex(i);
+                        rocksDB.put(edge(vertex), longToBytes(OLD));
+                        current.set(i);
+                        cache.committing(list(vertex));
+                        try {
+                            rocksDB.put(edge(vertex), longToBytes(NEW));
+                        } finally {
+                            cache.committed(list(vertex));
+                        }
+                    }
+                } catch (RocksDBException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    isDone.set(true);
+                }
+            });
+
+            final List<CompletableFuture<Void>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(CompletableFuture.runAsync(() -> {
+                    while (!isDone.get()) {
+                        final long i = current.get();
+                        if (i < 0) continue;
+                        final VertexIID.Thing vertex = vertex(i);
+                        final Snapshot snapshot = rocksDB.getSnapshot();
+                        try (ReadOptions readOptions = new ReadOptions().setSnapshot(snapshot)) {
+                            final byte[] stored = rocksDB.get(readOptions, edge(vertex));
+                            final RocksAdjacencyCache.Adjacency cached =
+                                    cache.get(vertex, prefix(vertex), snapshot.getSequenceNumber());
+                            if (cached == null) {
+                                cache.put(vertex, prefix(vertex), snapshot.getSequenceNumber(),
+                                          list(new Pair<>(edge(vertex), stored)));
+                            } else if (bytesToLong(cached.edges().get(0).second()) != bytesToLong(stored)) {
+                                staleReads.incrementAndGet();
+                            }
+                        } catch (RocksDBException e) {
+                            throw new RuntimeException(e);
+                        } finally {
+                            rocksDB.releaseSnapshot(snapshot);
+                        }
+                    }
+                }));
+            }
+
+            writer.join();
+            readers.forEach(CompletableFuture::join);
+            assertEquals(0, staleReads.get());
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.common.collection.Pair;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.test.integration.util.Util;
+import org.junit.Test;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Status;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static grakn.common.collection.Collections.list;
+import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.compareBytes;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.prefixUpperBound;
+import static grakn.core.graph.util.Encoding.Edge.ISA;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_HAS_OUT;
+import static grakn.core.graph.util.Encoding.Prefix.STATISTICS_THINGS;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY;
+import static grakn.core.graph.util.Encoding.Prefix.VERTEX_ENTITY_TYPE;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RocksStorageTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rocks-storage-test");
+    private static final String database = "rocks-storage-test";
+    private static final byte[] EMPTY = new byte[]{};
+
+    private static byte[] prefix(int type) {
+        return join(VERTEX_ENTITY_TYPE.bytes(), new byte[]{0, (byte) type}, ISA.in().bytes());
+    }
+
+    /**
+     * Returns the prefix of the HAS edges of an entity, which is read through the adjacency cache.
+     */
+    private static byte[] adjacency(long vertex) {
+        return join(VERTEX_ENTITY.bytes(), new byte[]{0, 1}, longToBytes(vertex), EDGE_HAS_OUT.bytes());
+    }
+
+    private static long[] ids(long from, long to) {
+        final long[] ids = new long[(int) (to - from)];
+        for (long id = from; id < to; id++) ids[(int) (id - from)] = id;
+        return ids;
+    }
+
+    private static byte[] key(byte[] prefix, long id) {
+        return join(prefix, longToBytes(id));
+    }
+
+    private static void store(RocksPartitionedDB rocksDB, byte[] key, byte[] value) throws RocksDBException {
+        rocksDB.rocksDB().put(rocksDB.columnFamily(key), key, value);
+    }
+
+    private static List<ByteBuffer> keys(RocksStorage storage, byte[] prefix) {
+        return storage.iterate(prefix, (key, value) -> ByteBuffer.wrap(key)).toList();
+    }
+
+    private static List<ByteBuffer> keys(RocksStorage storage, byte[] lowerBound, byte[] upperBound) {
+        return storage.iterate(lowerBound, upperBound, key -> key.remaining(), (key, value) -> ByteBuffer.wrap(key)).toList();
+    }
+
+    private static List<ByteBuffer> keys(byte[] prefix, long... ids) {
+        final List<ByteBuffer> keys = new ArrayList<>();
+        for (long id : ids) keys.add(ByteBuffer.wrap(key(prefix, id)));
+        return keys;
+    }
+
+    private static List<Pair<ByteBuffer, Long>> entries(RocksStorage storage, byte[] prefix) {
+        return storage.iterate(prefix, (key, value) -> new Pair<>(ByteBuffer.wrap(key), bytesToLong(value))).toList();
+    }
+
+    private static Pair<ByteBuffer, Long> entry(byte[] prefix, long id, long value) {
+        return new Pair<>(ByteBuffer.wrap(key(prefix, id)), value);
+    }
+
+    private static RocksStorage.Data storage(RocksTransaction transaction) {
+        return transaction.asData().dataStorage;
+    }
+
+    @Test
+    public void split_bounds_are_ordered_contiguous_and_cover_the_prefix() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksPartitionedDB rocksData = grakn.databases().create(database).rocksData;
+            final int[] counts = {0, 1, 100};
+            for (int type = 0; type < counts.length; type++) {
+                for (long id = 0; id < counts[type]; id++) store(rocksData, key(prefix(type), id), EMPTY);
+            }
+
+            final RocksStorage storage = new RocksStorage(rocksData, true);
+            try {
+                for (int type = 0; type < counts.length; type++) {
+                    final byte[] prefix = prefix(type);
+                    for (int partitions : new int[]{1, 2, 8, 1_000}) {
+                        final List<byte[]> bounds = storage.split(prefix, partitions);
+                        assertTrue(bounds.size() >= 2 && bounds.size() <= partitions + 1);
+                        assertArrayEquals(prefix, bounds.get(0));
+                        assertArrayEquals(prefixUpperBound(prefix), bounds.get(bounds.size() - 1));
+
+                        final List<ByteBuffer> partitioned = new ArrayList<>();
+                        for (int i = 0; i < bounds.size() - 1; i++) {
+                            assertTrue(compareBytes(bounds.get(i), bounds.get(i + 1)) < 0);
+                            partitioned.addAll(keys(storage, bounds.get(i), bounds.get(i + 1)));
+                        }
+                        assertEquals(counts[type], partitioned.size());
+                        assertEquals(keys(storage, prefix), partitioned);
+                    }
+                }
+            } finally {
+                storage.close();
+            }
+        }
+    }
+
+    @Test
+    public void buffered_delete_hides_stored_key() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksPartitionedDB rocksData = grakn.databases().create(database).rocksData;
+            final byte[] prefix = prefix(0);
+            for (long id = 0; id < 3; id++) store(rocksData, key(prefix, id), EMPTY);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                final RocksStorage storage = storage(transaction);
+                storage.delete(key(prefix, 1));
+                assertNull(storage.get(key(prefix, 1)));
+                assertEquals(keys(prefix, 0, 2), keys(storage, prefix));
+                assertEquals(keys(prefix, 0, 2), keys(storage, key(prefix, 0), key(prefix, 3)));
+                assertEquals(keys(prefix, 2), keys(storage, key(prefix, 1), key(prefix, 3)));
+            }
+        }
+    }
+
+    @Test
+    public void buffered_put_shadows_stored_key_in_order() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksPartitionedDB rocksData = grakn.databases().create(database).rocksData;
+            final byte[] prefix = prefix(0);
+            store(rocksData, key(prefix, 1), longToBytes(1));
+            store(rocksData, key(prefix, 3), longToBytes(3));
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                final RocksStorage storage = storage(transaction);
+                storage.put(key(prefix, 1), longToBytes(10));
+                storage.put(key(prefix, 2), longToBytes(20));
+                storage.put(key(prefix, 4), longToBytes(40));
+                assertEquals(10, bytesToLong(storage.get(key(prefix, 1))));
+                assertEquals(list(entry(prefix, 1, 10), entry(prefix, 2, 20), entry(prefix, 3, 3), entry(prefix, 4, 40)),
+                             entries(storage, prefix));
+                assertEquals(keys(prefix, 1, 2, 3), keys(storage, key(prefix, 1), key(prefix, 4)));
+            }
+        }
+    }
+
+    @Test
+    public void chained_merges_and_delete_then_put_fold_into_one_write() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksPartitionedDB rocksData = grakn.databases().create(database).rocksData;
+            final byte[] prefix = STATISTICS_THINGS.bytes();
+            store(rocksData, key(prefix, 0), longToBytes(5));
+            store(rocksData, key(prefix, 2), longToBytes(7));
+            store(rocksData, key(prefix, 3), longToBytes(9));
+            final List<Pair<ByteBuffer, Long>> expected = list(
+                    entry(prefix, 0, 10), entry(prefix, 1, 5), entry(prefix, 2, 5), entry(prefix, 4, 3)
+            );
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final RocksStorage.Data storage = storage(transaction);
+                    // merges onto a stored key, and onto a key that is not stored
+                    storage.mergeUntracked(key(prefix, 0), longToBytes(2));
+                    storage.mergeUntracked(key(prefix, 0), longToBytes(3));
+                    storage.mergeUntracked(key(prefix, 1), longToBytes(2));
+                    storage.mergeUntracked(key(prefix, 1), longToBytes(3));
+                    // a put after a delete replaces the stored value, and a merge after the put adds to it
+                    storage.delete(key(prefix, 2));
+                    storage.put(key(prefix, 2), longToBytes(1));
+                    storage.mergeUntracked(key(prefix, 2), longToBytes(4));
+                    // a delete after a put hides the stored value
+                    storage.put(key(prefix, 3), longToBytes(1));
+                    storage.delete(key(prefix, 3));
+                    // a merge after a delete of a key that is not stored
+                    storage.delete(key(prefix, 4));
+                    storage.mergeUntracked(key(prefix, 4), longToBytes(3));
+
+                    assertEquals(10, bytesToLong(storage.get(key(prefix, 0))));
+                    assertEquals(5, bytesToLong(storage.get(key(prefix, 1))));
+                    assertEquals(5, bytesToLong(storage.get(key(prefix, 2))));
+                    assertNull(storage.get(key(prefix, 3)));
+                    assertEquals(3, bytesToLong(storage.get(key(prefix, 4))));
+                    assertEquals(expected, entries(storage, prefix));
+                    storage.commit();
+                }
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(expected, entries(storage(transaction), prefix));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ranged_iteration_returns_sorted_union_of_buffered_and_stored_keys() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksPartitionedDB rocksData = grakn.databases().create(database).rocksData;
+            final byte[] prefix = prefix(0);
+            for (long id = 0; id < 20; id += 2) store(rocksData, key(prefix, id), EMPTY);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                final RocksStorage storage = storage(transaction);
+                for (long id = 1; id < 20; id += 2) storage.put(key(prefix, id));
+                storage.delete(key(prefix, 8));
+                storage.delete(key(prefix, 9));
+                storage.put(key(prefix, 10));
+
+                assertEquals(keys(prefix, 3, 4, 5, 6, 7, 10, 11, 12, 13, 14),
+                             keys(storage, key(prefix, 3), key(prefix, 15)));
+                final List<ByteBuffer> all = keys(storage, prefix);
+                assertEquals(18, all.size());
+                assertEquals(all.stream().sorted().collect(toList()), all);
+                assertEquals(all, keys(storage, prefix, prefixUpperBound(prefix)));
+            }
+        }
+    }
+
+    @Test
+    public void concurrent_commits_of_tracked_keys_conflict() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            final byte[] prefix = prefix(0);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction first = session.transaction(Arguments.Transaction.Type.WRITE);
+                     RocksTransaction second = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    storage(first).putUntracked(key(prefix, 0));
+                    storage(second).putUntracked(key(prefix, 0));
+                    storage(first).commit();
+                    storage(second).commit();
+                }
+
+                try (RocksTransaction first = session.transaction(Arguments.Transaction.Type.WRITE);
+                     RocksTransaction second = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    storage(first).put(key(prefix, 1));
+                    storage(second).put(key(prefix, 1));
+                    storage(first).commit();
+                    try {
+                        storage(second).commit();
+                        fail();
+                    } catch (RocksDBException e) {
+                        assertEquals(Status.Code.Busy, e.getStatus().getCode());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void adjacency_with_buffered_writes_bypasses_the_cache() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksDatabase rocksDatabase = grakn.databases().create(database);
+            final RocksAdjacencyCache cache = rocksDatabase.adjacencyCache();
+            final byte[] prefix = adjacency(0);
+            for (long id = 0; id < 3; id++) store(rocksDatabase.rocksData, key(prefix, id), EMPTY);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                final long hits = cache.hits();
+                final long misses = cache.misses();
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    final RocksStorage storage = storage(transaction);
+                    assertEquals(keys(prefix, 0, 1, 2), keys(storage, prefix));
+                    assertEquals(misses + 1, cache.misses());
+
+                    storage.delete(key(prefix, 0));
+                    storage.put(key(prefix, 5));
+                    assertEquals(keys(prefix, 1, 2, 5), keys(storage, prefix));
+                    assertEquals(keys(prefix, 1, 2, 5), keys(storage, prefix));
+                    assertEquals(hits, cache.hits());
+                    assertEquals(misses + 1, cache.misses());
+                }
+
+                // the writes of the transaction that was closed were never cached
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(keys(prefix, 0, 1, 2), keys(storage(transaction), prefix));
+                    assertEquals(hits + 1, cache.hits());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void overflowed_adjacency_returns_every_edge_once_in_order() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksDatabase rocksDatabase = grakn.databases().create(database);
+            final int[] counts = {RocksAdjacencyCache.MAX_EDGES, RocksAdjacencyCache.MAX_EDGES + 1, 100};
+            for (int vertex = 0; vertex < counts.length; vertex++) {
+                for (long id = 0; id < counts[vertex]; id++) store(rocksDatabase.rocksData, key(adjacency(vertex), id), EMPTY);
+            }
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                final long hits = rocksDatabase.adjacencyCache().hits();
+                final long misses = rocksDatabase.adjacencyCache().misses();
+                // the first read links the eagerly read edges with the rest, and the second reads the cached adjacency
+                for (int read = 0; read < 2; read++) {
+                    try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                        for (int vertex = 0; vertex < counts.length; vertex++) {
+                            assertEquals(keys(adjacency(vertex), ids(0, counts[vertex])),
+                                         keys(storage(transaction), adjacency(vertex)));
+                        }
+                    }
+                }
+                assertEquals(misses + counts.length, rocksDatabase.adjacencyCache().misses());
+                assertEquals(hits + counts.length, rocksDatabase.adjacencyCache().hits());
+            }
+        }
+    }
+
+    @Test
+    public void adjacency_committed_by_a_transaction_is_read_by_the_next() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            final RocksDatabase rocksDatabase = grakn.databases().create(database);
+            final byte[] prefix = adjacency(0);
+            for (long id = 0; id < 2; id++) store(rocksDatabase.rocksData, key(prefix, id), EMPTY);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(keys(prefix, 0, 1), keys(storage(transaction), prefix));
+                }
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    storage(transaction).delete(key(prefix, 0));
+                    storage(transaction).put(key(prefix, 2));
+                    storage(transaction).commit();
+                }
+
+                try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(keys(prefix, 1, 2), keys(storage(transaction), prefix));
+                    assertEquals(keys(prefix, 1, 2), keys(storage(transaction), prefix));
+                }
+            }
+        }
+    }
+}
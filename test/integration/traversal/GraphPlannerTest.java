@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.planner;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Label;
+import grakn.core.graph.GraphManager;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.TraversalCache;
+import grakn.core.traversal.TraversalEngine;
+import grakn.core.traversal.common.Identifier;
+import graql.lang.Graql;
+import graql.lang.common.GraqlToken;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static grakn.common.collection.Collections.set;
+import static grakn.core.common.iterator.Iterators.iterate;
+import static org.junit.Assert.assertEquals;
+
+public class GraphPlannerTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("graph-planner-test");
+    private static final String database = "graph-planner-test";
+    private static final long STATISTICS_TIMEOUT_MILLIS = 10_000;
+
+    private static void define(RocksGrakn grakn, String schema) {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                transaction.query().define(Graql.parseQuery(schema).asDefine());
+                transaction.commit();
+            }
+        }
+    }
+
+    private static void insert(RocksGrakn grakn, String... queries) {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (String query : queries) transaction.query().insert(Graql.parseQuery(query).asInsert());
+                transaction.commit();
+            }
+        }
+    }
+
+    /**
+     * Defines persons who own ages and are friends, and inserts a hub person who owns 20 ages and is friends with
+     * 5 of the 10 other persons, each of whom owns one age.
+     */
+    private static void insertSkewedFriendships(RocksGrakn grakn) {
+        define(grakn, "define age sub attribute, value long; friendship sub relation, relates friend; " +
+                "person sub entity, owns age, plays friendship:friend;");
+        final StringBuilder hub = new StringBuilder("insert $h isa person");
+        for (int age = 100; age < 120; age++) hub.append(", has age ").append(age);
+        final String[] queries = new String[16];
+        queries[0] = hub.append(";").toString();
+        for (int age = 0; age < 10; age++) queries[1 + age] = "insert $p isa person, has age " + age + ";";
+        for (int age = 0; age < 5; age++) {
+            queries[11 + age] = "match $h isa person, has age 100; $p isa person, has age " + age + "; " +
+                    "insert (friend: $h, friend: $p) isa friendship;";
+        }
+        insert(grakn, queries);
+    }
+
+    private static void awaitStatistics(RocksGrakn grakn) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + STATISTICS_TIMEOUT_MILLIS;
+        while (grakn.databases().get(database).statisticsBacklog() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, grakn.databases().get(database).statisticsBacklog());
+    }
+
+    private static Traversal personsWithAges() {
+        final Traversal traversal = new Traversal();
+        final Identifier.Variable person = Identifier.Variable.name("p");
+        final Identifier.Variable age = Identifier.Variable.name("a");
+        traversal.types(person, set(Label.of("person")));
+        traversal.types(age, set(Label.of("age")));
+        traversal.has(person, age);
+        return traversal;
+    }
+
+    private static Traversal personsWithAgesBelow(long value) {
+        final Traversal traversal = personsWithAges();
+        traversal.predicate(Identifier.Variable.name("a"), GraqlToken.Predicate.Equality.LT, value);
+        return traversal;
+    }
+
+    @Test
+    public void branching_factor_is_the_number_of_role_and_has_edges_per_thing() throws IOException, InterruptedException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            insertSkewedFriendships(grakn);
+            awaitStatistics(grakn);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                final GraphManager graphMgr = transaction.traversal().graph();
+                final TraversalCache cache = new TraversalCache();
+                assertEquals(30, new TraversalEngine(graphMgr, cache).iterator(personsWithAges()).toList().size());
+                assertEquals(1, cache.asMap().size());
+                final GraphPlanner planner = cache.asMap().values().iterator().next().asGraph();
+
+                // 5 friendships of 2 friends each, and the 20 ages of the hub and 10 of the other persons
+                final long roles = graphMgr.data().stats().thingVertexTransitiveCount(graphMgr.schema().rootRoleType());
+                final long hasEdges = graphMgr.data().stats().hasEdgeCount(
+                        graphMgr.schema().rootThingType(), graphMgr.schema().rootAttributeType()
+                );
+                final long things = graphMgr.data().stats().thingVertexTransitiveCount(graphMgr.schema().rootThingType());
+                assertEquals(10, roles);
+                assertEquals(30, hasEdges);
+                assertEquals((double) (roles + hasEdges) / things, planner.branchingFactor, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void traversals_share_a_planner_only_if_their_selectivities_round_to_the_same_power_of_two()
+            throws IOException, InterruptedException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            insertSkewedFriendships(grakn);
+            awaitStatistics(grakn);
+
+            final long deadline = System.currentTimeMillis() + STATISTICS_TIMEOUT_MILLIS;
+            boolean isEmpty;
+            do {
+                try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                     RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    final GraphManager graphMgr = transaction.traversal().graph();
+                    isEmpty = graphMgr.data().stats().valueHistogram(graphMgr.schema().getType("age")).isEmpty();
+                }
+                if (isEmpty) Thread.sleep(10);
+            } while (isEmpty && System.currentTimeMillis() < deadline);
+
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA);
+                 RocksTransaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                final GraphManager graphMgr = transaction.traversal().graph();
+                final TraversalCache cache = new TraversalCache();
+                final TraversalEngine engine = new TraversalEngine(graphMgr, cache);
+
+                // of the 30 ages, 3.5 and 4.5 are estimated below 4 and 5, which both round to 2^-3 of them
+                assertEquals(4, engine.iterator(personsWithAgesBelow(4)).toList().size());
+                assertEquals(5, engine.iterator(personsWithAgesBelow(5)).toList().size());
+                assertEquals(1, cache.asMap().size());
+
+                // and 5.5 are estimated below 6, which rounds to 2^-2 of them
+                assertEquals(6, engine.iterator(personsWithAgesBelow(6)).toList().size());
+                assertEquals(2, cache.asMap().size());
+                assertEquals(set(0.125, 0.25), iterate(cache.asMap().keySet()).flatMap(
+                        key -> iterate(key.second().values())
+                ).toSet());
+            }
+        }
+    }
+}
@@ -40,6 +40,12 @@ public class Util {
         System.out.println("Database directory created: " + directory.toString());
     }
 
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
     public static void assertNotNulls(Object... objects) {
         for (Object object : objects) {
             assertNotNull(object);
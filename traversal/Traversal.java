@@ -24,20 +24,26 @@ import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
 import grakn.core.common.producer.Producer;
 import grakn.core.common.producer.Producers;
+import grakn.core.graph.DataGraph;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
+import grakn.core.graph.vertex.TypeVertex;
 import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.graph.TraversalVertex;
 import grakn.core.traversal.planner.Planner;
 import grakn.core.traversal.predicate.Predicate;
 import grakn.core.traversal.predicate.PredicateArgument;
+import grakn.core.traversal.predicate.PredicateOperator;
 import grakn.core.traversal.structure.Structure;
+import grakn.core.traversal.structure.StructureVertex;
 import graql.lang.common.GraqlArg;
 import graql.lang.common.GraqlToken;
 import graql.lang.pattern.variable.Reference;
 
+import javax.annotation.Nullable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -48,9 +54,11 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.pair;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.iterator.Iterators.cartesian;
+import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.producer.Producers.iterable;
 import static grakn.core.graph.util.Encoding.Edge.ISA;
 import static grakn.core.graph.util.Encoding.Edge.Thing.HAS;
@@ -66,11 +74,21 @@ import static grakn.core.graph.util.Encoding.ValueType.DATETIME;
 import static grakn.core.graph.util.Encoding.ValueType.DOUBLE;
 import static grakn.core.graph.util.Encoding.ValueType.LONG;
 import static grakn.core.graph.util.Encoding.ValueType.STRING;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LTE;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.NEQ;
 import static graql.lang.common.GraqlToken.Predicate.SubString.LIKE;
 import static java.util.stream.Collectors.toList;
 
 public class Traversal {
 
+    // The fraction of attributes assumed to match a substring predicate, which histograms cannot estimate
+    private static final double SUBSTRING_SELECTIVITY = 0.1;
+    private static final int MIN_SELECTIVITY_EXPONENT = -20;
+
     private final Parameters parameters;
     private final Structure structure;
     private final List<Identifier.Variable.Name> filter;
@@ -82,8 +100,106 @@ public class Traversal {
         filter = new ArrayList<>();
     }
 
-    void initialisePlanner(TraversalCache cache) {
-        planners = structure.asGraphs().stream().map(s -> cache.get(s, Planner::create)).collect(toList());
+    void initialisePlanner(GraphManager graphMgr, TraversalCache cache) {
+        planners = structure.asGraphs().stream().map(s -> cache.get(s, selectivities(graphMgr, s))).collect(toList());
+    }
+
+    void initialiseSortedPlanner(TraversalCache cache, Identifier.Variable sortedStart) {
+        assert isSortable(sortedStart);
+        planners = list(cache.getSorted(structure.asGraphs().get(0), sortedStart));
+    }
+
+    /**
+     * Estimates, for every thing vertex of the given structure that has range or substring predicates,
+     * the fraction of its instances that satisfy the predicates with the values of this traversal. The
+     * fractions are rounded to powers of two, so that the traversals whose values select roughly as
+     * many instances share the same planner.
+     */
+    private Map<Identifier, Double> selectivities(GraphManager graphMgr, Structure structure) {
+        final Map<Identifier, Double> selectivities = new HashMap<>();
+        for (StructureVertex<?> vertex : structure.vertices()) {
+            if (!vertex.isThing() || !vertex.id().isVariable()) continue;
+            final TraversalVertex.Properties.Thing props = vertex.asThing().props();
+            if (props.hasIID() || props.predicates().isEmpty()
+                    || iterate(props.predicates()).anyMatch(p -> p.operator().equals(EQ))) continue;
+
+            double selectivity = 1;
+            for (Predicate.Value<?> predicate : props.predicates()) {
+                final List<TypeVertex> attTypes = props.types().isEmpty()
+                        ? iterate(predicate.valueType().comparables()).flatMap(vt -> graphMgr.schema().attributeTypes(vt)).toList()
+                        : iterate(props.types()).map(l -> graphMgr.schema().getType(l)).filter(TypeVertex::isAttributeType).toList();
+                final Set<Parameters.Value> values = parameters.getValues(vertex.id().asVariable(), predicate);
+                if (values == null) continue;
+                for (Parameters.Value value : values) {
+                    selectivity = Math.min(selectivity, selectivity(graphMgr, attTypes, predicate, value));
+                }
+            }
+            if (selectivity < 1) {
+                final double exponent = Math.max(MIN_SELECTIVITY_EXPONENT, Math.round(Math.log(selectivity) / Math.log(2)));
+                selectivities.put(vertex.id(), Math.min(1, Math.pow(2, exponent)));
+            }
+        }
+        return selectivities;
+    }
+
+    private static double selectivity(GraphManager graphMgr, List<TypeVertex> attTypes,
+                                      Predicate.Value<?> predicate, Parameters.Value value) {
+        long count = 0;
+        double selected = 0;
+        for (TypeVertex attType : attTypes) {
+            final long typeCount = graphMgr.data().stats().thingVertexCount(attType);
+            count += typeCount;
+            selected += typeCount * selectivity(graphMgr, attType, predicate, value);
+        }
+        return count == 0 ? 1 : selected / count;
+    }
+
+    private static double selectivity(GraphManager graphMgr, TypeVertex attType,
+                                      Predicate.Value<?> predicate, Parameters.Value value) {
+        final PredicateOperator operator = predicate.operator();
+        final boolean isBelow = operator.equals(LT) || operator.equals(LTE);
+        if (operator.equals(NEQ)) return 1;
+        else if (!isBelow && !operator.equals(GT) && !operator.equals(GTE)) return SUBSTRING_SELECTIVITY;
+
+        final DataGraph.Statistics.ValueHistogram histogram = graphMgr.data().stats().valueHistogram(attType);
+        final VertexIID.Attribute<?> bound = histogram.isEmpty() ? null : valueBound(attType, value);
+        if (bound == null) return 1;
+        final double below = histogram.fractionBelow(bound.bytes());
+        return isBelow ? below : 1 - below;
+    }
+
+    @Nullable
+    private static VertexIID.Attribute<?> valueBound(TypeVertex attType, Parameters.Value value) {
+        if (attType.valueType() == LONG && (value.isLong() || value.isDouble())) {
+            return new VertexIID.Attribute.Long(attType.iid(), value.isLong() ? value.getLong() : Math.round(value.getDouble()));
+        } else if (attType.valueType() == DOUBLE && (value.isLong() || value.isDouble())) {
+            return new VertexIID.Attribute.Double(attType.iid(), value.getDouble());
+        } else if (attType.valueType() == DATETIME && value.isDateTime()) {
+            return new VertexIID.Attribute.DateTime(attType.iid(), value.getDateTime());
+        } else if (attType.valueType() == STRING && value.isString()) {
+            return VertexIID.Attribute.String.sortedBound(attType.iid(), value.getString());
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if this traversal can start from the given thing variable and
+     * produce its answers in the order of the values of that variable, which
+     * requires the traversal to be a single connected graph.
+     */
+    public boolean isSortable(Identifier.Variable thing) {
+        final List<Structure> graphs = structure.asGraphs();
+        return graphs.size() == 1 && iterate(graphs.get(0).vertices()).anyMatch(v -> v.isThing() && v.id().equals(thing));
+    }
+
+    /**
+     * Returns true if this traversal may depend on the definitions of the given types.
+     *
+     * @see Structure#dependsOn(Set, boolean)
+     */
+    public boolean dependsOn(Set<Label> modifiedTypes, boolean hasCreatedTypes) {
+        return structure.dependsOn(modifiedTypes, hasCreatedTypes);
     }
 
     ResourceIterator<VertexMap> iterator(GraphManager graphMgr) {
@@ -18,17 +18,64 @@
 
 package grakn.core.traversal;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.cache.CommonCache;
+import grakn.core.common.parameters.Label;
+import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.planner.Planner;
 import grakn.core.traversal.structure.Structure;
 
-public class TraversalCache extends CommonCache<Structure, Planner> {
+import java.util.Map;
+import java.util.Set;
+
+import static grakn.common.collection.Collections.pair;
+
+public class TraversalCache extends CommonCache<Pair<Structure, Map<Identifier, Double>>, Planner> {
+
+    private final CommonCache<Pair<Structure, Identifier.Variable>, Planner> sortedPlanners;
 
     public TraversalCache() {
         super();
+        sortedPlanners = new CommonCache<>();
     }
 
     public TraversalCache(int size, int timeOutMinutes) {
         super(size, timeOutMinutes);
+        sortedPlanners = new CommonCache<>(size, timeOutMinutes);
+    }
+
+    /**
+     * Returns the planner of the given structure for traversals whose predicates select the given
+     * fractions of the instances of their vertices.
+     *
+     * @see Planner#create(Structure, Identifier.Variable, Map)
+     */
+    public Planner get(Structure structure, Map<Identifier, Double> selectivities) {
+        return get(pair(structure, selectivities), key -> Planner.create(key.first(), null, key.second()));
+    }
+
+    public Planner getSorted(Structure structure, Identifier.Variable sortedStart) {
+        return sortedPlanners.get(pair(structure, sortedStart), key -> Planner.create(key.first(), key.second()));
+    }
+
+    /**
+     * Copies into this cache the planners of the previous cache whose structures do not depend on
+     * any of the types changed by a schema commit, so that they survive the commit.
+     *
+     * @see Structure#dependsOn(Set, boolean)
+     */
+    public void carryOver(TraversalCache previous, Set<Label> modifiedTypes, boolean hasCreatedTypes) {
+        previous.forEach((key, planner) -> {
+            if (!key.first().dependsOn(modifiedTypes, hasCreatedTypes)) put(key, planner);
+        });
+        previous.sortedPlanners.forEach((key, planner) -> {
+            if (!key.first().dependsOn(modifiedTypes, hasCreatedTypes)) sortedPlanners.put(key, planner);
+        });
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        sortedPlanners.clear();
     }
 }
@@ -21,6 +21,7 @@ package grakn.core.traversal;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.producer.Producer;
 import grakn.core.graph.GraphManager;
+import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.procedure.GraphProcedure;
 
@@ -39,12 +40,17 @@ public class TraversalEngine {
     }
 
     public Producer<VertexMap> producer(Traversal traversal, int parallelisation) {
-        traversal.initialisePlanner(cache);
+        traversal.initialisePlanner(graphMgr, cache);
         return traversal.producer(graphMgr, parallelisation);
     }
 
     public ResourceIterator<VertexMap> iterator(Traversal traversal) {
-        traversal.initialisePlanner(cache);
+        traversal.initialisePlanner(graphMgr, cache);
+        return traversal.iterator(graphMgr);
+    }
+
+    public ResourceIterator<VertexMap> sortedIterator(Traversal traversal, Identifier.Variable sortedStart) {
+        traversal.initialiseSortedPlanner(cache, sortedStart);
         return traversal.iterator(graphMgr);
     }
 
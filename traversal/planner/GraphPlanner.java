@@ -34,6 +34,7 @@ import grakn.core.traversal.structure.StructureVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -79,6 +80,7 @@ public class GraphPlanner implements Planner {
     private final Set<PlannerEdge<?, ?>> edges;
     private final AtomicBoolean isOptimising;
     private final ManagedCountDownLatch procedureLatch;
+    private final Identifier.Variable sortedStart;
 
     protected volatile GraphProcedure procedure;
     private volatile MPSolver.ResultStatus resultStatus;
@@ -91,7 +93,8 @@ public class GraphPlanner implements Planner {
     double branchingFactor;
     double costExponentUnit;
 
-    private GraphPlanner() {
+    private GraphPlanner(@Nullable Identifier.Variable sortedStart) {
+        this.sortedStart = sortedStart;
         solver = MPSolver.createSolver("SCIP");
         solver.objective().setMinimization();
         parameters = new MPSolverParameters();
@@ -111,12 +114,14 @@ public class GraphPlanner implements Planner {
         snapshot = -1L;
     }
 
-    static GraphPlanner create(Structure structure) {
+    static GraphPlanner create(Structure structure, @Nullable Identifier.Variable sortedStart,
+                               Map<Identifier, Double> selectivities) {
         assert structure.vertices().size() > 1;
-        GraphPlanner planner = new GraphPlanner();
+        GraphPlanner planner = new GraphPlanner(sortedStart);
         Set<StructureVertex<?>> registeredVertices = new HashSet<>();
         Set<StructureEdge<?, ?>> registeredEdges = new HashSet<>();
         structure.vertices().forEach(vertex -> planner.registerVertex(vertex, registeredVertices, registeredEdges));
+        selectivities.forEach((id, selectivity) -> planner.vertices.get(id).asThing().selectivity(selectivity));
         assert planner.vertices().size() > 1 && !planner.edges().isEmpty();
         planner.initialise();
         return planner;
@@ -136,6 +141,11 @@ public class GraphPlanner implements Planner {
         return procedure;
     }
 
+    @Override
+    public boolean isSorted() {
+        return sortedStart != null;
+    }
+
     @Override
     public boolean isGraph() { return true; }
 
@@ -247,6 +257,10 @@ public class GraphPlanner implements Planner {
         for (PlannerVertex<?> vertex : vertices.values()) {
             conOneStartingVertex.setCoefficient(vertex.varIsStartingVertex, 1);
         }
+        if (sortedStart != null) {
+            assert vertices.containsKey(sortedStart);
+            vertices.get(sortedStart).varIsStartingVertex.setBounds(1, 1);
+        }
     }
 
     private void initialiseConstraintsForEdges() {
@@ -297,11 +311,12 @@ public class GraphPlanner implements Planner {
     }
 
     private void setBranchingFactor(GraphManager graph) {
-        // TODO: We can refine the branching factor by not strictly considering entities being the only divisor
-        double entities = graph.data().stats().thingVertexTransitiveCount(graph.schema().rootEntityType());
+        double things = graph.data().stats().thingVertexTransitiveCount(graph.schema().rootThingType());
         double roles = graph.data().stats().thingVertexTransitiveCount(graph.schema().rootRoleType());
-        if (roles == 0) roles += 1;
-        if (entities > 0) branchingFactor = roles / entities;
+        double hasEdges = graph.data().stats().hasEdgeCount(graph.schema().rootThingType(), graph.schema().rootAttributeType());
+        double edges = roles + hasEdges;
+        if (edges == 0) edges += 1;
+        if (things > 0) branchingFactor = edges / things;
         assert !Double.isNaN(branchingFactor);
     }
 
@@ -20,11 +20,16 @@ package grakn.core.traversal.planner;
 
 import grakn.core.common.exception.GraknException;
 import grakn.core.graph.GraphManager;
+import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.procedure.Procedure;
 import grakn.core.traversal.structure.Structure;
 
+import javax.annotation.Nullable;
+import java.util.Map;
+
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
+import static java.util.Collections.emptyMap;
 
 public interface Planner {
 
@@ -34,9 +39,29 @@ public interface Planner {
         if (isGraph()) this.asGraph().optimise(graphMgr);
     }
 
+    /**
+     * Returns true if the procedure of this planner starts from the vertex that the traversal
+     * is sorted by, and iterates its instances in the order of their values.
+     */
+    boolean isSorted();
+
     static Planner create(Structure structure) {
-        if (structure.vertices().size() == 1) return VertexPlanner.create(structure);
-        else return GraphPlanner.create(structure);
+        return create(structure, null, emptyMap());
+    }
+
+    static Planner create(Structure structure, @Nullable Identifier.Variable sortedStart) {
+        return create(structure, sortedStart, emptyMap());
+    }
+
+    /**
+     * Creates a planner that costs the thing vertices of the given structure as if only the given fraction of
+     * their instances satisfied their predicates. The fractions are estimated from the values of a traversal,
+     * so a planner should only be shared by traversals whose fractions are the same.
+     */
+    static Planner create(Structure structure, @Nullable Identifier.Variable sortedStart,
+                          Map<Identifier, Double> selectivities) {
+        if (structure.vertices().size() == 1) return VertexPlanner.create(structure, sortedStart);
+        else return GraphPlanner.create(structure, sortedStart, selectivities);
     }
 
     default boolean isVertex() { return false; }
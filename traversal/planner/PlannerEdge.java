@@ -58,6 +58,10 @@ import static grakn.core.graph.util.Encoding.Edge.Type.OWNS_KEY;
 import static grakn.core.graph.util.Encoding.Edge.Type.PLAYS;
 import static grakn.core.graph.util.Encoding.Edge.Type.RELATES;
 import static grakn.core.graph.util.Encoding.Edge.Type.SUB;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_HAS_IN;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_HAS_OUT;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_PLAYING_OUT;
+import static grakn.core.graph.util.Encoding.Infix.EDGE_RELATING_OUT;
 import static java.util.stream.Collectors.toSet;
 
 public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_TO extends PlannerVertex<?>>
@@ -971,6 +975,23 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                 public Thing.RolePlayer.Directional asRolePlayer() {
                     throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Thing.RolePlayer.Directional.class));
                 }
+
+                Set<TypeVertex> types(GraphManager graphMgr, Set<Label> labels) {
+                    return labels.stream().map(l -> graphMgr.schema().getType(l)).collect(toSet());
+                }
+
+                /**
+                 * Returns the factor by which the cost of this edge from an average instance of the given
+                 * types should be raised, because this edge starts from a single, known instance, which
+                 * could be one of the few instances with far more edges than the rest: a supernode.
+                 */
+                double skew(GraphManager graphMgr, Set<TypeVertex> fromTypes, Encoding.Infix edge) {
+                    boolean isSingleInstance = from.props().hasIID() || iterate(from.props().predicates()).anyMatch(
+                            predicate -> predicate.operator().equals(PredicateOperator.Equality.EQ)
+                    );
+                    if (isSingleInstance) return graphMgr.data().stats().degreeSkew(fromTypes, edge);
+                    else return 1;
+                }
             }
 
             static class Has extends Thing {
@@ -1049,6 +1070,7 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                         }
                         assert !ownerToAttributeTypes.isEmpty();
                         cost /= ownerToAttributeTypes.size();
+                        cost *= skew(graphMgr, ownerToAttributeTypes.keySet(), EDGE_HAS_OUT);
                         assert !Double.isNaN(cost);
                         setObjectiveCoefficient(cost);
                     }
@@ -1102,6 +1124,7 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                         }
                         assert !attributeTypesToOwners.isEmpty();
                         cost /= attributeTypesToOwners.size();
+                        cost *= skew(graphMgr, attributeTypesToOwners.keySet(), EDGE_HAS_IN);
                         assert !Double.isNaN(cost);
                         setObjectiveCoefficient(cost);
                     }
@@ -1145,7 +1168,13 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                         double cost = 0.0;
                         if (!to.props().types().isEmpty() && !from.props().types().isEmpty()) {
                             double div = graphMgr.data().stats().thingVertexSum(from.props().types());
-                            if (div > 0) cost = graphMgr.data().stats().thingVertexSum(to.props().types()) / div;
+                            if (div > 0) {
+                                Set<TypeVertex> playerTypes = types(graphMgr, from.props().types());
+                                double playing = graphMgr.data().stats().playingEdgeSum(playerTypes, types(graphMgr, to.props().types()));
+                                // the roles of data counted before the roles of each player type were counted
+                                if (playing == 0) playing = graphMgr.data().stats().thingVertexSum(to.props().types());
+                                cost = playing / div * skew(graphMgr, playerTypes, EDGE_PLAYING_OUT);
+                            }
                         } else {
                             // TODO: We can refine this by not strictly considering entities being the only divisor
                             double div = graphMgr.data().stats().thingVertexTransitiveCount(graphMgr.schema().rootEntityType());
@@ -1206,7 +1235,16 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                     void updateObjective(GraphManager graphMgr) {
                         assert !to.props().hasIID();
                         double cost = 0;
-                        if (!to.props().types().isEmpty()) {
+                        double relating = 0;
+                        double relations = 0;
+                        Set<TypeVertex> relationTypes = types(graphMgr, from.props().types());
+                        if (!to.props().types().isEmpty() && !relationTypes.isEmpty()) {
+                            relating = graphMgr.data().stats().relatingEdgeSum(relationTypes, types(graphMgr, to.props().types()));
+                            relations = graphMgr.data().stats().thingVertexSum(from.props().types());
+                        }
+                        if (relating > 0 && relations > 0) {
+                            cost = relating / relations * skew(graphMgr, relationTypes, EDGE_RELATING_OUT);
+                        } else if (!to.props().types().isEmpty()) {
                             cost = 0;
                             for (final Label roleType : to.props().types()) {
                                 assert roleType.scope().isPresent();
@@ -1289,8 +1327,17 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                     @Override
                     void updateObjective(GraphManager graphMgr) {
                         double cost = 0;
+                        double relating = 0;
+                        double relations = 0;
+                        Set<TypeVertex> relationTypes = types(graphMgr, from.props().types());
+                        if (!roleTypes.isEmpty() && !relationTypes.isEmpty()) {
+                            relating = graphMgr.data().stats().relatingEdgeSum(relationTypes, resolvedRoleTypes(graphMgr.schema()));
+                            relations = graphMgr.data().stats().thingVertexSum(from.props().types());
+                        }
                         if (isSelfClosure() || to.props().hasIID()) {
                             cost = 1;
+                        } else if (relating > 0 && relations > 0) {
+                            cost = relating / relations * skew(graphMgr, relationTypes, EDGE_RELATING_OUT);
                         } else if (!roleTypes.isEmpty()) {
                             cost = 0;
                             for (TypeVertex roleType : resolvedRoleTypes(graphMgr.schema())) {
@@ -1325,7 +1372,13 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                             cost = 1;
                         } else if (!roleTypes.isEmpty() && !from.props().types().isEmpty()) {
                             double div = graphMgr.data().stats().thingVertexSum(from.props().types());
-                            if (div > 0) cost = graphMgr.data().stats().thingVertexSum(roleTypes) / div;
+                            if (div > 0) {
+                                Set<TypeVertex> playerTypes = types(graphMgr, from.props().types());
+                                double playing = graphMgr.data().stats().playingEdgeSum(playerTypes, resolvedRoleTypes(graphMgr.schema()));
+                                // the roles of data counted before the roles of each player type were counted
+                                if (playing == 0) playing = graphMgr.data().stats().thingVertexSum(roleTypes);
+                                cost = playing / div * skew(graphMgr, playerTypes, EDGE_PLAYING_OUT);
+                            }
                         } else {
                             // TODO: We can refine this by not strictly considering entities being the only divisor
                             double div = graphMgr.data().stats().thingVertexTransitiveCount(graphMgr.schema().rootEntityType());
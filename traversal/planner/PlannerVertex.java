@@ -201,12 +201,24 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
 
     public static class Thing extends PlannerVertex<Properties.Thing> {
 
+        private double selectivity;
+
         Thing(Identifier id) {
             this(id, null);
         }
 
         Thing(Identifier identifier, @Nullable GraphPlanner planner) {
             super(identifier, planner);
+            selectivity = 1;
+        }
+
+        /**
+         * Sets the estimated fraction of the instances of this vertex that satisfy its predicates,
+         * which are not equality predicates, and are therefore costed by the instances they scan.
+         */
+        void selectivity(double selectivity) {
+            assert selectivity > 0 && selectivity <= 1;
+            this.selectivity = selectivity;
         }
 
         @Override
@@ -222,7 +234,7 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
                 if (iterate(props().predicates()).anyMatch(p -> p.operator().equals(EQ))) {
                     setObjectiveCoefficient(props().types().size());
                 } else {
-                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(props().types()));
+                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(props().types()) * selectivity);
                 }
             } else if (!props().predicates().isEmpty()) {
                 ResourceIterator<TypeVertex> attTypes = iterate(props().predicates())
@@ -231,7 +243,7 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
                 if (iterate(props().predicates()).anyMatch(p -> p.operator().equals(EQ))) {
                     setObjectiveCoefficient(attTypes.count());
                 } else {
-                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(attTypes.stream()));
+                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(attTypes.stream()) * selectivity);
                 }
             } else {
                 setObjectiveCoefficient(graph.data().stats().thingVertexTransitiveCount(graph.schema().rootThingType()));
@@ -18,24 +18,30 @@
 
 package grakn.core.traversal.planner;
 
+import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.procedure.VertexProcedure;
 import grakn.core.traversal.structure.Structure;
 import grakn.core.traversal.structure.StructureEdge;
 import grakn.core.traversal.structure.StructureVertex;
 
+import javax.annotation.Nullable;
+
 public class VertexPlanner implements Planner {
 
     private final VertexProcedure procedure;
+    private final boolean isSorted;
 
-    private VertexPlanner(VertexProcedure procedure) {
+    private VertexPlanner(VertexProcedure procedure, boolean isSorted) {
         this.procedure = procedure;
+        this.isSorted = isSorted;
     }
 
-    static VertexPlanner create(Structure structure) {
+    static VertexPlanner create(Structure structure, @Nullable Identifier.Variable sortedStart) {
         assert structure.vertices().size() == 1;
         PlannerVertex<?> plannerVertex = toPlanner(structure.vertices().iterator().next());
-        VertexProcedure proc = VertexProcedure.create(plannerVertex);
-        return new VertexPlanner(proc);
+        assert sortedStart == null || sortedStart.equals(plannerVertex.id());
+        VertexProcedure proc = VertexProcedure.create(plannerVertex, sortedStart != null);
+        return new VertexPlanner(proc, sortedStart != null);
     }
 
     private static PlannerVertex<?> toPlanner(StructureVertex<?> structureVertex) {
@@ -68,6 +74,11 @@ public class VertexPlanner implements Planner {
         return procedure;
     }
 
+    @Override
+    public boolean isSorted() {
+        return isSorted;
+    }
+
     @Override
     public boolean isVertex() { return true; }
 
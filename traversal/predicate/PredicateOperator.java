@@ -191,7 +191,7 @@ public abstract class PredicateOperator {
             }
         };
 
-        private static final SubString LIKE = new SubString(GraqlToken.Predicate.SubString.LIKE) {
+        public static final SubString LIKE = new SubString(GraqlToken.Predicate.SubString.LIKE) {
             @Override
             boolean apply(String vertexValue, Traversal.Parameters.Value predicateValue) {
                 assert predicateValue.isRegex();
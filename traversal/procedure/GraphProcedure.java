@@ -23,6 +23,7 @@ import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
 import grakn.core.common.producer.Producer;
 import grakn.core.graph.GraphManager;
+import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.Traversal;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
@@ -54,15 +55,17 @@ public class GraphProcedure implements Procedure {
 
     private final Map<Identifier, ProcedureVertex<?, ?>> vertices;
     private final ProcedureEdge<?, ?>[] edges;
+    private final boolean isSorted;
     private ProcedureVertex<?, ?> startVertex;
 
-    private GraphProcedure(int edgeSize) {
+    private GraphProcedure(int edgeSize, boolean isSorted) {
         vertices = new HashMap<>();
         edges = new ProcedureEdge<?, ?>[edgeSize];
+        this.isSorted = isSorted;
     }
 
     public static GraphProcedure create(GraphPlanner planner) {
-        GraphProcedure procedure = new GraphProcedure(planner.edges().size());
+        GraphProcedure procedure = new GraphProcedure(planner.edges().size(), planner.isSorted());
         Set<PlannerVertex<?>> registeredVertices = new HashSet<>();
         Set<PlannerEdge.Directional<?, ?>> registeredEdges = new HashSet<>();
         planner.vertices().forEach(vertex -> procedure.registerVertex(vertex, registeredVertices, registeredEdges));
@@ -70,7 +73,7 @@ public class GraphProcedure implements Procedure {
     }
 
     public static GraphProcedure.Builder builder(int size) {
-        GraphProcedure procedure = new GraphProcedure(size);
+        GraphProcedure procedure = new GraphProcedure(size, false);
         return procedure.new Builder();
     }
 
@@ -172,11 +175,16 @@ public class GraphProcedure implements Procedure {
     public ResourceIterator<VertexMap> iterator(GraphManager graphMgr, Traversal.Parameters params) {
         LOG.debug(params.toString());
         LOG.debug(this.toString());
-        return startVertex().iterator(graphMgr, params).flatMap(
+        return startIterator(graphMgr, params).flatMap(
                 sv -> new GraphIterator(graphMgr, sv, this, params)
         ).distinct();
     }
 
+    private ResourceIterator<? extends Vertex<?, ?>> startIterator(GraphManager graphMgr, Traversal.Parameters params) {
+        if (isSorted) return startVertex().asThing().sortedIterator(graphMgr, params);
+        else return startVertex().iterator(graphMgr, params);
+    }
+
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();
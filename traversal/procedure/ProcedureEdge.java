@@ -18,6 +18,7 @@
 
 package grakn.core.traversal.procedure;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.BaseIterator;
 import grakn.core.common.iterator.ResourceIterator;
@@ -757,7 +758,7 @@ public abstract class ProcedureEdge<
                                         .filter(a -> owner.outs().edge(HAS, a) != null);
                             } else {
                                 iter = iterate(to.props().types()).map(l -> graphMgr.schema().getType(l)).noNulls()
-                                        .flatMap(t -> owner.outs().edge(HAS, PrefixIID.of(VERTEX_ATTRIBUTE), t.iid()).to())
+                                        .flatMap(t -> attributesOfType(graphMgr, owner, t, params))
                                         .map(ThingVertex::asAttribute);
                             }
                         } else {
@@ -768,6 +769,24 @@ public abstract class ProcedureEdge<
                         else return to.filterPredicates(iter, params, eq);
                     }
 
+                    /**
+                     * Returns the attributes of a given type that the owner has. If the attribute type is stored
+                     * in the order of its values, and the predicates of the attribute bound its values, then only
+                     * the edges to the attributes within the bounds are scanned, rather than every edge to the
+                     * attributes of the type. The predicates still need to be applied to the result.
+                     */
+                    private ResourceIterator<ThingVertex> attributesOfType(
+                            GraphManager graphMgr, ThingVertex owner, TypeVertex type, Traversal.Parameters params) {
+                        if (!to.props().predicates().isEmpty() && type.isAttributeType() &&
+                                graphMgr.data().isSorted(type.valueType())) {
+                            Pair<VertexIID.Attribute<?>, VertexIID.Attribute<?>> bounds = to.valueBounds(type, params);
+                            if (bounds.first() != null || bounds.second() != null) {
+                                return owner.outs().edge(HAS, type, bounds.first(), bounds.second()).to();
+                            }
+                        }
+                        return owner.outs().edge(HAS, PrefixIID.of(VERTEX_ATTRIBUTE), type.iid()).to();
+                    }
+
                     @Override
                     public boolean isClosure(GraphManager graphMgr, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex,
                                              Traversal.Parameters params) {
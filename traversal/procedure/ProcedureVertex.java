@@ -18,11 +18,13 @@
 
 package grakn.core.traversal.procedure;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.edge.ThingEdge;
+import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.util.Encoding;
 import grakn.core.graph.vertex.AttributeVertex;
 import grakn.core.graph.vertex.ThingVertex;
@@ -41,21 +43,32 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
+import static grakn.common.collection.Collections.list;
+import static grakn.common.collection.Collections.pair;
 import static grakn.common.collection.Collections.set;
 import static grakn.common.util.Objects.className;
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.TypeRead.TYPE_NOT_ATTRIBUTE_TYPE;
 import static grakn.core.common.exception.ErrorMessage.TypeRead.TYPE_NOT_FOUND;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
+import static grakn.core.common.iterator.Iterators.merge;
 import static grakn.core.common.iterator.Iterators.single;
 import static grakn.core.common.iterator.Iterators.tree;
 import static grakn.core.graph.util.Encoding.Edge.Type.SUB;
+import static grakn.core.graph.util.Encoding.ValueType.DOUBLE_PRECISION;
 import static grakn.core.graph.util.Encoding.ValueType.STRING;
 import static grakn.core.graph.util.Encoding.Vertex.Thing.ROLE;
 import static grakn.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LTE;
+import static grakn.core.traversal.predicate.PredicateOperator.SubString.LIKE;
 
 public abstract class ProcedureVertex<
         VERTEX extends Vertex<?, ?>,
@@ -74,6 +87,16 @@ public abstract class ProcedureVertex<
 
     public abstract ResourceIterator<? extends VERTEX> iterator(GraphManager graphMgr, Traversal.Parameters parameters);
 
+    /**
+     * Splits the iteration of this starting vertex into (at most) the given number of iterators,
+     * which together return the same vertices as {@link #iterator(GraphManager, Traversal.Parameters)},
+     * and which can be consumed in parallel. By default, the iteration is not split.
+     */
+    public List<ResourceIterator<? extends VERTEX>> iterators(GraphManager graphMgr, Traversal.Parameters parameters,
+                                                               int partitions) {
+        return list(iterator(graphMgr, parameters));
+    }
+
     @Override
     public void in(ProcedureEdge<?, ?> edge) {
         super.in(edge);
@@ -194,7 +217,7 @@ public abstract class ProcedureVertex<
                 } else {
                     attTypes = tree(graph.schema().rootAttributeType(), a -> a.ins().edge(SUB).from());
                 }
-                iter = attTypes.flatMap(t -> graph.data().get(t)).map(ThingVertex::asAttribute);
+                iter = attTypes.flatMap(t -> iterateOfType(graph, t, parameters, false)).map(ThingVertex::asAttribute);
             }
 
             if (props().predicates().isEmpty()) return iter;
@@ -222,11 +245,173 @@ public abstract class ProcedureVertex<
             if (eq.isPresent()) iter = iteratorOfAttributesWithTypes(graphMgr, parameters, eq.get());
             else iter = iterate(props().types().iterator())
                     .map(l -> assertTypeNotNull(graphMgr.schema().getType(l), l))
-                    .flatMap(t -> graphMgr.data().get(t));
+                    .flatMap(t -> iterateOfType(graphMgr, t, parameters, false));
+
+            return filterFromTypes(iter, parameters, eq.orElse(null));
+        }
 
+        private ResourceIterator<? extends ThingVertex> filterFromTypes(ResourceIterator<? extends ThingVertex> iter,
+                                                                        Traversal.Parameters parameters,
+                                                                        @Nullable Predicate.Value<?> eq) {
             if (id().isVariable()) iter = filterReferableThings(iter);
             if (props().predicates().isEmpty()) return iter;
-            else return filterPredicates(filterAttributes(iter), parameters, eq.orElse(null));
+            else return filterPredicates(filterAttributes(iter), parameters, eq);
+        }
+
+        /**
+         * Splits the instances of every type of this vertex into ranges of storage that are scanned
+         * by separate iterators. The types are only split when their instances would otherwise be
+         * scanned in full, i.e. when this vertex has no IID, nor any predicates that narrow down the
+         * scan (which is then not worth splitting).
+         */
+        @Override
+        public List<ResourceIterator<? extends ThingVertex>> iterators(GraphManager graphMgr,
+                                                                       Traversal.Parameters parameters,
+                                                                       int partitions) {
+            assert isStartingVertex();
+            if (partitions <= 1 || props().hasIID() || props().types().isEmpty() || !props().predicates().isEmpty()) {
+                return super.iterators(graphMgr, parameters, partitions);
+            }
+            final List<ResourceIterator<? extends ThingVertex>> iterators = new ArrayList<>();
+            for (Label label : props().types()) {
+                final TypeVertex type = assertTypeNotNull(graphMgr.schema().getType(label), label);
+                for (ResourceIterator<ThingVertex> iter : graphMgr.data().get(type, partitions)) {
+                    iterators.add(filterFromTypes(iter, parameters, null));
+                }
+            }
+            return iterators;
+        }
+
+        /**
+         * Iterates the instances of this vertex in the order of their values, for a traversal
+         * that is sorted by this vertex. The types of this vertex must all be attribute types
+         * of a single value type that is stored in the order of its values, so that the
+         * instances of each type can be scanned in order and merged by their values.
+         */
+        public ResourceIterator<? extends ThingVertex> sortedIterator(GraphManager graphMgr,
+                                                                      Traversal.Parameters parameters) {
+            assert isStartingVertex() && !props().hasIID() && !props().types().isEmpty();
+            final List<ResourceIterator<AttributeVertex<?>>> iterators = iterate(props().types().iterator())
+                    .map(l -> assertTypeNotNull(graphMgr.schema().getType(l), l))
+                    .map(t -> iterateOfType(graphMgr, t, parameters, true).map(ThingVertex::asAttribute))
+                    .toList();
+            final ResourceIterator<AttributeVertex<?>> iter = merge(
+                    iterators, (a1, a2) -> VertexIID.Attribute.compareValues(a1.iid(), a2.iid())
+            );
+            if (props().predicates().isEmpty()) return iter;
+            else return filterPredicates(iter, parameters);
+        }
+
+        /**
+         * Iterates the instances of a given type. If the type is an attribute type whose
+         * instances are stored in the order of their values, and this vertex has range
+         * predicates, or 'like' predicates with a literal prefix, then only the range of
+         * values that may satisfy the predicates is scanned from storage. The predicates
+         * still need to be applied to the result. If sorted, the instances are returned
+         * in the order of their values, including those buffered in the transaction.
+         */
+        private ResourceIterator<ThingVertex> iterateOfType(GraphManager graphMgr, TypeVertex type,
+                                                            Traversal.Parameters parameters, boolean isSorted) {
+            assert !isSorted || (type.isAttributeType() && graphMgr.data().isSorted(type.valueType()));
+            if (!isSorted && (props().predicates().isEmpty() || !type.isAttributeType() ||
+                    !graphMgr.data().isSorted(type.valueType()))) {
+                return graphMgr.data().get(type);
+            }
+
+            final Pair<VertexIID.Attribute<?>, VertexIID.Attribute<?>> bounds = valueBounds(type, parameters);
+            final VertexIID.Attribute<?> lowerBound = bounds.first(), upperBound = bounds.second();
+            if (isSorted) return graphMgr.data().getSorted(type, lowerBound, upperBound).map(a -> a);
+            else if (lowerBound == null && upperBound == null) return graphMgr.data().get(type);
+            else return graphMgr.data().get(type, lowerBound, upperBound).map(a -> a);
+        }
+
+        /**
+         * Returns the IIDs that bound (inclusively) all the attributes of the given type whose values may satisfy
+         * the range predicates, or 'like' predicates with a literal prefix, of this vertex. Either bound is null
+         * if no predicate bounds the values from that side. The given attribute type must be stored in the order
+         * of its values, and the predicates still need to be applied to the attributes within the bounds.
+         *
+         * @param type       the attribute type of the attributes to be bounded
+         * @param parameters the parameters of the traversal, holding the values of the predicates
+         * @return the inclusive lower bound and the inclusive upper bound of the IIDs of the attributes
+         */
+        Pair<VertexIID.Attribute<?>, VertexIID.Attribute<?>> valueBounds(TypeVertex type,
+                                                                         Traversal.Parameters parameters) {
+            VertexIID.Attribute<?> lowerBound = null, upperBound = null;
+            for (Predicate.Value<?> predicate : props().predicates()) {
+                final boolean isLike = predicate.operator().equals(LIKE);
+                final boolean isLower = isLike || predicate.operator().equals(GT) || predicate.operator().equals(GTE);
+                final boolean isUpper = isLike || predicate.operator().equals(LT) || predicate.operator().equals(LTE);
+                if ((!isLower && !isUpper) || !predicate.valueType().comparableTo(type.valueType())) continue;
+                for (Traversal.Parameters.Value value : parameters.getValues(id().asVariable(), predicate)) {
+                    final VertexIID.Attribute<?> bound = isLike ? likeBoundIID(type, value) : boundIID(type, value, isLower);
+                    if (bound == null) continue;
+                    if (isLower && (lowerBound == null || compareBytes(bound.bytes(), lowerBound.bytes()) > 0)) {
+                        lowerBound = bound;
+                    }
+                    if (isUpper && (upperBound == null || compareBytes(bound.bytes(), upperBound.bytes()) < 0)) {
+                        upperBound = bound;
+                    }
+                }
+            }
+            return pair(lowerBound, upperBound);
+        }
+
+        /**
+         * Returns the IID of an attribute that bounds (inclusively) all the attributes of the given type
+         * that may satisfy a range predicate against the given value, or null if no such bound can be used.
+         */
+        @Nullable
+        private static VertexIID.Attribute<?> boundIID(TypeVertex type, Traversal.Parameters.Value value,
+                                                       boolean isLower) {
+            switch (type.valueType()) {
+                case LONG:
+                    if (value.isLong()) return new VertexIID.Attribute.Long(type.iid(), value.getLong());
+                    else if (Double.isNaN(value.getDouble())) return null;
+                    final double rounded = isLower ? Math.floor(value.getDouble()) : Math.ceil(value.getDouble());
+                    return new VertexIID.Attribute.Long(type.iid(), (long) rounded);
+                case DOUBLE:
+                    // -0.0 is encoded before every negative value, so we never seek past it from below
+                    if (isLower && value.getDouble() <= DOUBLE_PRECISION) return null;
+                    final double widened = isLower ? value.getDouble() - DOUBLE_PRECISION : value.getDouble() + DOUBLE_PRECISION;
+                    return new VertexIID.Attribute.Double(type.iid(), widened);
+                case DATETIME:
+                    return new VertexIID.Attribute.DateTime(type.iid(), value.getDateTime());
+                case STRING:
+                    return VertexIID.Attribute.String.sortedBound(type.iid(), value.getString());
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Returns the IID prefix of the attributes of the given string type whose values start with the literal
+         * prefix of a regular expression, or null if the regular expression has no such prefix.
+         */
+        @Nullable
+        private static VertexIID.Attribute<?> likeBoundIID(TypeVertex type, Traversal.Parameters.Value value) {
+            if (type.valueType() != STRING || !value.isRegex()) return null;
+            final String prefix = likePrefix(value.getRegex());
+            if (prefix == null) return null;
+            else return VertexIID.Attribute.String.sortedBound(type.iid(), prefix);
+        }
+
+        /**
+         * Returns the literal prefix of every string that fully matches the given regular expression,
+         * as far as it can be told simply: the leading letters, digits and spaces of an expression
+         * with no flags or alternations, but for the last of them if it is quantified.
+         */
+        @Nullable
+        private static String likePrefix(Pattern regex) {
+            final String pattern = regex.pattern();
+            if (regex.flags() != 0 || pattern.indexOf('|') >= 0) return null;
+            int end = 0;
+            while (end < pattern.length() &&
+                    (Character.isLetterOrDigit(pattern.charAt(end)) || pattern.charAt(end) == ' ')) {
+                end++;
+            }
+            if (end < pattern.length() && "?*+{".indexOf(pattern.charAt(end)) >= 0) end--;
+            return end > 0 ? pattern.substring(0, end) : null;
         }
 
         ResourceIterator<? extends ThingVertex> filterReferableThings(ResourceIterator<? extends ThingVertex> iterator) {
@@ -41,14 +41,16 @@ public class VertexProcedure implements Procedure {
 
     private static final Logger LOG = LoggerFactory.getLogger(VertexProcedure.class);
     private final ProcedureVertex<?, ?> vertex;
+    private final boolean isSorted;
 
-    private VertexProcedure(ProcedureVertex<?, ?> vertex) {
+    private VertexProcedure(ProcedureVertex<?, ?> vertex, boolean isSorted) {
         this.vertex = vertex;
+        this.isSorted = isSorted;
     }
 
-    public static VertexProcedure create(PlannerVertex<?> plannerVertex) {
+    public static VertexProcedure create(PlannerVertex<?> plannerVertex, boolean isSorted) {
         assert plannerVertex.id().isNamedReference();
-        return new VertexProcedure(toProcedure(plannerVertex));
+        return new VertexProcedure(toProcedure(plannerVertex), isSorted);
     }
 
     private static ProcedureVertex<?, ?> toProcedure(PlannerVertex<?> plannerVertex) {
@@ -99,7 +101,9 @@ public class VertexProcedure implements Procedure {
         LOG.debug(params.toString());
         LOG.debug(this.toString());
         Reference ref = vertex.id().asVariable().reference();
-        ResourceIterator<? extends Vertex<?, ?>> iterator = vertex.iterator(graphMgr, params);
+        ResourceIterator<? extends Vertex<?, ?>> iterator = isSorted
+                ? vertex.asThing().sortedIterator(graphMgr, params)
+                : vertex.iterator(graphMgr, params);
         for (ProcedureEdge<?, ?> e : vertex.outs()) {
             iterator = iterator.filter(v -> e.isClosure(graphMgr, v, v, params));
         }
@@ -27,12 +27,14 @@ import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.procedure.GraphProcedure;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static grakn.core.common.concurrent.ExecutorService.forkJoinPool;
+import static grakn.core.common.iterator.Iterators.iterate;
 import static java.util.concurrent.CompletableFuture.runAsync;
 
 public class GraphProducer implements Producer<VertexMap> {
@@ -41,7 +43,8 @@ public class GraphProducer implements Producer<VertexMap> {
     private final GraphManager graphMgr;
     private final GraphProcedure procedure;
     private final Traversal.Parameters params;
-    private final ResourceIterator<? extends Vertex<?, ?>> start;
+    private final List<? extends ResourceIterator<? extends Vertex<?, ?>>> starts;
+    private final ResourceIterator<ResourceIterator<VertexMap>> sources;
     private final ConcurrentHashMap.KeySetView<VertexMap, Boolean> produced;
     private final AtomicBoolean isDone;
     private final Map<ResourceIterator<VertexMap>, CompletableFuture<Void>> iteratorJobs;
@@ -55,7 +58,16 @@ public class GraphProducer implements Producer<VertexMap> {
         this.parallelisation = parallelisation;
         this.isDone = new AtomicBoolean(false);
         this.produced = ConcurrentHashMap.newKeySet();
-        this.start = procedure.startVertex().iterator(graphMgr, params);
+        this.starts = procedure.startVertex().iterators(graphMgr, params, parallelisation);
+        if (starts.size() == 1) {
+            // Every start vertex is traversed by its own iterator, which can be consumed in parallel
+            this.sources = starts.get(0).map(v -> new GraphIterator(graphMgr, v, procedure, params));
+        } else {
+            // Every range of start vertices is scanned and traversed by its own iterator, in parallel
+            this.sources = iterate(starts).map(start -> start.flatMap(
+                    v -> new GraphIterator(graphMgr, v, procedure, params)
+            ));
+        }
         this.iteratorJobs = new HashMap<>();
         this.iteratorRequested = new HashMap<>();
     }
@@ -63,9 +75,8 @@ public class GraphProducer implements Producer<VertexMap> {
     @Override
     public synchronized void produce(Queue<VertexMap> queue, int count) {
         if (iteratorRequested.size() < parallelisation) {
-            for (int i = iteratorRequested.size(); i < parallelisation && start.hasNext(); i++) {
-                ResourceIterator<VertexMap> iterator =
-                        new GraphIterator(graphMgr, start.next(), procedure, params).distinct(produced);
+            for (int i = iteratorRequested.size(); i < parallelisation && sources.hasNext(); i++) {
+                ResourceIterator<VertexMap> iterator = sources.next().distinct(produced);
                 iteratorRequested.put(iterator, 0);
             }
         }
@@ -126,7 +137,7 @@ public class GraphProducer implements Producer<VertexMap> {
 
     @Override
     public synchronized void recycle() {
-        start.recycle();
+        starts.forEach(ResourceIterator::recycle);
         iteratorJobs.keySet().forEach(ResourceIterator::recycle);
     }
 }
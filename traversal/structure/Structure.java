@@ -26,6 +26,7 @@ import grakn.core.traversal.predicate.Predicate;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -111,6 +112,36 @@ public class Structure {
         to.in(edge);
     }
 
+    /**
+     * Returns true if traversing this structure may depend on the definitions of the given types: if any
+     * of its vertices, or the role types of any of its role player edges, refer to them, or, when the schema
+     * has changed at all, if any of them is not restricted to labelled types, as it may then range over
+     * any type, including those that inherit the changes.
+     *
+     * @param modifiedTypes   the labels of the types that have been created, modified or deleted,
+     *                        along with their subtypes and supertypes
+     * @param hasCreatedTypes true if any type has been created
+     * @return true if anything derived from this structure is invalidated by the given schema changes
+     */
+    public boolean dependsOn(Set<Label> modifiedTypes, boolean hasCreatedTypes) {
+        for (StructureVertex<?> vertex : vertices.values()) {
+            final Set<Label> labels = vertex.isThing() ? vertex.asThing().props().types() : vertex.asType().props().labels();
+            if (dependsOn(labels, modifiedTypes, hasCreatedTypes)) return true;
+        }
+        for (StructureEdge<?, ?> edge : edges) {
+            if (edge.isNative() && edge.asNative().isRolePlayer() &&
+                    dependsOn(edge.asNative().asRolePlayer().types(), modifiedTypes, hasCreatedTypes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean dependsOn(Set<Label> labels, Set<Label> modifiedTypes, boolean hasCreatedTypes) {
+        if (labels.isEmpty()) return hasCreatedTypes || !modifiedTypes.isEmpty();
+        else return !Collections.disjoint(labels, modifiedTypes);
+    }
+
     public List<Structure> asGraphs() {
         if (structures == null) {
             structures = new ArrayList<>();